@@ -1,8 +1,19 @@
 package com.aplicacion;
 
+import com.persistencia.auditoria.RegistroCambios;
+import com.persistencia.cifrado.CifradoHojasVida;
+import com.persistencia.migraciones.MigradorEsquema;
+import com.persistencia.sedes.ConexionesPorSede;
+import com.persistencia.sedes.ResolutorSede;
+import com.persistencia.sedes.Sedes;
+
 import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.Persistence;
 
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
 public class JPAUtil {
     public JPAUtil(){
     }
@@ -10,16 +21,59 @@ public class JPAUtil {
     private static final String UNIDAD_DE_PERSISTENCIA = "GestionAcademica";
     private static EntityManagerFactory factory;
 
-    public static EntityManagerFactory getEntityManagerFactory(){
+    /**
+     * Sincronizado: los cargadores de fondo lo llaman al arrancar junto con la
+     * interfaz, y solo uno debe crear la fábrica, migrar y cifrar
+     */
+    public static synchronized EntityManagerFactory getEntityManagerFactory(){
         if (factory == null){
-            factory = Persistence.createEntityManagerFactory(UNIDAD_DE_PERSISTENCIA);
+            EntityManagerFactory nueva = Persistence.createEntityManagerFactory(UNIDAD_DE_PERSISTENCIA, propiedades());
+            // El esquema lo mantienen los scripts de db/migraciones (hbm2ddl.auto = none);
+            // cada sede tiene su propio esquema o base y se migra por separado.
+            // Luego se cifran las hojas de vida que V7 dejó en claro
+            try {
+                Sedes.paraCada(sede -> {
+                    MigradorEsquema.migrar(nueva);
+                    CifradoHojasVida.cifrarPendientes(nueva);
+                });
+            } catch (RuntimeException e) {
+                nueva.close();
+                throw e;
+            }
+            factory = nueva;
         }
         return factory;
     }
 
+    /**
+     * Propiedades que reemplazan las de Persistence.xml: la conexión
+     * (gestionacademica.bd.url, .usuario y .clave) y, si hay varias sedes,
+     * el enrutamiento de conexiones por sede
+     */
+    private static Map<String, Object> propiedades() {
+        Map<String, Object> propiedades = new HashMap<>();
+        reemplazar(propiedades, "jakarta.persistence.jdbc.url", "gestionacademica.bd.url");
+        reemplazar(propiedades, "jakarta.persistence.jdbc.user", "gestionacademica.bd.usuario");
+        reemplazar(propiedades, "jakarta.persistence.jdbc.password", "gestionacademica.bd.clave");
+        if (Sedes.esMultiSede()) {
+            propiedades.put("hibernate.multi_tenant_connection_provider", ConexionesPorSede.class.getName());
+            propiedades.put("hibernate.tenant_identifier_resolver", ResolutorSede.class.getName());
+        }
+        return propiedades;
+    }
+
+    private static void reemplazar(Map<String, Object> propiedades, String clave, String propiedadSistema) {
+        String valor = System.getProperty(propiedadSistema);
+        if (valor != null && !valor.isBlank()) {
+            propiedades.put(clave, valor);
+        }
+    }
+
     // Con esto cerramos la conexión y reestablecemos el Singleton
-    public static void shutdown(){
+    public static synchronized void shutdown(){
         if(factory != null){
+            // Escribir los eventos del registro de cambios que sigan en cola
+            RegistroCambios.getInstancia().vaciar(Duration.ofSeconds(5));
             factory.close();
             factory = null;
         }
@@ -1,13 +1,24 @@
 package com.aplicacion;
 
 import jakarta.persistence.EntityManager;
+import com.aplicacion.trazas.ExportadorOtlp;
+import com.persistencia.metricas.MetricasPersistencia;
+import com.persistencia.sedes.Sedes;
 import com.presentacion.LoginFrame;
+import com.servicios.ActivacionAcudientesService;
+import com.servicios.AprobacionPreinscripcionService;
 import com.servicios.AutenticacionService;
+import com.servicios.CargaProfesorService;
+import com.servicios.ResumenLogrosService;
+import com.servicios.busqueda.IndiceLogros;
+import com.servicios.busqueda.IndicePersonas;
 import com.persistencia.repositorios.TokenUsuarioRepositorio;
 import com.persistencia.repositorios.UsuarioRepositorio;
 
 import javax.swing.SwingUtilities;
 import javax.swing.UIManager;
+
+import java.time.Duration;
 public class Main {
     public static void main(String[] args) {
         // Configurar Look and Feel
@@ -28,6 +39,32 @@ public class Main {
             loginFrame.setVisible(true);
         });
 
+        // Métricas de persistencia: JMX y reporte periódico en consola
+        MetricasPersistencia.getInstancia().registrarJmx();
+        MetricasPersistencia.getInstancia().programarReporte(Duration.ofMinutes(15));
+
+        // Exportación de trazas a un colector OTLP local, si está configurado
+        String colectorTrazas = System.getProperty("gestionacademica.trazas.otlp");
+        if (colectorTrazas != null && !colectorTrazas.isBlank()) {
+            ExportadorOtlp.programar(colectorTrazas, Duration.ofSeconds(10));
+        }
+
+        // Reconstrucción periódica del resumen de logros y de la carga de profesores
+        // (corrige desviaciones)
+        ResumenLogrosService.programarReconstruccion(Duration.ofHours(6));
+        CargaProfesorService.programarReconstruccion(Duration.ofHours(6));
+
+        // Activación de cuentas de acudientes: al aprobar preinscripciones y al
+        // iniciar, para completar lo que haya quedado pendiente
+        AprobacionPreinscripcionService.agregarOyente(ActivacionAcudientesService.oyenteAprobacion());
+        Sedes.paraCada(sede -> ActivacionAcudientesService.activarEnSegundoPlano());
+
+        // Índices de búsqueda en memoria (logros, estudiantes y acudientes), uno por sede
+        Sedes.paraCada(sede -> {
+            IndiceLogros.getInstancia().cargarEnSegundoPlano();
+            IndicePersonas.getInstancia().cargarEnSegundoPlano();
+        });
+
         // Agregar shutdown hook para cerrar recursos
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
             JPAUtil.shutdown();
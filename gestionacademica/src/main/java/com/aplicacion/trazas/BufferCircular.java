@@ -0,0 +1,62 @@
+package com.aplicacion.trazas;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Buffer circular sin bloqueos para tramos terminados: cada escritor toma una
+ * secuencia con getAndIncrement y publica en su ranura; al llenarse, los
+ * registros más antiguos se sobrescriben. Las lecturas son instantáneas
+ * aproximadas (pueden omitir una escritura en curso).
+ */
+final class BufferCircular {
+
+    private final AtomicReferenceArray<RegistroTramo> ranuras;
+    private final AtomicLong siguiente = new AtomicLong();
+    private final int mascara;
+
+    /**
+     * @param capacidad se redondea a la siguiente potencia de dos
+     */
+    BufferCircular(int capacidad) {
+        int tamano = Integer.highestOneBit(Math.max(2, capacidad) - 1) << 1;
+        this.ranuras = new AtomicReferenceArray<>(tamano);
+        this.mascara = tamano - 1;
+    }
+
+    long siguienteSecuencia() {
+        return siguiente.getAndIncrement();
+    }
+
+    void publicar(RegistroTramo registro) {
+        ranuras.set((int) (registro.getSecuencia() & mascara), registro);
+    }
+
+    /**
+     * Registros con secuencia >= desde que aún están en el buffer, en orden
+     */
+    List<RegistroTramo> leerDesde(long desde) {
+        long fin = siguiente.get();
+        long inicio = Math.max(desde, fin - ranuras.length());
+        List<RegistroTramo> registros = new ArrayList<>((int) Math.max(0, fin - inicio));
+        for (long s = inicio; s < fin; s++) {
+            RegistroTramo registro = ranuras.get((int) (s & mascara));
+            if (registro != null && registro.getSecuencia() == s) {
+                registros.add(registro);
+            }
+        }
+        return registros;
+    }
+
+    List<RegistroTramo> leerTodo() {
+        return leerDesde(0);
+    }
+
+    void vaciar() {
+        for (int i = 0; i < ranuras.length(); i++) {
+            ranuras.set(i, null);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.aplicacion.trazas;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exporta tramos en el formato OTLP/JSON de OpenTelemetry, a un archivo o por
+ * HTTP a un colector local (p. ej. http://localhost:4318/v1/traces)
+ */
+public final class ExportadorOtlp {
+
+    private static final String NOMBRE_SERVICIO = "gestionacademica";
+
+    private final URI colector;
+    private final HttpClient cliente = HttpClient.newBuilder()
+        .connectTimeout(Duration.ofSeconds(5))
+        .build();
+    private long siguienteSecuencia;
+    private boolean colectorCaido;
+
+    private ExportadorOtlp(URI colector) {
+        this.colector = colector;
+    }
+
+    /**
+     * Envía al colector, cada intervalo y en un hilo daemon, los tramos nuevos
+     * desde el envío anterior. Si el colector no responde se reintenta en el
+     * siguiente ciclo; lo que el buffer circular haya sobrescrito se pierde.
+     */
+    public static void programar(String urlColector, Duration intervalo) {
+        ExportadorOtlp exportador = new ExportadorOtlp(URI.create(urlColector));
+        ScheduledExecutorService programador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread hilo = new Thread(r, "exportador-trazas");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        programador.scheduleWithFixedDelay(exportador::enviarPendientes,
+            intervalo.toMillis(), intervalo.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Escribe los tramos como un documento OTLP/JSON
+     */
+    public static void exportarArchivo(List<RegistroTramo> tramos, Path destino) throws IOException {
+        Files.writeString(destino, aJson(tramos), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Documento ExportTraceServiceRequest de OTLP en JSON
+     */
+    public static String aJson(List<RegistroTramo> tramos) {
+        StringBuilder json = new StringBuilder(256 + tramos.size() * 320);
+        json.append("{\"resourceSpans\":[{\"resource\":{\"attributes\":[")
+            .append("{\"key\":\"service.name\",\"value\":{\"stringValue\":\"").append(NOMBRE_SERVICIO).append("\"}}]},")
+            .append("\"scopeSpans\":[{\"scope\":{\"name\":\"com.aplicacion.trazas\"},\"spans\":[");
+        for (int i = 0; i < tramos.size(); i++) {
+            RegistroTramo t = tramos.get(i);
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"traceId\":\"").append(hex(0)).append(hex(t.getIdTraza()))
+                .append("\",\"spanId\":\"").append(hex(t.getIdTramo())).append('"');
+            if (t.getIdPadre() != 0) {
+                json.append(",\"parentSpanId\":\"").append(hex(t.getIdPadre())).append('"');
+            }
+            json.append(",\"name\":\"");
+            escapar(t.getNombre(), json);
+            json.append("\",\"kind\":").append(t.getTipo() == TipoTramo.CONSULTA ? 3 : 1)
+                .append(",\"startTimeUnixNano\":\"").append(t.getInicioEpocaNanos())
+                .append("\",\"endTimeUnixNano\":\"").append(t.getInicioEpocaNanos() + t.getDuracionNanos())
+                .append("\",\"attributes\":[")
+                .append("{\"key\":\"capa\",\"value\":{\"stringValue\":\"").append(t.getTipo().name()).append("\"}},")
+                .append("{\"key\":\"thread.name\",\"value\":{\"stringValue\":\"");
+            escapar(t.getHilo(), json);
+            json.append("\"}}]}");
+        }
+        json.append("]}]}]}");
+        return json.toString();
+    }
+
+    // ==================== MÉTODOS PRIVADOS ====================
+
+    private void enviarPendientes() {
+        List<RegistroTramo> tramos = Trazador.tramosDesde(siguienteSecuencia);
+        if (tramos.isEmpty()) {
+            return;
+        }
+        try {
+            HttpRequest solicitud = HttpRequest.newBuilder(colector)
+                .timeout(Duration.ofSeconds(10))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(aJson(tramos), StandardCharsets.UTF_8))
+                .build();
+            HttpResponse<Void> respuesta = cliente.send(solicitud, HttpResponse.BodyHandlers.discarding());
+            if (respuesta.statusCode() / 100 != 2) {
+                throw new IOException("El colector respondió " + respuesta.statusCode());
+            }
+            siguienteSecuencia = tramos.get(tramos.size() - 1).getSecuencia() + 1;
+            colectorCaido = false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            if (!colectorCaido) {
+                colectorCaido = true;
+                System.err.println("No se pudieron exportar trazas a " + colector + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private static String hex(long valor) {
+        String digitos = Long.toHexString(valor);
+        return "0000000000000000".substring(digitos.length()) + digitos;
+    }
+
+    private static void escapar(String texto, StringBuilder destino) {
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            switch (c) {
+                case '"': destino.append("\\\""); break;
+                case '\\': destino.append("\\\\"); break;
+                case '\n': destino.append("\\n"); break;
+                case '\r': destino.append("\\r"); break;
+                case '\t': destino.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        destino.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        destino.append(c);
+                    }
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.aplicacion.trazas;
+
+/**
+ * Tramo ya terminado, tal como queda en el buffer circular
+ */
+public final class RegistroTramo {
+
+    private final long secuencia;
+    private final long idTraza;
+    private final long idTramo;
+    private final long idPadre;
+    private final String nombre;
+    private final TipoTramo tipo;
+    private final String hilo;
+    private final long inicioEpocaNanos;
+    private final long duracionNanos;
+
+    RegistroTramo(long secuencia, long idTraza, long idTramo, long idPadre, String nombre, TipoTramo tipo,
+            String hilo, long inicioEpocaNanos, long duracionNanos) {
+        this.secuencia = secuencia;
+        this.idTraza = idTraza;
+        this.idTramo = idTramo;
+        this.idPadre = idPadre;
+        this.nombre = nombre;
+        this.tipo = tipo;
+        this.hilo = hilo;
+        this.inicioEpocaNanos = inicioEpocaNanos;
+        this.duracionNanos = duracionNanos;
+    }
+
+    /** Orden de llegada al buffer (creciente, sin huecos) */
+    public long getSecuencia() {
+        return secuencia;
+    }
+
+    public long getIdTraza() {
+        return idTraza;
+    }
+
+    public long getIdTramo() {
+        return idTramo;
+    }
+
+    /** 0 si es la raíz de la traza */
+    public long getIdPadre() {
+        return idPadre;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public TipoTramo getTipo() {
+        return tipo;
+    }
+
+    public String getHilo() {
+        return hilo;
+    }
+
+    public long getInicioEpocaNanos() {
+        return inicioEpocaNanos;
+    }
+
+    public long getDuracionNanos() {
+        return duracionNanos;
+    }
+
+    public double getDuracionMs() {
+        return duracionNanos / 1_000_000.0;
+    }
+
+    RegistroTramo conSecuencia(long nuevaSecuencia) {
+        return new RegistroTramo(nuevaSecuencia, idTraza, idTramo, idPadre, nombre, tipo, hilo,
+            inicioEpocaNanos, duracionNanos);
+    }
+}
@@ -0,0 +1,12 @@
+package com.aplicacion.trazas;
+
+/**
+ * Capa a la que pertenece un tramo de traza
+ */
+public enum TipoTramo {
+    SERVICIO,
+    REPOSITORIO,
+    CONSULTA,
+    MAPPER,
+    CORREO
+}
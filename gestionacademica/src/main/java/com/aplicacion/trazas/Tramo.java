@@ -0,0 +1,41 @@
+package com.aplicacion.trazas;
+
+/**
+ * Tramo de traza en curso. Se obtiene con Trazador.iniciar y se cierra con
+ * try-with-resources; mientras está abierto es el padre de los tramos que
+ * se inicien en el mismo hilo. El cuerpo del try no usa la variable, así que
+ * las clases que lo hacen llevan @SuppressWarnings("try"); para envolver un
+ * método completo está Trazador.medir.
+ */
+public final class Tramo implements AutoCloseable {
+
+    final String nombre;
+    final TipoTramo tipo;
+    final long idTraza;
+    final long idTramo;
+    final long idPadre;
+    final boolean muestreado;
+    final Tramo padre;
+    final long inicioNanos;
+    private boolean cerrado;
+
+    Tramo(String nombre, TipoTramo tipo, long idTraza, long idTramo, long idPadre, boolean muestreado,
+            Tramo padre, long inicioNanos) {
+        this.nombre = nombre;
+        this.tipo = tipo;
+        this.idTraza = idTraza;
+        this.idTramo = idTramo;
+        this.idPadre = idPadre;
+        this.muestreado = muestreado;
+        this.padre = padre;
+        this.inicioNanos = inicioNanos;
+    }
+
+    @Override
+    public void close() {
+        if (!cerrado) {
+            cerrado = true;
+            Trazador.finalizar(this, System.nanoTime());
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.aplicacion.trazas;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Trazas de latencia de bajo costo para servicios, repositorios, consultas,
+ * mapper y correo.
+ *
+ * Muestreo por traza: la raíz decide con la probabilidad configurada y sus
+ * hijos heredan la decisión. Los tramos que superan el umbral de lentitud se
+ * conservan siempre, estén o no muestreados. Configuración por propiedades
+ * del sistema:
+ * - gestionacademica.trazas.muestreo (0 a 1, por defecto 0.05)
+ * - gestionacademica.trazas.lenta_ms (por defecto 250)
+ */
+public final class Trazador {
+
+    private static final int CAPACIDAD_TRAMOS = 8192;
+    private static final int CAPACIDAD_LENTOS = 512;
+
+    private static final BufferCircular TRAMOS = new BufferCircular(CAPACIDAD_TRAMOS);
+    private static final BufferCircular LENTOS = new BufferCircular(CAPACIDAD_LENTOS);
+    private static final ThreadLocal<Tramo> ACTUAL = new ThreadLocal<>();
+
+    /** Referencia para convertir System.nanoTime a nanosegundos desde la época */
+    private static final long BASE_EPOCA_NANOS = System.currentTimeMillis() * 1_000_000L;
+    private static final long BASE_NANOS = System.nanoTime();
+
+    private static volatile double muestreo =
+        Double.parseDouble(System.getProperty("gestionacademica.trazas.muestreo", "0.05"));
+    private static volatile long umbralLentoNanos =
+        Long.parseLong(System.getProperty("gestionacademica.trazas.lenta_ms", "250")) * 1_000_000L;
+
+    private Trazador() {
+    }
+
+    /**
+     * Abre un tramo hijo del tramo actual del hilo (o raíz de una traza nueva)
+     */
+    public static Tramo iniciar(String nombre, TipoTramo tipo) {
+        Tramo padre = ACTUAL.get();
+        Tramo tramo;
+        if (padre == null) {
+            boolean muestreado = ThreadLocalRandom.current().nextDouble() < muestreo;
+            tramo = new Tramo(nombre, tipo, nuevoId(), nuevoId(), 0, muestreado, null, System.nanoTime());
+        } else {
+            tramo = new Tramo(nombre, tipo, padre.idTraza, nuevoId(), padre.idTramo, padre.muestreado,
+                padre, System.nanoTime());
+        }
+        ACTUAL.set(tramo);
+        return tramo;
+    }
+
+    /**
+     * Ejecuta la operación dentro de un tramo; para envolver un método
+     * completo sin reindentar su cuerpo ni declarar un recurso sin usar
+     */
+    public static <T, E extends Exception> T medir(String nombre, TipoTramo tipo, Operacion<T, E> operacion)
+            throws E {
+        Tramo tramo = iniciar(nombre, tipo);
+        try {
+            return operacion.ejecutar();
+        } finally {
+            tramo.close();
+        }
+    }
+
+    /**
+     * Registra un tramo que ya terminó y del que solo se conoce la duración
+     * (p. ej. una consulta informada por Hibernate), como hijo del tramo actual
+     */
+    public static void registrarTerminado(String nombre, TipoTramo tipo, long duracionNanos) {
+        Tramo padre = ACTUAL.get();
+        boolean muestreado = padre != null ? padre.muestreado : ThreadLocalRandom.current().nextDouble() < muestreo;
+        if (!muestreado && duracionNanos < umbralLentoNanos) {
+            return;
+        }
+        long fin = System.nanoTime();
+        publicar(padre != null ? padre.idTraza : nuevoId(), nuevoId(), padre != null ? padre.idTramo : 0,
+            nombre, tipo, fin - duracionNanos, duracionNanos);
+    }
+
+    static void finalizar(Tramo tramo, long finNanos) {
+        if (ACTUAL.get() == tramo) {
+            if (tramo.padre != null) {
+                ACTUAL.set(tramo.padre);
+            } else {
+                ACTUAL.remove();
+            }
+        }
+        long duracion = finNanos - tramo.inicioNanos;
+        if (tramo.muestreado || duracion >= umbralLentoNanos) {
+            publicar(tramo.idTraza, tramo.idTramo, tramo.idPadre, tramo.nombre, tramo.tipo,
+                tramo.inicioNanos, duracion);
+        }
+    }
+
+    // ==================== CONSULTA DE TRAMOS ====================
+
+    /**
+     * Tramos lentos retenidos, del más lento al más rápido
+     */
+    public static List<RegistroTramo> operacionesLentas(int limite) {
+        List<RegistroTramo> lentos = LENTOS.leerTodo();
+        lentos.sort(Comparator.comparingLong(RegistroTramo::getDuracionNanos).reversed());
+        return new ArrayList<>(lentos.subList(0, Math.min(limite, lentos.size())));
+    }
+
+    /**
+     * Tramos retenidos de una traza, en orden de inicio
+     */
+    public static List<RegistroTramo> traza(long idTraza) {
+        List<RegistroTramo> tramos = new ArrayList<>();
+        for (RegistroTramo registro : TRAMOS.leerTodo()) {
+            if (registro.getIdTraza() == idTraza) {
+                tramos.add(registro);
+            }
+        }
+        tramos.sort(Comparator.comparingLong(RegistroTramo::getInicioEpocaNanos));
+        return tramos;
+    }
+
+    /**
+     * Tramos con secuencia >= desde (para exportar de forma incremental)
+     */
+    public static List<RegistroTramo> tramosDesde(long desde) {
+        return TRAMOS.leerDesde(desde);
+    }
+
+    public static double getMuestreo() {
+        return muestreo;
+    }
+
+    public static void setMuestreo(double probabilidad) {
+        muestreo = Math.max(0, Math.min(1, probabilidad));
+    }
+
+    public static long getUmbralLentoMs() {
+        return umbralLentoNanos / 1_000_000L;
+    }
+
+    public static void setUmbralLentoMs(long umbralMs) {
+        umbralLentoNanos = Math.max(0, umbralMs) * 1_000_000L;
+    }
+
+    public static void vaciar() {
+        TRAMOS.vaciar();
+        LENTOS.vaciar();
+    }
+
+    /**
+     * Operación medida con {@link #medir}; puede lanzar la excepción
+     * verificada del método que envuelve
+     */
+    public interface Operacion<T, E extends Exception> {
+        T ejecutar() throws E;
+    }
+
+    // ==================== MÉTODOS PRIVADOS ====================
+
+    private static void publicar(long idTraza, long idTramo, long idPadre, String nombre, TipoTramo tipo,
+            long inicioNanos, long duracionNanos) {
+        RegistroTramo registro = new RegistroTramo(TRAMOS.siguienteSecuencia(), idTraza, idTramo, idPadre,
+            nombre, tipo, Thread.currentThread().getName(), BASE_EPOCA_NANOS + (inicioNanos - BASE_NANOS),
+            duracionNanos);
+        TRAMOS.publicar(registro);
+        if (duracionNanos >= umbralLentoNanos) {
+            LENTOS.publicar(registro.conSecuencia(LENTOS.siguienteSecuencia()));
+        }
+    }
+
+    private static long nuevoId() {
+        long id;
+        do {
+            id = ThreadLocalRandom.current().nextLong();
+        } while (id == 0);
+        return id;
+    }
+}
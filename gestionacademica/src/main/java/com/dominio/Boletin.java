@@ -1,5 +1,6 @@
 package com.dominio;
 import java.time.LocalDate;
+import java.util.HashSet;
 import java.util.Set;
 
 public class Boletin {
@@ -69,7 +70,24 @@ public class Boletin {
         }
     }
 
+    /**
+     * Cierra el boletín: fija la fecha de generación y enlaza cada
+     * calificación al boletín y a su estudiante
+     */
     public void generarBoletin(){
-        // Lógica de generación pendiente
+        if (periodo == null || periodo.trim().isEmpty()) {
+            throw new IllegalStateException("El boletín debe tener un periodo");
+        }
+        if (estudiante == null) {
+            throw new IllegalStateException("El boletín debe tener un estudiante");
+        }
+        if (logrosEstudiante == null) {
+            logrosEstudiante = new HashSet<>();
+        }
+        fechaGeneracion = LocalDate.now();
+        for (LogroEstudiante calificacion : logrosEstudiante) {
+            calificacion.setBoletin(this);
+            calificacion.setEstudiante(estudiante);
+        }
     }
 }
\ No newline at end of file
@@ -3,8 +3,8 @@ package com.dominio;
 import java.util.Set;
 
 public class Grupo {
-    private final int MINESTUDIANTES = 5;
-    private final int MAXESTUDIANTES = 10;
+    public static final int MINESTUDIANTES = 5;
+    public static final int MAXESTUDIANTES = 10;
 
     private Integer idGrupo;
     private String nombreGrupo;
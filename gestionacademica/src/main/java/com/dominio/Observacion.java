@@ -1,8 +1,15 @@
 package com.dominio;
 
 import java.time.LocalDate;
+import java.util.Comparator;
+
+public class Observacion implements Comparable<Observacion> {
+    // Orden cronológico: fecha y, el mismo día, id (las nuevas sin id, por texto)
+    private static final Comparator<Observacion> ORDEN = Comparator
+        .comparing(Observacion::getFechaObservacion, Comparator.nullsLast(Comparator.naturalOrder()))
+        .thenComparing(Observacion::getIdObservacion, Comparator.nullsLast(Comparator.naturalOrder()))
+        .thenComparing(Observacion::getDescripcion, Comparator.nullsLast(Comparator.naturalOrder()));
 
-public class Observacion {
     private Integer idObservacion;
     private String descripcion;
     private LocalDate fechaObservacion;
@@ -61,4 +68,9 @@ public class Observacion {
     public boolean esValida(){
         return (descripcion.length() >= 10 && descripcion.length() <= 200);
     }
+
+    @Override
+    public int compareTo(Observacion otra) {
+        return ORDEN.compare(this, otra);
+    }
 }
@@ -0,0 +1,58 @@
+package com.dominio.validacion;
+
+/**
+ * Acumulador reutilizable de errores de un ProgramaValidacion.
+ * Guarda solo índices de campo y de mensaje, por lo que puede reutilizarse
+ * entre filas de una importación masiva sin crear objetos nuevos.
+ */
+public final class ErroresValidacion {
+    private ProgramaValidacion programa;
+    private int[] campos = new int[0];
+    private int[] mensajes = new int[0];
+    private int cantidad;
+
+    void reiniciar(ProgramaValidacion programa) {
+        this.programa = programa;
+        this.cantidad = 0;
+        // Como máximo un error por campo
+        if (campos.length < programa.getNumeroCampos()) {
+            campos = new int[programa.getNumeroCampos()];
+            mensajes = new int[programa.getNumeroCampos()];
+        }
+    }
+
+    void agregar(int campo, int mensaje) {
+        campos[cantidad] = campo;
+        mensajes[cantidad] = mensaje;
+        cantidad++;
+    }
+
+    public int cantidad() {
+        return cantidad;
+    }
+
+    public boolean estaVacio() {
+        return cantidad == 0;
+    }
+
+    public String getCampo(int i) {
+        return programa.getCampo(campos[i]);
+    }
+
+    public int getIndiceCampo(int i) {
+        return campos[i];
+    }
+
+    public String getMensaje(int i) {
+        return programa.getMensaje(mensajes[i]);
+    }
+
+    public boolean tieneError(String campo) {
+        for (int i = 0; i < cantidad; i++) {
+            if (programa.getCampo(campos[i]).equals(campo)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,292 @@
+package com.dominio.validacion;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Programa de validación compilado a partir de reglas declarativas por campo.
+ * Las reglas se traducen una sola vez a un arreglo plano de instrucciones
+ * (operación, campo, argumentos, mensaje) que se ejecuta sin crear objetos:
+ * los valores se recorren por índices, sin trim(), y los errores se escriben
+ * en un ErroresValidacion reutilizable. Se reportan todos los campos con error
+ * en una sola pasada; dentro de un campo solo se reporta la primera regla que falla.
+ */
+public final class ProgramaValidacion {
+
+    // Códigos de operación
+    private static final int OP_OBLIGATORIO = 0;
+    private static final int OP_OPCIONAL = 1;
+    private static final int OP_LONGITUD = 2;
+    private static final int OP_LETRAS = 3;
+    private static final int OP_DIGITOS = 4;
+    private static final int OP_CORREO = 5;
+    private static final int OP_ENTERO = 6;
+    private static final int OP_RANGO = 7;
+
+    // Cada instrucción ocupa: operación, campo, argumento 1, argumento 2, mensaje
+    private static final int TAM_INSTRUCCION = 5;
+
+    private static final String LETRAS_ACENTUADAS = "ÁÉÍÓÚáéíóúñÑ";
+
+    private final String[] campos;
+    private final String[] mensajes;
+    private final int[] codigo;
+
+    private ProgramaValidacion(String[] campos, String[] mensajes, int[] codigo) {
+        this.campos = campos;
+        this.mensajes = mensajes;
+        this.codigo = codigo;
+    }
+
+    public static Constructor nuevo() {
+        return new Constructor();
+    }
+
+    public int getNumeroCampos() {
+        return campos.length;
+    }
+
+    public String getCampo(int indice) {
+        return campos[indice];
+    }
+
+    String getMensaje(int indice) {
+        return mensajes[indice];
+    }
+
+    /**
+     * Índice del campo dentro del arreglo de valores, o -1 si no existe
+     */
+    public int indiceDe(String campo) {
+        for (int i = 0; i < campos.length; i++) {
+            if (campos[i].equals(campo)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Ejecuta el programa sobre los valores (en el orden de declaración de los campos).
+     * Retorna true si no hubo errores.
+     */
+    public boolean ejecutar(String[] valores, ErroresValidacion errores) {
+        if (valores == null || valores.length != campos.length) {
+            throw new IllegalArgumentException(
+                "Se esperaban " + campos.length + " valores para validar");
+        }
+        errores.reiniciar(this);
+
+        int campoTerminado = -1;
+        for (int pc = 0; pc < codigo.length; pc += TAM_INSTRUCCION) {
+            int campo = codigo[pc + 1];
+            if (campo == campoTerminado) {
+                continue;
+            }
+
+            String valor = valores[campo];
+            int inicio = inicioSinEspacios(valor);
+            int fin = finSinEspacios(valor, inicio);
+            int arg1 = codigo[pc + 2];
+            int arg2 = codigo[pc + 3];
+
+            boolean valido;
+            switch (codigo[pc]) {
+                case OP_OBLIGATORIO:
+                    valido = fin > inicio;
+                    break;
+                case OP_OPCIONAL:
+                    if (fin == inicio) {
+                        // Campo opcional vacío: no se evalúan sus demás reglas
+                        campoTerminado = campo;
+                    }
+                    valido = true;
+                    break;
+                case OP_LONGITUD:
+                    valido = fin - inicio >= arg1 && fin - inicio <= arg2;
+                    break;
+                case OP_LETRAS:
+                    valido = sonLetras(valor, inicio, fin);
+                    break;
+                case OP_DIGITOS:
+                    valido = fin - inicio >= arg1 && fin - inicio <= arg2 && sonDigitos(valor, inicio, fin);
+                    break;
+                case OP_CORREO:
+                    valido = esCorreo(valor, inicio, fin);
+                    break;
+                case OP_ENTERO:
+                    valido = fin - inicio <= 9 && sonDigitos(valor, inicio, fin);
+                    break;
+                case OP_RANGO:
+                    int numero = aEntero(valor, inicio, fin);
+                    valido = numero >= arg1 && numero <= arg2;
+                    break;
+                default:
+                    throw new IllegalStateException("Operación de validación desconocida: " + codigo[pc]);
+            }
+
+            if (!valido) {
+                errores.agregar(campo, codigo[pc + 4]);
+                campoTerminado = campo;
+            }
+        }
+        return errores.estaVacio();
+    }
+
+    // ==================== PRIMITIVAS SIN ASIGNACIÓN ====================
+
+    private static int inicioSinEspacios(String valor) {
+        if (valor == null) return 0;
+        int i = 0;
+        while (i < valor.length() && valor.charAt(i) <= ' ') i++;
+        return i;
+    }
+
+    private static int finSinEspacios(String valor, int inicio) {
+        if (valor == null) return 0;
+        int f = valor.length();
+        while (f > inicio && valor.charAt(f - 1) <= ' ') f--;
+        return f;
+    }
+
+    private static boolean sonLetras(String valor, int inicio, int fin) {
+        if (fin == inicio) return false;
+        for (int i = inicio; i < fin; i++) {
+            char c = valor.charAt(i);
+            boolean ascii = (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z');
+            if (!ascii && LETRAS_ACENTUADAS.indexOf(c) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean sonDigitos(String valor, int inicio, int fin) {
+        if (fin == inicio) return false;
+        for (int i = inicio; i < fin; i++) {
+            char c = valor.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Equivalente a ^[A-Za-z0-9+_.-]+@(.+)$
+     */
+    private static boolean esCorreo(String valor, int inicio, int fin) {
+        int i = inicio;
+        while (i < fin) {
+            char c = valor.charAt(i);
+            if (c == '@') break;
+            boolean permitido = (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')
+                || c == '+' || c == '_' || c == '.' || c == '-';
+            if (!permitido) return false;
+            i++;
+        }
+        return i > inicio && i < fin - 1;
+    }
+
+    private static int aEntero(String valor, int inicio, int fin) {
+        if (fin == inicio || fin - inicio > 9 || !sonDigitos(valor, inicio, fin)) {
+            return Integer.MIN_VALUE;
+        }
+        int numero = 0;
+        for (int i = inicio; i < fin; i++) {
+            numero = numero * 10 + (valor.charAt(i) - '0');
+        }
+        return numero;
+    }
+
+    // ==================== CONSTRUCTOR DECLARATIVO ====================
+
+    /**
+     * Declaración de reglas agrupadas por campo. Las reglas de un campo se
+     * evalúan en el orden en que se declaran.
+     */
+    public static final class Constructor {
+        private final List<String> campos = new ArrayList<>();
+        private final List<String> mensajes = new ArrayList<>();
+        private final Map<String, Integer> indiceMensajes = new HashMap<>();
+        private final List<int[]> instrucciones = new ArrayList<>();
+        private int campoActual = -1;
+
+        private Constructor() {
+        }
+
+        public Constructor campo(String nombre) {
+            if (campos.contains(nombre)) {
+                throw new IllegalArgumentException("Campo declarado dos veces: " + nombre);
+            }
+            campos.add(nombre);
+            campoActual = campos.size() - 1;
+            return this;
+        }
+
+        public Constructor obligatorio(String mensaje) {
+            return instruccion(OP_OBLIGATORIO, 0, 0, mensaje);
+        }
+
+        /**
+         * Si el campo está vacío se omiten las demás reglas del campo
+         */
+        public Constructor opcional() {
+            return instruccion(OP_OPCIONAL, 0, 0, "");
+        }
+
+        public Constructor longitud(int minimo, int maximo, String mensaje) {
+            return instruccion(OP_LONGITUD, minimo, maximo, mensaje);
+        }
+
+        public Constructor soloLetras(String mensaje) {
+            return instruccion(OP_LETRAS, 0, 0, mensaje);
+        }
+
+        public Constructor digitos(int minimo, int maximo, String mensaje) {
+            return instruccion(OP_DIGITOS, minimo, maximo, mensaje);
+        }
+
+        public Constructor correo(String mensaje) {
+            return instruccion(OP_CORREO, 0, 0, mensaje);
+        }
+
+        public Constructor entero(String mensaje) {
+            return instruccion(OP_ENTERO, 0, 0, mensaje);
+        }
+
+        public Constructor rango(int minimo, int maximo, String mensaje) {
+            return instruccion(OP_RANGO, minimo, maximo, mensaje);
+        }
+
+        private Constructor instruccion(int operacion, int arg1, int arg2, String mensaje) {
+            if (campoActual < 0) {
+                throw new IllegalStateException("Debe declarar un campo antes de sus reglas");
+            }
+            Integer indiceMensaje = indiceMensajes.get(mensaje);
+            if (indiceMensaje == null) {
+                indiceMensaje = mensajes.size();
+                mensajes.add(mensaje);
+                indiceMensajes.put(mensaje, indiceMensaje);
+            }
+            instrucciones.add(new int[] { operacion, campoActual, arg1, arg2, indiceMensaje });
+            return this;
+        }
+
+        public ProgramaValidacion compilar() {
+            int[] codigo = new int[instrucciones.size() * TAM_INSTRUCCION];
+            int pc = 0;
+            for (int[] instruccion : instrucciones) {
+                System.arraycopy(instruccion, 0, codigo, pc, TAM_INSTRUCCION);
+                pc += TAM_INSTRUCCION;
+            }
+            return new ProgramaValidacion(
+                campos.toArray(new String[0]),
+                mensajes.toArray(new String[0]),
+                codigo
+            );
+        }
+    }
+}
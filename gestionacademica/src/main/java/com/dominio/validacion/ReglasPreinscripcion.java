@@ -0,0 +1,86 @@
+package com.dominio.validacion;
+
+/**
+ * Reglas de formato de acudientes y estudiantes (RF 3.1).
+ * Fuente única de las reglas: los formularios, el servicio de preinscripción,
+ * las importaciones masivas y las anotaciones de las entidades las toman de aquí.
+ */
+public final class ReglasPreinscripcion {
+
+    public static final String REGEX_NOMBRE = "^[A-Za-zÁÉÍÓÚáéíóúñÑ]+$";
+    public static final String REGEX_TELEFONO = "^[0-9]{10}$";
+
+    public static final int MIN_LONGITUD_NOMBRE = 2;
+    public static final int MAX_LONGITUD_NOMBRE = 30;
+    public static final int MIN_EDAD_ACUDIENTE = 18;
+    public static final int MAX_EDAD_ACUDIENTE = 80;
+    public static final int MIN_EDAD_ESTUDIANTE = 3;
+    public static final int MAX_EDAD_ESTUDIANTE = 18;
+
+    private static final String OBLIGATORIO = "Campo obligatorio";
+    private static final String LONGITUD_NOMBRE = "Debe tener entre " + MIN_LONGITUD_NOMBRE
+        + " y " + MAX_LONGITUD_NOMBRE + " caracteres";
+    private static final String NOMBRE_SIN_NUMEROS = "El nombre no debe contener números";
+    private static final String APELLIDO_SIN_NUMEROS = "El apellido no debe contener números";
+    private static final String DIEZ_DIGITOS = "Debe tener 10 dígitos numéricos";
+
+    /**
+     * Campos: primerNombre, segundoNombre, primerApellido, segundoApellido,
+     * edad, correoElectronico, telefono
+     */
+    public static final ProgramaValidacion ACUDIENTE = nombres(ProgramaValidacion.nuevo())
+        .campo("edad")
+            .obligatorio(OBLIGATORIO)
+            .entero("Debe ser un número")
+            .rango(MIN_EDAD_ACUDIENTE, MAX_EDAD_ACUDIENTE, mensajeEdad(MIN_EDAD_ACUDIENTE, MAX_EDAD_ACUDIENTE))
+        .campo("correoElectronico")
+            .obligatorio(OBLIGATORIO)
+            .correo("Formato inválido")
+        .campo("telefono")
+            .obligatorio(OBLIGATORIO)
+            .digitos(10, 10, DIEZ_DIGITOS)
+        .compilar();
+
+    /**
+     * Campos: primerNombre, segundoNombre, primerApellido, segundoApellido,
+     * edad, nuip, gradoAspira
+     */
+    public static final ProgramaValidacion ESTUDIANTE = nombres(ProgramaValidacion.nuevo())
+        .campo("edad")
+            .obligatorio(OBLIGATORIO)
+            .entero("Debe ser un número")
+            .rango(MIN_EDAD_ESTUDIANTE, MAX_EDAD_ESTUDIANTE, mensajeEdad(MIN_EDAD_ESTUDIANTE, MAX_EDAD_ESTUDIANTE))
+        .campo("nuip")
+            .obligatorio(OBLIGATORIO)
+            .digitos(10, 10, DIEZ_DIGITOS)
+        .campo("gradoAspira")
+            .obligatorio(OBLIGATORIO)
+        .compilar();
+
+    private ReglasPreinscripcion() {
+    }
+
+    private static ProgramaValidacion.Constructor nombres(ProgramaValidacion.Constructor constructor) {
+        return constructor
+            .campo("primerNombre")
+                .obligatorio(OBLIGATORIO)
+                .longitud(MIN_LONGITUD_NOMBRE, MAX_LONGITUD_NOMBRE, LONGITUD_NOMBRE)
+                .soloLetras(NOMBRE_SIN_NUMEROS)
+            .campo("segundoNombre")
+                .opcional()
+                .longitud(MIN_LONGITUD_NOMBRE, MAX_LONGITUD_NOMBRE, LONGITUD_NOMBRE)
+                .soloLetras(NOMBRE_SIN_NUMEROS)
+            .campo("primerApellido")
+                .obligatorio(OBLIGATORIO)
+                .longitud(MIN_LONGITUD_NOMBRE, MAX_LONGITUD_NOMBRE, LONGITUD_NOMBRE)
+                .soloLetras(APELLIDO_SIN_NUMEROS)
+            .campo("segundoApellido")
+                .opcional()
+                .longitud(MIN_LONGITUD_NOMBRE, MAX_LONGITUD_NOMBRE, LONGITUD_NOMBRE)
+                .soloLetras(APELLIDO_SIN_NUMEROS);
+    }
+
+    private static String mensajeEdad(int minimo, int maximo) {
+        return "La edad debe estar entre " + minimo + " y " + maximo + " años";
+    }
+}
@@ -0,0 +1,263 @@
+package com.persistencia.auditoria;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.type.Type;
+
+import com.persistencia.entidades.EstudianteEntity;
+import com.persistencia.entidades.LogroEstudianteEntity;
+import com.persistencia.entidades.ObservacionEntity;
+import com.persistencia.entidades.PreinscripcionEntity;
+import com.persistencia.entidades.UsuarioEntity;
+
+import jakarta.persistence.PersistenceUnitUtil;
+
+/**
+ * Listener de Hibernate que convierte cada inserción, actualización o
+ * eliminación confirmada de una entidad auditada en un {@link EventoCambio}
+ * y lo entrega a {@link RegistroCambios}. Corre después del commit: no
+ * alarga la transacción y no registra lo que se revierte.
+ *
+ * Las sentencias masivas JPQL o JDBC no pasan por aquí: quien las use
+ * registra sus eventos después del commit con {@link #cambiosInsercion},
+ * {@link #cambiosActualizacion} o {@link #cambiosEliminacion}.
+ */
+public class CapturaCambios implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+        PostCommitDeleteEventListener {
+
+    private static final Set<Class<?>> AUDITADAS = Set.of(
+        EstudianteEntity.class,
+        LogroEstudianteEntity.class,
+        ObservacionEntity.class,
+        UsuarioEntity.class,
+        PreinscripcionEntity.class
+    );
+
+    /** Nombre de la entidad raíz por persister (las subclases de usuario se registran como "usuario") */
+    private final Map<EntityPersister, String> nombres = new ConcurrentHashMap<>();
+
+    private final RegistroCambios registro;
+
+    public CapturaCambios(RegistroCambios registro) {
+        this.registro = registro;
+    }
+
+    /**
+     * Indica si los cambios de la clase de entidad se registran
+     */
+    public static boolean esAuditada(Class<?> clase) {
+        for (Class<?> auditada : AUDITADAS) {
+            if (auditada.isAssignableFrom(clase)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * cambios de una inserción hecha fuera de Hibernate (JDBC por lotes), en
+     * el mismo formato que los eventos capturados: {"campo":[null,valor]}.
+     * Las asociaciones se pasan como el id de la entidad asociada.
+     */
+    public static String cambiosInsercion(Map<String, Object> campos) {
+        StringBuilder json = new StringBuilder(128).append('{');
+        for (Map.Entry<String, Object> campo : campos.entrySet()) {
+            if (campo.getValue() != null) {
+                escribirPar(json, campo.getKey(), null, campo.getValue());
+            }
+        }
+        return json.append('}').toString();
+    }
+
+    /**
+     * cambios de una actualización hecha fuera de Hibernate; cada campo trae
+     * {anterior, nuevo} y solo se escriben los que cambiaron
+     */
+    public static String cambiosActualizacion(Map<String, Object[]> campos) {
+        StringBuilder json = new StringBuilder(128).append('{');
+        for (Map.Entry<String, Object[]> campo : campos.entrySet()) {
+            Object anterior = campo.getValue()[0];
+            Object nuevo = campo.getValue()[1];
+            if (!Objects.equals(anterior, nuevo)) {
+                escribirPar(json, campo.getKey(), anterior, nuevo);
+            }
+        }
+        return json.append('}').toString();
+    }
+
+    /**
+     * cambios de una eliminación hecha fuera de Hibernate: {"campo":[valor,null]}
+     */
+    public static String cambiosEliminacion(Map<String, Object> campos) {
+        StringBuilder json = new StringBuilder(128).append('{');
+        for (Map.Entry<String, Object> campo : campos.entrySet()) {
+            if (campo.getValue() != null) {
+                escribirPar(json, campo.getKey(), campo.getValue(), null);
+            }
+        }
+        return json.append('}').toString();
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return esAuditada(persister.getMappedClass());
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        EntityPersister persister = event.getPersister();
+        if (!requiresPostCommitHandling(persister)) {
+            return;
+        }
+        PersistenceUnitUtil util = event.getFactory().getPersistenceUnitUtil();
+        StringBuilder json = new StringBuilder(128).append('{');
+        Object[] estado = event.getState();
+        for (int i = 0; i < estado.length; i++) {
+            if (estado[i] != null) {
+                agregarCampo(json, persister, i, null, estado[i], util);
+            }
+        }
+        registrar(persister, event.getId(), EventoCambio.INSERCION, json);
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        EntityPersister persister = event.getPersister();
+        if (!requiresPostCommitHandling(persister)) {
+            return;
+        }
+        PersistenceUnitUtil util = event.getFactory().getPersistenceUnitUtil();
+        StringBuilder json = new StringBuilder(128).append('{');
+        Object[] anterior = event.getOldState();
+        Object[] nuevo = event.getState();
+        int[] sucias = event.getDirtyProperties();
+        if (sucias != null) {
+            for (int i : sucias) {
+                agregarCampo(json, persister, i, anterior != null ? anterior[i] : null, nuevo[i], util);
+            }
+        } else {
+            // Sin verificación de cambios (p. ej. merge sin estado previo): se compara lo que haya
+            for (int i = 0; i < nuevo.length; i++) {
+                Object antes = anterior != null ? anterior[i] : null;
+                if (anterior == null || !persister.getPropertyTypes()[i].isEqual(antes, nuevo[i])) {
+                    agregarCampo(json, persister, i, antes, nuevo[i], util);
+                }
+            }
+        }
+        if (json.length() > 1) {
+            registrar(persister, event.getId(), EventoCambio.ACTUALIZACION, json);
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        EntityPersister persister = event.getPersister();
+        if (!requiresPostCommitHandling(persister)) {
+            return;
+        }
+        PersistenceUnitUtil util = event.getFactory().getPersistenceUnitUtil();
+        StringBuilder json = new StringBuilder(128).append('{');
+        Object[] estado = event.getDeletedState();
+        if (estado != null) {
+            for (int i = 0; i < estado.length; i++) {
+                if (estado[i] != null) {
+                    agregarCampo(json, persister, i, estado[i], null, util);
+                }
+            }
+        }
+        registrar(persister, event.getId(), EventoCambio.ELIMINACION, json);
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    // ==================== MÉTODOS PRIVADOS ====================
+
+    private void registrar(EntityPersister persister, Object id, char operacion, StringBuilder json) {
+        String entidad = nombres.computeIfAbsent(persister,
+            p -> p.getRootEntityDescriptor().getEntityPersister().getJpaEntityName());
+        registro.agregar(new EventoCambio(null, LocalDateTime.now(), entidad, String.valueOf(id),
+            operacion, RegistroCambios.getUsuarioActual(), json.append('}').toString()));
+    }
+
+    /**
+     * "campo":[anterior,nuevo]. Las colecciones se omiten y las asociaciones
+     * se escriben como el id de la entidad asociada.
+     */
+    private static void agregarCampo(StringBuilder json, EntityPersister persister, int indice,
+            Object anterior, Object nuevo, PersistenceUnitUtil util) {
+        Type tipo = persister.getPropertyTypes()[indice];
+        if (tipo.isCollectionType()) {
+            return;
+        }
+        escribirPar(json, persister.getPropertyNames()[indice],
+            tipo.isEntityType() && anterior != null ? util.getIdentifier(anterior) : anterior,
+            tipo.isEntityType() && nuevo != null ? util.getIdentifier(nuevo) : nuevo);
+    }
+
+    private static void escribirPar(StringBuilder json, String campo, Object anterior, Object nuevo) {
+        if (json.length() > 1) {
+            json.append(',');
+        }
+        escribirTexto(json, campo);
+        json.append(":[");
+        escribirValor(json, anterior);
+        json.append(',');
+        escribirValor(json, nuevo);
+        json.append(']');
+    }
+
+    private static void escribirValor(StringBuilder json, Object valor) {
+        if (valor == null) {
+            json.append("null");
+        } else if ((valor instanceof Number numero && Double.isFinite(numero.doubleValue()))
+                || valor instanceof Boolean) {
+            json.append(valor);
+        } else if (valor instanceof Enum<?> enumerado) {
+            escribirTexto(json, enumerado.name());
+        } else {
+            escribirTexto(json, String.valueOf(valor));
+        }
+    }
+
+    private static void escribirTexto(StringBuilder json, String texto) {
+        json.append('"');
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            switch (c) {
+                case '"': json.append("\\\""); break;
+                case '\\': json.append("\\\\"); break;
+                case '\n': json.append("\\n"); break;
+                case '\r': json.append("\\r"); break;
+                case '\t': json.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+            }
+        }
+        json.append('"');
+    }
+}
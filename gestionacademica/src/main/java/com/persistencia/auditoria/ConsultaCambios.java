@@ -0,0 +1,174 @@
+package com.persistencia.auditoria;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.hibernate.Session;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityTransaction;
+
+/**
+ * Consultas y repetición del registro de cambios para investigaciones.
+ * entidad es el nombre JPA de la entidad raíz ("estudiante",
+ * "logros_estudiante", "observacion", "usuario", "preinscripcion").
+ */
+public class ConsultaCambios {
+
+    private static final int TAMANO_LOTE_LECTURA = 500;
+
+    private static final String COLUMNAS =
+        "SELECT id_evento, fecha, entidad, id_registro, operacion, id_usuario, cambios::text FROM evento_cambio ";
+
+    // Último valor de cada campo desde la última inserción del registro
+    private static final String SQL_RECONSTRUIR =
+        "WITH eventos AS (" +
+        "  SELECT id_evento, operacion, cambios FROM evento_cambio " +
+        "  WHERE entidad = ? AND id_registro = ? AND fecha <= ?), " +
+        "alta AS (SELECT coalesce(max(id_evento), 0) AS id FROM eventos WHERE operacion = 'I') " +
+        "SELECT DISTINCT ON (c.key) c.key, c.value ->> 1 " +
+        "FROM eventos e CROSS JOIN jsonb_each(e.cambios) c " +
+        "WHERE e.id_evento >= (SELECT id FROM alta) " +
+        "ORDER BY c.key, e.id_evento DESC";
+
+    private final EntityManager entityManager;
+
+    public ConsultaCambios(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Historial completo de un registro, del más antiguo al más reciente
+     */
+    public List<EventoCambio> buscarHistorial(String entidad, Object idRegistro) {
+        return consultar(COLUMNAS + "WHERE entidad = ? AND id_registro = ? ORDER BY id_evento",
+            entidad, String.valueOf(idRegistro));
+    }
+
+    /**
+     * Cambios hechos por un usuario en el intervalo [desde, hasta)
+     */
+    public List<EventoCambio> buscarPorUsuario(Integer idUsuario, LocalDateTime desde, LocalDateTime hasta) {
+        return consultar(COLUMNAS + "WHERE id_usuario = ? AND fecha >= ? AND fecha < ? ORDER BY fecha, id_evento",
+            idUsuario, Timestamp.valueOf(desde), Timestamp.valueOf(hasta));
+    }
+
+    /**
+     * Página de eventos del intervalo [desde, hasta), de una entidad o de
+     * todas (entidad null), a partir del evento siguiente a despuesDe
+     * (null para la primera página)
+     */
+    public List<EventoCambio> buscarEntre(LocalDateTime desde, LocalDateTime hasta, String entidad,
+            Long despuesDe, int limite) {
+        return consultar(COLUMNAS +
+            "WHERE fecha >= ? AND fecha < ? AND (CAST(? AS varchar) IS NULL OR entidad = ?) AND id_evento > ? " +
+            "ORDER BY id_evento LIMIT ?",
+            Timestamp.valueOf(desde), Timestamp.valueOf(hasta), entidad, entidad,
+            despuesDe != null ? despuesDe : 0L, limite);
+    }
+
+    /**
+     * Estado de un registro en un momento según el registro de cambios:
+     * valor (como texto) de cada campo. Vacío si el registro no existía o
+     * ya estaba eliminado.
+     */
+    public Map<String, String> reconstruir(String entidad, Object idRegistro, LocalDateTime momento) {
+        Map<String, String> estado = new LinkedHashMap<>();
+        String id = String.valueOf(idRegistro);
+        List<EventoCambio> ultimo = consultar(COLUMNAS +
+            "WHERE entidad = ? AND id_registro = ? AND fecha <= ? ORDER BY id_evento DESC LIMIT 1",
+            entidad, id, Timestamp.valueOf(momento));
+        if (ultimo.isEmpty() || ultimo.get(0).getOperacion() == EventoCambio.ELIMINACION) {
+            return estado;
+        }
+        entityManager.unwrap(Session.class).doWork(conexion -> {
+            try (PreparedStatement consulta = preparar(conexion, SQL_RECONSTRUIR, entidad, id, Timestamp.valueOf(momento));
+                 ResultSet filas = consulta.executeQuery()) {
+                while (filas.next()) {
+                    estado.put(filas.getString(1), filas.getString(2));
+                }
+            }
+        });
+        return estado;
+    }
+
+    /**
+     * Entrega en orden los eventos del intervalo [desde, hasta) sin
+     * cargarlos todos en memoria. Devuelve cuántos entregó.
+     */
+    public long repetir(LocalDateTime desde, LocalDateTime hasta, Consumer<EventoCambio> consumidor) {
+        long[] entregados = new long[1];
+        // El cursor del servidor solo se usa dentro de una transacción
+        EntityTransaction transaction = entityManager.getTransaction();
+        boolean propia = !transaction.isActive();
+        if (propia) {
+            transaction.begin();
+        }
+        try {
+            entityManager.unwrap(Session.class).doWork(conexion -> {
+                try (PreparedStatement consulta = preparar(conexion,
+                        COLUMNAS + "WHERE fecha >= ? AND fecha < ? ORDER BY id_evento",
+                        Timestamp.valueOf(desde), Timestamp.valueOf(hasta))) {
+                    consulta.setFetchSize(TAMANO_LOTE_LECTURA);
+                    try (ResultSet filas = consulta.executeQuery()) {
+                        while (filas.next()) {
+                            consumidor.accept(leer(filas));
+                            entregados[0]++;
+                        }
+                    }
+                }
+            });
+        } finally {
+            if (propia && transaction.isActive()) {
+                transaction.rollback();
+            }
+        }
+        return entregados[0];
+    }
+
+    // ==================== MÉTODOS PRIVADOS ====================
+
+    private List<EventoCambio> consultar(String sql, Object... parametros) {
+        List<EventoCambio> eventos = new ArrayList<>();
+        entityManager.unwrap(Session.class).doWork(conexion -> {
+            try (PreparedStatement consulta = preparar(conexion, sql, parametros);
+                 ResultSet filas = consulta.executeQuery()) {
+                while (filas.next()) {
+                    eventos.add(leer(filas));
+                }
+            }
+        });
+        return eventos;
+    }
+
+    private static PreparedStatement preparar(Connection conexion, String sql, Object... parametros)
+            throws SQLException {
+        PreparedStatement consulta = conexion.prepareStatement(sql);
+        for (int i = 0; i < parametros.length; i++) {
+            consulta.setObject(i + 1, parametros[i]);
+        }
+        return consulta;
+    }
+
+    private static EventoCambio leer(ResultSet fila) throws SQLException {
+        int idUsuario = fila.getInt(6);
+        Integer usuario = fila.wasNull() ? null : idUsuario;
+        return new EventoCambio(
+            fila.getLong(1),
+            fila.getTimestamp(2).toLocalDateTime(),
+            fila.getString(3),
+            fila.getString(4),
+            fila.getString(5).charAt(0),
+            usuario,
+            fila.getString(7));
+    }
+}
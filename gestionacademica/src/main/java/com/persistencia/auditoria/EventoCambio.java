@@ -0,0 +1,50 @@
+package com.persistencia.auditoria;
+
+import java.time.LocalDateTime;
+
+/**
+ * Un cambio confirmado sobre una entidad auditada. cambios es un objeto JSON
+ * {"campo": [anterior, nuevo], ...} con solo los campos que cambiaron; en
+ * una inserción el anterior es null y en una eliminación el nuevo es null.
+ * Las asociaciones se guardan como el id de la entidad asociada.
+ */
+public final class EventoCambio {
+
+    public static final char INSERCION = 'I';
+    public static final char ACTUALIZACION = 'U';
+    public static final char ELIMINACION = 'D';
+
+    private final Long idEvento;
+    private final LocalDateTime fecha;
+    private final String entidad;
+    private final String idRegistro;
+    private final char operacion;
+    private final Integer idUsuario;
+    private final String cambios;
+
+    public EventoCambio(Long idEvento, LocalDateTime fecha, String entidad, String idRegistro,
+            char operacion, Integer idUsuario, String cambios) {
+        this.idEvento = idEvento;
+        this.fecha = fecha;
+        this.entidad = entidad;
+        this.idRegistro = idRegistro;
+        this.operacion = operacion;
+        this.idUsuario = idUsuario;
+        this.cambios = cambios;
+    }
+
+    /** null mientras el evento no se ha escrito */
+    public Long getIdEvento() { return idEvento; }
+    public LocalDateTime getFecha() { return fecha; }
+    public String getEntidad() { return entidad; }
+    public String getIdRegistro() { return idRegistro; }
+    public char getOperacion() { return operacion; }
+    public Integer getIdUsuario() { return idUsuario; }
+    public String getCambios() { return cambios; }
+
+    @Override
+    public String toString() {
+        return fecha + " " + operacion + " " + entidad + "#" + idRegistro +
+            (idUsuario != null ? " por " + idUsuario : "") + " " + cambios;
+    }
+}
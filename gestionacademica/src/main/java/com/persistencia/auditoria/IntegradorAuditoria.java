@@ -0,0 +1,28 @@
+package com.persistencia.auditoria;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.integrator.spi.Integrator;
+
+/**
+ * Registra {@link CapturaCambios} en cada SessionFactory. Hibernate lo carga
+ * desde META-INF/services/org.hibernate.integrator.spi.Integrator.
+ */
+public class IntegradorAuditoria implements Integrator {
+
+    @Override
+    public void integrate(Metadata metadata, BootstrapContext bootstrapContext,
+            SessionFactoryImplementor sessionFactory) {
+        RegistroCambios registro = RegistroCambios.getInstancia();
+        registro.iniciar(sessionFactory);
+
+        CapturaCambios captura = new CapturaCambios(registro);
+        EventListenerRegistry eventos = sessionFactory.getServiceRegistry().requireService(EventListenerRegistry.class);
+        eventos.appendListeners(EventType.POST_COMMIT_INSERT, captura);
+        eventos.appendListeners(EventType.POST_COMMIT_UPDATE, captura);
+        eventos.appendListeners(EventType.POST_COMMIT_DELETE, captura);
+    }
+}
@@ -0,0 +1,330 @@
+package com.persistencia.auditoria;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.hibernate.Session;
+import org.hibernate.exception.JDBCConnectionException;
+
+import com.persistencia.sedes.ContextoSede;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+
+/**
+ * Escritor del registro de cambios (tabla evento_cambio, particionada por
+ * mes). Los eventos llegan a una cola acotada y un hilo de fondo los escribe
+ * en lotes: espera hasta ESPERA_LOTE_MS desde el primer evento para juntar
+ * hasta TAMANO_LOTE y los confirma con un solo commit.
+ *
+ * Quien confirma la transacción principal solo encola; si la cola está llena
+ * el evento se descarta y se cuenta. Un lote que falla se reintenta con
+ * espera creciente; tras REINTENTOS_LOTE fallos seguidos sus eventos se
+ * escriben uno por uno y los que siguen fallando se apartan (se registran
+ * completos en el log de errores) para no detener a los demás. Si lo que
+ * falla es la conexión, el lote se conserva y se sigue reintentando. Lo que
+ * siga en la cola al terminar el proceso sin {@link #vaciar(Duration)} se pierde.
+ *
+ * Cada evento se escribe en la sede donde ocurrió el cambio: el lote se
+ * separa por sede y cada parte se confirma en su propia transacción.
+ */
+public final class RegistroCambios {
+
+    private static final int CAPACIDAD = Integer.getInteger("gestionacademica.auditoria.capacidad", 50_000);
+    private static final int TAMANO_LOTE = 500;
+    private static final long ESPERA_LOTE_MS = Long.getLong("gestionacademica.auditoria.espera_ms", 200L);
+    private static final long ESPERA_MAXIMA_REINTENTO_MS = 30_000;
+    private static final int REINTENTOS_LOTE = Integer.getInteger("gestionacademica.auditoria.reintentos", 5);
+
+    /** Llave del candado consultivo para crear particiones sin competir con otras instancias */
+    private static final long CANDADO_PARTICIONES = 0x4741_4155_4449L;
+
+    private static final String SQL_INSERTAR =
+        "INSERT INTO evento_cambio (fecha, entidad, id_registro, operacion, id_usuario, cambios) " +
+        "VALUES (?, ?, ?, ?, ?, ?::jsonb)";
+
+    private static final RegistroCambios INSTANCIA = new RegistroCambios();
+
+    /** Usuario con sesión iniciada en esta aplicación; null si no hay */
+    private static volatile Integer usuarioActual;
+
+    private final BlockingQueue<Encolado> cola = new ArrayBlockingQueue<>(CAPACIDAD);
+    private final AtomicLong escritos = new AtomicLong();
+    private final AtomicLong descartados = new AtomicLong();
+    private final AtomicLong apartados = new AtomicLong();
+    /** Particiones creadas, por sede. Solo las usa el hilo escritor */
+    private final Map<String, Set<YearMonth>> particiones = new HashMap<>();
+
+    private volatile EntityManagerFactory emf;
+    private volatile boolean deteniendo;
+    private Thread escritor;
+
+    private RegistroCambios() {
+    }
+
+    public static RegistroCambios getInstancia() {
+        return INSTANCIA;
+    }
+
+    public static void establecerUsuario(Integer idUsuario) {
+        usuarioActual = idUsuario;
+    }
+
+    public static Integer getUsuarioActual() {
+        return usuarioActual;
+    }
+
+    /**
+     * Asocia el registro a la fábrica donde se escriben los eventos y arranca
+     * el hilo escritor
+     */
+    public synchronized void iniciar(EntityManagerFactory fabrica) {
+        this.emf = fabrica;
+        this.deteniendo = false;
+        if (escritor == null || !escritor.isAlive()) {
+            escritor = new Thread(this::escribirPendientes, "registro-cambios");
+            escritor.setDaemon(true);
+            escritor.start();
+        }
+    }
+
+    /**
+     * Encola un evento de la sede actual sin bloquear
+     */
+    public void agregar(EventoCambio evento) {
+        if (!cola.offer(new Encolado(ContextoSede.actual(), evento))) {
+            long total = descartados.incrementAndGet();
+            if (total == 1 || total % 1000 == 0) {
+                System.err.println("Registro de cambios: cola llena, eventos descartados: " + total);
+            }
+        }
+    }
+
+    /**
+     * Escribe lo que quede en la cola y detiene el hilo escritor; espera como
+     * máximo el plazo indicado. Se llama antes de cerrar la fábrica.
+     */
+    public void vaciar(Duration plazo) {
+        Thread hilo;
+        synchronized (this) {
+            deteniendo = true;
+            hilo = escritor;
+            escritor = null;
+        }
+        if (hilo == null) {
+            return;
+        }
+        try {
+            hilo.join(plazo.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!cola.isEmpty()) {
+            System.err.println("Registro de cambios: quedaron sin escribir " + cola.size() + " eventos");
+        }
+    }
+
+    public long getEscritos() { return escritos.get(); }
+    public long getDescartados() { return descartados.get(); }
+    public long getApartados() { return apartados.get(); }
+    public int getPendientes() { return cola.size(); }
+
+    // ==================== MÉTODOS PRIVADOS ====================
+
+    private void escribirPendientes() {
+        List<Encolado> lote = new ArrayList<>(TAMANO_LOTE);
+        long esperaReintento = 500;
+        int fallos = 0;
+        while (true) {
+            try {
+                if (lote.isEmpty()) {
+                    Encolado primero = cola.poll(ESPERA_LOTE_MS, TimeUnit.MILLISECONDS);
+                    if (primero == null) {
+                        if (deteniendo) {
+                            return;
+                        }
+                        continue;
+                    }
+                    lote.add(primero);
+                    // Juntar lo que llegue mientras tanto, sin pasar del plazo
+                    long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(ESPERA_LOTE_MS);
+                    while (lote.size() < TAMANO_LOTE && !deteniendo) {
+                        cola.drainTo(lote, TAMANO_LOTE - lote.size());
+                        long restante = limite - System.nanoTime();
+                        if (lote.size() >= TAMANO_LOTE || restante <= 0) {
+                            break;
+                        }
+                        Encolado siguiente = cola.poll(restante, TimeUnit.NANOSECONDS);
+                        if (siguiente != null) {
+                            lote.add(siguiente);
+                        }
+                    }
+                    cola.drainTo(lote, TAMANO_LOTE - lote.size());
+                }
+
+                escribir(lote);
+                esperaReintento = 500;
+                fallos = 0;
+
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                System.err.println("Registro de cambios: error al escribir " + lote.size() +
+                    " eventos, se reintenta: " + e.getMessage());
+                if (deteniendo) {
+                    return;
+                }
+                if (++fallos >= REINTENTOS_LOTE) {
+                    escribirUnoPorUno(lote);
+                    if (lote.isEmpty()) {
+                        esperaReintento = 500;
+                        fallos = 0;
+                        continue;
+                    }
+                }
+                try {
+                    Thread.sleep(esperaReintento);
+                } catch (InterruptedException ie) {
+                    return;
+                }
+                esperaReintento = Math.min(esperaReintento * 2, ESPERA_MAXIMA_REINTENTO_MS);
+            }
+        }
+    }
+
+    /**
+     * Escribe el lote sede por sede y quita de él lo que ya quedó escrito,
+     * para que un reintento no duplique los eventos de otra sede
+     */
+    private void escribir(List<Encolado> lote) {
+        Map<String, List<EventoCambio>> porSede = new LinkedHashMap<>();
+        for (Encolado encolado : lote) {
+            porSede.computeIfAbsent(encolado.sede, s -> new ArrayList<>()).add(encolado.evento);
+        }
+        for (Map.Entry<String, List<EventoCambio>> grupo : porSede.entrySet()) {
+            String sede = grupo.getKey();
+            ContextoSede.ejecutarEn(sede, () -> escribir(grupo.getValue(),
+                particiones.computeIfAbsent(sede, s -> new HashSet<>())));
+            escritos.addAndGet(grupo.getValue().size());
+            for (Iterator<Encolado> it = lote.iterator(); it.hasNext(); ) {
+                if (it.next().sede.equals(sede)) {
+                    it.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * Escribe cada evento del lote en su propia transacción y aparta los que
+     * fallan. Se detiene sin apartar nada si falla la conexión, porque
+     * entonces fallarían todos.
+     */
+    private void escribirUnoPorUno(List<Encolado> lote) {
+        for (Iterator<Encolado> it = lote.iterator(); it.hasNext(); ) {
+            Encolado encolado = it.next();
+            try {
+                ContextoSede.ejecutarEn(encolado.sede, () -> escribir(List.of(encolado.evento),
+                    particiones.computeIfAbsent(encolado.sede, s -> new HashSet<>())));
+                escritos.incrementAndGet();
+            } catch (RuntimeException e) {
+                if (esFalloDeConexion(e)) {
+                    return;
+                }
+                apartados.incrementAndGet();
+                System.err.println("Registro de cambios: evento apartado (sede " + encolado.sede + "): " +
+                    encolado.evento + " - " + e.getMessage());
+            }
+            it.remove();
+        }
+    }
+
+    private static boolean esFalloDeConexion(Throwable e) {
+        for (Throwable causa = e; causa != null; causa = causa.getCause()) {
+            if (causa instanceof JDBCConnectionException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void escribir(List<EventoCambio> lote, Set<YearMonth> particiones) {
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction transaction = em.getTransaction();
+        Set<YearMonth> nuevas = new HashSet<>();
+        try {
+            transaction.begin();
+            em.unwrap(Session.class).doWork(conexion -> {
+                for (EventoCambio evento : lote) {
+                    YearMonth mes = YearMonth.from(evento.getFecha());
+                    if (!particiones.contains(mes) && nuevas.add(mes)) {
+                        crearParticion(conexion, mes);
+                    }
+                }
+                try (PreparedStatement insertar = conexion.prepareStatement(SQL_INSERTAR)) {
+                    for (EventoCambio evento : lote) {
+                        insertar.setTimestamp(1, Timestamp.valueOf(evento.getFecha()));
+                        insertar.setString(2, evento.getEntidad());
+                        insertar.setString(3, evento.getIdRegistro());
+                        insertar.setString(4, String.valueOf(evento.getOperacion()));
+                        if (evento.getIdUsuario() != null) {
+                            insertar.setInt(5, evento.getIdUsuario());
+                        } else {
+                            insertar.setNull(5, Types.INTEGER);
+                        }
+                        insertar.setString(6, evento.getCambios());
+                        insertar.addBatch();
+                    }
+                    insertar.executeBatch();
+                }
+            });
+            transaction.commit();
+            // La partición solo existe si la transacción que la creó se confirmó
+            particiones.addAll(nuevas);
+        } catch (RuntimeException e) {
+            if (transaction.isActive()) {
+                transaction.rollback();
+            }
+            throw e;
+        } finally {
+            em.close();
+        }
+    }
+
+    private static void crearParticion(Connection conexion, YearMonth mes) throws SQLException {
+        String nombre = String.format("evento_cambio_%04d_%02d", mes.getYear(), mes.getMonthValue());
+        try (Statement st = conexion.createStatement()) {
+            st.execute("SELECT pg_advisory_xact_lock(" + CANDADO_PARTICIONES + ")");
+            st.execute("CREATE TABLE IF NOT EXISTS " + nombre + " PARTITION OF evento_cambio " +
+                "FOR VALUES FROM ('" + mes.atDay(1) + "') TO ('" + mes.plusMonths(1).atDay(1) + "')");
+        }
+    }
+
+    private static final class Encolado {
+        private final String sede;
+        private final EventoCambio evento;
+
+        private Encolado(String sede, EventoCambio evento) {
+            this.sede = sede;
+            this.evento = evento;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.persistencia.cifrado;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.hibernate.Session;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Cifra las hojas de vida guardadas en claro antes de V7. Corre al arrancar,
+ * después de las migraciones de cada sede, en lotes que se confirman por
+ * separado; las filas se bloquean mientras se cifran, así dos instancias no
+ * cifran la misma fila dos veces. Cuando no quedan filas en claro solo hace
+ * una consulta.
+ */
+public final class CifradoHojasVida {
+
+    private static final int TAMANO_LOTE = 200;
+
+    /** Nombre de campo (dato asociado del cifrado) y de columna */
+    private static final String[] CAMPOS = { "alergias", "aspectosRelevantes", "enfermedades" };
+
+    private static final String SQL_PENDIENTES =
+        "SELECT id_hoja_vida, alergias, aspectosRelevantes, enfermedades FROM hoja_vida " +
+        "WHERE alergias NOT LIKE 'v1:%' OR aspectosRelevantes NOT LIKE 'v1:%' OR enfermedades NOT LIKE 'v1:%' " +
+        "ORDER BY id_hoja_vida LIMIT " + TAMANO_LOTE + " FOR UPDATE";
+
+    private static final String SQL_ACTUALIZAR =
+        "UPDATE hoja_vida SET alergias = ?, aspectosRelevantes = ?, enfermedades = ? WHERE id_hoja_vida = ?";
+
+    private CifradoHojasVida() {
+    }
+
+    /**
+     * Cifra las filas pendientes de la sede actual. Un error se informa y deja
+     * esas filas en claro (no se pueden consultar) hasta el próximo arranque.
+     */
+    public static void cifrarPendientes(EntityManagerFactory fabrica) {
+        EntityManager em = fabrica.createEntityManager();
+        try {
+            em.unwrap(Session.class).doWork(CifradoHojasVida::cifrarPendientes);
+        } catch (RuntimeException e) {
+            System.err.println("Error al cifrar las hojas de vida en claro: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            em.close();
+        }
+    }
+
+    // ==================== MÉTODOS PRIVADOS ====================
+
+    private static void cifrarPendientes(Connection conexion) throws SQLException {
+        CifradorCampos cifrador = CifradorCampos.getInstancia();
+        boolean autoCommit = conexion.getAutoCommit();
+        conexion.setAutoCommit(false);
+        try (PreparedStatement pendientes = conexion.prepareStatement(SQL_PENDIENTES);
+             PreparedStatement actualizar = conexion.prepareStatement(SQL_ACTUALIZAR)) {
+            long cifradas = 0;
+            int enLote;
+            do {
+                enLote = 0;
+                try (ResultSet rs = pendientes.executeQuery()) {
+                    while (rs.next()) {
+                        if (!cifrador.estaConfigurado()) {
+                            conexion.rollback();
+                            System.err.println("Hay hojas de vida sin cifrar y la clave de cifrado " +
+                                "no está configurada; no se podrán consultar");
+                            return;
+                        }
+                        for (int i = 0; i < CAMPOS.length; i++) {
+                            String valor = rs.getString(i + 2);
+                            actualizar.setString(i + 1, cifrador.estaCifrado(valor)
+                                ? valor : cifrador.cifrar(CAMPOS[i], valor));
+                        }
+                        actualizar.setInt(CAMPOS.length + 1, rs.getInt(1));
+                        actualizar.addBatch();
+                        enLote++;
+                    }
+                }
+                if (enLote > 0) {
+                    actualizar.executeBatch();
+                }
+                conexion.commit();
+                cifradas += enLote;
+            } while (enLote == TAMANO_LOTE);
+            if (cifradas > 0) {
+                System.out.println("Hojas de vida cifradas: " + cifradas);
+            }
+        } catch (SQLException | RuntimeException e) {
+            conexion.rollback();
+            throw e;
+        } finally {
+            conexion.setAutoCommit(autoCommit);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.persistencia.cifrado;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Cifrado de campos sensibles con AES-GCM. Cada valor se guarda como
+ * "v1:" + Base64(iv || texto cifrado || etiqueta); el nombre del campo va
+ * como dato asociado, así un valor copiado a otro campo no se descifra.
+ *
+ * La clave (Base64 de 16, 24 o 32 bytes) se lee de la propiedad
+ * gestionacademica.hojavida.clave o de la variable de entorno
+ * GESTIONACADEMICA_HOJAVIDA_CLAVE. Un valor sin prefijo se rechaza: los
+ * anteriores al cifrado los cifra CifradoHojasVida al arrancar.
+ */
+public final class CifradorCampos {
+
+    private static final String PREFIJO = "v1:";
+    private static final int BYTES_IV = 12;
+    private static final int BITS_ETIQUETA = 128;
+
+    private static final CifradorCampos INSTANCIA = new CifradorCampos(leerClave());
+
+    private final SecretKeySpec clave;
+    private final SecureRandom aleatorio = new SecureRandom();
+
+    CifradorCampos(byte[] clave) {
+        this.clave = clave != null ? new SecretKeySpec(clave, "AES") : null;
+    }
+
+    public static CifradorCampos getInstancia() {
+        return INSTANCIA;
+    }
+
+    public boolean estaConfigurado() {
+        return clave != null;
+    }
+
+    public String cifrar(String campo, String valor) {
+        if (valor == null) {
+            return null;
+        }
+        verificarClave();
+        try {
+            byte[] iv = new byte[BYTES_IV];
+            aleatorio.nextBytes(iv);
+            Cipher cifra = Cipher.getInstance("AES/GCM/NoPadding");
+            cifra.init(Cipher.ENCRYPT_MODE, clave, new GCMParameterSpec(BITS_ETIQUETA, iv));
+            cifra.updateAAD(campo.getBytes(StandardCharsets.UTF_8));
+            byte[] cifrado = cifra.doFinal(valor.getBytes(StandardCharsets.UTF_8));
+            return PREFIJO + Base64.getEncoder().encodeToString(
+                ByteBuffer.allocate(iv.length + cifrado.length).put(iv).put(cifrado).array());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("No se pudo cifrar el campo " + campo, e);
+        }
+    }
+
+    /**
+     * true si el valor guardado ya está cifrado (o es null)
+     */
+    public boolean estaCifrado(String guardado) {
+        return guardado == null || guardado.startsWith(PREFIJO);
+    }
+
+    public String descifrar(String campo, String guardado) {
+        if (guardado == null) {
+            return null;
+        }
+        if (!guardado.startsWith(PREFIJO)) {
+            throw new IllegalStateException("El campo " + campo + " está guardado sin cifrar");
+        }
+        verificarClave();
+        try {
+            byte[] datos = Base64.getDecoder().decode(guardado.substring(PREFIJO.length()));
+            Cipher cifra = Cipher.getInstance("AES/GCM/NoPadding");
+            cifra.init(Cipher.DECRYPT_MODE, clave, new GCMParameterSpec(BITS_ETIQUETA, datos, 0, BYTES_IV));
+            cifra.updateAAD(campo.getBytes(StandardCharsets.UTF_8));
+            byte[] plano = cifra.doFinal(datos, BYTES_IV, datos.length - BYTES_IV);
+            return new String(plano, StandardCharsets.UTF_8);
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new IllegalStateException("No se pudo descifrar el campo " + campo, e);
+        }
+    }
+
+    // ==================== MÉTODOS PRIVADOS ====================
+
+    private void verificarClave() {
+        if (clave == null) {
+            throw new IllegalStateException("La clave de cifrado de hojas de vida no está configurada");
+        }
+    }
+
+    private static byte[] leerClave() {
+        String texto = System.getProperty("gestionacademica.hojavida.clave",
+            System.getenv("GESTIONACADEMICA_HOJAVIDA_CLAVE"));
+        if (texto == null || texto.isBlank()) {
+            return null;
+        }
+        try {
+            byte[] clave = Base64.getDecoder().decode(texto.trim());
+            if (clave.length == 16 || clave.length == 24 || clave.length == 32) {
+                return clave;
+            }
+        } catch (IllegalArgumentException e) {
+            // Se informa abajo
+        }
+        System.err.println("La clave de hojas de vida debe ser Base64 de 16, 24 o 32 bytes; se ignora");
+        return null;
+    }
+}
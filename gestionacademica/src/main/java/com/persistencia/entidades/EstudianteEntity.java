@@ -3,6 +3,7 @@ package com.persistencia.entidades;
 import java.util.Set;
 
 import com.dominio.Estado;
+import com.dominio.validacion.ReglasPreinscripcion;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
@@ -17,23 +18,23 @@ public class EstudianteEntity {
 
     @NotBlank
     @Size(min = 2, max = 30)
-    @Pattern(regexp = "^[A-Za-zÁÉÍÓÚáéíóúñÑ]+$", message = "El nombre no debe contener números")
+    @Pattern(regexp = ReglasPreinscripcion.REGEX_NOMBRE, message = "El nombre no debe contener números")
     @Column(nullable = false, length = 30)
     private String primerNombre;
 
     @Size(min = 2, max = 30)
-    @Pattern(regexp = "^[A-Za-zÁÉÍÓÚáéíóúñÑ]+$", message = "El nombre no debe contener números")
+    @Pattern(regexp = ReglasPreinscripcion.REGEX_NOMBRE, message = "El nombre no debe contener números")
     @Column(length = 30)
     private String segundoNombre;
 
     @NotBlank
     @Size(min = 2, max = 30)
-    @Pattern(regexp = "^[A-Za-zÁÉÍÓÚáéíóúñÑ]+$", message = "El nombre no debe contener números")
+    @Pattern(regexp = ReglasPreinscripcion.REGEX_NOMBRE, message = "El nombre no debe contener números")
     @Column(nullable = false, length = 30)
     private String primerApellido;
 
     @Size(min = 2, max = 30)
-    @Pattern(regexp = "^[A-Za-zÁÉÍÓÚáéíóúñÑ]+$", message = "El nombre no debe contener números")
+    @Pattern(regexp = ReglasPreinscripcion.REGEX_NOMBRE, message = "El nombre no debe contener números")
     @Column(length = 30)
     private String segundoApellido;
 
@@ -0,0 +1,64 @@
+package com.persistencia.entidades;
+
+import java.time.LocalDateTime;
+
+import com.dominio.Estado;
+
+import jakarta.persistence.*;
+
+/**
+ * Registro de auditoría de un cambio de estado (preinscripción, estudiante o
+ * acudiente). Las filas se insertan con la misma sentencia que aplica el cambio.
+ */
+@Entity(name = "historial_estado")
+@Table(indexes = @Index(name = "ix_historial_estado_registro", columnList = "entidad, id_registro, fecha"))
+public class HistorialEstadoEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id_historial")
+    private Long idHistorial;
+
+    /** preinscripcion, estudiante o acudiente */
+    @Column(nullable = false, length = 20)
+    private String entidad;
+
+    @Column(name = "id_registro", nullable = false)
+    private Integer idRegistro;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private Estado estadoAnterior;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Estado estadoNuevo;
+
+    /** Usuario (directivo) que hizo el cambio */
+    @Column(name = "id_usuario")
+    private Integer idUsuario;
+
+    @Column(nullable = false)
+    private LocalDateTime fecha;
+
+    public Long getIdHistorial() { return idHistorial; }
+    public void setIdHistorial(Long idHistorial) { this.idHistorial = idHistorial; }
+
+    public String getEntidad() { return entidad; }
+    public void setEntidad(String entidad) { this.entidad = entidad; }
+
+    public Integer getIdRegistro() { return idRegistro; }
+    public void setIdRegistro(Integer idRegistro) { this.idRegistro = idRegistro; }
+
+    public Estado getEstadoAnterior() { return estadoAnterior; }
+    public void setEstadoAnterior(Estado estadoAnterior) { this.estadoAnterior = estadoAnterior; }
+
+    public Estado getEstadoNuevo() { return estadoNuevo; }
+    public void setEstadoNuevo(Estado estadoNuevo) { this.estadoNuevo = estadoNuevo; }
+
+    public Integer getIdUsuario() { return idUsuario; }
+    public void setIdUsuario(Integer idUsuario) { this.idUsuario = idUsuario; }
+
+    public LocalDateTime getFecha() { return fecha; }
+    public void setFecha(LocalDateTime fecha) { this.fecha = fecha; }
+}
@@ -2,6 +2,11 @@ package com.persistencia.entidades;
 
 import jakarta.persistence.*;
 
+/**
+ * Datos médicos del estudiante. alergias, aspectosRelevantes y enfermedades
+ * se guardan cifrados (CifradorCampos): solo HojaVidaService los escribe y
+ * los descifra.
+ */
 @Entity(name = "hoja_vida")
 public class HojaVidaEntity {
 
@@ -14,10 +19,13 @@ public class HojaVidaEntity {
     @JoinColumn(name = "estudiante", unique = true)
     private EstudianteEntity estudiante;
 
+    @Column(columnDefinition = "TEXT")
     private String alergias;
 
+    @Column(columnDefinition = "TEXT")
     private String aspectosRelevantes;
 
+    @Column(columnDefinition = "TEXT")
     private String enfermedades;
 
     public Integer getIdHojaVida() {
@@ -3,9 +3,16 @@ package com.persistencia.entidades;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import java.time.LocalDate;
+import java.util.Comparator;
 
 @Entity(name = "observacion")
-public class ObservacionEntity {
+public class ObservacionEntity implements Comparable<ObservacionEntity> {
+
+    // Orden cronológico del observador (@SortNatural): fecha y, el mismo día, id (las nuevas sin id, por texto)
+    private static final Comparator<ObservacionEntity> ORDEN = Comparator
+        .comparing(ObservacionEntity::getFechaObservacion, Comparator.nullsLast(Comparator.naturalOrder()))
+        .thenComparing(ObservacionEntity::getIdObservacion, Comparator.nullsLast(Comparator.naturalOrder()))
+        .thenComparing(ObservacionEntity::getDescripcion, Comparator.nullsLast(Comparator.naturalOrder()));
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -68,4 +75,9 @@ public class ObservacionEntity {
     public void setProfesor(ProfesorEntity profesor) {
         this.profesor = profesor;
     }
-}
\ No newline at end of file
+
+    @Override
+    public int compareTo(ObservacionEntity otra) {
+        return ORDEN.compare(this, otra);
+    }
+}
@@ -0,0 +1,75 @@
+package com.persistencia.entidades;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.*;
+
+/**
+ * Conteo materializado de logros calificados por grupo, periodo y categoría.
+ * Se mantiene de forma incremental al calificar o generar boletines y puede
+ * reconstruirse completo desde logros_estudiante.
+ */
+@Entity(name = "resumen_logros")
+@Table(uniqueConstraints = @UniqueConstraint(
+    name = "uk_resumen_logros", columnNames = {"grupo", "periodo", "categoria"}))
+public class ResumenLogrosEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id_resumen")
+    private Integer idResumen;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "grupo", nullable = false, referencedColumnName = "id_grupo")
+    private GrupoEntity grupo;
+
+    @NotBlank
+    @Column(nullable = false, length = 20)
+    private String periodo;
+
+    @NotBlank
+    @Column(nullable = false, length = 200)
+    private String categoria;
+
+    @Column(nullable = false)
+    private long cantidad;
+
+    public Integer getIdResumen() {
+        return idResumen;
+    }
+
+    public void setIdResumen(Integer idResumen) {
+        this.idResumen = idResumen;
+    }
+
+    public GrupoEntity getGrupo() {
+        return grupo;
+    }
+
+    public void setGrupo(GrupoEntity grupo) {
+        this.grupo = grupo;
+    }
+
+    public String getPeriodo() {
+        return periodo;
+    }
+
+    public void setPeriodo(String periodo) {
+        this.periodo = periodo;
+    }
+
+    public String getCategoria() {
+        return categoria;
+    }
+
+    public void setCategoria(String categoria) {
+        this.categoria = categoria;
+    }
+
+    public long getCantidad() {
+        return cantidad;
+    }
+
+    public void setCantidad(long cantidad) {
+        this.cantidad = cantidad;
+    }
+}
@@ -1,5 +1,7 @@
 package com.persistencia.entidades;
 
+import com.dominio.validacion.ReglasPreinscripcion;
+
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 
@@ -16,22 +18,22 @@ public class UsuarioEntity {
 
     @Basic
     @Size(min = 2, max = 30)
-    @Pattern(regexp = "^[A-Za-zÁÉÍÓÚáéíóúñÑ]+$", message = "El nombre no debe contener números")
+    @Pattern(regexp = ReglasPreinscripcion.REGEX_NOMBRE, message = "El nombre no debe contener números")
     @Column(nullable = false, length = 30)
     private String primerNombre;
 
     @Size(min = 2, max = 30)
-    @Pattern(regexp = "^[A-Za-zÁÉÍÓÚáéíóúñÑ]+$", message = "El nombre no debe contener números")
+    @Pattern(regexp = ReglasPreinscripcion.REGEX_NOMBRE, message = "El nombre no debe contener números")
     @Column(nullable = true, length = 30)
     private String segundoNombre;
 
     @Size(min = 2, max = 30)
-    @Pattern(regexp = "^[A-Za-zÁÉÍÓÚáéíóúñÑ]+$", message = "El nombre no debe contener números")
+    @Pattern(regexp = ReglasPreinscripcion.REGEX_NOMBRE, message = "El nombre no debe contener números")
     @Column(nullable = false, length = 30)
     private String primerApellido;
 
     @Size(min = 2, max = 30)
-    @Pattern(regexp = "^[A-Za-zÁÉÍÓÚáéíóúñÑ]+$", message = "El nombre no debe contener números")
+    @Pattern(regexp = ReglasPreinscripcion.REGEX_NOMBRE, message = "El nombre no debe contener números")
     @Column(nullable = true, length = 30)
     private String segundoApellido;
 
@@ -44,7 +46,7 @@ public class UsuarioEntity {
     @Column(nullable = false)
     private int edad;
 
-    @Pattern(regexp = "^[0-9]{10}$", message = "Debe tener 10 dígitos numéricos")
+    @Pattern(regexp = ReglasPreinscripcion.REGEX_TELEFONO, message = "Debe tener 10 dígitos numéricos")
     @Column(nullable = false, unique = true, length = 10)
     private String telefono;
 
@@ -0,0 +1,82 @@
+package com.persistencia.eventos;
+
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+
+import com.persistencia.entidades.AcudienteEntity;
+import com.persistencia.entidades.EstudianteEntity;
+import com.persistencia.entidades.LogroEntity;
+import com.persistencia.entidades.ObservacionEntity;
+
+/**
+ * Listener de Hibernate que reparte a los listeners de eventos (LogroListener,
+ * PersonaListener, ObservacionListener) los cambios ya confirmados. Corre
+ * después del commit, así los índices y cachés en memoria nunca ven lo que se
+ * revierte.
+ */
+public class AvisoConfirmados implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+        PostCommitDeleteEventListener {
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        Class<?> clase = persister.getMappedClass();
+        return LogroEntity.class.isAssignableFrom(clase)
+            || EstudianteEntity.class.isAssignableFrom(clase)
+            || AcudienteEntity.class.isAssignableFrom(clase)
+            || ObservacionEntity.class.isAssignableFrom(clase);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        guardado(event.getEntity());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        guardado(event.getEntity());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        eliminado(event.getEntity());
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    // ==================== MÉTODOS PRIVADOS ====================
+
+    private static void guardado(Object entidad) {
+        if (entidad instanceof LogroEntity logro) {
+            LogroListener.avisarGuardado(logro);
+        } else if (entidad instanceof EstudianteEntity || entidad instanceof AcudienteEntity) {
+            PersonaListener.avisarGuardada(entidad);
+        } else if (entidad instanceof ObservacionEntity observacion) {
+            ObservacionListener.avisarCambio(observacion);
+        }
+    }
+
+    private static void eliminado(Object entidad) {
+        if (entidad instanceof LogroEntity logro) {
+            LogroListener.avisarEliminado(logro);
+        } else if (entidad instanceof EstudianteEntity || entidad instanceof AcudienteEntity) {
+            PersonaListener.avisarEliminada(entidad);
+        } else if (entidad instanceof ObservacionEntity observacion) {
+            ObservacionListener.avisarCambio(observacion);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.persistencia.eventos;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.integrator.spi.Integrator;
+
+/**
+ * Registra {@link AvisoConfirmados} en cada SessionFactory. Hibernate lo carga
+ * desde META-INF/services/org.hibernate.integrator.spi.Integrator.
+ */
+public class IntegradorEventos implements Integrator {
+
+    @Override
+    public void integrate(Metadata metadata, BootstrapContext bootstrapContext,
+            SessionFactoryImplementor sessionFactory) {
+        AvisoConfirmados aviso = new AvisoConfirmados();
+        EventListenerRegistry eventos = sessionFactory.getServiceRegistry().requireService(EventListenerRegistry.class);
+        eventos.appendListeners(EventType.POST_COMMIT_INSERT, aviso);
+        eventos.appendListeners(EventType.POST_COMMIT_UPDATE, aviso);
+        eventos.appendListeners(EventType.POST_COMMIT_DELETE, aviso);
+    }
+}
@@ -0,0 +1,45 @@
+package com.persistencia.eventos;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import com.persistencia.entidades.LogroEntity;
+
+/**
+ * Avisa a los oyentes registrados (p. ej. el índice de búsqueda) cada vez que
+ * un logro se crea, cambia o se elimina. Los avisos llegan de
+ * {@link AvisoConfirmados}, después del commit: lo revertido no se avisa.
+ */
+public class LogroListener {
+
+    /**
+     * Recibe los cambios de logros ya confirmados en la base de datos
+     */
+    public interface OyenteLogros {
+        void logroGuardado(LogroEntity logro);
+
+        void logroEliminado(LogroEntity logro);
+    }
+
+    private static final List<OyenteLogros> OYENTES = new CopyOnWriteArrayList<>();
+
+    public static void suscribir(OyenteLogros oyente) {
+        OYENTES.add(oyente);
+    }
+
+    public static void cancelarSuscripcion(OyenteLogros oyente) {
+        OYENTES.remove(oyente);
+    }
+
+    static void avisarGuardado(LogroEntity logro) {
+        for (OyenteLogros oyente : OYENTES) {
+            oyente.logroGuardado(logro);
+        }
+    }
+
+    static void avisarEliminado(LogroEntity logro) {
+        for (OyenteLogros oyente : OYENTES) {
+            oyente.logroEliminado(logro);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.persistencia.eventos;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import com.persistencia.entidades.ObservacionEntity;
+
+/**
+ * Avisa a los oyentes registrados (p. ej. la vista de observaciones
+ * recientes) cada vez que una ObservacionEntity se crea, cambia o se elimina.
+ * Los avisos llegan de {@link AvisoConfirmados}, después del commit.
+ */
+public class ObservacionListener {
+
+    /**
+     * Recibe la observación ya confirmada en la base de datos
+     */
+    public interface OyenteObservaciones {
+        void observacionCambiada(ObservacionEntity observacion);
+    }
+
+    private static final List<OyenteObservaciones> OYENTES = new CopyOnWriteArrayList<>();
+
+    public static void suscribir(OyenteObservaciones oyente) {
+        OYENTES.add(oyente);
+    }
+
+    public static void cancelarSuscripcion(OyenteObservaciones oyente) {
+        OYENTES.remove(oyente);
+    }
+
+    static void avisarCambio(ObservacionEntity observacion) {
+        for (OyenteObservaciones oyente : OYENTES) {
+            oyente.observacionCambiada(observacion);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.persistencia.eventos;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Avisa a los oyentes registrados (p. ej. el índice de búsqueda de personas)
+ * cuando un EstudianteEntity o AcudienteEntity se crea, cambia o se elimina.
+ * Los avisos llegan de {@link AvisoConfirmados}, después del commit.
+ */
+public class PersonaListener {
+
+    /**
+     * Recibe la entidad (EstudianteEntity o AcudienteEntity) ya confirmada en la base de datos
+     */
+    public interface OyentePersonas {
+        void personaGuardada(Object persona);
+
+        void personaEliminada(Object persona);
+    }
+
+    private static final List<OyentePersonas> OYENTES = new CopyOnWriteArrayList<>();
+
+    public static void suscribir(OyentePersonas oyente) {
+        OYENTES.add(oyente);
+    }
+
+    public static void cancelarSuscripcion(OyentePersonas oyente) {
+        OYENTES.remove(oyente);
+    }
+
+    static void avisarGuardada(Object persona) {
+        for (OyentePersonas oyente : OYENTES) {
+            oyente.personaGuardada(persona);
+        }
+    }
+
+    static void avisarEliminada(Object persona) {
+        for (OyentePersonas oyente : OYENTES) {
+            oyente.personaEliminada(persona);
+        }
+    }
+}
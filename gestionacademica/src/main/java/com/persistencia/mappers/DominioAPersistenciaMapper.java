@@ -1,6 +1,9 @@
 package com.persistencia.mappers;
 
+import com.aplicacion.trazas.TipoTramo;
+import com.aplicacion.trazas.Trazador;
 import com.dominio.*;
+import com.persistencia.cifrado.CifradorCampos;
 import com.persistencia.entidades.*;
 
 import java.util.HashSet;
@@ -10,6 +13,11 @@ import java.util.stream.Collectors;
 public class DominioAPersistenciaMapper {
     
     public static PermisoEntity toEntity(Permiso permiso) {
+        return Trazador.medir("DominioAPersistenciaMapper.toEntity(Permiso)", TipoTramo.MAPPER,
+            () -> toEntitySinTraza(permiso));
+    }
+
+    private static PermisoEntity toEntitySinTraza(Permiso permiso) {
         if (permiso == null) return null;
         PermisoEntity entity = new PermisoEntity();
         entity.setIdPermiso(permiso.getIdPermiso());
@@ -19,6 +27,11 @@ public class DominioAPersistenciaMapper {
     }
 
     public static Permiso toDomain(PermisoEntity entity) {
+        return Trazador.medir("DominioAPersistenciaMapper.toDomain(PermisoEntity)", TipoTramo.MAPPER,
+            () -> toDomainSinTraza(entity));
+    }
+
+    private static Permiso toDomainSinTraza(PermisoEntity entity) {
         if (entity == null) return null;
         Permiso permiso = new Permiso(entity.getNombre(), entity.getDescripcion());
         permiso.setIdPermiso(entity.getIdPermiso());
@@ -26,6 +39,11 @@ public class DominioAPersistenciaMapper {
     }
 
     public static RolEntity toEntity(Rol rol) {
+        return Trazador.medir("DominioAPersistenciaMapper.toEntity(Rol)", TipoTramo.MAPPER,
+            () -> toEntitySinTraza(rol));
+    }
+
+    private static RolEntity toEntitySinTraza(Rol rol) {
         if (rol == null) return null;
         RolEntity entity = new RolEntity();
         entity.setIdRol(rol.getIdRol());
@@ -39,6 +57,11 @@ public class DominioAPersistenciaMapper {
     }
 
     public static Rol toDomain(RolEntity entity) {
+        return Trazador.medir("DominioAPersistenciaMapper.toDomain(RolEntity)", TipoTramo.MAPPER,
+            () -> toDomainSinTraza(entity));
+    }
+
+    private static Rol toDomainSinTraza(RolEntity entity) {
         if (entity == null) return null;
         Rol rol = new Rol(entity.getNombre());
         rol.setIdRol(entity.getIdRol());
@@ -49,6 +72,11 @@ public class DominioAPersistenciaMapper {
     }
 
     public static TokenUsuarioEntity toEntity(TokenUsuario token) {
+        return Trazador.medir("DominioAPersistenciaMapper.toEntity(TokenUsuario)", TipoTramo.MAPPER,
+            () -> toEntitySinTraza(token));
+    }
+
+    private static TokenUsuarioEntity toEntitySinTraza(TokenUsuario token) {
         if (token == null) return null;
         TokenUsuarioEntity entity = new TokenUsuarioEntity();
         entity.setIdToken(token.getIdToken());
@@ -59,6 +87,11 @@ public class DominioAPersistenciaMapper {
     }
 
     public static TokenUsuario toDomain(TokenUsuarioEntity entity) {
+        return Trazador.medir("DominioAPersistenciaMapper.toDomain(TokenUsuarioEntity)", TipoTramo.MAPPER,
+            () -> toDomainSinTraza(entity));
+    }
+
+    private static TokenUsuario toDomainSinTraza(TokenUsuarioEntity entity) {
         if (entity == null) return null;
         TokenUsuario token = new TokenUsuario(
             entity.getIdToken(),
@@ -108,6 +141,11 @@ public class DominioAPersistenciaMapper {
     
     // ==================== ACUDIENTE ====================
     public static AcudienteEntity toEntity(Acudiente acudiente) {
+        return Trazador.medir("DominioAPersistenciaMapper.toEntity(Acudiente)", TipoTramo.MAPPER,
+            () -> toEntitySinTraza(acudiente));
+    }
+
+    private static AcudienteEntity toEntitySinTraza(Acudiente acudiente) {
         if (acudiente == null) return null;
         
         AcudienteEntity entity = new AcudienteEntity();
@@ -136,6 +174,11 @@ public class DominioAPersistenciaMapper {
     }
 
     public static Acudiente toDomain(AcudienteEntity entity) {
+        return Trazador.medir("DominioAPersistenciaMapper.toDomain(AcudienteEntity)", TipoTramo.MAPPER,
+            () -> toDomainSinTraza(entity));
+    }
+
+    private static Acudiente toDomainSinTraza(AcudienteEntity entity) {
         if (entity == null) return null;
         
         Acudiente acudiente = new Acudiente();
@@ -146,6 +189,11 @@ public class DominioAPersistenciaMapper {
     }
 
     public static AcudienteEntity toEntityShallow(Acudiente acudiente){
+        return Trazador.medir("DominioAPersistenciaMapper.toEntityShallow", TipoTramo.MAPPER,
+            () -> toEntityShallowSinTraza(acudiente));
+    }
+
+    private static AcudienteEntity toEntityShallowSinTraza(Acudiente acudiente){
         if(acudiente == null) return null;
         
         AcudienteEntity acudienteEntity = new AcudienteEntity();
@@ -159,6 +207,11 @@ public class DominioAPersistenciaMapper {
     }
 
     public static Acudiente toDomainShallow(AcudienteEntity entity) {
+        return Trazador.medir("DominioAPersistenciaMapper.toDomainShallow(AcudienteEntity)", TipoTramo.MAPPER,
+            () -> toDomainShallowSinTraza(entity));
+    }
+
+    private static Acudiente toDomainShallowSinTraza(AcudienteEntity entity) {
         if (entity == null) return null;
         
         Acudiente acudiente = new Acudiente();
@@ -169,6 +222,11 @@ public class DominioAPersistenciaMapper {
     }
 
     public static Acudiente toDomainComplete(AcudienteEntity entity) {
+        return Trazador.medir("DominioAPersistenciaMapper.toDomainComplete(AcudienteEntity)", TipoTramo.MAPPER,
+            () -> toDomainCompleteSinTraza(entity));
+    }
+
+    private static Acudiente toDomainCompleteSinTraza(AcudienteEntity entity) {
         Acudiente acudiente = toDomain(entity);
         
         if (acudiente != null && entity.getEstudiantes() != null) {
@@ -183,6 +241,11 @@ public class DominioAPersistenciaMapper {
 
     // ==================== PROFESOR ====================
     public static ProfesorEntity toEntity(Profesor profesor) {
+        return Trazador.medir("DominioAPersistenciaMapper.toEntity(Profesor)", TipoTramo.MAPPER,
+            () -> toEntitySinTraza(profesor));
+    }
+
+    private static ProfesorEntity toEntitySinTraza(Profesor profesor) {
         if (profesor == null) return null;
         
         ProfesorEntity entity = new ProfesorEntity();
@@ -191,6 +254,11 @@ public class DominioAPersistenciaMapper {
     }
 
     public static Profesor toDomain(ProfesorEntity entity) {
+        return Trazador.medir("DominioAPersistenciaMapper.toDomain(ProfesorEntity)", TipoTramo.MAPPER,
+            () -> toDomainSinTraza(entity));
+    }
+
+    private static Profesor toDomainSinTraza(ProfesorEntity entity) {
         if (entity == null) return null;
         
         Profesor profesor = new Profesor();
@@ -199,6 +267,11 @@ public class DominioAPersistenciaMapper {
     }
 
     public static Profesor toDomainComplete(ProfesorEntity entity) {
+        return Trazador.medir("DominioAPersistenciaMapper.toDomainComplete(ProfesorEntity)", TipoTramo.MAPPER,
+            () -> toDomainCompleteSinTraza(entity));
+    }
+
+    private static Profesor toDomainCompleteSinTraza(ProfesorEntity entity) {
         Profesor profesor = toDomain(entity);
         
         if (profesor != null && entity.getGrupoAsignado() != null) {
@@ -210,6 +283,11 @@ public class DominioAPersistenciaMapper {
 
     // ==================== ADMINISTRADOR ====================
     public static AdministradorEntity toEntity(Administrador administrador) {
+        return Trazador.medir("DominioAPersistenciaMapper.toEntity(Administrador)", TipoTramo.MAPPER,
+            () -> toEntitySinTraza(administrador));
+    }
+
+    private static AdministradorEntity toEntitySinTraza(Administrador administrador) {
         if (administrador == null) return null;
         
         AdministradorEntity entity = new AdministradorEntity();
@@ -218,6 +296,11 @@ public class DominioAPersistenciaMapper {
     }
 
     public static Administrador toDomain(AdministradorEntity entity) {
+        return Trazador.medir("DominioAPersistenciaMapper.toDomain(AdministradorEntity)", TipoTramo.MAPPER,
+            () -> toDomainSinTraza(entity));
+    }
+
+    private static Administrador toDomainSinTraza(AdministradorEntity entity) {
         if (entity == null) return null;
         
         Administrador administrador = new Administrador();
@@ -227,6 +310,11 @@ public class DominioAPersistenciaMapper {
 
     // ==================== DIRECTIVO ====================
     public static DirectivoEntity toEntity(Directivo directivo) {
+        return Trazador.medir("DominioAPersistenciaMapper.toEntity(Directivo)", TipoTramo.MAPPER,
+            () -> toEntitySinTraza(directivo));
+    }
+
+    private static DirectivoEntity toEntitySinTraza(Directivo directivo) {
         if (directivo == null) return null;
         
         DirectivoEntity entity = new DirectivoEntity();
@@ -235,6 +323,11 @@ public class DominioAPersistenciaMapper {
     }
 
     public static Directivo toDomain(DirectivoEntity entity) {
+        return Trazador.medir("DominioAPersistenciaMapper.toDomain(DirectivoEntity)", TipoTramo.MAPPER,
+            () -> toDomainSinTraza(entity));
+    }
+
+    private static Directivo toDomainSinTraza(DirectivoEntity entity) {
         if (entity == null) return null;
         
         Directivo directivo = new Directivo();
@@ -244,6 +337,11 @@ public class DominioAPersistenciaMapper {
 
     // ==================== ESTUDIANTE ====================
     public static EstudianteEntity toEntity(Estudiante estudiante){
+        return Trazador.medir("DominioAPersistenciaMapper.toEntity(Estudiante)", TipoTramo.MAPPER,
+            () -> toEntitySinTraza(estudiante));
+    }
+
+    private static EstudianteEntity toEntitySinTraza(Estudiante estudiante){
         if(estudiante == null) return null;
         
         EstudianteEntity estudianteEntity = new EstudianteEntity();
@@ -311,6 +409,11 @@ public class DominioAPersistenciaMapper {
     }
 
     public static Estudiante toDomain(EstudianteEntity estudianteEntity){
+        return Trazador.medir("DominioAPersistenciaMapper.toDomain(EstudianteEntity)", TipoTramo.MAPPER,
+            () -> toDomainSinTraza(estudianteEntity));
+    }
+
+    private static Estudiante toDomainSinTraza(EstudianteEntity estudianteEntity){
         if(estudianteEntity == null) return null;
         
         Estudiante estudiante = new Estudiante();
@@ -332,9 +435,8 @@ public class DominioAPersistenciaMapper {
         if(estudianteEntity.getGrupo() != null) {
             estudiante.setGrupo(toDomain(estudianteEntity.getGrupo()));
         }
-        if(estudianteEntity.getHojaDeVida() != null) {
-            estudiante.setHojaDeVida(toDomain(estudianteEntity.getHojaDeVida()));
-        }
+        // La hoja de vida (datos médicos cifrados) no se carga con el
+        // estudiante: se pide a HojaVidaService con permiso
         if(estudianteEntity.getObservador() != null) {
             estudiante.setObservador(toDomain(estudianteEntity.getObservador()));
         }
@@ -358,6 +460,11 @@ public class DominioAPersistenciaMapper {
     }
 
     public static Estudiante toDomainShallow(EstudianteEntity entity) {
+        return Trazador.medir("DominioAPersistenciaMapper.toDomainShallow(EstudianteEntity)", TipoTramo.MAPPER,
+            () -> toDomainShallowSinTraza(entity));
+    }
+
+    private static Estudiante toDomainShallowSinTraza(EstudianteEntity entity) {
         if (entity == null) return null;
         
         Estudiante e = new Estudiante();
@@ -378,6 +485,11 @@ public class DominioAPersistenciaMapper {
 
     // ==================== GRADO ====================
     public static GradoEntity toEntity(Grado grado) {
+        return Trazador.medir("DominioAPersistenciaMapper.toEntity(Grado)", TipoTramo.MAPPER,
+            () -> toEntitySinTraza(grado));
+    }
+
+    private static GradoEntity toEntitySinTraza(Grado grado) {
         if (grado == null) return null;
         
         GradoEntity entity = new GradoEntity();
@@ -404,6 +516,11 @@ public class DominioAPersistenciaMapper {
     }
 
     public static Grado toDomain(GradoEntity entity) {
+        return Trazador.medir("DominioAPersistenciaMapper.toDomain(GradoEntity)", TipoTramo.MAPPER,
+            () -> toDomainSinTraza(entity));
+    }
+
+    private static Grado toDomainSinTraza(GradoEntity entity) {
         if (entity == null) return null;
         
         Set<BibliotecaLogros> bibliotecas = null;
@@ -430,6 +547,11 @@ public class DominioAPersistenciaMapper {
 
     // ==================== GRUPO ====================
     public static GrupoEntity toEntity(Grupo grupo) {
+        return Trazador.medir("DominioAPersistenciaMapper.toEntity(Grupo)", TipoTramo.MAPPER,
+            () -> toEntitySinTraza(grupo));
+    }
+
+    private static GrupoEntity toEntitySinTraza(Grupo grupo) {
         if (grupo == null) return null;
         
         GrupoEntity entity = new GrupoEntity();
@@ -457,6 +579,11 @@ public class DominioAPersistenciaMapper {
     }
 
     public static Grupo toDomain(GrupoEntity entity) {
+        return Trazador.medir("DominioAPersistenciaMapper.toDomain(GrupoEntity)", TipoTramo.MAPPER,
+            () -> toDomainSinTraza(entity));
+    }
+
+    private static Grupo toDomainSinTraza(GrupoEntity entity) {
         if (entity == null) return null;
         
         Grado grado = entity.getGrado() != null ? toDomain(entity.getGrado()) : null;
@@ -481,13 +608,20 @@ public class DominioAPersistenciaMapper {
 
     // ==================== HOJA DE VIDA ====================
     public static HojaVidaEntity toEntity(HojaVida hojaVida) {
+        return Trazador.medir("DominioAPersistenciaMapper.toEntity(HojaVida)", TipoTramo.MAPPER,
+            () -> toEntitySinTraza(hojaVida));
+    }
+
+    private static HojaVidaEntity toEntitySinTraza(HojaVida hojaVida) {
         if (hojaVida == null) return null;
         
+        // Los datos médicos nunca se escriben en claro
+        CifradorCampos cifrador = CifradorCampos.getInstancia();
         HojaVidaEntity entity = new HojaVidaEntity();
         entity.setIdHojaVida(hojaVida.getIdHojaVida());
-        entity.setAlergias(hojaVida.getAlergias());
-        entity.setAspectosRelevantes(hojaVida.getAspectosRelevantes());
-        entity.setEnfermedades(hojaVida.getEnfermedades());
+        entity.setAlergias(cifrador.cifrar("alergias", hojaVida.getAlergias()));
+        entity.setAspectosRelevantes(cifrador.cifrar("aspectosRelevantes", hojaVida.getAspectosRelevantes()));
+        entity.setEnfermedades(cifrador.cifrar("enfermedades", hojaVida.getEnfermedades()));
         
         if (hojaVida.getEstudiante() != null) {
             entity.setEstudiante(toEntity(hojaVida.getEstudiante()));
@@ -496,22 +630,30 @@ public class DominioAPersistenciaMapper {
         return entity;
     }
 
+    /**
+     * Solo la identidad de la hoja de vida: los datos médicos se descifran
+     * en HojaVidaService, que verifica el permiso de quien los pide
+     */
     public static HojaVida toDomain(HojaVidaEntity entity) {
+        return Trazador.medir("DominioAPersistenciaMapper.toDomain(HojaVidaEntity)", TipoTramo.MAPPER,
+            () -> toDomainSinTraza(entity));
+    }
+
+    private static HojaVida toDomainSinTraza(HojaVidaEntity entity) {
         if (entity == null) return null;
         
         Estudiante estudiante = entity.getEstudiante() != null ? toDomain(entity.getEstudiante()) : null;
         
-        return new HojaVida(
-            entity.getIdHojaVida(),
-            estudiante,
-            entity.getAlergias(),
-            entity.getAspectosRelevantes(),
-            entity.getEnfermedades()
-        );
+        return new HojaVida(entity.getIdHojaVida(), estudiante, null, null, null);
     }
 
     // ==================== OBSERVADOR ====================
     public static ObservadorEntity toEntity(Observador observador) {
+        return Trazador.medir("DominioAPersistenciaMapper.toEntity(Observador)", TipoTramo.MAPPER,
+            () -> toEntitySinTraza(observador));
+    }
+
+    private static ObservadorEntity toEntitySinTraza(Observador observador) {
         if (observador == null) return null;
         
         ObservadorEntity entity = new ObservadorEntity();
@@ -533,16 +675,18 @@ public class DominioAPersistenciaMapper {
     }
 
     public static Observador toDomain(ObservadorEntity entity) {
+        return Trazador.medir("DominioAPersistenciaMapper.toDomain(ObservadorEntity)", TipoTramo.MAPPER,
+            () -> toDomainSinTraza(entity));
+    }
+
+    private static Observador toDomainSinTraza(ObservadorEntity entity) {
         if (entity == null) return null;
         
         Estudiante estudiante = entity.getEstudiante() != null ? toDomain(entity.getEstudiante()) : null;
         
-        java.util.SortedSet<Observacion> observaciones = null;
-        if (entity.getObservaciones() != null) {
-            observaciones = entity.getObservaciones().stream()
-                .map(DominioAPersistenciaMapper::toDomain)
-                .collect(Collectors.toCollection(java.util.TreeSet::new));
-        }
+        // El historial no se carga: crece sin límite con los años. Las
+        // observaciones se consultan por páginas con ObservadorService.
+        java.util.SortedSet<Observacion> observaciones = new java.util.TreeSet<>();
         
         return new Observador(
             entity.getIdObservador(),
@@ -553,6 +697,11 @@ public class DominioAPersistenciaMapper {
 
     // ==================== OBSERVACION ====================
     public static ObservacionEntity toEntity(Observacion observacion) {
+        return Trazador.medir("DominioAPersistenciaMapper.toEntity(Observacion)", TipoTramo.MAPPER,
+            () -> toEntitySinTraza(observacion));
+    }
+
+    private static ObservacionEntity toEntitySinTraza(Observacion observacion) {
         if (observacion == null) return null;
         
         ObservacionEntity entity = new ObservacionEntity();
@@ -572,6 +721,11 @@ public class DominioAPersistenciaMapper {
     }
 
     public static Observacion toDomain(ObservacionEntity entity) {
+        return Trazador.medir("DominioAPersistenciaMapper.toDomain(ObservacionEntity)", TipoTramo.MAPPER,
+            () -> toDomainSinTraza(entity));
+    }
+
+    private static Observacion toDomainSinTraza(ObservacionEntity entity) {
         if (entity == null) return null;
         
         Observador observador = entity.getObservador() != null ? toDomain(entity.getObservador()) : null;
@@ -588,6 +742,11 @@ public class DominioAPersistenciaMapper {
 
     // ==================== PREINSCRIPCION ====================
     public static PreinscripcionEntity toEntity(Preinscripcion preinscripcion) {
+        return Trazador.medir("DominioAPersistenciaMapper.toEntity(Preinscripcion)", TipoTramo.MAPPER,
+            () -> toEntitySinTraza(preinscripcion));
+    }
+
+    private static PreinscripcionEntity toEntitySinTraza(Preinscripcion preinscripcion) {
         if (preinscripcion == null) return null;
         
         PreinscripcionEntity entity = new PreinscripcionEntity();
@@ -617,6 +776,11 @@ public class DominioAPersistenciaMapper {
 
     // Versión alternativa para nuevas preinscripciones
     public static PreinscripcionEntity toEntityForNew(Preinscripcion preinscripcion) {
+        return Trazador.medir("DominioAPersistenciaMapper.toEntityForNew", TipoTramo.MAPPER,
+            () -> toEntityForNewSinTraza(preinscripcion));
+    }
+
+    private static PreinscripcionEntity toEntityForNewSinTraza(Preinscripcion preinscripcion) {
         if (preinscripcion == null) return null;
         
         PreinscripcionEntity entity = new PreinscripcionEntity();
@@ -634,6 +798,11 @@ public class DominioAPersistenciaMapper {
     }
 
     public static Preinscripcion toDomain(PreinscripcionEntity entity) {
+        return Trazador.medir("DominioAPersistenciaMapper.toDomain(PreinscripcionEntity)", TipoTramo.MAPPER,
+            () -> toDomainSinTraza(entity));
+    }
+
+    private static Preinscripcion toDomainSinTraza(PreinscripcionEntity entity) {
         if (entity == null) return null;
         
         Acudiente acudiente = entity.getAcudiente() != null ? toDomainShallow(entity.getAcudiente()) : null;
@@ -656,6 +825,11 @@ public class DominioAPersistenciaMapper {
 
     // ==================== BIBLIOTECA LOGROS ====================
     public static BibliotecaLogrosEntity toEntity(BibliotecaLogros biblioteca) {
+        return Trazador.medir("DominioAPersistenciaMapper.toEntity(BibliotecaLogros)", TipoTramo.MAPPER,
+            () -> toEntitySinTraza(biblioteca));
+    }
+
+    private static BibliotecaLogrosEntity toEntitySinTraza(BibliotecaLogros biblioteca) {
         if (biblioteca == null) return null;
         
         BibliotecaLogrosEntity entity = new BibliotecaLogrosEntity();
@@ -678,6 +852,11 @@ public class DominioAPersistenciaMapper {
     }
 
     public static BibliotecaLogros toDomain(BibliotecaLogrosEntity entity) {
+        return Trazador.medir("DominioAPersistenciaMapper.toDomain(BibliotecaLogrosEntity)", TipoTramo.MAPPER,
+            () -> toDomainSinTraza(entity));
+    }
+
+    private static BibliotecaLogros toDomainSinTraza(BibliotecaLogrosEntity entity) {
         if (entity == null) return null;
         
         Grado grado = entity.getGrado() != null ? toDomain(entity.getGrado()) : null;
@@ -699,6 +878,11 @@ public class DominioAPersistenciaMapper {
 
     // ==================== LOGRO ====================
     public static LogroEntity toEntity(Logro logro) {
+        return Trazador.medir("DominioAPersistenciaMapper.toEntity(Logro)", TipoTramo.MAPPER,
+            () -> toEntitySinTraza(logro));
+    }
+
+    private static LogroEntity toEntitySinTraza(Logro logro) {
         if (logro == null) return null;
         
         LogroEntity entity = new LogroEntity();
@@ -713,6 +897,11 @@ public class DominioAPersistenciaMapper {
     }
 
     public static Logro toDomain(LogroEntity entity) {
+        return Trazador.medir("DominioAPersistenciaMapper.toDomain(LogroEntity)", TipoTramo.MAPPER,
+            () -> toDomainSinTraza(entity));
+    }
+
+    private static Logro toDomainSinTraza(LogroEntity entity) {
         if (entity == null) return null;
         
         BibliotecaLogros biblioteca = entity.getBibliotecaLogros() != null ? 
@@ -727,6 +916,11 @@ public class DominioAPersistenciaMapper {
 
     // ==================== LOGRO ESTUDIANTE ====================
     public static LogroEstudianteEntity toEntity(LogroEstudiante logroEstudiante) {
+        return Trazador.medir("DominioAPersistenciaMapper.toEntity(LogroEstudiante)", TipoTramo.MAPPER,
+            () -> toEntitySinTraza(logroEstudiante));
+    }
+
+    private static LogroEstudianteEntity toEntitySinTraza(LogroEstudiante logroEstudiante) {
         if (logroEstudiante == null) return null;
         
         LogroEstudianteEntity entity = new LogroEstudianteEntity();
@@ -753,6 +947,11 @@ public class DominioAPersistenciaMapper {
     }
 
     public static LogroEstudiante toDomain(LogroEstudianteEntity entity) {
+        return Trazador.medir("DominioAPersistenciaMapper.toDomain(LogroEstudianteEntity)", TipoTramo.MAPPER,
+            () -> toDomainSinTraza(entity));
+    }
+
+    private static LogroEstudiante toDomainSinTraza(LogroEstudianteEntity entity) {
         if (entity == null) return null;
         
         Estudiante estudiante = entity.getEstudiante() != null ? toDomain(entity.getEstudiante()) : null;
@@ -770,8 +969,60 @@ public class DominioAPersistenciaMapper {
         );
     }
 
+    /**
+     * Versión liviana para boletines: solo descripción y categoría del logro
+     * y nombre del profesor, sin recorrer estudiante, grado ni token
+     */
+    public static LogroEstudiante toDomainShallow(LogroEstudianteEntity entity) {
+        return Trazador.medir("DominioAPersistenciaMapper.toDomainShallow(LogroEstudianteEntity)", TipoTramo.MAPPER,
+            () -> toDomainShallowSinTraza(entity));
+    }
+
+    private static LogroEstudiante toDomainShallowSinTraza(LogroEstudianteEntity entity) {
+        if (entity == null) return null;
+        
+        Logro logro = null;
+        if (entity.getLogro() != null) {
+            LogroEntity logroEntity = entity.getLogro();
+            BibliotecaLogros biblioteca = null;
+            if (logroEntity.getBibliotecaLogros() != null) {
+                biblioteca = new BibliotecaLogros(
+                    logroEntity.getBibliotecaLogros().getIdBibliotecaLogros(),
+                    logroEntity.getBibliotecaLogros().getCategoria(),
+                    null,
+                    null
+                );
+            }
+            logro = new Logro(logroEntity.getIdLogro(), logroEntity.getDescripcion(), biblioteca);
+        }
+        
+        Profesor profesor = null;
+        if (entity.getProfesor() != null) {
+            profesor = new Profesor();
+            profesor.setIdUsuario(entity.getProfesor().getIdUsuario());
+            profesor.setPrimerNombre(entity.getProfesor().getPrimerNombre());
+            profesor.setSegundoNombre(entity.getProfesor().getSegundoNombre());
+            profesor.setPrimerApellido(entity.getProfesor().getPrimerApellido());
+            profesor.setSegundoApellido(entity.getProfesor().getSegundoApellido());
+        }
+        
+        return new LogroEstudiante(
+            entity.getIdLogroEstudiante(),
+            entity.getFechaCalificacion(),
+            null,
+            null,
+            logro,
+            profesor
+        );
+    }
+
     // ==================== BOLETIN ====================
     public static BoletinEntity toEntity(Boletin boletin) {
+        return Trazador.medir("DominioAPersistenciaMapper.toEntity(Boletin)", TipoTramo.MAPPER,
+            () -> toEntitySinTraza(boletin));
+    }
+
+    private static BoletinEntity toEntitySinTraza(Boletin boletin) {
         if (boletin == null) return null;
         
         BoletinEntity entity = new BoletinEntity();
@@ -795,6 +1046,11 @@ public class DominioAPersistenciaMapper {
     }
 
     public static Boletin toDomain(BoletinEntity entity) {
+        return Trazador.medir("DominioAPersistenciaMapper.toDomain(BoletinEntity)", TipoTramo.MAPPER,
+            () -> toDomainSinTraza(entity));
+    }
+
+    private static Boletin toDomainSinTraza(BoletinEntity entity) {
         if (entity == null) return null;
         
         Estudiante estudiante = entity.getEstudiante() != null ? toDomain(entity.getEstudiante()) : null;
@@ -0,0 +1,80 @@
+package com.persistencia.metricas;
+
+import java.util.Map;
+
+import com.aplicacion.trazas.TipoTramo;
+import com.aplicacion.trazas.Trazador;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.internal.StatisticsImpl;
+import org.hibernate.stat.spi.StatisticsFactory;
+import org.hibernate.stat.spi.StatisticsImplementor;
+
+/**
+ * Estadísticas de Hibernate que además reenvían cada evento a
+ * MetricasPersistencia (histogramas por consulta, consultas lentas y conteos
+ * por llamada de servicio). Se activa en Persistence.xml con
+ * hibernate.stats.factory = com.persistencia.metricas.EstadisticasHibernate$Fabrica
+ */
+public class EstadisticasHibernate extends StatisticsImpl {
+
+    /** Propiedad de Persistence.xml con el umbral de consulta lenta en milisegundos */
+    public static final String PROPIEDAD_UMBRAL_LENTA = "gestionacademica.metricas.consulta_lenta_ms";
+
+    private final MetricasPersistencia metricas;
+
+    public EstadisticasHibernate(SessionFactoryImplementor sessionFactory, MetricasPersistencia metricas) {
+        super(sessionFactory);
+        this.metricas = metricas;
+    }
+
+    @Override
+    public void queryExecuted(String consulta, int filas, long tiempoMs) {
+        super.queryExecuted(consulta, filas, tiempoMs);
+        metricas.consultaEjecutada(consulta, filas, tiempoMs);
+        Trazador.registrarTerminado(consulta, TipoTramo.CONSULTA, tiempoMs * 1_000_000L);
+    }
+
+    @Override
+    public void loadEntity(String entidad) {
+        super.loadEntity(entidad);
+        metricas.entidadCargada();
+    }
+
+    @Override
+    public void fetchEntity(String entidad) {
+        super.fetchEntity(entidad);
+        metricas.entidadTraida();
+    }
+
+    @Override
+    public void fetchCollection(String rol) {
+        super.fetchCollection(rol);
+        metricas.coleccionTraida();
+    }
+
+    @Override
+    public void prepareStatement() {
+        super.prepareStatement();
+        metricas.sentenciaPreparada();
+    }
+
+    /**
+     * Fábrica que Hibernate instancia por reflexión al construir la EntityManagerFactory
+     */
+    public static class Fabrica implements StatisticsFactory {
+
+        @Override
+        public StatisticsImplementor buildStatistics(SessionFactoryImplementor sessionFactory) {
+            MetricasPersistencia metricas = MetricasPersistencia.getInstancia();
+            Map<String, Object> propiedades = sessionFactory.getProperties();
+            Object umbral = propiedades.get(PROPIEDAD_UMBRAL_LENTA);
+            if (umbral != null) {
+                metricas.setUmbralConsultaLentaMs(Long.parseLong(umbral.toString().trim()));
+            }
+            EstadisticasHibernate estadisticas = new EstadisticasHibernate(sessionFactory, metricas);
+            metricas.vincular(estadisticas);
+            return estadisticas;
+        }
+    }
+}
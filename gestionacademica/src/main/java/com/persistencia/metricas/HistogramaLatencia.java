@@ -0,0 +1,103 @@
+package com.persistencia.metricas;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de latencias en milisegundos con cubetas fijas. Registrar es
+ * concurrente y sin bloqueos; los percentiles se estiman con el límite
+ * superior de la cubeta donde caen.
+ */
+public class HistogramaLatencia {
+
+    /** Límites superiores (inclusive) de cada cubeta; la última cubeta es "más de 5000 ms" */
+    static final long[] LIMITES_MS = {1, 2, 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000};
+
+    private final LongAdder[] cubetas = new LongAdder[LIMITES_MS.length + 1];
+    private final LongAdder total = new LongAdder();
+    private final LongAdder sumaMs = new LongAdder();
+    private final LongAccumulator maximoMs = new LongAccumulator(Math::max, 0);
+
+    public HistogramaLatencia() {
+        for (int i = 0; i < cubetas.length; i++) {
+            cubetas[i] = new LongAdder();
+        }
+    }
+
+    public void registrar(long ms) {
+        int i = 0;
+        while (i < LIMITES_MS.length && ms > LIMITES_MS[i]) {
+            i++;
+        }
+        cubetas[i].increment();
+        total.increment();
+        sumaMs.add(ms);
+        maximoMs.accumulate(ms);
+    }
+
+    public long getTotal() {
+        return total.sum();
+    }
+
+    public long getSumaMs() {
+        return sumaMs.sum();
+    }
+
+    public long getMaximoMs() {
+        return maximoMs.get();
+    }
+
+    public double getPromedioMs() {
+        long n = total.sum();
+        return n == 0 ? 0 : (double) sumaMs.sum() / n;
+    }
+
+    /**
+     * Percentil aproximado (0-100): límite superior de la cubeta que lo contiene,
+     * acotado por el máximo observado
+     */
+    public long percentil(double p) {
+        long n = total.sum();
+        if (n == 0) {
+            return 0;
+        }
+        long objetivo = (long) Math.ceil(n * p / 100.0);
+        long acumulado = 0;
+        for (int i = 0; i < cubetas.length; i++) {
+            acumulado += cubetas[i].sum();
+            if (acumulado >= objetivo) {
+                long limite = i < LIMITES_MS.length ? LIMITES_MS[i] : Long.MAX_VALUE;
+                return Math.min(limite, maximoMs.get());
+            }
+        }
+        return maximoMs.get();
+    }
+
+    /**
+     * Conteos por cubeta en texto, p. ej. "≤1:120 ≤2:30 ... >5000:0"
+     */
+    public String distribucion() {
+        StringBuilder texto = new StringBuilder();
+        for (int i = 0; i < cubetas.length; i++) {
+            long conteo = cubetas[i].sum();
+            if (conteo == 0) {
+                continue;
+            }
+            if (texto.length() > 0) {
+                texto.append(' ');
+            }
+            texto.append(i < LIMITES_MS.length ? "≤" + LIMITES_MS[i] : ">" + LIMITES_MS[LIMITES_MS.length - 1])
+                 .append(':').append(conteo);
+        }
+        return texto.toString();
+    }
+
+    public void reiniciar() {
+        for (LongAdder cubeta : cubetas) {
+            cubeta.reset();
+        }
+        total.reset();
+        sumaMs.reset();
+        maximoMs.reset();
+    }
+}
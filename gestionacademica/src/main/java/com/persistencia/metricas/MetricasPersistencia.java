@@ -0,0 +1,431 @@
+package com.persistencia.metricas;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.ObjectName;
+
+import org.hibernate.stat.Statistics;
+
+/**
+ * Métricas de acceso a datos en reemplazo de hibernate.show_sql:
+ * - Ejecuciones y latencias (histograma) por consulta
+ * - Registro de consultas lentas según un umbral
+ * - Cargas y fetches de entidades por llamada de servicio (para detectar N+1)
+ * - Tasas de acierto de la caché de segundo nivel y de consultas
+ * Se publica por JMX y como reporte de texto periódico.
+ */
+public class MetricasPersistencia implements MetricasPersistenciaMBean {
+
+    public static final String NOMBRE_JMX = "com.gestionacademica:type=MetricasPersistencia";
+
+    private static final MetricasPersistencia INSTANCIA = new MetricasPersistencia();
+
+    /** Consultas distintas que se siguen por separado; el resto se agrupa en OTRAS_CONSULTAS */
+    private static final int MAX_CONSULTAS = 500;
+    private static final String OTRAS_CONSULTAS = "(otras consultas)";
+    private static final int MAX_CONSULTAS_LENTAS = 50;
+    private static final int FILAS_REPORTE = 15;
+
+    /** Fetches (entidades + colecciones) promedio por llamada a partir de los cuales se sospecha N+1 */
+    private static final double UMBRAL_N_MAS_1 = 10;
+
+    private static final DateTimeFormatter FORMATO_FECHA = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final Map<String, EstadisticaConsulta> consultas = new ConcurrentHashMap<>();
+    private final Map<String, EstadisticaLlamada> llamadas = new ConcurrentHashMap<>();
+    private final Deque<ConsultaLenta> ultimasLentas = new ArrayDeque<>();
+    private final LongAdder consultasLentas = new LongAdder();
+    private final ThreadLocal<Llamada> llamadaActual = new ThreadLocal<>();
+
+    private volatile Statistics estadisticas;
+    private volatile long umbralConsultaLentaMs = 200;
+
+    private MetricasPersistencia() {
+    }
+
+    public static MetricasPersistencia getInstancia() {
+        return INSTANCIA;
+    }
+
+    /**
+     * Abre una llamada de servicio medida: las sentencias, cargas y fetches que
+     * ocurran en este hilo hasta cerrarla se le atribuyen. Usar con
+     * try-with-resources; las llamadas anidadas suman también a la externa.
+     */
+    public static Llamada iniciarLlamada(String nombre) {
+        return INSTANCIA.abrir(nombre);
+    }
+
+    // ==================== EVENTOS DE HIBERNATE ====================
+
+    void vincular(Statistics estadisticas) {
+        this.estadisticas = estadisticas;
+    }
+
+    void consultaEjecutada(String consulta, int filas, long tiempoMs) {
+        EstadisticaConsulta estadistica = consultas.get(consulta);
+        if (estadistica == null) {
+            String clave = consultas.size() < MAX_CONSULTAS ? consulta : OTRAS_CONSULTAS;
+            estadistica = consultas.computeIfAbsent(clave, c -> new EstadisticaConsulta());
+        }
+        estadistica.registrar(filas, tiempoMs);
+
+        Llamada llamada = llamadaActual.get();
+        if (llamada != null) {
+            llamada.consultas++;
+        }
+
+        if (tiempoMs >= umbralConsultaLentaMs) {
+            consultasLentas.increment();
+            ConsultaLenta lenta = new ConsultaLenta(LocalDateTime.now(), tiempoMs, filas, consulta,
+                llamada != null ? llamada.nombre : null);
+            synchronized (ultimasLentas) {
+                if (ultimasLentas.size() == MAX_CONSULTAS_LENTAS) {
+                    ultimasLentas.removeFirst();
+                }
+                ultimasLentas.addLast(lenta);
+            }
+            System.err.println("[CONSULTA LENTA] " + lenta);
+        }
+    }
+
+    void entidadCargada() {
+        Llamada llamada = llamadaActual.get();
+        if (llamada != null) {
+            llamada.entidadesCargadas++;
+        }
+    }
+
+    void entidadTraida() {
+        Llamada llamada = llamadaActual.get();
+        if (llamada != null) {
+            llamada.entidadesTraidas++;
+        }
+    }
+
+    void coleccionTraida() {
+        Llamada llamada = llamadaActual.get();
+        if (llamada != null) {
+            llamada.coleccionesTraidas++;
+        }
+    }
+
+    void sentenciaPreparada() {
+        Llamada llamada = llamadaActual.get();
+        if (llamada != null) {
+            llamada.sentencias++;
+        }
+    }
+
+    // ==================== PUBLICACIÓN ====================
+
+    /**
+     * Registra el MBean en el servidor de plataforma (visible en JConsole / VisualVM)
+     */
+    public void registrarJmx() {
+        try {
+            ObjectName nombre = new ObjectName(NOMBRE_JMX);
+            if (!ManagementFactory.getPlatformMBeanServer().isRegistered(nombre)) {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(this, nombre);
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Imprime el reporte de texto cada intervalo en un hilo daemon
+     */
+    public void programarReporte(Duration intervalo) {
+        ScheduledExecutorService programador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread hilo = new Thread(r, "reporte-metricas-persistencia");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        programador.scheduleAtFixedRate(() -> {
+            try {
+                System.out.println(getReporte());
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }, intervalo.toMillis(), intervalo.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public String getReporte() {
+        StringBuilder r = new StringBuilder();
+        r.append("========== MÉTRICAS DE PERSISTENCIA (")
+         .append(LocalDateTime.now().format(FORMATO_FECHA)).append(") ==========\n");
+
+        Statistics s = estadisticas;
+        if (s == null || !s.isStatisticsEnabled()) {
+            r.append("Estadísticas de Hibernate no activas (hibernate.generate_statistics)\n");
+        } else {
+            r.append(String.format("Sesiones: %d  Transacciones: %d  Flushes: %d  Sentencias preparadas: %d%n",
+                s.getSessionOpenCount(), s.getTransactionCount(), s.getFlushCount(), s.getPrepareStatementCount()));
+            r.append(String.format("Entidades cargadas: %d  traídas (fetch): %d  Colecciones cargadas: %d  traídas (fetch): %d%n",
+                s.getEntityLoadCount(), s.getEntityFetchCount(), s.getCollectionLoadCount(), s.getCollectionFetchCount()));
+            r.append(String.format("Caché 2º nivel: %s  Caché de consultas: %s  Plan de consultas: %s%n",
+                tasa(s.getSecondLevelCacheHitCount(), s.getSecondLevelCacheMissCount()),
+                tasa(s.getQueryCacheHitCount(), s.getQueryCacheMissCount()),
+                tasa(s.getQueryPlanCacheHitCount(), s.getQueryPlanCacheMissCount())));
+        }
+        r.append(String.format("Consultas lentas (≥ %d ms): %d%n", umbralConsultaLentaMs, consultasLentas.sum()));
+
+        List<Map.Entry<String, EstadisticaConsulta>> porTiempo = new ArrayList<>(consultas.entrySet());
+        porTiempo.sort(Comparator.comparingLong(
+            (Map.Entry<String, EstadisticaConsulta> e) -> e.getValue().latencia.getSumaMs()).reversed());
+        r.append("\n-- Consultas por tiempo total --\n");
+        r.append(String.format("%8s %9s %7s %6s %6s %8s  %s%n", "Ejec.", "Total ms", "Prom.", "p95", "Máx.", "Filas/ej", "Consulta"));
+        for (int i = 0; i < porTiempo.size() && i < FILAS_REPORTE; i++) {
+            EstadisticaConsulta e = porTiempo.get(i).getValue();
+            HistogramaLatencia h = e.latencia;
+            r.append(String.format("%8d %9d %7.1f %6d %6d %8.1f  %s%n", h.getTotal(), h.getSumaMs(), h.getPromedioMs(),
+                h.percentil(95), h.getMaximoMs(), e.filasPorEjecucion(), resumir(porTiempo.get(i).getKey())));
+        }
+
+        List<Map.Entry<String, EstadisticaLlamada>> porFetches = new ArrayList<>(llamadas.entrySet());
+        porFetches.sort(Comparator.comparingDouble(
+            (Map.Entry<String, EstadisticaLlamada> e) -> e.getValue().fetchesPorLlamada()).reversed());
+        r.append("\n-- Llamadas de servicio --\n");
+        r.append(String.format("%7s %7s %7s %8s %8s %8s %7s  %s%n",
+            "Llam.", "Prom.ms", "Sent.", "Máx.sent", "Cargas", "Fetches", "Consult", "Servicio"));
+        for (Map.Entry<String, EstadisticaLlamada> entrada : porFetches) {
+            EstadisticaLlamada e = entrada.getValue();
+            long n = Math.max(1, e.duracion.getTotal());
+            r.append(String.format("%7d %7.1f %7.1f %8d %8.1f %8.1f %7.1f  %s%s%n", e.duracion.getTotal(),
+                e.duracion.getPromedioMs(), (double) e.sentencias.sum() / n, e.maximoSentencias.get(),
+                (double) e.entidadesCargadas.sum() / n, e.fetchesPorLlamada(), (double) e.consultas.sum() / n,
+                entrada.getKey(), e.fetchesPorLlamada() >= UMBRAL_N_MAS_1 ? "  (posible N+1)" : ""));
+        }
+
+        List<ConsultaLenta> lentas;
+        synchronized (ultimasLentas) {
+            lentas = new ArrayList<>(ultimasLentas);
+        }
+        if (!lentas.isEmpty()) {
+            r.append("\n-- Últimas consultas lentas --\n");
+            for (int i = lentas.size() - 1; i >= 0 && i >= lentas.size() - FILAS_REPORTE; i--) {
+                r.append(lentas.get(i)).append('\n');
+            }
+        }
+        return r.toString();
+    }
+
+    @Override
+    public void reiniciar() {
+        consultas.clear();
+        llamadas.clear();
+        consultasLentas.reset();
+        synchronized (ultimasLentas) {
+            ultimasLentas.clear();
+        }
+        Statistics s = estadisticas;
+        if (s != null) {
+            s.clear();
+        }
+    }
+
+    // ==================== ATRIBUTOS JMX ====================
+
+    @Override
+    public long getConsultasEjecutadas() {
+        Statistics s = estadisticas;
+        return s != null ? s.getQueryExecutionCount() : 0;
+    }
+
+    @Override
+    public long getConsultasLentas() {
+        return consultasLentas.sum();
+    }
+
+    @Override
+    public long getSentenciasPreparadas() {
+        Statistics s = estadisticas;
+        return s != null ? s.getPrepareStatementCount() : 0;
+    }
+
+    @Override
+    public long getEntidadesCargadas() {
+        Statistics s = estadisticas;
+        return s != null ? s.getEntityLoadCount() : 0;
+    }
+
+    @Override
+    public long getEntidadesTraidas() {
+        Statistics s = estadisticas;
+        return s != null ? s.getEntityFetchCount() : 0;
+    }
+
+    @Override
+    public long getColeccionesTraidas() {
+        Statistics s = estadisticas;
+        return s != null ? s.getCollectionFetchCount() : 0;
+    }
+
+    @Override
+    public double getTasaAciertosCacheSegundoNivel() {
+        Statistics s = estadisticas;
+        return s != null ? proporcion(s.getSecondLevelCacheHitCount(), s.getSecondLevelCacheMissCount()) : 0;
+    }
+
+    @Override
+    public double getTasaAciertosCacheConsultas() {
+        Statistics s = estadisticas;
+        return s != null ? proporcion(s.getQueryCacheHitCount(), s.getQueryCacheMissCount()) : 0;
+    }
+
+    @Override
+    public long getUmbralConsultaLentaMs() {
+        return umbralConsultaLentaMs;
+    }
+
+    @Override
+    public void setUmbralConsultaLentaMs(long umbralMs) {
+        this.umbralConsultaLentaMs = Math.max(0, umbralMs);
+    }
+
+    // ==================== MÉTODOS PRIVADOS ====================
+
+    private Llamada abrir(String nombre) {
+        Llamada llamada = new Llamada(nombre, llamadaActual.get());
+        llamadaActual.set(llamada);
+        return llamada;
+    }
+
+    private void cerrar(Llamada llamada) {
+        if (llamada.padre != null) {
+            llamada.padre.sumar(llamada);
+            llamadaActual.set(llamada.padre);
+        } else {
+            llamadaActual.remove();
+        }
+        llamadas.computeIfAbsent(llamada.nombre, n -> new EstadisticaLlamada()).registrar(llamada);
+    }
+
+    private static double proporcion(long aciertos, long fallos) {
+        long total = aciertos + fallos;
+        return total == 0 ? 0 : (double) aciertos / total;
+    }
+
+    private static String tasa(long aciertos, long fallos) {
+        long total = aciertos + fallos;
+        return total == 0 ? "n/d" : String.format("%.1f%% (%d/%d)", 100.0 * aciertos / total, aciertos, total);
+    }
+
+    private static String resumir(String consulta) {
+        String compacta = consulta.replaceAll("\\s+", " ").trim();
+        return compacta.length() > 140 ? compacta.substring(0, 137) + "..." : compacta;
+    }
+
+    /**
+     * Llamada de servicio en curso en un hilo
+     */
+    public final class Llamada implements AutoCloseable {
+        private final String nombre;
+        private final Llamada padre;
+        private final long inicio = System.nanoTime();
+        private long sentencias;
+        private long consultas;
+        private long entidadesCargadas;
+        private long entidadesTraidas;
+        private long coleccionesTraidas;
+        private boolean cerrada;
+
+        private Llamada(String nombre, Llamada padre) {
+            this.nombre = nombre;
+            this.padre = padre;
+        }
+
+        private void sumar(Llamada hija) {
+            sentencias += hija.sentencias;
+            consultas += hija.consultas;
+            entidadesCargadas += hija.entidadesCargadas;
+            entidadesTraidas += hija.entidadesTraidas;
+            coleccionesTraidas += hija.coleccionesTraidas;
+        }
+
+        @Override
+        public void close() {
+            if (!cerrada) {
+                cerrada = true;
+                cerrar(this);
+            }
+        }
+    }
+
+    private static final class EstadisticaConsulta {
+        private final HistogramaLatencia latencia = new HistogramaLatencia();
+        private final LongAdder filas = new LongAdder();
+
+        void registrar(int filasDevueltas, long tiempoMs) {
+            latencia.registrar(tiempoMs);
+            filas.add(filasDevueltas);
+        }
+
+        double filasPorEjecucion() {
+            long n = latencia.getTotal();
+            return n == 0 ? 0 : (double) filas.sum() / n;
+        }
+    }
+
+    private static final class EstadisticaLlamada {
+        private final HistogramaLatencia duracion = new HistogramaLatencia();
+        private final LongAdder sentencias = new LongAdder();
+        private final LongAdder consultas = new LongAdder();
+        private final LongAdder entidadesCargadas = new LongAdder();
+        private final LongAdder fetches = new LongAdder();
+        private final LongAccumulator maximoSentencias = new LongAccumulator(Math::max, 0);
+
+        void registrar(Llamada llamada) {
+            duracion.registrar(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - llamada.inicio));
+            sentencias.add(llamada.sentencias);
+            consultas.add(llamada.consultas);
+            entidadesCargadas.add(llamada.entidadesCargadas);
+            fetches.add(llamada.entidadesTraidas + llamada.coleccionesTraidas);
+            maximoSentencias.accumulate(llamada.sentencias);
+        }
+
+        double fetchesPorLlamada() {
+            long n = duracion.getTotal();
+            return n == 0 ? 0 : (double) fetches.sum() / n;
+        }
+    }
+
+    private static final class ConsultaLenta {
+        private final LocalDateTime instante;
+        private final long tiempoMs;
+        private final int filas;
+        private final String consulta;
+        private final String llamada;
+
+        ConsultaLenta(LocalDateTime instante, long tiempoMs, int filas, String consulta, String llamada) {
+            this.instante = instante;
+            this.tiempoMs = tiempoMs;
+            this.filas = filas;
+            this.consulta = consulta;
+            this.llamada = llamada;
+        }
+
+        @Override
+        public String toString() {
+            return instante.format(FORMATO_FECHA) + " " + tiempoMs + " ms, " + filas + " filas"
+                + (llamada != null ? " [" + llamada + "]" : "") + ": " + resumir(consulta);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.persistencia.metricas;
+
+/**
+ * Vista JMX de MetricasPersistencia (com.gestionacademica:type=MetricasPersistencia)
+ */
+public interface MetricasPersistenciaMBean {
+
+    long getConsultasEjecutadas();
+
+    long getConsultasLentas();
+
+    long getSentenciasPreparadas();
+
+    long getEntidadesCargadas();
+
+    long getEntidadesTraidas();
+
+    long getColeccionesTraidas();
+
+    double getTasaAciertosCacheSegundoNivel();
+
+    double getTasaAciertosCacheConsultas();
+
+    long getUmbralConsultaLentaMs();
+
+    void setUmbralConsultaLentaMs(long umbralMs);
+
+    String getReporte();
+
+    void reiniciar();
+}
@@ -0,0 +1,245 @@
+package com.persistencia.migraciones;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.Session;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Aplica al arrancar los scripts versionados de db/migraciones (en reemplazo
+ * de hibernate.hbm2ddl.auto=update). Cada versión aplicada queda en la tabla
+ * version_esquema con la suma SHA-256 de su script.
+ *
+ * Si la versión de la base ya es la última, el arranque solo hace dos
+ * consultas y no revisa el resto del esquema.
+ */
+public final class MigradorEsquema {
+
+    private static final String CARPETA = "db/migraciones/";
+
+    /** Scripts en orden de versión; agregar aquí cada script nuevo */
+    private static final String[] MIGRACIONES = {
+        "V1__esquema_inicial.sql",
+        "V2__indices_consultas.sql",
+        "V3__historial_estado.sql",
+        "V4__credenciales_pendientes.sql",
+        "V5__evento_cambio.sql",
+        "V6__linea_tiempo_observaciones.sql",
+        "V7__hoja_vida_cifrada.sql",
+        "V8__carga_profesor.sql"
+    };
+
+    /** Llave del candado consultivo que evita que dos instancias migren a la vez */
+    private static final long CANDADO_MIGRACION = 0x4741_4D49_4752L;
+
+    private static final String CREAR_TABLA_VERSIONES =
+        "CREATE TABLE IF NOT EXISTS version_esquema (" +
+        "version integer PRIMARY KEY, " +
+        "descripcion varchar(200) NOT NULL, " +
+        "suma_verificacion varchar(64) NOT NULL, " +
+        "aplicada_en timestamp NOT NULL DEFAULT now(), " +
+        "duracion_ms bigint NOT NULL)";
+
+    /** Suma registrada para la versión 1 de bases creadas antes por hbm2ddl */
+    private static final String LINEA_BASE = "linea-base-hbm2ddl";
+
+    private MigradorEsquema() {
+    }
+
+    /**
+     * Lleva el esquema a la última versión. Lanza IllegalStateException si un
+     * script falla (la transacción de ese script se deshace)
+     */
+    public static void migrar(EntityManagerFactory fabrica) {
+        EntityManager em = fabrica.createEntityManager();
+        try {
+            em.unwrap(Session.class).doWork(MigradorEsquema::migrar);
+        } finally {
+            em.close();
+        }
+    }
+
+    // ==================== MÉTODOS PRIVADOS ====================
+
+    private static void migrar(Connection conexion) throws SQLException {
+        int ultima = MIGRACIONES.length;
+        if (versionActual(conexion) == ultima) {
+            return;
+        }
+
+        boolean autoCommit = conexion.getAutoCommit();
+        try (Statement st = conexion.createStatement()) {
+            conexion.setAutoCommit(true);
+            st.execute("SELECT pg_advisory_lock(" + CANDADO_MIGRACION + ")");
+            try {
+                st.execute(CREAR_TABLA_VERSIONES);
+                conexion.setAutoCommit(false);
+
+                // Otra instancia pudo migrar mientras se esperaba el candado
+                Map<Integer, String> aplicadas = leerAplicadas(conexion);
+                if (aplicadas.isEmpty() && existeEsquemaPrevio(conexion)) {
+                    registrarLineaBase(conexion);
+                    aplicadas = leerAplicadas(conexion);
+                }
+                for (int version = 1; version <= ultima; version++) {
+                    String archivo = MIGRACIONES[version - 1];
+                    String script = leerScript(archivo);
+                    String suma = sumaVerificacion(script);
+                    String registrada = aplicadas.get(version);
+                    if (registrada == null) {
+                        aplicar(conexion, version, archivo, script, suma);
+                    } else if (!registrada.equals(suma) && !registrada.equals(LINEA_BASE)) {
+                        System.err.println("Advertencia: el script " + archivo +
+                            " cambió después de aplicarse (suma de verificación distinta)");
+                    }
+                }
+            } finally {
+                conexion.setAutoCommit(true);
+                st.execute("SELECT pg_advisory_unlock(" + CANDADO_MIGRACION + ")");
+            }
+        } finally {
+            conexion.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * Versión más alta registrada; 0 si aún no existe la tabla de versiones
+     */
+    private static int versionActual(Connection conexion) throws SQLException {
+        try (Statement st = conexion.createStatement()) {
+            try (ResultSet rs = st.executeQuery("SELECT to_regclass('version_esquema') IS NOT NULL")) {
+                rs.next();
+                if (!rs.getBoolean(1)) {
+                    return 0;
+                }
+            }
+            try (ResultSet rs = st.executeQuery("SELECT COALESCE(MAX(version), 0) FROM version_esquema")) {
+                rs.next();
+                return rs.getInt(1);
+            }
+        }
+    }
+
+    private static Map<Integer, String> leerAplicadas(Connection conexion) throws SQLException {
+        Map<Integer, String> aplicadas = new HashMap<>();
+        try (Statement st = conexion.createStatement();
+             ResultSet rs = st.executeQuery("SELECT version, suma_verificacion FROM version_esquema")) {
+            while (rs.next()) {
+                aplicadas.put(rs.getInt(1), rs.getString(2));
+            }
+        }
+        conexion.commit();
+        return aplicadas;
+    }
+
+    /**
+     * Una base sin version_esquema pero con tablas de la aplicación fue creada
+     * por hbm2ddl: ya tiene el esquema de V1
+     */
+    private static boolean existeEsquemaPrevio(Connection conexion) throws SQLException {
+        try (Statement st = conexion.createStatement();
+             ResultSet rs = st.executeQuery("SELECT to_regclass('usuario') IS NOT NULL")) {
+            rs.next();
+            boolean existe = rs.getBoolean(1);
+            conexion.commit();
+            return existe;
+        }
+    }
+
+    private static void registrarLineaBase(Connection conexion) throws SQLException {
+        registrarVersion(conexion, 1, MIGRACIONES[0], LINEA_BASE, 0);
+        conexion.commit();
+        System.out.println("Esquema existente registrado como versión 1 (" + MIGRACIONES[0] + ")");
+    }
+
+    private static void aplicar(Connection conexion, int version, String archivo, String script, String suma)
+            throws SQLException {
+        long inicio = System.nanoTime();
+        try (Statement st = conexion.createStatement()) {
+            for (String sentencia : sentencias(script)) {
+                st.execute(sentencia);
+            }
+            long duracionMs = (System.nanoTime() - inicio) / 1_000_000L;
+            registrarVersion(conexion, version, archivo, suma, duracionMs);
+            conexion.commit();
+            System.out.println("Migración aplicada: " + archivo + " (" + duracionMs + " ms)");
+        } catch (SQLException e) {
+            conexion.rollback();
+            throw new IllegalStateException("Error al aplicar la migración " + archivo + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static void registrarVersion(Connection conexion, int version, String archivo, String suma,
+            long duracionMs) throws SQLException {
+        String sql = "INSERT INTO version_esquema (version, descripcion, suma_verificacion, duracion_ms) " +
+                     "VALUES (?, ?, ?, ?)";
+        try (PreparedStatement ps = conexion.prepareStatement(sql)) {
+            ps.setInt(1, version);
+            ps.setString(2, archivo);
+            ps.setString(3, suma);
+            ps.setLong(4, duracionMs);
+            ps.executeUpdate();
+        }
+    }
+
+    private static String leerScript(String archivo) {
+        try (InputStream entrada = MigradorEsquema.class.getClassLoader().getResourceAsStream(CARPETA + archivo)) {
+            if (entrada == null) {
+                throw new IllegalStateException("No se encontró la migración " + CARPETA + archivo);
+            }
+            return new String(entrada.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalStateException("No se pudo leer la migración " + archivo, e);
+        }
+    }
+
+    /**
+     * Divide el script en sentencias: ignora comentarios "--" de línea completa
+     * y corta en cada ";" al final de una línea
+     */
+    private static List<String> sentencias(String script) {
+        List<String> sentencias = new ArrayList<>();
+        StringBuilder actual = new StringBuilder();
+        for (String linea : script.split("\\R")) {
+            String recortada = linea.trim();
+            if (recortada.isEmpty() || recortada.startsWith("--")) {
+                continue;
+            }
+            actual.append(linea).append('\n');
+            if (recortada.endsWith(";")) {
+                String sentencia = actual.toString().trim();
+                sentencias.add(sentencia.substring(0, sentencia.length() - 1));
+                actual.setLength(0);
+            }
+        }
+        if (actual.toString().trim().length() > 0) {
+            sentencias.add(actual.toString().trim());
+        }
+        return sentencias;
+    }
+
+    private static String sumaVerificacion(String script) {
+        try {
+            MessageDigest sha = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha.digest(script.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
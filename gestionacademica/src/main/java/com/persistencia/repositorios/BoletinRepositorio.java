@@ -0,0 +1,86 @@
+package com.persistencia.repositorios;
+
+import java.util.Collection;
+import java.util.List;
+
+import com.persistencia.entidades.BoletinEntity;
+import com.persistencia.entidades.EstudianteEntity;
+import com.persistencia.entidades.LogroEstudianteEntity;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Consultas por conjunto para la generación de boletines.
+ * Cada método trae en una sola consulta todas las filas de un grupo o grado,
+ * con las asociaciones necesarias ya cargadas (sin consultas N+1).
+ */
+public class BoletinRepositorio extends RepositorioGenerico<BoletinEntity> {
+    private final EntityManager entityManager;
+
+    // Filtros fijos por ámbito; nunca provienen de datos del usuario
+    private static final String FILTRO_GRUPO = "e.grupo.idGrupo = :idAmbito";
+    private static final String FILTRO_GRADO = "e.grupo.grado.idGrado = :idAmbito";
+
+    public BoletinRepositorio(EntityManager entityManager) {
+        super(entityManager, BoletinEntity.class);
+        this.entityManager = entityManager;
+    }
+
+    public List<EstudianteEntity> buscarEstudiantesPorGrupo(Integer idGrupo) {
+        return buscarEstudiantes(FILTRO_GRUPO, idGrupo);
+    }
+
+    public List<EstudianteEntity> buscarEstudiantesPorGrado(Integer idGrado) {
+        return buscarEstudiantes(FILTRO_GRADO, idGrado);
+    }
+
+    /**
+     * Logros calificados del grupo que pertenecen al periodo o que aún no tienen boletín
+     */
+    public List<LogroEstudianteEntity> buscarLogrosPorGrupo(Integer idGrupo, String periodo) {
+        return buscarLogros(FILTRO_GRUPO, idGrupo, periodo);
+    }
+
+    public List<LogroEstudianteEntity> buscarLogrosPorGrado(Integer idGrado, String periodo) {
+        return buscarLogros(FILTRO_GRADO, idGrado, periodo);
+    }
+
+    public List<BoletinEntity> buscarPorPeriodoYEstudiantes(String periodo, Collection<Integer> idsEstudiantes) {
+        if (idsEstudiantes.isEmpty()) {
+            return List.of();
+        }
+        String jpql = "SELECT b FROM boletin b WHERE b.periodo = :periodo " +
+                      "AND b.estudiante.idEstudiante IN :ids";
+        return entityManager.createQuery(jpql, BoletinEntity.class)
+            .setParameter("periodo", periodo)
+            .setParameter("ids", idsEstudiantes)
+            .getResultList();
+    }
+
+    private List<EstudianteEntity> buscarEstudiantes(String filtro, Integer idAmbito) {
+        String jpql = "SELECT e FROM estudiante e " +
+                      "JOIN FETCH e.acudiente " +
+                      "JOIN FETCH e.grupo " +
+                      "WHERE " + filtro + " " +
+                      "ORDER BY e.primerApellido, e.primerNombre";
+        return entityManager.createQuery(jpql, EstudianteEntity.class)
+            .setParameter("idAmbito", idAmbito)
+            .getResultList();
+    }
+
+    private List<LogroEstudianteEntity> buscarLogros(String filtro, Integer idAmbito, String periodo) {
+        String jpql = "SELECT le FROM logros_estudiante le " +
+                      "JOIN FETCH le.estudiante e " +
+                      "JOIN FETCH le.logro l " +
+                      "LEFT JOIN FETCH l.bibliotecaLogros " +
+                      "LEFT JOIN FETCH le.profesor " +
+                      "LEFT JOIN FETCH le.boletin bo " +
+                      "WHERE " + filtro + " " +
+                      "AND (bo IS NULL OR bo.periodo = :periodo) " +
+                      "ORDER BY e.idEstudiante, le.fechaCalificacion";
+        return entityManager.createQuery(jpql, LogroEstudianteEntity.class)
+            .setParameter("idAmbito", idAmbito)
+            .setParameter("periodo", periodo)
+            .getResultList();
+    }
+}
@@ -0,0 +1,265 @@
+package com.persistencia.repositorios;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.hibernate.Session;
+
+import com.persistencia.entidades.LogroEstudianteEntity;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Acceso por lotes a logros_estudiante para la calificación masiva.
+ * Las lecturas usan proyecciones (sin cargar entidades) y las escrituras
+ * van por JDBC en lotes sobre la conexión de la transacción actual.
+ */
+public class CalificacionRepositorio extends RepositorioGenerico<LogroEstudianteEntity> {
+    private final EntityManager entityManager;
+
+    private static final int TAMANO_LOTE = 500;
+
+    private static final String SQL_INSERTAR =
+        "INSERT INTO logros_estudiante (fecha_calificacion, estudiante, logro, profesor) VALUES (?, ?, ?, ?)";
+    private static final String SQL_ACTUALIZAR =
+        "UPDATE logros_estudiante SET fecha_calificacion = ?, profesor = ? " +
+        "WHERE id_logro_estudiante = ? AND boletin IS NULL";
+    private static final String SQL_ELIMINAR =
+        "DELETE FROM logros_estudiante WHERE id_logro_estudiante = ? AND boletin IS NULL";
+
+    public CalificacionRepositorio(EntityManager entityManager) {
+        super(entityManager, LogroEstudianteEntity.class);
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Calificaciones sin boletín de los estudiantes y logros dados
+     */
+    public List<Calificacion> buscarPendientes(Collection<Integer> idsEstudiantes, Collection<Integer> idsLogros) {
+        if (idsEstudiantes.isEmpty() || idsLogros.isEmpty()) {
+            return List.of();
+        }
+        String jpql = "SELECT le.idLogroEstudiante, e.idEstudiante, l.idLogro, le.fechaCalificacion, p.idUsuario " +
+                      "FROM logros_estudiante le " +
+                      "JOIN le.estudiante e " +
+                      "JOIN le.logro l " +
+                      "LEFT JOIN le.profesor p " +
+                      "WHERE e.idEstudiante IN :estudiantes AND l.idLogro IN :logros " +
+                      "AND le.boletin IS NULL";
+        List<Object[]> filas = entityManager.createQuery(jpql, Object[].class)
+            .setParameter("estudiantes", idsEstudiantes)
+            .setParameter("logros", idsLogros)
+            .getResultList();
+
+        List<Calificacion> calificaciones = new ArrayList<>(filas.size());
+        for (Object[] fila : filas) {
+            calificaciones.add(new Calificacion((Integer) fila[0], (Integer) fila[1],
+                (Integer) fila[2], (LocalDate) fila[3], (Integer) fila[4]));
+        }
+        return calificaciones;
+    }
+
+    /**
+     * [idEstudiante, idGrupo, idProfesor del grupo] de cada estudiante
+     */
+    public List<Object[]> buscarGruposDeEstudiantes(Collection<Integer> idsEstudiantes) {
+        String jpql = "SELECT e.idEstudiante, g.idGrupo, p.idUsuario " +
+                      "FROM estudiante e " +
+                      "LEFT JOIN e.grupo g " +
+                      "LEFT JOIN g.profesor p " +
+                      "WHERE e.idEstudiante IN :ids";
+        return entityManager.createQuery(jpql, Object[].class)
+            .setParameter("ids", idsEstudiantes)
+            .getResultList();
+    }
+
+    /**
+     * [idLogro, categoría] de cada logro
+     */
+    public List<Object[]> buscarCategoriasDeLogros(Collection<Integer> idsLogros) {
+        String jpql = "SELECT l.idLogro, bl.categoria " +
+                      "FROM logro l " +
+                      "LEFT JOIN l.bibliotecaLogros bl " +
+                      "WHERE l.idLogro IN :ids";
+        return entityManager.createQuery(jpql, Object[].class)
+            .setParameter("ids", idsLogros)
+            .getResultList();
+    }
+
+    public List<Integer> buscarIdsEstudiantesDeGrupo(Integer idGrupo) {
+        String jpql = "SELECT e.idEstudiante FROM estudiante e " +
+                      "WHERE e.grupo.idGrupo = :idGrupo " +
+                      "ORDER BY e.primerApellido, e.primerNombre";
+        return entityManager.createQuery(jpql, Integer.class)
+            .setParameter("idGrupo", idGrupo)
+            .getResultList();
+    }
+
+    /**
+     * Logros de las bibliotecas del grado al que pertenece el grupo
+     */
+    public List<Integer> buscarIdsLogrosDeGrupo(Integer idGrupo) {
+        String jpql = "SELECT l.idLogro FROM logro l, grupo g " +
+                      "WHERE g.idGrupo = :idGrupo AND l.bibliotecaLogros.grado = g.grado " +
+                      "ORDER BY l.bibliotecaLogros.categoria, l.idLogro";
+        return entityManager.createQuery(jpql, Integer.class)
+            .setParameter("idGrupo", idGrupo)
+            .getResultList();
+    }
+
+    /**
+     * Ejecuta las inserciones, actualizaciones y eliminaciones en lotes JDBC.
+     * Debe llamarse dentro de una transacción activa. Devuelve los ids
+     * generados y las filas que de verdad se tocaron: una calificación que
+     * entró a un boletín mientras tanto no se actualiza ni se elimina.
+     */
+    public LotesAplicados aplicarLotes(List<Calificacion> inserciones, List<Calificacion> actualizaciones,
+            List<Calificacion> eliminaciones) {
+        entityManager.flush();
+        LotesAplicados aplicados = new LotesAplicados();
+        entityManager.unwrap(Session.class).doWork(conexion -> {
+            try (PreparedStatement eliminar = conexion.prepareStatement(SQL_ELIMINAR)) {
+                List<Integer> lote = new ArrayList<>();
+                for (Calificacion c : eliminaciones) {
+                    eliminar.setInt(1, c.getIdLogroEstudiante());
+                    eliminar.addBatch();
+                    lote.add(c.getIdLogroEstudiante());
+                    ejecutarSiLleno(eliminar, lote, aplicados.eliminadas);
+                }
+                ejecutarPendientes(eliminar, lote, aplicados.eliminadas);
+            }
+            try (PreparedStatement actualizar = conexion.prepareStatement(SQL_ACTUALIZAR)) {
+                List<Integer> lote = new ArrayList<>();
+                for (Calificacion c : actualizaciones) {
+                    actualizar.setObject(1, c.getFechaCalificacion());
+                    actualizar.setInt(2, c.getIdProfesor());
+                    actualizar.setInt(3, c.getIdLogroEstudiante());
+                    actualizar.addBatch();
+                    lote.add(c.getIdLogroEstudiante());
+                    ejecutarSiLleno(actualizar, lote, aplicados.actualizadas);
+                }
+                ejecutarPendientes(actualizar, lote, aplicados.actualizadas);
+            }
+            try (PreparedStatement insertar = conexion.prepareStatement(SQL_INSERTAR,
+                    new String[] {"id_logro_estudiante"})) {
+                int pendientes = 0;
+                for (Calificacion c : inserciones) {
+                    insertar.setObject(1, c.getFechaCalificacion());
+                    insertar.setInt(2, c.getIdEstudiante());
+                    insertar.setInt(3, c.getIdLogro());
+                    insertar.setInt(4, c.getIdProfesor());
+                    insertar.addBatch();
+                    if (++pendientes == TAMANO_LOTE) {
+                        insertarLote(insertar, aplicados.idsInsertados);
+                        pendientes = 0;
+                    }
+                }
+                if (pendientes > 0) insertarLote(insertar, aplicados.idsInsertados);
+            }
+        });
+        return aplicados;
+    }
+
+    // ==================== MÉTODOS PRIVADOS ====================
+
+    private static void ejecutarSiLleno(PreparedStatement sentencia, List<Integer> lote, Set<Integer> afectadas)
+            throws SQLException {
+        if (lote.size() == TAMANO_LOTE) {
+            ejecutarPendientes(sentencia, lote, afectadas);
+        }
+    }
+
+    /** Ejecuta el lote y anota los ids de las filas que cambió */
+    private static void ejecutarPendientes(PreparedStatement sentencia, List<Integer> lote, Set<Integer> afectadas)
+            throws SQLException {
+        if (lote.isEmpty()) {
+            return;
+        }
+        int[] filas = sentencia.executeBatch();
+        for (int i = 0; i < filas.length; i++) {
+            if (filas[i] > 0 || filas[i] == Statement.SUCCESS_NO_INFO) {
+                afectadas.add(lote.get(i));
+            }
+        }
+        lote.clear();
+    }
+
+    private static void insertarLote(PreparedStatement sentencia, List<Integer> ids) throws SQLException {
+        sentencia.executeBatch();
+        try (ResultSet generados = sentencia.getGeneratedKeys()) {
+            while (generados.next()) {
+                ids.add(generados.getInt(1));
+            }
+        }
+    }
+
+    /**
+     * Resultado de {@link #aplicarLotes}
+     */
+    public static final class LotesAplicados {
+        private final List<Integer> idsInsertados = new ArrayList<>();
+        private final Set<Integer> actualizadas = new HashSet<>();
+        private final Set<Integer> eliminadas = new HashSet<>();
+
+        /** Ids generados, en el orden de las inserciones */
+        public List<Integer> getIdsInsertados() {
+            return idsInsertados;
+        }
+
+        public boolean fueActualizada(Integer idLogroEstudiante) {
+            return actualizadas.contains(idLogroEstudiante);
+        }
+
+        public boolean fueEliminada(Integer idLogroEstudiante) {
+            return eliminadas.contains(idLogroEstudiante);
+        }
+    }
+
+    /**
+     * Fila de logros_estudiante reducida a identificadores
+     */
+    public static final class Calificacion {
+        private final Integer idLogroEstudiante;
+        private final Integer idEstudiante;
+        private final Integer idLogro;
+        private final LocalDate fechaCalificacion;
+        private final Integer idProfesor;
+
+        public Calificacion(Integer idLogroEstudiante, Integer idEstudiante, Integer idLogro,
+                LocalDate fechaCalificacion, Integer idProfesor) {
+            this.idLogroEstudiante = idLogroEstudiante;
+            this.idEstudiante = idEstudiante;
+            this.idLogro = idLogro;
+            this.fechaCalificacion = fechaCalificacion;
+            this.idProfesor = idProfesor;
+        }
+
+        public Integer getIdLogroEstudiante() {
+            return idLogroEstudiante;
+        }
+
+        public Integer getIdEstudiante() {
+            return idEstudiante;
+        }
+
+        public Integer getIdLogro() {
+            return idLogro;
+        }
+
+        public LocalDate getFechaCalificacion() {
+            return fechaCalificacion;
+        }
+
+        public Integer getIdProfesor() {
+            return idProfesor;
+        }
+    }
+}
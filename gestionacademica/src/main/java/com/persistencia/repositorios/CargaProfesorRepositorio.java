@@ -0,0 +1,133 @@
+package com.persistencia.repositorios;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.hibernate.Session;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Índice de carga de los profesores (carga_profesor): por profesor, su
+ * grupo, los ids de sus estudiantes y los logros del grado. No tiene
+ * entidad; se lee y se recalcula con SQL de PostgreSQL. Los métodos de
+ * escritura deben ejecutarse dentro de la transacción del llamador.
+ */
+public class CargaProfesorRepositorio {
+    private final EntityManager entityManager;
+
+    // Fila de carga de cada grupo con profesor que cumpla el filtro agregado al final
+    private static final String SQL_CALCULAR =
+        "INSERT INTO carga_profesor (profesor, grupo, estudiantes, logros) " +
+        "SELECT g.profesor, g.id_grupo, " +
+        "  coalesce((SELECT array_agg(e.id_estudiante ORDER BY e.primerApellido, e.primerNombre, e.id_estudiante) " +
+        "            FROM estudiante e WHERE e.grupo = g.id_grupo), '{}'), " +
+        "  (SELECT count(*) FROM logro l " +
+        "   JOIN biblioteca_logros b ON b.id_biblioteca_logros = l.biblioteca_logros " +
+        "   WHERE b.grado = g.grado) " +
+        "FROM grupo g WHERE g.profesor IS NOT NULL ";
+
+    private static final String SQL_REFRESCAR = SQL_CALCULAR +
+        "AND g.id_grupo = ANY (?) " +
+        "ON CONFLICT (profesor) DO UPDATE SET grupo = EXCLUDED.grupo, " +
+        "estudiantes = EXCLUDED.estudiantes, logros = EXCLUDED.logros";
+
+    // Filas de los grupos indicados cuyo profesor ya no es el del grupo
+    private static final String SQL_DESCARTAR =
+        "DELETE FROM carga_profesor c WHERE c.grupo = ANY (?) AND NOT EXISTS (" +
+        "SELECT 1 FROM grupo g WHERE g.id_grupo = c.grupo AND g.profesor = c.profesor)";
+
+    // Una fila por periodo con calificaciones; periodo y calificadas nulos si no hay ninguna
+    private static final String SQL_CONSULTAR =
+        "SELECT c.grupo, g.nombreGrupo, c.estudiantes, c.logros, r.periodo, sum(r.cantidad) " +
+        "FROM carga_profesor c JOIN grupo g ON g.id_grupo = c.grupo " +
+        "LEFT JOIN resumen_logros r ON r.grupo = c.grupo " +
+        "WHERE c.profesor = ? " +
+        "GROUP BY c.grupo, g.nombreGrupo, c.estudiantes, c.logros, r.periodo " +
+        "ORDER BY r.periodo";
+
+    public CargaProfesorRepositorio(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Carga del profesor con una sola consulta: una fila [idGrupo,
+     * nombreGrupo, Integer[] estudiantes, logros, periodo, calificadas] por
+     * periodo del resumen de logros. Vacía si el profesor no tiene grupo.
+     */
+    public List<Object[]> buscarPorProfesor(Integer idProfesor) {
+        List<Object[]> filas = new ArrayList<>();
+        entityManager.unwrap(Session.class).doWork(conexion -> {
+            try (PreparedStatement consulta = conexion.prepareStatement(SQL_CONSULTAR)) {
+                consulta.setInt(1, idProfesor);
+                try (ResultSet resultado = consulta.executeQuery()) {
+                    while (resultado.next()) {
+                        Array estudiantes = resultado.getArray(3);
+                        long suma = resultado.getLong(6);
+                        Long calificadas = resultado.wasNull() ? null : suma;
+                        filas.add(new Object[] {
+                            resultado.getInt(1),
+                            resultado.getString(2),
+                            (Integer[]) estudiantes.getArray(),
+                            resultado.getInt(4),
+                            resultado.getString(5),
+                            calificadas
+                        });
+                        estudiantes.free();
+                    }
+                }
+            }
+        });
+        return filas;
+    }
+
+    /**
+     * Recalcula la carga de los grupos indicados
+     */
+    public void refrescarGrupos(Collection<Integer> idsGrupos) {
+        if (idsGrupos.isEmpty()) {
+            return;
+        }
+        entityManager.flush();
+        entityManager.unwrap(Session.class).doWork(conexion -> {
+            ejecutarConGrupos(conexion, SQL_DESCARTAR, idsGrupos);
+            ejecutarConGrupos(conexion, SQL_REFRESCAR, idsGrupos);
+        });
+    }
+
+    /**
+     * Reemplaza todo el índice; devuelve cuántos profesores quedaron
+     */
+    public int reconstruir() {
+        entityManager.flush();
+        int[] filas = new int[1];
+        entityManager.unwrap(Session.class).doWork(conexion -> {
+            try (PreparedStatement borrar = conexion.prepareStatement("DELETE FROM carga_profesor");
+                 // Si un profesor quedó con dos grupos se conserva uno solo
+                 PreparedStatement calcular = conexion.prepareStatement(SQL_CALCULAR + "ON CONFLICT DO NOTHING")) {
+                borrar.executeUpdate();
+                filas[0] = calcular.executeUpdate();
+            }
+        });
+        return filas[0];
+    }
+
+    // ==================== MÉTODOS PRIVADOS ====================
+
+    private static void ejecutarConGrupos(Connection conexion, String sql, Collection<Integer> idsGrupos)
+            throws SQLException {
+        Array arreglo = conexion.createArrayOf("integer", idsGrupos.toArray());
+        try (PreparedStatement sentencia = conexion.prepareStatement(sql)) {
+            sentencia.setArray(1, arreglo);
+            sentencia.executeUpdate();
+        } finally {
+            arreglo.free();
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.persistencia.repositorios;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.hibernate.Session;
+
+import com.dominio.Estado;
+import com.persistencia.entidades.AcudienteEntity;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Activación de cuentas de acudientes aprobados y cola de correos de
+ * credenciales (tabla credenciales_pendientes)
+ */
+public class CuentaAcudienteRepositorio extends RepositorioGenerico<AcudienteEntity> {
+    /** Llave del candado consultivo que serializa los lotes de activación */
+    private static final long CANDADO_ACTIVACION = 0x4741_4143_5456L;
+
+    // PostgreSQL: crea los tokens del lote, los enlaza a sus usuarios y deja
+    // cada usuario en la cola de correos, en una sola sentencia. Devuelve
+    // [id_usuario, id_token, encolado] de cada usuario enlazado.
+    // Parámetros: ids, nombres de usuario, contraseñas, id del rol
+    private static final String SQL_CREAR_CUENTAS =
+        "WITH datos AS (" +
+        "  SELECT * FROM unnest(?::integer[], ?::varchar[], ?::varchar[]) AS d(id_usuario, nombre_usuario, contrasena)), " +
+        "tokens AS (" +
+        "  INSERT INTO tokens_usuario (nombre_usuario, contrasena, id_rol) " +
+        "  SELECT nombre_usuario, contrasena, ? FROM datos RETURNING id_token, nombre_usuario), " +
+        "enlazados AS (" +
+        "  UPDATE usuario u SET tokenAccess = t.id_token FROM tokens t JOIN datos d ON d.nombre_usuario = t.nombre_usuario " +
+        "  WHERE u.id_usuario = d.id_usuario RETURNING u.id_usuario, t.id_token), " +
+        "encolados AS (" +
+        "  INSERT INTO credenciales_pendientes (id_usuario) SELECT id_usuario FROM enlazados " +
+        "  ON CONFLICT (id_usuario) DO NOTHING RETURNING id_usuario) " +
+        "SELECT e.id_usuario, e.id_token, c.id_usuario IS NOT NULL FROM enlazados e " +
+        "LEFT JOIN encolados c ON c.id_usuario = e.id_usuario";
+
+    private static final String SQL_NOMBRES_OCUPADOS =
+        "SELECT nombre_usuario FROM tokens_usuario WHERE nombre_usuario LIKE ANY (?)";
+
+    private static final String SQL_CREDENCIALES_PENDIENTES =
+        "SELECT c.id_usuario, u.correoElectronico, u.primerNombre, u.segundoNombre, u.primerApellido, " +
+        "u.segundoApellido, t.nombre_usuario, t.contrasena " +
+        "FROM credenciales_pendientes c JOIN usuario u ON u.id_usuario = c.id_usuario " +
+        "JOIN tokens_usuario t ON t.id_token = u.tokenAccess " +
+        "WHERE c.intentos < ?1 ORDER BY c.id_usuario";
+
+    private final EntityManager entityManager;
+
+    public CuentaAcudienteRepositorio(EntityManager entityManager) {
+        super(entityManager, AcudienteEntity.class);
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Espera a que termine el lote de activación que esté en curso en otra
+     * conexión. El candado se libera al terminar la transacción actual.
+     */
+    public void bloquearActivacion() {
+        entityManager.createNativeQuery("SELECT 1 FROM pg_advisory_xact_lock(" + CANDADO_ACTIVACION + ")")
+            .getSingleResult();
+    }
+
+    /**
+     * Siguiente lote de acudientes aprobados sin cuenta, en orden de id:
+     * [idUsuario, primerNombre, segundoNombre, primerApellido, segundoApellido, correo]
+     */
+    public List<Object[]> buscarAprobadosSinCuenta(Integer despuesDe, int limite) {
+        String jpql = "SELECT a.idUsuario, a.primerNombre, a.segundoNombre, a.primerApellido, a.segundoApellido, " +
+                      "a.correoElectronico " +
+                      "FROM acudiente a " +
+                      "WHERE a.estadoAprobacion = :estado AND a.tokenAccess IS NULL AND a.idUsuario > :despuesDe " +
+                      "ORDER BY a.idUsuario";
+        return soloLectura(entityManager.createQuery(jpql, Object[].class))
+            .setParameter("estado", Estado.Aprobada)
+            .setParameter("despuesDe", despuesDe)
+            .setMaxResults(limite)
+            .getResultList();
+    }
+
+    /**
+     * Nombres de usuario existentes que empiezan por alguna de las bases
+     */
+    public Set<String> buscarNombresOcupados(Collection<String> bases) {
+        Set<String> ocupados = new HashSet<>();
+        if (bases.isEmpty()) {
+            return ocupados;
+        }
+        List<String> patrones = new ArrayList<>();
+        for (String base : bases) {
+            patrones.add(base.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%");
+        }
+        entityManager.unwrap(Session.class).doWork(conexion -> {
+            try (PreparedStatement consulta = conexion.prepareStatement(SQL_NOMBRES_OCUPADOS)) {
+                Array arreglo = conexion.createArrayOf("varchar", patrones.toArray(new String[0]));
+                consulta.setArray(1, arreglo);
+                try (ResultSet filas = consulta.executeQuery()) {
+                    while (filas.next()) {
+                        ocupados.add(filas.getString(1));
+                    }
+                }
+                arreglo.free();
+            }
+        });
+        return ocupados;
+    }
+
+    /**
+     * Crea los tokens del lote, los enlaza a los usuarios y los deja en la
+     * cola de correos. Los arreglos van en paralelo. Debe llamarse dentro de
+     * una transacción activa. Devuelve las cuentas enlazadas.
+     */
+    public List<CuentaCreada> crearCuentas(int[] idsUsuarios, String[] nombresUsuario, String[] contrasenas,
+            Integer idRol) {
+        entityManager.flush();
+        List<CuentaCreada> creadas = new ArrayList<>();
+        entityManager.unwrap(Session.class).doWork(conexion -> {
+            try (PreparedStatement sentencia = conexion.prepareStatement(SQL_CREAR_CUENTAS)) {
+                Integer[] ids = new Integer[idsUsuarios.length];
+                for (int i = 0; i < ids.length; i++) {
+                    ids[i] = idsUsuarios[i];
+                }
+                Array arregloIds = conexion.createArrayOf("integer", ids);
+                Array arregloNombres = conexion.createArrayOf("varchar", nombresUsuario);
+                Array arregloContrasenas = conexion.createArrayOf("varchar", contrasenas);
+                sentencia.setArray(1, arregloIds);
+                sentencia.setArray(2, arregloNombres);
+                sentencia.setArray(3, arregloContrasenas);
+                sentencia.setInt(4, idRol);
+                try (ResultSet filas = sentencia.executeQuery()) {
+                    while (filas.next()) {
+                        creadas.add(new CuentaCreada(filas.getInt(1), filas.getInt(2), filas.getBoolean(3)));
+                    }
+                }
+                arregloIds.free();
+                arregloNombres.free();
+                arregloContrasenas.free();
+            }
+        });
+        return creadas;
+    }
+
+    /**
+     * Correos de credenciales aún sin enviar con menos de maxIntentos fallos:
+     * [idUsuario, correo, primerNombre, segundoNombre, primerApellido,
+     * segundoApellido, nombreUsuario, contrasena]
+     */
+    @SuppressWarnings("unchecked")
+    public List<Object[]> buscarCredencialesPendientes(int maxIntentos) {
+        return entityManager.createNativeQuery(SQL_CREDENCIALES_PENDIENTES)
+            .setParameter(1, maxIntentos)
+            .getResultList();
+    }
+
+    /**
+     * Saca de la cola un correo ya enviado
+     */
+    public void confirmarEnvio(Integer idUsuario) {
+        entityManager.createNativeQuery("DELETE FROM credenciales_pendientes WHERE id_usuario = ?1")
+            .setParameter(1, idUsuario)
+            .executeUpdate();
+    }
+
+    /**
+     * Anota un intento fallido; la fila sigue en la cola para el próximo intento
+     */
+    public void registrarFallo(Integer idUsuario, String error) {
+        String mensaje = error == null ? null : (error.length() > 255 ? error.substring(0, 255) : error);
+        entityManager.createNativeQuery(
+                "UPDATE credenciales_pendientes SET intentos = intentos + 1, ultimo_error = ?2 WHERE id_usuario = ?1")
+            .setParameter(1, idUsuario)
+            .setParameter(2, mensaje)
+            .executeUpdate();
+    }
+
+    /**
+     * Usuario enlazado a su token nuevo; encolada es false si su correo ya
+     * estaba en la cola
+     */
+    public static final class CuentaCreada {
+        private final Integer idUsuario;
+        private final Integer idToken;
+        private final boolean encolada;
+
+        public CuentaCreada(Integer idUsuario, Integer idToken, boolean encolada) {
+            this.idUsuario = idUsuario;
+            this.idToken = idToken;
+            this.encolada = encolada;
+        }
+
+        public Integer getIdUsuario() { return idUsuario; }
+        public Integer getIdToken() { return idToken; }
+        public boolean isEncolada() { return encolada; }
+    }
+}
@@ -1,9 +1,14 @@
 package com.persistencia.repositorios;
 
+import java.util.List;
+import java.util.stream.Stream;
+
+import com.dominio.Estado;
 import com.persistencia.entidades.EstudianteEntity;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.NoResultException;
+import jakarta.persistence.TypedQuery;
 
 public class EstudianteRepositorio extends RepositorioGenerico<EstudianteEntity>{
     private final EntityManager entityManager;
@@ -25,4 +30,85 @@ public class EstudianteRepositorio extends RepositorioGenerico<EstudianteEntity>
             return false;
         }
     }
+
+    /**
+     * Proyección de todos los estudiantes para el índice de búsqueda, en flujo:
+     * [idEstudiante, primerNombre, segundoNombre, primerApellido, segundoApellido, nuip]
+     */
+    public Stream<Object[]> transmitirTodosParaIndice() {
+        String jpql = "SELECT e.idEstudiante, e.primerNombre, e.segundoNombre, " +
+                      "e.primerApellido, e.segundoApellido, e.nuip FROM estudiante e";
+        return transmitirConsulta(entityManager.createQuery(jpql, Object[].class));
+    }
+
+    /**
+     * Listado de estudiantes para exportar, en flujo y ordenado por grado,
+     * grupo y apellido: [idEstudiante, nuip, primerApellido, segundoApellido,
+     * primerNombre, segundoNombre, edad, estado, grado, grupo, acudiente,
+     * teléfono y correo del acudiente]. El grado es el del grupo o, si no
+     * tiene, el que aspira. Los filtros null no se aplican.
+     */
+    public Stream<Object[]> transmitirListado(Estado estado, Integer idGrado, Integer idGrupo) {
+        String jpql = "SELECT e.idEstudiante, e.nuip, e.primerApellido, e.segundoApellido, e.primerNombre, " +
+                      "e.segundoNombre, e.edad, e.estado, COALESCE(gg.nombreGrado, ga.nombreGrado), g.nombreGrupo, " +
+                      "CONCAT(a.primerNombre, ' ', a.primerApellido), a.telefono, a.correoElectronico " +
+                      "FROM estudiante e " + UNION_UBICACION + "LEFT JOIN e.acudiente a " +
+                      "WHERE 1 = 1" + (estado != null ? " AND e.estado = :estado" : "") +
+                      condicionUbicacion(idGrado, idGrupo) +
+                      " ORDER BY COALESCE(gg.nombreGrado, ga.nombreGrado), g.nombreGrupo, " +
+                      "e.primerApellido, e.primerNombre, e.idEstudiante";
+        TypedQuery<Object[]> query = entityManager.createQuery(jpql, Object[].class);
+        if (estado != null) {
+            query.setParameter("estado", estado);
+        }
+        parametrosUbicacion(query, idGrado, idGrupo);
+        return transmitirConsulta(query);
+    }
+
+    /**
+     * Tablero de un acudiente en una consulta: por cada hijo
+     * [idEstudiante, primerNombre, segundoNombre, primerApellido, segundoApellido,
+     * estado, nombreGrado, nombreGrupo, periodo, fechaGeneracion, logros del boletín]
+     * con el último boletín generado (columnas de boletín null si no tiene)
+     */
+    public List<Object[]> buscarTableroAcudiente(Integer idAcudiente) {
+        String jpql = "SELECT e.idEstudiante, e.primerNombre, e.segundoNombre, e.primerApellido, " +
+                      "e.segundoApellido, e.estado, gr.nombreGrado, g.nombreGrupo, b.periodo, b.fechaGeneracion, " +
+                      "(SELECT COUNT(l) FROM logros_estudiante l WHERE l.boletin = b) " +
+                      "FROM estudiante e LEFT JOIN e.grupo g LEFT JOIN e.gradoAspira gr " +
+                      "LEFT JOIN boletin b ON b.idBoletin = " +
+                      "(SELECT MAX(b2.idBoletin) FROM boletin b2 WHERE b2.estudiante = e) " +
+                      "WHERE e.acudiente.idUsuario = :idAcudiente " +
+                      "ORDER BY e.primerNombre, e.primerApellido, e.idEstudiante";
+        return soloLectura(entityManager.createQuery(jpql, Object[].class))
+            .setParameter("idAcudiente", idAcudiente)
+            .getResultList();
+    }
+
+    // Grupo (g), grado del grupo (gg) y grado al que aspira (ga) del estudiante e
+    static final String UNION_UBICACION =
+        "LEFT JOIN e.grupo g LEFT JOIN g.grado gg LEFT JOIN e.gradoAspira ga ";
+
+    /**
+     * Condición por grado y grupo sobre los alias de UNION_UBICACION
+     */
+    static String condicionUbicacion(Integer idGrado, Integer idGrupo) {
+        String condicion = "";
+        if (idGrado != null) {
+            condicion += " AND (gg.idGrado = :idGrado OR (g.idGrupo IS NULL AND ga.idGrado = :idGrado))";
+        }
+        if (idGrupo != null) {
+            condicion += " AND g.idGrupo = :idGrupo";
+        }
+        return condicion;
+    }
+
+    static void parametrosUbicacion(TypedQuery<?> query, Integer idGrado, Integer idGrupo) {
+        if (idGrado != null) {
+            query.setParameter("idGrado", idGrado);
+        }
+        if (idGrupo != null) {
+            query.setParameter("idGrupo", idGrupo);
+        }
+    }
 }
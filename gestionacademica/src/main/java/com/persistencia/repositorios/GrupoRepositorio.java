@@ -0,0 +1,134 @@
+package com.persistencia.repositorios;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.List;
+
+import org.hibernate.Session;
+
+import com.dominio.Estado;
+import com.persistencia.entidades.GrupoEntity;
+
+import jakarta.persistence.EntityManager;
+
+public class GrupoRepositorio extends RepositorioGenerico<GrupoEntity> {
+    private static final int TAMANO_LOTE = 50;
+    /** Llave del candado consultivo que serializa las asignaciones automáticas de grupos */
+    private static final long CANDADO_ASIGNACION = 0x4741_4752_5550L;
+    // Solo si sigue sin grupo: otra asignación pudo dárselo mientras tanto
+    private static final String SQL_ASIGNAR = "UPDATE estudiante SET grupo = ? WHERE id_estudiante = ? AND grupo IS NULL";
+
+    private final EntityManager entityManager;
+
+    public GrupoRepositorio(EntityManager entityManager) {
+        super(entityManager, GrupoEntity.class);
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Espera a que termine la asignación de grupos que esté en curso en otra
+     * conexión. El candado se libera al terminar la transacción actual.
+     */
+    public void bloquearAsignacion() {
+        entityManager.createNativeQuery("SELECT 1 FROM pg_advisory_xact_lock(" + CANDADO_ASIGNACION + ")")
+            .getSingleResult();
+    }
+
+    /**
+     * Grados con estudiantes aprobados sin grupo: [idGrado, nombreGrado]
+     */
+    public List<Object[]> buscarGradosConAprobadosSinGrupo() {
+        String jpql = "SELECT DISTINCT gr.idGrado, gr.nombreGrado FROM estudiante e JOIN e.gradoAspira gr " +
+                      "WHERE e.estado = :estado AND e.grupo IS NULL ORDER BY gr.idGrado";
+        return soloLectura(entityManager.createQuery(jpql, Object[].class))
+            .setParameter("estado", Estado.Aprobada)
+            .getResultList();
+    }
+
+    /**
+     * Estudiantes aprobados que aspiran al grado y aún no tienen grupo:
+     * [idEstudiante, idAcudiente], agrupados por acudiente
+     */
+    public List<Object[]> buscarAprobadosSinGrupo(Integer idGrado) {
+        String jpql = "SELECT e.idEstudiante, e.acudiente.idUsuario FROM estudiante e " +
+                      "WHERE e.gradoAspira.idGrado = :idGrado AND e.estado = :estado AND e.grupo IS NULL " +
+                      "ORDER BY e.acudiente.idUsuario, e.idEstudiante";
+        return soloLectura(entityManager.createQuery(jpql, Object[].class))
+            .setParameter("idGrado", idGrado)
+            .setParameter("estado", Estado.Aprobada)
+            .getResultList();
+    }
+
+    /**
+     * Grupos activos del grado con su cantidad actual de estudiantes:
+     * [idGrupo, cantidad]
+     */
+    public List<Object[]> contarEstudiantesPorGrupo(Integer idGrado) {
+        String jpql = "SELECT g.idGrupo, COUNT(e) FROM grupo g LEFT JOIN g.estudiantes e " +
+                      "WHERE g.grado.idGrado = :idGrado AND g.estado = true " +
+                      "GROUP BY g.idGrupo ORDER BY g.idGrupo";
+        return soloLectura(entityManager.createQuery(jpql, Object[].class))
+            .setParameter("idGrado", idGrado)
+            .getResultList();
+    }
+
+    /**
+     * Todos los grados con sus grupos, para filtrar listados:
+     * [idGrado, nombreGrado, idGrupo, nombreGrupo]; idGrupo y nombreGrupo son
+     * null en un grado sin grupos
+     */
+    public List<Object[]> buscarGradosYGrupos() {
+        String jpql = "SELECT gr.idGrado, gr.nombreGrado, g.idGrupo, g.nombreGrupo " +
+                      "FROM grado gr LEFT JOIN gr.grupos g ORDER BY gr.idGrado, g.nombreGrupo";
+        return soloLectura(entityManager.createQuery(jpql, Object[].class)).getResultList();
+    }
+
+    /**
+     * Profesores sin grupo asignado, disponibles para grupos nuevos
+     */
+    public List<Integer> buscarProfesoresSinGrupo() {
+        String jpql = "SELECT p.idUsuario FROM profesor p " +
+                      "WHERE NOT EXISTS (SELECT 1 FROM grupo g WHERE g.profesor = p) " +
+                      "ORDER BY p.idUsuario";
+        return soloLectura(entityManager.createQuery(jpql, Integer.class)).getResultList();
+    }
+
+    /**
+     * Nombres de grupo ya usados en el grado
+     */
+    public List<String> buscarNombresDeGrado(Integer idGrado) {
+        String jpql = "SELECT g.nombreGrupo FROM grupo g WHERE g.grado.idGrado = :idGrado";
+        return soloLectura(entityManager.createQuery(jpql, String.class))
+            .setParameter("idGrado", idGrado)
+            .getResultList();
+    }
+
+    /**
+     * Asigna a cada estudiante su grupo en lotes JDBC, solo a los que siguen
+     * sin grupo. Los arreglos van en paralelo; el resultado indica, en el
+     * mismo orden, a cuáles se les asignó. Debe llamarse dentro de una
+     * transacción activa.
+     */
+    public boolean[] asignarEnLotes(int[] idsEstudiantes, int[] idsGrupos) {
+        entityManager.flush();
+        boolean[] asignados = new boolean[idsEstudiantes.length];
+        entityManager.unwrap(Session.class).doWork(conexion -> {
+            try (PreparedStatement asignar = conexion.prepareStatement(SQL_ASIGNAR)) {
+                int inicioLote = 0;
+                for (int i = 0; i < idsEstudiantes.length; i++) {
+                    asignar.setInt(1, idsGrupos[i]);
+                    asignar.setInt(2, idsEstudiantes[i]);
+                    asignar.addBatch();
+                    if (i + 1 - inicioLote == TAMANO_LOTE || i == idsEstudiantes.length - 1) {
+                        int[] filas = asignar.executeBatch();
+                        for (int k = 0; k < filas.length; k++) {
+                            asignados[inicioLote + k] = filas[k] > 0 || filas[k] == Statement.SUCCESS_NO_INFO;
+                        }
+                        inicioLote = i + 1;
+                    }
+                }
+            }
+        });
+        return asignados;
+    }
+}
@@ -0,0 +1,62 @@
+package com.persistencia.repositorios;
+
+import java.util.Optional;
+
+import com.persistencia.entidades.HojaVidaEntity;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Hojas de vida por estudiante. La relación se guarda en los dos lados
+ * (estudiante.hojaDeVida y hoja_vida.estudiante), así que se busca por
+ * cualquiera de ellos. Los campos médicos salen tal como están guardados
+ * (cifrados).
+ */
+public class HojaVidaRepositorio extends RepositorioGenerico<HojaVidaEntity> {
+    private final EntityManager entityManager;
+
+    private static final String FILTRO_ESTUDIANTE =
+        "WHERE h.estudiante.idEstudiante = :idEstudiante OR h.idHojaVida = " +
+        "(SELECT e.hojaDeVida.idHojaVida FROM estudiante e WHERE e.idEstudiante = :idEstudiante)";
+
+    public HojaVidaRepositorio(EntityManager entityManager) {
+        super(entityManager, HojaVidaEntity.class);
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Id del acudiente del estudiante; vacío si el estudiante no existe
+     */
+    public Optional<Integer> buscarIdAcudiente(Integer idEstudiante) {
+        String jpql = "SELECT e.acudiente.idUsuario FROM estudiante e WHERE e.idEstudiante = :idEstudiante";
+        return soloLectura(entityManager.createQuery(jpql, Integer.class))
+            .setParameter("idEstudiante", idEstudiante)
+            .getResultStream()
+            .findFirst();
+    }
+
+    /**
+     * [idHojaVida, alergias, aspectosRelevantes, enfermedades] cifrados de la
+     * hoja de vida del estudiante
+     */
+    public Optional<Object[]> buscarCifradaPorEstudiante(Integer idEstudiante) {
+        String jpql = "SELECT h.idHojaVida, h.alergias, h.aspectosRelevantes, h.enfermedades " +
+                      "FROM hoja_vida h " + FILTRO_ESTUDIANTE;
+        return soloLectura(entityManager.createQuery(jpql, Object[].class))
+            .setParameter("idEstudiante", idEstudiante)
+            .setMaxResults(1)
+            .getResultStream()
+            .findFirst();
+    }
+
+    /**
+     * Hoja de vida del estudiante como entidad administrada, para modificarla
+     */
+    public Optional<HojaVidaEntity> buscarPorEstudiante(Integer idEstudiante) {
+        return entityManager.createQuery("SELECT h FROM hoja_vida h " + FILTRO_ESTUDIANTE, HojaVidaEntity.class)
+            .setParameter("idEstudiante", idEstudiante)
+            .setMaxResults(1)
+            .getResultStream()
+            .findFirst();
+    }
+}
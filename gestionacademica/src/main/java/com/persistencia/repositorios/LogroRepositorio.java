@@ -0,0 +1,28 @@
+package com.persistencia.repositorios;
+
+import java.util.stream.Stream;
+
+import com.persistencia.entidades.LogroEntity;
+
+import jakarta.persistence.EntityManager;
+
+public class LogroRepositorio extends RepositorioGenerico<LogroEntity> {
+    private final EntityManager entityManager;
+
+    public LogroRepositorio(EntityManager entityManager) {
+        super(entityManager, LogroEntity.class);
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Proyección de todos los logros para indexarlos, en flujo:
+     * [idLogro, descripcion, categoria, idGrado]
+     */
+    public Stream<Object[]> transmitirTodosParaIndice() {
+        String jpql = "SELECT l.idLogro, l.descripcion, bl.categoria, g.idGrado " +
+                      "FROM logro l " +
+                      "LEFT JOIN l.bibliotecaLogros bl " +
+                      "LEFT JOIN bl.grado g";
+        return transmitirConsulta(entityManager.createQuery(jpql, Object[].class));
+    }
+}
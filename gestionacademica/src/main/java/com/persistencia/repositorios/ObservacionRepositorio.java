@@ -0,0 +1,216 @@
+package com.persistencia.repositorios;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+import org.hibernate.Session;
+
+import com.persistencia.entidades.ObservacionEntity;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+
+/**
+ * Observaciones del observador de cada estudiante, leídas como línea de
+ * tiempo: de la más reciente a la más antigua, por (fechaObservacion,
+ * idObservacion) y paginadas por llave sobre ix_observacion_linea_tiempo.
+ * Cada estudiante tiene un solo observador, así que se busca primero su id
+ * y las páginas se leen directamente por observador.
+ */
+public class ObservacionRepositorio extends RepositorioGenerico<ObservacionEntity> {
+    private final EntityManager entityManager;
+
+    private static final String SELECCION_LINEA_TIEMPO =
+        "SELECT o.idObservacion, o.fechaObservacion, o.descripcion, p.primerNombre, p.primerApellido " +
+        "FROM observacion o LEFT JOIN o.profesor p " +
+        "WHERE o.observador.idObservador = :idObservador ";
+
+    private static final String ORDEN_LINEA_TIEMPO =
+        "ORDER BY o.fechaObservacion DESC, o.idObservacion DESC";
+
+    private static final int TAMANO_LOTE = 500;
+
+    // PostgreSQL: observador de cada estudiante pedido; a los que no tienen se
+    // les crea y se enlaza desde estudiante, todo en una sentencia. El
+    // observador puede estar registrado en cualquiera de los dos lados de la
+    // relación. Parámetro: arreglo de ids de estudiantes.
+    private static final String SQL_RESOLVER_OBSERVADORES =
+        "WITH pedidos AS (" +
+        "  SELECT e.id_estudiante AS id, coalesce(o.id_observador, e.observador) AS observador " +
+        "  FROM estudiante e LEFT JOIN ObservadorEntity o ON o.estudiante = e.id_estudiante " +
+        "  WHERE e.id_estudiante = ANY (?)), " +
+        "nuevos AS (" +
+        "  INSERT INTO ObservadorEntity (estudiante) SELECT id FROM pedidos WHERE observador IS NULL " +
+        "  ON CONFLICT (estudiante) DO NOTHING RETURNING id_observador, estudiante), " +
+        "enlazados AS (" +
+        "  UPDATE estudiante e SET observador = n.id_observador FROM nuevos n " +
+        "  WHERE e.id_estudiante = n.estudiante) " +
+        "SELECT id, observador FROM pedidos WHERE observador IS NOT NULL " +
+        "UNION ALL SELECT estudiante, id_observador FROM nuevos";
+
+    private static final String SQL_INSERTAR =
+        "INSERT INTO observacion (descripcion, fechaObservacion, observador, profesor) VALUES (?, ?, ?, ?)";
+
+    public ObservacionRepositorio(EntityManager entityManager) {
+        super(entityManager, ObservacionEntity.class);
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Página de la línea de tiempo de un observador, de la observación más
+     * reciente hacia atrás, empezando después del cursor (null para la
+     * primera página). Cada fila [idObservacion, fechaObservacion,
+     * descripcion, primerNombre, primerApellido] del profesor (nombres null si
+     * no tiene) se convierte con mapeo.
+     */
+    public <D> Pagina<D> buscarLineaTiempo(Integer idObservador, Pagina.Cursor antesDe, int tamano,
+            Function<Object[], D> mapeo) {
+        if (tamano < 1) {
+            throw new IllegalArgumentException("El tamaño de página debe ser mayor que cero");
+        }
+        String jpql = SELECCION_LINEA_TIEMPO +
+            (antesDe != null
+                ? "AND (o.fechaObservacion < :fecha OR (o.fechaObservacion = :fecha AND o.idObservacion < :id)) "
+                : "") +
+            ORDEN_LINEA_TIEMPO;
+        TypedQuery<Object[]> query = soloLectura(entityManager.createQuery(jpql, Object[].class))
+            .setParameter("idObservador", idObservador);
+        if (antesDe != null) {
+            query.setParameter("fecha", (LocalDate) antesDe.getValorOrden());
+            query.setParameter("id", (Integer) antesDe.getId());
+        }
+        List<Object[]> filas = query.setMaxResults(tamano + 1).getResultList();
+
+        List<D> elementos = new ArrayList<>(Math.min(filas.size(), tamano));
+        for (int i = 0; i < filas.size() && i < tamano; i++) {
+            elementos.add(mapeo.apply(filas.get(i)));
+        }
+        Pagina.Cursor siguiente = null;
+        if (filas.size() > tamano) {
+            Object[] ultima = filas.get(tamano - 1);
+            siguiente = new Pagina.Cursor(ultima[1], ultima[0]);
+        }
+        return new Pagina<>(elementos, siguiente);
+    }
+
+    /**
+     * Id del observador del estudiante; vacío si aún no tiene
+     */
+    public Optional<Integer> buscarIdObservador(Integer idEstudiante) {
+        String jpql = "SELECT ob.idObservador FROM ObservadorEntity ob WHERE ob.estudiante.idEstudiante = :id";
+        return soloLectura(entityManager.createQuery(jpql, Integer.class))
+            .setParameter("id", idEstudiante)
+            .getResultStream()
+            .findFirst();
+    }
+
+    /**
+     * Ids de los estudiantes del grupo
+     */
+    public List<Integer> buscarIdsEstudiantesDeGrupo(Integer idGrupo) {
+        String jpql = "SELECT e.idEstudiante FROM estudiante e WHERE e.grupo.idGrupo = :idGrupo";
+        return soloLectura(entityManager.createQuery(jpql, Integer.class))
+            .setParameter("idGrupo", idGrupo)
+            .getResultList();
+    }
+
+    /**
+     * idEstudiante -> idObservador de los estudiantes indicados, creando el
+     * observador de los que aún no tienen con una sola sentencia. Los ids que
+     * no son de un estudiante no aparecen en el resultado. Debe llamarse
+     * dentro de una transacción activa.
+     */
+    public Map<Integer, Integer> resolverObservadores(Collection<Integer> idsEstudiantes) {
+        entityManager.flush();
+        Map<Integer, Integer> observadores = new HashMap<>();
+        entityManager.unwrap(Session.class).doWork(conexion -> {
+            leerObservadores(conexion, idsEstudiantes, observadores);
+            if (observadores.size() < idsEstudiantes.size()) {
+                // Otra transacción pudo crear el observador en paralelo (ON
+                // CONFLICT lo omite y la sentencia no lo ve): se lee de nuevo
+                List<Integer> faltantes = new ArrayList<>();
+                for (Integer id : idsEstudiantes) {
+                    if (!observadores.containsKey(id)) {
+                        faltantes.add(id);
+                    }
+                }
+                leerObservadores(conexion, faltantes, observadores);
+            }
+        });
+        return observadores;
+    }
+
+    /**
+     * Inserta la misma observación en cada observador con lotes JDBC y
+     * devuelve los ids generados en el mismo orden. Debe llamarse dentro de
+     * una transacción activa.
+     */
+    public List<Integer> insertarEnLote(Collection<Integer> idsObservadores, String descripcion,
+            LocalDate fecha, Integer idProfesor) {
+        entityManager.flush();
+        List<Integer> ids = new ArrayList<>(idsObservadores.size());
+        entityManager.unwrap(Session.class).doWork(conexion -> {
+            try (PreparedStatement insertar = conexion.prepareStatement(SQL_INSERTAR, new String[] {"id_observacion"})) {
+                int pendientes = 0;
+                for (Integer idObservador : idsObservadores) {
+                    insertar.setString(1, descripcion);
+                    insertar.setDate(2, Date.valueOf(fecha));
+                    insertar.setInt(3, idObservador);
+                    if (idProfesor != null) {
+                        insertar.setInt(4, idProfesor);
+                    } else {
+                        insertar.setNull(4, Types.INTEGER);
+                    }
+                    insertar.addBatch();
+                    if (++pendientes == TAMANO_LOTE) {
+                        ejecutarLote(insertar, ids);
+                        pendientes = 0;
+                    }
+                }
+                if (pendientes > 0) {
+                    ejecutarLote(insertar, ids);
+                }
+            }
+        });
+        return ids;
+    }
+
+    // ==================== MÉTODOS PRIVADOS ====================
+
+    private static void leerObservadores(Connection conexion, Collection<Integer> idsEstudiantes,
+            Map<Integer, Integer> observadores) throws SQLException {
+        Array arreglo = conexion.createArrayOf("integer", idsEstudiantes.toArray());
+        try (PreparedStatement consulta = conexion.prepareStatement(SQL_RESOLVER_OBSERVADORES)) {
+            consulta.setArray(1, arreglo);
+            try (ResultSet filas = consulta.executeQuery()) {
+                while (filas.next()) {
+                    observadores.put(filas.getInt(1), filas.getInt(2));
+                }
+            }
+        } finally {
+            arreglo.free();
+        }
+    }
+
+    private static void ejecutarLote(PreparedStatement sentencia, List<Integer> ids) throws SQLException {
+        sentencia.executeBatch();
+        try (ResultSet generados = sentencia.getGeneratedKeys()) {
+            while (generados.next()) {
+                ids.add(generados.getInt(1));
+            }
+        }
+    }
+}
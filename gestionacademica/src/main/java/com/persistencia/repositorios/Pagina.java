@@ -0,0 +1,55 @@
+package com.persistencia.repositorios;
+
+import java.util.List;
+
+/**
+ * Página de un listado paginado por llave (keyset): en lugar de OFFSET se
+ * guarda el último valor de orden e id entregados, y la siguiente consulta
+ * continúa desde ahí.
+ */
+public class Pagina<T> {
+
+    private final List<T> elementos;
+    private final Cursor siguiente;
+
+    public Pagina(List<T> elementos, Cursor siguiente) {
+        this.elementos = elementos;
+        this.siguiente = siguiente;
+    }
+
+    public List<T> getElementos() {
+        return elementos;
+    }
+
+    /**
+     * Cursor para pedir la página siguiente; null si esta es la última
+     */
+    public Cursor getSiguiente() {
+        return siguiente;
+    }
+
+    public boolean hayMas() {
+        return siguiente != null;
+    }
+
+    /**
+     * Posición en el listado: valor del campo de orden e id del último elemento
+     */
+    public static final class Cursor {
+        private final Object valorOrden;
+        private final Object id;
+
+        public Cursor(Object valorOrden, Object id) {
+            this.valorOrden = valorOrden;
+            this.id = id;
+        }
+
+        public Object getValorOrden() {
+            return valorOrden;
+        }
+
+        public Object getId() {
+            return id;
+        }
+    }
+}
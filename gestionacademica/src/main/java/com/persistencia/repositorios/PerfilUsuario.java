@@ -0,0 +1,79 @@
+package com.persistencia.repositorios;
+
+import com.dominio.Estado;
+
+/**
+ * Datos planos de un usuario para pantallas de consulta (perfil). Se obtiene
+ * con una sola consulta de proyección: no carga entidades administradas ni
+ * las colecciones del usuario (estudiantes de un acudiente, grupo, etc.).
+ */
+public class PerfilUsuario {
+
+    private final Integer idUsuario;
+    private final String tipoUsuario;
+    private final String nuipUsuario;
+    private final String primerNombre;
+    private final String segundoNombre;
+    private final String primerApellido;
+    private final String segundoApellido;
+    private final Integer edad;
+    private final String correoElectronico;
+    private final String telefono;
+    private final String nombreGrupo;
+    private final Estado estadoAprobacion;
+
+    public PerfilUsuario(Integer idUsuario, String tipoUsuario, String nuipUsuario, String primerNombre,
+            String segundoNombre, String primerApellido, String segundoApellido, Integer edad,
+            String correoElectronico, String telefono, String nombreGrupo, Estado estadoAprobacion) {
+        this.idUsuario = idUsuario;
+        this.tipoUsuario = tipoUsuario;
+        this.nuipUsuario = nuipUsuario;
+        this.primerNombre = primerNombre;
+        this.segundoNombre = segundoNombre;
+        this.primerApellido = primerApellido;
+        this.segundoApellido = segundoApellido;
+        this.edad = edad;
+        this.correoElectronico = correoElectronico;
+        this.telefono = telefono;
+        this.nombreGrupo = nombreGrupo;
+        this.estadoAprobacion = estadoAprobacion;
+    }
+
+    public String obtenerNombreCompleto() {
+        StringBuilder nombre = new StringBuilder(primerNombre);
+        if (segundoNombre != null && !segundoNombre.isEmpty()) {
+            nombre.append(" ").append(segundoNombre);
+        }
+        nombre.append(" ").append(primerApellido);
+        if (segundoApellido != null && !segundoApellido.isEmpty()) {
+            nombre.append(" ").append(segundoApellido);
+        }
+        return nombre.toString();
+    }
+
+    public Integer getIdUsuario() { return idUsuario; }
+
+    /**
+     * Profesor, Directivo, Administrador o Acudiente
+     */
+    public String getTipoUsuario() { return tipoUsuario; }
+
+    public String getNuipUsuario() { return nuipUsuario; }
+    public String getPrimerNombre() { return primerNombre; }
+    public String getSegundoNombre() { return segundoNombre; }
+    public String getPrimerApellido() { return primerApellido; }
+    public String getSegundoApellido() { return segundoApellido; }
+    public Integer getEdad() { return edad; }
+    public String getCorreoElectronico() { return correoElectronico; }
+    public String getTelefono() { return telefono; }
+
+    /**
+     * Grupo asignado (solo profesores); null si no tiene
+     */
+    public String getNombreGrupo() { return nombreGrupo; }
+
+    /**
+     * Estado de aprobación (solo acudientes)
+     */
+    public Estado getEstadoAprobacion() { return estadoAprobacion; }
+}
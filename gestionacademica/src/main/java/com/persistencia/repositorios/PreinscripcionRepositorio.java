@@ -0,0 +1,145 @@
+package com.persistencia.repositorios;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.hibernate.Session;
+
+import com.dominio.Estado;
+import com.persistencia.entidades.PreinscripcionEntity;
+
+import jakarta.persistence.EntityManager;
+
+public class PreinscripcionRepositorio extends RepositorioGenerico<PreinscripcionEntity> {
+    private final EntityManager entityManager;
+
+    // PostgreSQL: bloquea las filas a cambiar, las actualiza y registra el
+    // estado anterior y el nuevo en historial_estado, todo en una sentencia.
+    // %1$s tabla, %2$s columna id, %3$s columna estado, %4$s filtro sobre t
+    // con un único parámetro (arreglo de ids). Parámetros: ids, estado nuevo
+    // (tres veces) y usuario.
+    private static final String SQL_CAMBIAR_ESTADO =
+        "WITH previos AS (" +
+        "  SELECT t.%2$s AS id, t.%3$s AS estado FROM %1$s t " +
+        "  WHERE %4$s AND t.%3$s <> ? FOR UPDATE), " +
+        "cambiados AS (" +
+        "  UPDATE %1$s t SET %3$s = ? FROM previos p WHERE t.%2$s = p.id " +
+        "  RETURNING p.id, p.estado AS anterior), " +
+        "auditados AS (" +
+        "  INSERT INTO historial_estado (entidad, id_registro, estadoAnterior, estadoNuevo, id_usuario, fecha) " +
+        "  SELECT '%1$s', id, anterior, ?, ?, now() FROM cambiados RETURNING id_registro) " +
+        "SELECT id_registro FROM auditados";
+
+    private static final String FILTRO_PREINSCRIPCIONES =
+        "t.id_preinscripcion = ANY (?) AND t.estado = 'Pendiente'";
+    private static final String FILTRO_ESTUDIANTES = "t.preinscripcion_id = ANY (?)";
+    private static final String FILTRO_ACUDIENTES =
+        "t.id_usuario IN (SELECT acudiente FROM preinscripcion WHERE id_preinscripcion = ANY (?))";
+    // Un acudiente solo queda rechazado si no le queda otra preinscripción vigente
+    private static final String FILTRO_ACUDIENTES_RECHAZO = FILTRO_ACUDIENTES +
+        " AND NOT EXISTS (SELECT 1 FROM preinscripcion o WHERE o.acudiente = t.id_usuario " +
+        "AND o.estado IN ('Pendiente', 'Aprobada'))";
+
+    public PreinscripcionRepositorio(EntityManager entityManager) {
+        super(entityManager, PreinscripcionEntity.class);
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Preinscripciones pendientes, las más antiguas primero:
+     * [idPreinscripcion, fechaRegistro, primerNombre, primerApellido, nuipAcudiente, cantidadEstudiantes]
+     */
+    public List<Object[]> buscarPendientes() {
+        String jpql = "SELECT p.idPreinscripcion, p.fechaRegistro, a.primerNombre, a.primerApellido, " +
+                      "a.nuipUsuario, (SELECT COUNT(e) FROM estudiante e WHERE e.preinscripcion = p) " +
+                      "FROM preinscripcion p JOIN p.acudiente a " +
+                      "WHERE p.estado = :estado ORDER BY p.fechaRegistro, p.idPreinscripcion";
+        return soloLectura(entityManager.createQuery(jpql, Object[].class))
+            .setParameter("estado", Estado.Pendiente)
+            .getResultList();
+    }
+
+    /**
+     * Pasa las preinscripciones pendientes indicadas al estado nuevo y
+     * propaga el cambio a sus estudiantes y acudientes con una sentencia por
+     * tabla, cada una con su registro en historial_estado. Debe llamarse
+     * dentro de una transacción activa.
+     */
+    public CambioEstado cambiarEstado(Collection<Integer> idsPreinscripciones, Estado nuevo, Integer idUsuario) {
+        entityManager.flush();
+        CambioEstado[] resultado = new CambioEstado[1];
+        entityManager.unwrap(Session.class).doWork(conexion -> {
+            int[] preinscripciones = ejecutarCambio(conexion, "preinscripcion", "id_preinscripcion", "estado",
+                FILTRO_PREINSCRIPCIONES, idsPreinscripciones, nuevo, idUsuario);
+            List<Integer> cambiadas = new ArrayList<>();
+            for (int id : preinscripciones) {
+                cambiadas.add(id);
+            }
+            int[] estudiantes = ejecutarCambio(conexion, "estudiante", "id_estudiante", "estado",
+                FILTRO_ESTUDIANTES, cambiadas, nuevo, idUsuario);
+            int[] acudientes = ejecutarCambio(conexion, "acudiente", "id_usuario", "estadoAprobacion",
+                nuevo == Estado.Rechazada ? FILTRO_ACUDIENTES_RECHAZO : FILTRO_ACUDIENTES,
+                cambiadas, nuevo, idUsuario);
+            resultado[0] = new CambioEstado(preinscripciones, estudiantes, acudientes);
+        });
+        return resultado[0];
+    }
+
+    // ==================== MÉTODOS PRIVADOS ====================
+
+    private static int[] ejecutarCambio(Connection conexion, String tabla, String columnaId, String columnaEstado,
+            String filtro, Collection<Integer> ids, Estado nuevo, Integer idUsuario) throws SQLException {
+        if (ids.isEmpty()) {
+            return new int[0];
+        }
+        String sql = String.format(SQL_CAMBIAR_ESTADO, tabla, columnaId, columnaEstado, filtro);
+        try (PreparedStatement sentencia = conexion.prepareStatement(sql)) {
+            Array arreglo = conexion.createArrayOf("integer", ids.toArray(new Integer[0]));
+            int indice = 1;
+            sentencia.setArray(indice++, arreglo);
+            sentencia.setString(indice++, nuevo.name());
+            sentencia.setString(indice++, nuevo.name());
+            sentencia.setString(indice++, nuevo.name());
+            if (idUsuario != null) {
+                sentencia.setInt(indice, idUsuario);
+            } else {
+                sentencia.setNull(indice, Types.INTEGER);
+            }
+
+            List<Integer> cambiados = new ArrayList<>();
+            try (ResultSet filas = sentencia.executeQuery()) {
+                while (filas.next()) {
+                    cambiados.add(filas.getInt(1));
+                }
+            }
+            arreglo.free();
+            return cambiados.stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    /**
+     * Identificadores que cambiaron de estado en cada tabla
+     */
+    public static final class CambioEstado {
+        private final int[] preinscripciones;
+        private final int[] estudiantes;
+        private final int[] acudientes;
+
+        public CambioEstado(int[] preinscripciones, int[] estudiantes, int[] acudientes) {
+            this.preinscripciones = preinscripciones;
+            this.estudiantes = estudiantes;
+            this.acudientes = acudientes;
+        }
+
+        public int[] getPreinscripciones() { return preinscripciones; }
+        public int[] getEstudiantes() { return estudiantes; }
+        public int[] getAcudientes() { return acudientes; }
+    }
+}
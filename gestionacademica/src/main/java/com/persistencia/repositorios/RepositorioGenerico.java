@@ -1,68 +1,218 @@
 package com.persistencia.repositorios;
 
+import com.aplicacion.trazas.TipoTramo;
+import com.aplicacion.trazas.Trazador;
+import com.aplicacion.trazas.Tramo;
+
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.FlushModeType;
 import jakarta.persistence.TypedQuery;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.ManagedType;
+import jakarta.persistence.metamodel.SingularAttribute;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.SessionBuilder;
+import org.hibernate.SessionFactory;
+import org.hibernate.jpa.HibernateHints;
 
 /**
  * Repositorio genérico con patrón Repository y Table Data Gateway
  * Responsabilidad: Mapea objetos de dominio a base de datos
  * Implementa operaciones CRUD genéricas usando JPA
  */
+@SuppressWarnings("try")
 public class RepositorioGenerico<T> {
+
+    /** Filas que se traen por viaje a la BD y cada cuántas se limpia el contexto en los flujos */
+    protected static final int TAMANO_LOTE_FLUJO = 500;
+
+    /** Filas por viaje al servidor en las consultas de solo lectura */
+    protected static final int TAMANO_LOTE_CONSULTA = 100;
+
+    /**
+     * Consultas por criterio ya registradas como consultas nombradas en cada
+     * EntityManagerFactory: el JPQL se valida y se compila una sola vez por
+     * (entidad, operación, campo) y después se reutiliza
+     */
+    private static final Map<EntityManagerFactory, Set<String>> CONSULTAS_REGISTRADAS =
+        Collections.synchronizedMap(new WeakHashMap<>());
     
     private final Class<T> tipoEntidad;
     private final EntityManager entityManager;
+    private final String nombreTraza;
     
     public RepositorioGenerico(EntityManager entityManager, Class<T> tipoEntidad) {
         this.tipoEntidad = tipoEntidad;
         this.entityManager = entityManager;
+        this.nombreTraza = getClass().getSimpleName();
     }
 
     public T guardar(T entidad) {
-        entityManager.persist(entidad);
-        entityManager.flush(); // Asegurar que se persiste inmediatamente
-        return entidad;
+        try (Tramo tramo = Trazador.iniciar(nombreTraza + ".guardar", TipoTramo.REPOSITORIO)) {
+            entityManager.persist(entidad);
+            entityManager.flush(); // Asegurar que se persiste inmediatamente
+            return entidad;
+        }
     }
 
     public Optional<T> buscarPorId(Object id) {
-        return Optional.ofNullable(entityManager.find(tipoEntidad, id));
+        try (Tramo tramo = Trazador.iniciar(nombreTraza + ".buscarPorId", TipoTramo.REPOSITORIO)) {
+            return Optional.ofNullable(entityManager.find(tipoEntidad, id));
+        }
     }
     
     /**
      * Busca entidades por un criterio específico
      */
     public List<T> buscarPorCriterio(String nombreCampo, Object valor) {
-        String jpql = "SELECT e FROM " + tipoEntidad.getSimpleName() + " e WHERE e." + nombreCampo + " = :valor";
-        TypedQuery<T> query = entityManager.createQuery(jpql, tipoEntidad);
-        query.setParameter("valor", valor);
-        return query.getResultList();
+        try (Tramo tramo = Trazador.iniciar(nombreTraza + ".buscarPorCriterio", TipoTramo.REPOSITORIO)) {
+            return consultaPorCriterio(nombreCampo, valor).getResultList();
+        }
     }
     
     /**
-     * Busca una única entidad por un criterio específico
+     * Busca una única entidad por un criterio específico (la primera, con LIMIT 1)
      */
     public Optional<T> buscarUnoPorCriterio(String nombreCampo, Object valor) {
-        List<T> resultados = buscarPorCriterio(nombreCampo, valor);
-        return resultados.isEmpty() ? Optional.empty() : Optional.of(resultados.get(0));
+        try (Tramo tramo = Trazador.iniciar(nombreTraza + ".buscarUnoPorCriterio", TipoTramo.REPOSITORIO)) {
+            List<T> resultados = consultaPorCriterio(nombreCampo, valor)
+                .setMaxResults(1)
+                .getResultList();
+            return resultados.isEmpty() ? Optional.empty() : Optional.of(resultados.get(0));
+        }
     }
     
     /**
-     * Verifica si existe una entidad por ID
+     * Verifica si existe una entidad por ID, sin cargarla
      */
     public boolean existe(Integer id) {
-        return buscarPorId(id) != null;
+        return existePorCriterio(nombreId(), id);
     }
     
     /**
-     * Verifica si existe al menos una entidad que cumpla el criterio
+     * Verifica si existe al menos una entidad que cumpla el criterio.
+     * Consulta "SELECT 1 ... LIMIT 1": la BD se detiene en la primera fila
+     * en lugar de contarlas todas.
      */
     public boolean existePorCriterio(String nombreCampo, Object valor) {
-        String jpql = "SELECT COUNT(e) FROM " + tipoEntidad.getSimpleName() + " e WHERE e." + nombreCampo + " = :valor";
-        TypedQuery<Integer> query = entityManager.createQuery(jpql, Integer.class);
-        query.setParameter("valor", valor);
-        return query.getSingleResult() > 0;
+        try (Tramo tramo = Trazador.iniciar(nombreTraza + ".existePorCriterio", TipoTramo.REPOSITORIO)) {
+            TypedQuery<Integer> query = consultaNombrada("existePor", nombreCampo, Integer.class,
+                () -> "SELECT 1 FROM " + nombreEntidad() + " e WHERE e." + nombreCampo + " = :valor");
+            query.setParameter("valor", valor);
+            return !query.setMaxResults(1).getResultList().isEmpty();
+        }
+    }
+    
+    // ==================== LISTADOS PAGINADOS Y EN FLUJO ====================
+
+    /**
+     * Página de entidades ordenadas por campoOrden (y por id en empates),
+     * empezando después del cursor; null para la primera página.
+     * campoOrden no debe admitir valores nulos.
+     */
+    @SuppressWarnings("unchecked")
+    public Pagina<T> buscarPagina(String campoOrden, Pagina.Cursor despuesDe, int tamano) {
+        return paginar("e", 1, null, null, campoOrden, despuesDe, tamano, fila -> (T) fila[0]);
+    }
+
+    /**
+     * Como buscarPagina, solo con las entidades donde nombreCampo = valor
+     */
+    @SuppressWarnings("unchecked")
+    public Pagina<T> buscarPaginaPorCriterio(String nombreCampo, Object valor, String campoOrden,
+            Pagina.Cursor despuesDe, int tamano) {
+        return paginar("e", 1, nombreCampo, valor, campoOrden, despuesDe, tamano, fila -> (T) fila[0]);
+    }
+
+    /**
+     * Página de proyecciones: se consultan solo los campos indicados y cada fila
+     * (en el mismo orden de campos) se convierte con mapeo, sin cargar entidades
+     */
+    public <D> Pagina<D> proyectarPagina(Function<Object[], D> mapeo, String campoOrden,
+            Pagina.Cursor despuesDe, int tamano, String... campos) {
+        return paginar(seleccion(campos), campos.length, null, null, campoOrden, despuesDe, tamano,
+            fila -> mapeo.apply(Arrays.copyOf(fila, campos.length)));
+    }
+
+    /**
+     * Recorre todas las entidades ordenadas por campoOrden sin cargarlas a la vez:
+     * las filas llegan por lotes desde un cursor de la BD, leídas con un
+     * EntityManager propio de la misma sede cuyo contexto se limpia cada
+     * TAMANO_LOTE_FLUJO entidades. Las entidades entregadas no pertenecen al
+     * EntityManager del repositorio (no guardar cambios sobre ellas) y no se
+     * ven los cambios que este aún no ha confirmado.
+     * El flujo debe cerrarse (try-with-resources).
+     */
+    public Stream<T> transmitir(String campoOrden) {
+        validarCampo(campoOrden);
+        String jpql = "SELECT e FROM " + nombreEntidad() + " e ORDER BY e." + campoOrden + ", e." + nombreId();
+        return transmitirEntidades(em -> em.createQuery(jpql, tipoEntidad));
+    }
+
+    /**
+     * Como transmitir, solo con las entidades donde nombreCampo = valor
+     */
+    public Stream<T> transmitirPorCriterio(String nombreCampo, Object valor, String campoOrden) {
+        validarCampo(nombreCampo);
+        validarCampo(campoOrden);
+        String jpql = "SELECT e FROM " + nombreEntidad() + " e WHERE e." + nombreCampo + " = :valor " +
+                      "ORDER BY e." + campoOrden + ", e." + nombreId();
+        return transmitirEntidades(em -> em.createQuery(jpql, tipoEntidad).setParameter("valor", valor));
+    }
+
+    /**
+     * Recorre la proyección de los campos indicados convirtiendo cada fila con mapeo.
+     * El flujo debe cerrarse (try-with-resources).
+     */
+    public <D> Stream<D> transmitirProyeccion(Function<Object[], D> mapeo, String campoOrden, String... campos) {
+        validarCampo(campoOrden);
+        String jpql = "SELECT " + seleccion(campos) + ", e." + nombreId() + " FROM " + nombreEntidad() + " e " +
+                      "ORDER BY e." + campoOrden + ", e." + nombreId();
+        return transmitirConsulta(entityManager.createQuery(jpql, Object[].class))
+            .map(fila -> mapeo.apply(Arrays.copyOf(fila, campos.length)));
+    }
+
+    /**
+     * Marca la consulta como de solo lectura: las entidades que devuelva no
+     * se revisan en busca de cambios, ejecutarla no hace flush del contexto y
+     * el driver trae las filas en lotes de TAMANO_LOTE_CONSULTA
+     */
+    protected <R> TypedQuery<R> soloLectura(TypedQuery<R> consulta) {
+        return consulta.setHint(HibernateHints.HINT_READ_ONLY, true)
+                       .setHint(HibernateHints.HINT_FETCH_SIZE, TAMANO_LOTE_CONSULTA)
+                       .setFlushMode(FlushModeType.COMMIT);
+    }
+
+    /**
+     * Convierte una consulta de proyección en un flujo respaldado por un cursor
+     * de la BD, sobre el EntityManager del repositorio: su contexto no se toca,
+     * así que no sirve para recorrer muchas entidades (ver transmitir).
+     * PostgreSQL solo usa cursor dentro de una transacción: si no hay una activa
+     * se abre una de solo lectura que se deshace al cerrar el flujo.
+     */
+    protected <R> Stream<R> transmitirConsulta(TypedQuery<R> consulta) {
+        return recorrer(entityManager, consulta, false);
     }
     
     /**
@@ -99,4 +249,210 @@ public class RepositorioGenerico<T> {
     public EntityManager getEntityManager() {
         return entityManager;
     }
-}
\ No newline at end of file
+    
+    // ==================== MÉTODOS PRIVADOS ====================
+
+    /**
+     * Flujo de entidades sobre un EntityManager propio de la misma sede, que se
+     * cierra con el flujo. Así limpiar su contexto cada TAMANO_LOTE_FLUJO filas
+     * no desasocia las entidades ni descarta los cambios sin guardar de quien
+     * usa el EntityManager del repositorio.
+     */
+    private Stream<T> transmitirEntidades(Function<EntityManager, TypedQuery<T>> consulta) {
+        SessionBuilder opciones = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).withOptions();
+        Object sede = entityManager.unwrap(Session.class).getTenantIdentifierValue();
+        if (sede != null) {
+            opciones.tenantIdentifier(sede);
+        }
+        EntityManager propio = opciones.openSession();
+        try {
+            return recorrer(propio, consulta.apply(propio), true).onClose(propio::close);
+        } catch (RuntimeException e) {
+            propio.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Cursor de la consulta en em, dentro de la transacción activa o de una de
+     * solo lectura que se deshace al cerrar el flujo. Con limpiarContexto el
+     * contexto de em se limpia cada TAMANO_LOTE_FLUJO filas.
+     */
+    private static <R> Stream<R> recorrer(EntityManager em, TypedQuery<R> consulta, boolean limpiarContexto) {
+        boolean transaccionPropia = !em.getTransaction().isActive();
+        if (transaccionPropia) {
+            em.getTransaction().begin();
+        }
+
+        ScrollableResults<R> filas;
+        try {
+            @SuppressWarnings("unchecked")
+            org.hibernate.query.Query<R> query = consulta.unwrap(org.hibernate.query.Query.class);
+            filas = query.setFetchSize(TAMANO_LOTE_FLUJO)
+                         .setReadOnly(true)
+                         .scroll(ScrollMode.FORWARD_ONLY);
+        } catch (RuntimeException e) {
+            if (transaccionPropia) {
+                em.getTransaction().rollback();
+            }
+            throw e;
+        }
+
+        Spliterator<R> recorrido = new Spliterators.AbstractSpliterator<R>(Long.MAX_VALUE, Spliterator.ORDERED) {
+            private long entregadas;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super R> accion) {
+                if (limpiarContexto && entregadas > 0 && entregadas % TAMANO_LOTE_FLUJO == 0) {
+                    em.clear();
+                }
+                if (!filas.next()) {
+                    return false;
+                }
+                entregadas++;
+                accion.accept(filas.get());
+                return true;
+            }
+        };
+
+        return StreamSupport.stream(recorrido, false).onClose(() -> {
+            try {
+                filas.close();
+            } finally {
+                if (transaccionPropia && em.getTransaction().isActive()) {
+                    em.getTransaction().rollback();
+                }
+            }
+        });
+    }
+
+    /**
+     * Nombre JPQL de la entidad (el de @Entity(name = ...), no el de la clase)
+     */
+    private String nombreEntidad() {
+        return tipoMetamodelo().getName();
+    }
+
+    private String nombreId() {
+        EntityType<T> tipo = tipoMetamodelo();
+        return tipo.getId(tipo.getIdType().getJavaType()).getName();
+    }
+
+    private EntityType<T> tipoMetamodelo() {
+        return entityManager.getMetamodel().entity(tipoEntidad);
+    }
+
+    /**
+     * Comprueba en el metamodelo que el campo (o ruta "a.b" por asociaciones)
+     * exista en la entidad; los nombres de campo se concatenan al JPQL, así que
+     * solo se aceptan atributos reales
+     */
+    private void validarCampo(String nombreCampo) {
+        ManagedType<?> tipo = tipoMetamodelo();
+        for (String parte : nombreCampo.split("\\.", -1)) {
+            Attribute<?, ?> atributo;
+            try {
+                atributo = tipo != null ? tipo.getAttribute(parte) : null;
+            } catch (IllegalArgumentException e) {
+                atributo = null;
+            }
+            if (atributo == null) {
+                throw new IllegalArgumentException(
+                    "La entidad " + nombreEntidad() + " no tiene el campo '" + nombreCampo + "'");
+            }
+            tipo = atributo instanceof SingularAttribute<?, ?> singular
+                    && singular.getType() instanceof ManagedType<?> asociado ? asociado : null;
+        }
+    }
+
+    private TypedQuery<T> consultaPorCriterio(String nombreCampo, Object valor) {
+        TypedQuery<T> query = consultaNombrada("buscarPor", nombreCampo, tipoEntidad,
+            () -> "SELECT e FROM " + nombreEntidad() + " e WHERE e." + nombreCampo + " = :valor");
+        query.setParameter("valor", valor);
+        return query;
+    }
+
+    /**
+     * Devuelve la consulta nombrada "entidad.operacion.campo", registrándola en
+     * la EntityManagerFactory la primera vez (tras validar el campo). Las
+     * llamadas siguientes no arman ni interpretan JPQL de nuevo.
+     */
+    private <R> TypedQuery<R> consultaNombrada(String operacion, String nombreCampo, Class<R> tipoResultado,
+            Supplier<String> jpql) {
+        String nombre = nombreEntidad() + "." + operacion + "." + nombreCampo;
+        EntityManagerFactory fabrica = entityManager.getEntityManagerFactory();
+        Set<String> registradas = CONSULTAS_REGISTRADAS.computeIfAbsent(fabrica, f -> ConcurrentHashMap.newKeySet());
+        if (!registradas.contains(nombre)) {
+            synchronized (registradas) {
+                if (!registradas.contains(nombre)) {
+                    validarCampo(nombreCampo);
+                    fabrica.addNamedQuery(nombre, entityManager.createQuery(jpql.get(), tipoResultado));
+                    registradas.add(nombre);
+                }
+            }
+        }
+        return entityManager.createNamedQuery(nombre, tipoResultado);
+    }
+
+    private String seleccion(String... campos) {
+        StringBuilder seleccion = new StringBuilder();
+        for (String campo : campos) {
+            validarCampo(campo);
+            if (seleccion.length() > 0) {
+                seleccion.append(", ");
+            }
+            seleccion.append("e.").append(campo);
+        }
+        return seleccion.toString();
+    }
+
+    /**
+     * Consulta keyset: selecciona "seleccion, campoOrden, id", filtra las filas
+     * posteriores al cursor y pide una fila de más para saber si hay otra página
+     */
+    private <R> Pagina<R> paginar(String seleccion, int columnas, String campoFiltro, Object valorFiltro,
+            String campoOrden, Pagina.Cursor despuesDe, int tamano, Function<Object[], R> mapeo) {
+        if (tamano < 1) {
+            throw new IllegalArgumentException("El tamaño de página debe ser mayor que cero");
+        }
+        validarCampo(campoOrden);
+        if (campoFiltro != null) {
+            validarCampo(campoFiltro);
+        }
+        String id = nombreId();
+
+        StringBuilder jpql = new StringBuilder("SELECT ")
+            .append(seleccion).append(", e.").append(campoOrden).append(", e.").append(id)
+            .append(" FROM ").append(nombreEntidad()).append(" e WHERE 1 = 1");
+        if (campoFiltro != null) {
+            jpql.append(" AND e.").append(campoFiltro).append(" = :valorFiltro");
+        }
+        if (despuesDe != null) {
+            jpql.append(" AND (e.").append(campoOrden).append(" > :valorOrden OR (e.")
+                .append(campoOrden).append(" = :valorOrden AND e.").append(id).append(" > :id))");
+        }
+        jpql.append(" ORDER BY e.").append(campoOrden).append(", e.").append(id);
+
+        TypedQuery<Object[]> query = entityManager.createQuery(jpql.toString(), Object[].class);
+        if (campoFiltro != null) {
+            query.setParameter("valorFiltro", valorFiltro);
+        }
+        if (despuesDe != null) {
+            query.setParameter("valorOrden", despuesDe.getValorOrden());
+            query.setParameter("id", despuesDe.getId());
+        }
+        List<Object[]> filas = query.setMaxResults(tamano + 1).getResultList();
+
+        boolean hayMas = filas.size() > tamano;
+        List<R> elementos = new ArrayList<>(Math.min(filas.size(), tamano));
+        for (int i = 0; i < filas.size() && i < tamano; i++) {
+            elementos.add(mapeo.apply(filas.get(i)));
+        }
+        Pagina.Cursor siguiente = null;
+        if (hayMas) {
+            Object[] ultima = filas.get(tamano - 1);
+            siguiente = new Pagina.Cursor(ultima[columnas], ultima[columnas + 1]);
+        }
+        return new Pagina<>(elementos, siguiente);
+    }
+}
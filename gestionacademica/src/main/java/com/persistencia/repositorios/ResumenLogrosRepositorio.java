@@ -0,0 +1,181 @@
+package com.persistencia.repositorios;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import com.persistencia.entidades.GrupoEntity;
+import com.persistencia.entidades.ResumenLogrosEntity;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Acceso a los conteos materializados de logros (resumen_logros).
+ * Los métodos de escritura deben ejecutarse dentro de la transacción del llamador.
+ */
+public class ResumenLogrosRepositorio extends RepositorioGenerico<ResumenLogrosEntity> {
+    private final EntityManager entityManager;
+
+    // PostgreSQL: suma el delta sobre la fila existente o la crea
+    private static final String SQL_SUMAR =
+        "INSERT INTO resumen_logros (grupo, periodo, categoria, cantidad) VALUES (?1, ?2, ?3, ?4) " +
+        "ON CONFLICT (grupo, periodo, categoria) " +
+        "DO UPDATE SET cantidad = resumen_logros.cantidad + EXCLUDED.cantidad";
+
+    public ResumenLogrosRepositorio(EntityManager entityManager) {
+        super(entityManager, ResumenLogrosEntity.class);
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Aplica los deltas acumulados y elimina los conteos que quedan en cero
+     */
+    public void aplicarCambios(Map<Clave, Long> cambios) {
+        boolean hayBajas = false;
+        for (Map.Entry<Clave, Long> cambio : cambios.entrySet()) {
+            long delta = cambio.getValue();
+            if (delta == 0) {
+                continue;
+            }
+            Clave clave = cambio.getKey();
+            entityManager.createNativeQuery(SQL_SUMAR)
+                .setParameter(1, clave.getIdGrupo())
+                .setParameter(2, clave.getPeriodo())
+                .setParameter(3, clave.getCategoria())
+                .setParameter(4, delta)
+                .executeUpdate();
+            hayBajas |= delta < 0;
+        }
+        if (hayBajas) {
+            entityManager.createQuery("DELETE FROM resumen_logros r WHERE r.cantidad <= 0")
+                .executeUpdate();
+        }
+    }
+
+    public List<ResumenLogrosEntity> buscarPorPeriodo(String periodo) {
+        String jpql = "SELECT r FROM resumen_logros r JOIN FETCH r.grupo g LEFT JOIN FETCH g.grado gr " +
+                      "WHERE r.periodo = :periodo ORDER BY gr.nombreGrado, g.nombreGrupo, g.idGrupo, r.categoria";
+        return entityManager.createQuery(jpql, ResumenLogrosEntity.class)
+            .setParameter("periodo", periodo)
+            .getResultList();
+    }
+
+    public List<ResumenLogrosEntity> buscarPorGrupoYPeriodo(Integer idGrupo, String periodo) {
+        String jpql = "SELECT r FROM resumen_logros r " +
+                      "WHERE r.grupo.idGrupo = :idGrupo AND r.periodo = :periodo ORDER BY r.categoria";
+        return entityManager.createQuery(jpql, ResumenLogrosEntity.class)
+            .setParameter("idGrupo", idGrupo)
+            .setParameter("periodo", periodo)
+            .getResultList();
+    }
+
+    public List<String> buscarPeriodos() {
+        return entityManager.createQuery(
+                "SELECT DISTINCT r.periodo FROM resumen_logros r ORDER BY r.periodo", String.class)
+            .getResultList();
+    }
+
+    /**
+     * Conteo completo desde logros_estudiante: [idGrupo, periodo, categoria, cantidad].
+     * periodo y categoria llegan nulos para calificaciones sin boletín o sin biblioteca.
+     */
+    public List<Object[]> contarCalificaciones() {
+        String jpql = "SELECT g.idGrupo, bo.periodo, bl.categoria, COUNT(le) " +
+                      "FROM logros_estudiante le " +
+                      "JOIN le.estudiante e " +
+                      "JOIN e.grupo g " +
+                      "LEFT JOIN le.logro l " +
+                      "LEFT JOIN l.bibliotecaLogros bl " +
+                      "LEFT JOIN le.boletin bo " +
+                      "GROUP BY g.idGrupo, bo.periodo, bl.categoria";
+        return entityManager.createQuery(jpql, Object[].class).getResultList();
+    }
+
+    /**
+     * Conteo de las calificaciones de los estudiantes dados:
+     * [idEstudiante, periodo, categoria, cantidad], con los mismos nulos que contarCalificaciones
+     */
+    public List<Object[]> contarCalificacionesDeEstudiantes(Collection<Integer> idsEstudiantes) {
+        String jpql = "SELECT e.idEstudiante, bo.periodo, bl.categoria, COUNT(le) " +
+                      "FROM logros_estudiante le " +
+                      "JOIN le.estudiante e " +
+                      "LEFT JOIN le.logro l " +
+                      "LEFT JOIN l.bibliotecaLogros bl " +
+                      "LEFT JOIN le.boletin bo " +
+                      "WHERE e.idEstudiante IN :idsEstudiantes " +
+                      "GROUP BY e.idEstudiante, bo.periodo, bl.categoria";
+        return entityManager.createQuery(jpql, Object[].class)
+            .setParameter("idsEstudiantes", idsEstudiantes)
+            .getResultList();
+    }
+
+    /**
+     * Bloquea el resumen hasta el fin de la transacción contra escrituras de
+     * otras transacciones (las lecturas siguen). Quien ya sumó deltas sin
+     * confirmar hace esperar este bloqueo, y quien los sume después espera
+     * a que termine la reconstrucción, así ningún delta se pierde ni choca
+     * con las filas reinsertadas.
+     */
+    public void bloquearEscrituras() {
+        entityManager.createNativeQuery("LOCK TABLE resumen_logros IN EXCLUSIVE MODE").executeUpdate();
+    }
+
+    /**
+     * Reemplaza todo el resumen por los conteos dados; llamar después de bloquearEscrituras
+     */
+    public void reemplazarTodo(Map<Clave, Long> conteos) {
+        entityManager.createQuery("DELETE FROM resumen_logros").executeUpdate();
+        for (Map.Entry<Clave, Long> conteo : conteos.entrySet()) {
+            ResumenLogrosEntity resumen = new ResumenLogrosEntity();
+            resumen.setGrupo(entityManager.getReference(GrupoEntity.class, conteo.getKey().getIdGrupo()));
+            resumen.setPeriodo(conteo.getKey().getPeriodo());
+            resumen.setCategoria(conteo.getKey().getCategoria());
+            resumen.setCantidad(conteo.getValue());
+            entityManager.persist(resumen);
+        }
+        entityManager.flush();
+    }
+
+    /**
+     * Clave de una fila del resumen: grupo, periodo y categoría
+     */
+    public static final class Clave {
+        private final Integer idGrupo;
+        private final String periodo;
+        private final String categoria;
+
+        public Clave(Integer idGrupo, String periodo, String categoria) {
+            this.idGrupo = idGrupo;
+            this.periodo = periodo;
+            this.categoria = categoria;
+        }
+
+        public Integer getIdGrupo() {
+            return idGrupo;
+        }
+
+        public String getPeriodo() {
+            return periodo;
+        }
+
+        public String getCategoria() {
+            return categoria;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Clave)) return false;
+            Clave otra = (Clave) o;
+            return Objects.equals(idGrupo, otra.idGrupo)
+                && Objects.equals(periodo, otra.periodo)
+                && Objects.equals(categoria, otra.categoria);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(idGrupo, periodo, categoria);
+        }
+    }
+}
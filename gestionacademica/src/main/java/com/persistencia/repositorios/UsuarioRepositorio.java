@@ -1,7 +1,15 @@
 package com.persistencia.repositorios;
 
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import com.dominio.Estado;
+import com.persistencia.entidades.AcudienteEntity;
+import com.persistencia.entidades.AdministradorEntity;
+import com.persistencia.entidades.DirectivoEntity;
+import com.persistencia.entidades.ProfesorEntity;
+import com.persistencia.entidades.TokenUsuarioEntity;
 import com.persistencia.entidades.UsuarioEntity;
 
 import jakarta.persistence.EntityManager;
@@ -9,6 +17,18 @@ import jakarta.persistence.NoResultException;
 import jakarta.persistence.TypedQuery;
 
 public class UsuarioRepositorio extends RepositorioGenerico<UsuarioEntity>{
+    /**
+     * Subclase de usuario que corresponde a cada rol. Con el rol del token se
+     * consulta directamente la subclase (usuario + una tabla) en vez de la
+     * consulta polimórfica, que hace LEFT JOIN a las cuatro tablas hijas
+     */
+    private static final Map<String, Class<? extends UsuarioEntity>> SUBCLASE_POR_ROL = Map.of(
+        "administrador", AdministradorEntity.class,
+        "directivo", DirectivoEntity.class,
+        "profesor", ProfesorEntity.class,
+        "acudiente", AcudienteEntity.class
+    );
+
     private final EntityManager entityManager;
 
     public UsuarioRepositorio(EntityManager entityManager){
@@ -28,6 +48,29 @@ public class UsuarioRepositorio extends RepositorioGenerico<UsuarioEntity>{
         }
     }
 
+    /**
+     * Usuario del token consultando solo la subclase que indica su rol. Si el
+     * rol no corresponde a una subclase conocida, o el usuario no está en
+     * ella, se usa la consulta polimórfica
+     */
+    public Optional<UsuarioEntity> buscarPorToken(TokenUsuarioEntity token) {
+        Class<? extends UsuarioEntity> subclase = subclasePorRol(token.getRol() != null ? token.getRol().getNombre() : null);
+        if (subclase != null) {
+            Optional<? extends UsuarioEntity> usuario = buscarPorTokenEnSubclase(token.getIdToken(), subclase);
+            if (usuario.isPresent()) {
+                return Optional.of(usuario.get());
+            }
+        }
+        return buscarPorToken(token.getIdToken());
+    }
+
+    /**
+     * Subclase de usuario para el nombre de rol; null si el rol no tiene una
+     */
+    public static Class<? extends UsuarioEntity> subclasePorRol(String nombreRol) {
+        return nombreRol == null ? null : SUBCLASE_POR_ROL.get(nombreRol.trim().toLowerCase());
+    }
+
     public boolean existePorCorreo(String correoElectronico) {
         try {
             String jpql = "SELECT 1 FROM usuario u WHERE u.correoElectronico = :correoElectronico";
@@ -66,4 +109,84 @@ public class UsuarioRepositorio extends RepositorioGenerico<UsuarioEntity>{
             return false;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Proyección de todos los acudientes para el índice de búsqueda, en flujo:
+     * [idUsuario, primerNombre, segundoNombre, primerApellido, segundoApellido,
+     *  nuipUsuario, correoElectronico, telefono]
+     */
+    public Stream<Object[]> transmitirAcudientesParaIndice() {
+        String jpql = "SELECT a.idUsuario, a.primerNombre, a.segundoNombre, a.primerApellido, " +
+                      "a.segundoApellido, a.nuipUsuario, a.correoElectronico, a.telefono FROM acudiente a";
+        return transmitirConsulta(entityManager.createQuery(jpql, Object[].class));
+    }
+
+    /**
+     * Listado de acudientes para exportar, en flujo y ordenado por apellido:
+     * [idUsuario, nuipUsuario, primerApellido, segundoApellido, primerNombre,
+     * segundoNombre, teléfono, correo, estadoAprobacion, número de
+     * estudiantes]. Con grado o grupo solo entran los acudientes con algún
+     * estudiante en ellos. Los filtros null no se aplican.
+     */
+    public Stream<Object[]> transmitirListadoAcudientes(Estado estado, Integer idGrado, Integer idGrupo) {
+        String ubicacion = EstudianteRepositorio.condicionUbicacion(idGrado, idGrupo);
+        String jpql = "SELECT a.idUsuario, a.nuipUsuario, a.primerApellido, a.segundoApellido, a.primerNombre, " +
+                      "a.segundoNombre, a.telefono, a.correoElectronico, a.estadoAprobacion, " +
+                      "(SELECT COUNT(h) FROM estudiante h WHERE h.acudiente = a) " +
+                      "FROM acudiente a WHERE 1 = 1" +
+                      (estado != null ? " AND a.estadoAprobacion = :estado" : "") +
+                      (ubicacion.isEmpty() ? "" :
+                          " AND EXISTS (SELECT 1 FROM estudiante e " + EstudianteRepositorio.UNION_UBICACION +
+                          "WHERE e.acudiente = a" + ubicacion + ")") +
+                      " ORDER BY a.primerApellido, a.primerNombre, a.idUsuario";
+        TypedQuery<Object[]> query = entityManager.createQuery(jpql, Object[].class);
+        if (estado != null) {
+            query.setParameter("estado", estado);
+        }
+        EstudianteRepositorio.parametrosUbicacion(query, idGrado, idGrupo);
+        return transmitirConsulta(query);
+    }
+
+    /**
+     * Perfil plano del usuario en una sola consulta de solo lectura, sin
+     * cargar la entidad ni sus relaciones
+     */
+    public Optional<PerfilUsuario> buscarPerfil(Integer idUsuario) {
+        String jpql = "SELECT u.idUsuario, TYPE(u), u.nuipUsuario, u.primerNombre, u.segundoNombre, " +
+                      "u.primerApellido, u.segundoApellido, u.edad, u.correoElectronico, u.telefono, " +
+                      "g.nombreGrupo, TREAT(u AS acudiente).estadoAprobacion " +
+                      "FROM usuario u LEFT JOIN grupo g ON g.profesor.idUsuario = u.idUsuario " +
+                      "WHERE u.idUsuario = :idUsuario";
+        TypedQuery<Object[]> query = soloLectura(entityManager.createQuery(jpql, Object[].class));
+        query.setParameter("idUsuario", idUsuario);
+        query.setMaxResults(1);
+
+        return query.getResultList().stream().findFirst().map(fila -> new PerfilUsuario(
+            (Integer) fila[0], tipoUsuario((Class<?>) fila[1]), (String) fila[2], (String) fila[3],
+            (String) fila[4], (String) fila[5], (String) fila[6], (Integer) fila[7], (String) fila[8],
+            (String) fila[9], (String) fila[10], (Estado) fila[11]));
+    }
+
+    // ==================== MÉTODOS PRIVADOS ====================
+
+    private <U extends UsuarioEntity> Optional<U> buscarPorTokenEnSubclase(Integer idToken, Class<U> subclase) {
+        String jpql = "SELECT u FROM " + entityManager.getMetamodel().entity(subclase).getName() +
+                      " u WHERE u.tokenAccess.idToken = :id_token";
+        TypedQuery<U> query = entityManager.createQuery(jpql, subclase);
+        query.setParameter("id_token", idToken);
+        return query.getResultList().stream().findFirst();
+    }
+
+    private static String tipoUsuario(Class<?> tipo) {
+        if (ProfesorEntity.class.equals(tipo)) {
+            return "Profesor";
+        } else if (DirectivoEntity.class.equals(tipo)) {
+            return "Directivo";
+        } else if (AdministradorEntity.class.equals(tipo)) {
+            return "Administrador";
+        } else if (AcudienteEntity.class.equals(tipo)) {
+            return "Acudiente";
+        }
+        return "Usuario";
+    }
+}
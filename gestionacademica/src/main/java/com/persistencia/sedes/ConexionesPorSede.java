@@ -0,0 +1,207 @@
+package com.persistencia.sedes;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.engine.jdbc.connections.internal.DriverManagerConnectionProviderImpl;
+import org.hibernate.engine.jdbc.connections.spi.MultiTenantConnectionProvider;
+import org.hibernate.service.UnknownUnwrapTypeException;
+import org.hibernate.service.spi.Configurable;
+import org.hibernate.service.spi.ServiceRegistryAwareService;
+import org.hibernate.service.spi.ServiceRegistryImplementor;
+import org.hibernate.service.spi.Stoppable;
+
+/**
+ * Conexiones JDBC por sede (hibernate.multi_tenant_connection_provider).
+ * - Las sedes de una misma base comparten un pool y se separan por esquema:
+ *   al entregar la conexión se fija su search_path, solo si la conexión
+ *   venía de otra sede
+ * - Una sede con base propia tiene su propio pool, creado al primer uso
+ * - Cada sede tiene un máximo de conexiones simultáneas
+ *   (gestionacademica.sede.&lt;id&gt;.max_conexiones), así una sede con mucha
+ *   carga no deja sin conexiones a las demás del mismo pool
+ * Los pools son los de Hibernate (DriverManagerConnectionProviderImpl) con la
+ * configuración de Persistence.xml, cambiando url, usuario y clave.
+ */
+public class ConexionesPorSede implements MultiTenantConnectionProvider<String>,
+        ServiceRegistryAwareService, Configurable, Stoppable {
+
+    private static final long ESPERA_CONEXION_MS = Long.getLong("gestionacademica.sedes.espera_conexion_ms", 30_000L);
+
+    private static final String[] CLAVES_URL = { "jakarta.persistence.jdbc.url", "hibernate.connection.url" };
+    private static final String[] CLAVES_USUARIO = { "jakarta.persistence.jdbc.user", "hibernate.connection.username" };
+    private static final String[] CLAVES_CLAVE = { "jakarta.persistence.jdbc.password", "hibernate.connection.password" };
+
+    /** Pool por base de datos (url y usuario); "" es la de Persistence.xml */
+    private final Map<String, DriverManagerConnectionProviderImpl> pools = new ConcurrentHashMap<>();
+    private final Map<String, Semaphore> cupos = new ConcurrentHashMap<>();
+    private final Set<String> esquemasCreados = ConcurrentHashMap.newKeySet();
+    /** Esquema fijado en cada conexión de los pools */
+    private final Map<Connection, String> esquemaPorConexion = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private ServiceRegistryImplementor registro;
+    private Map<String, Object> configuracion;
+
+    @Override
+    public void injectServices(ServiceRegistryImplementor serviceRegistry) {
+        this.registro = serviceRegistry;
+    }
+
+    @Override
+    public void configure(Map<String, Object> configurationValues) {
+        this.configuracion = new HashMap<>(configurationValues);
+        for (Sedes.Sede sede : Sedes.todas()) {
+            cupos.put(sede.getId(), new Semaphore(sede.getMaxConexiones(), true));
+        }
+    }
+
+    /** Hibernate la usa para leer los metadatos de JDBC; es de la sede predeterminada */
+    @Override
+    public Connection getAnyConnection() throws SQLException {
+        return getConnection(Sedes.predeterminada());
+    }
+
+    @Override
+    public void releaseAnyConnection(Connection connection) throws SQLException {
+        releaseConnection(Sedes.predeterminada(), connection);
+    }
+
+    @Override
+    public Connection getConnection(String idSede) throws SQLException {
+        Sedes.Sede sede = Sedes.buscar(idSede);
+        Semaphore cupo = cupos.get(idSede);
+        try {
+            if (!cupo.tryAcquire(ESPERA_CONEXION_MS, TimeUnit.MILLISECONDS)) {
+                throw new SQLException("La sede " + idSede + " alcanzó su máximo de " +
+                    sede.getMaxConexiones() + " conexiones");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrumpido esperando una conexión de la sede " + idSede, e);
+        }
+
+        DriverManagerConnectionProviderImpl pool = pool(sede);
+        Connection conexion = null;
+        try {
+            conexion = pool.getConnection();
+            if (sede.getEsquema() != null) {
+                fijarEsquema(conexion, sede.getEsquema());
+            }
+            return conexion;
+        } catch (SQLException | RuntimeException e) {
+            if (conexion != null) {
+                esquemaPorConexion.remove(conexion);
+                pool.closeConnection(conexion);
+            }
+            cupo.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public void releaseConnection(String idSede, Connection connection) throws SQLException {
+        try {
+            pool(Sedes.buscar(idSede)).closeConnection(connection);
+        } finally {
+            cupos.get(idSede).release();
+        }
+    }
+
+    @Override
+    public boolean supportsAggressiveRelease() {
+        return false;
+    }
+
+    @Override
+    public void stop() {
+        for (DriverManagerConnectionProviderImpl pool : pools.values()) {
+            pool.stop();
+        }
+        pools.clear();
+    }
+
+    @Override
+    public boolean isUnwrappableAs(Class<?> unwrapType) {
+        return unwrapType.isInstance(this);
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> unwrapType) {
+        if (unwrapType.isInstance(this)) {
+            return unwrapType.cast(this);
+        }
+        throw new UnknownUnwrapTypeException(unwrapType);
+    }
+
+    // ==================== MÉTODOS PRIVADOS ====================
+
+    private DriverManagerConnectionProviderImpl pool(Sedes.Sede sede) {
+        String llave = sede.getUrl() == null ? "" : sede.getUrl() + "|" + sede.getUsuario();
+        return pools.computeIfAbsent(llave, l -> crearPool(sede));
+    }
+
+    private DriverManagerConnectionProviderImpl crearPool(Sedes.Sede sede) {
+        Map<String, Object> valores = new HashMap<>(configuracion);
+        if (sede.getUrl() != null) {
+            reemplazar(valores, CLAVES_URL, sede.getUrl());
+            reemplazar(valores, CLAVES_USUARIO, sede.getUsuario());
+            reemplazar(valores, CLAVES_CLAVE, sede.getClave());
+        }
+        DriverManagerConnectionProviderImpl pool = new DriverManagerConnectionProviderImpl();
+        pool.injectServices(registro);
+        pool.configure(valores);
+        return pool;
+    }
+
+    private static void reemplazar(Map<String, Object> valores, String[] claves, String valor) {
+        if (valor == null) {
+            return; // Se conserva el de Persistence.xml
+        }
+        for (String clave : claves) {
+            valores.put(clave, valor);
+        }
+    }
+
+    private void fijarEsquema(Connection conexion, String esquema) throws SQLException {
+        if (esquema.equals(esquemaPorConexion.get(conexion))) {
+            return;
+        }
+        if (!esquemasCreados.contains(esquema)) {
+            crearEsquema(conexion, esquema);
+            esquemasCreados.add(esquema);
+        }
+        conexion.setSchema(esquema);
+        // Sin autocommit el SET quedaría en la transacción que Hibernate
+        // podría deshacer; se confirma aparte
+        if (!conexion.getAutoCommit()) {
+            conexion.commit();
+        }
+        esquemaPorConexion.put(conexion, esquema);
+    }
+
+    // Una sede nueva empieza con su esquema vacío; MigradorEsquema lo completa
+    private static void crearEsquema(Connection conexion, String esquema) throws SQLException {
+        try (PreparedStatement existe = conexion.prepareStatement("SELECT 1 FROM pg_namespace WHERE nspname = ?")) {
+            existe.setString(1, esquema);
+            try (ResultSet rs = existe.executeQuery()) {
+                if (rs.next()) {
+                    return;
+                }
+            }
+        }
+        try (Statement st = conexion.createStatement()) {
+            st.execute("CREATE SCHEMA IF NOT EXISTS " + esquema);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.persistencia.sedes;
+
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Sede de la operación en curso. Es la de la sesión iniciada (la elige el
+ * usuario al entrar) salvo dentro de {@link #ejecutarEn}, que la fija solo
+ * para el hilo actual; así los procesos de fondo trabajan en la sede que
+ * los programó aunque después se inicie sesión en otra.
+ *
+ * Hibernate la consulta con {@link ResolutorSede} al abrir cada
+ * EntityManager, de modo que un EntityManager queda en la sede que tenía
+ * el contexto cuando se creó.
+ */
+public final class ContextoSede {
+
+    private static volatile String sesion;
+
+    private static final ThreadLocal<String> FIJADA = new ThreadLocal<>();
+
+    private ContextoSede() {
+    }
+
+    public static String actual() {
+        String fijada = FIJADA.get();
+        if (fijada != null) {
+            return fijada;
+        }
+        String deSesion = sesion;
+        return deSesion != null ? deSesion : Sedes.predeterminada();
+    }
+
+    /**
+     * Sede de la sesión; lanza IllegalArgumentException si no está configurada
+     */
+    public static void establecerSesion(String id) {
+        sesion = Sedes.buscar(id).getId();
+    }
+
+    public static void ejecutarEn(String id, Runnable tarea) {
+        calcularEn(id, () -> {
+            tarea.run();
+            return null;
+        });
+    }
+
+    public static <T> T calcularEn(String id, Supplier<T> tarea) {
+        Sedes.buscar(id);
+        String anterior = FIJADA.get();
+        FIJADA.set(id);
+        try {
+            return tarea.get();
+        } finally {
+            if (anterior != null) {
+                FIJADA.set(anterior);
+            } else {
+                FIJADA.remove();
+            }
+        }
+    }
+
+    /**
+     * Envuelve una tarea para que se ejecute en la sede actual aunque corra
+     * en otro hilo (ejecutores, CompletableFuture)
+     */
+    public static Runnable enSedeActual(Runnable tarea) {
+        String id = actual();
+        return () -> ejecutarEn(id, tarea);
+    }
+
+    public static <T> Supplier<T> enSedeActual(Supplier<T> tarea) {
+        String id = actual();
+        return () -> calcularEn(id, tarea);
+    }
+
+    /**
+     * Partición de una caché para la sede actual; la crea si no existe.
+     * particiones debe ser un mapa concurrente.
+     */
+    public static <M> M particion(Map<String, M> particiones, Function<String, M> nueva) {
+        return particiones.computeIfAbsent(actual(), nueva);
+    }
+}
@@ -0,0 +1,21 @@
+package com.persistencia.sedes;
+
+import org.hibernate.context.spi.CurrentTenantIdentifierResolver;
+
+/**
+ * Indica a Hibernate la sede (tenant) de cada EntityManager que se abre.
+ * Se configura en hibernate.tenant_identifier_resolver cuando hay varias sedes.
+ */
+public class ResolutorSede implements CurrentTenantIdentifierResolver<String> {
+
+    @Override
+    public String resolveCurrentTenantIdentifier() {
+        return ContextoSede.actual();
+    }
+
+    @Override
+    public boolean validateExistingCurrentSessions() {
+        // La aplicación no usa getCurrentSession
+        return false;
+    }
+}
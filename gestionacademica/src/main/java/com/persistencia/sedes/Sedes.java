@@ -0,0 +1,156 @@
+package com.persistencia.sedes;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Sedes (campus) atendidas por esta instancia, leídas de las propiedades del
+ * sistema al arrancar:
+ *
+ *   gestionacademica.sedes=norte,sur
+ *   gestionacademica.sede.norte.nombre=Sede Norte
+ *   gestionacademica.sede.norte.esquema=norte          (misma base, otro esquema)
+ *   gestionacademica.sede.sur.url=jdbc:postgresql://...  (otra base de datos)
+ *   gestionacademica.sede.sur.usuario / .clave
+ *   gestionacademica.sede.sur.max_conexiones=8
+ *
+ * Una sede sin url usa la base de Persistence.xml y, si no indica esquema,
+ * el esquema con su mismo id. Una sede con url propia usa el esquema por
+ * defecto de esa base salvo que indique otro. Sin gestionacademica.sedes
+ * hay una sola sede, {@link #PRINCIPAL}, y la aplicación funciona como antes.
+ */
+public final class Sedes {
+
+    public static final String PRINCIPAL = "principal";
+
+    private static final String PREFIJO = "gestionacademica.sede.";
+    private static final int MAX_CONEXIONES = Integer.getInteger("gestionacademica.sedes.max_conexiones", 10);
+
+    private static final boolean MULTI_SEDE = !System.getProperty("gestionacademica.sedes", "").isBlank();
+    private static final Map<String, Sede> SEDES = leer();
+
+    private Sedes() {
+    }
+
+    /** true si se configuró gestionacademica.sedes */
+    public static boolean esMultiSede() {
+        return MULTI_SEDE;
+    }
+
+    /** Primera sede configurada; es la de los procesos sin sesión iniciada */
+    public static String predeterminada() {
+        return SEDES.keySet().iterator().next();
+    }
+
+    public static List<Sede> todas() {
+        return Collections.unmodifiableList(new ArrayList<>(SEDES.values()));
+    }
+
+    public static boolean existe(String id) {
+        return id != null && SEDES.containsKey(id);
+    }
+
+    /**
+     * Lanza IllegalArgumentException si la sede no está configurada
+     */
+    public static Sede buscar(String id) {
+        Sede sede = id != null ? SEDES.get(id) : null;
+        if (sede == null) {
+            throw new IllegalArgumentException("Sede no configurada: " + id);
+        }
+        return sede;
+    }
+
+    /**
+     * Ejecuta la tarea una vez por sede, cada vez dentro de su contexto
+     * ({@link ContextoSede#ejecutarEn}). Para procesos de fondo que deben
+     * cubrir todas las sedes.
+     */
+    public static void paraCada(Consumer<String> tarea) {
+        for (String id : SEDES.keySet()) {
+            ContextoSede.ejecutarEn(id, () -> tarea.accept(id));
+        }
+    }
+
+    // ==================== MÉTODOS PRIVADOS ====================
+
+    private static Map<String, Sede> leer() {
+        Map<String, Sede> sedes = new LinkedHashMap<>();
+        if (!MULTI_SEDE) {
+            sedes.put(PRINCIPAL, new Sede(PRINCIPAL, "Principal", null, null, null, null, MAX_CONEXIONES));
+            return sedes;
+        }
+        for (String id : System.getProperty("gestionacademica.sedes").split(",")) {
+            id = id.trim();
+            if (id.isEmpty() || sedes.containsKey(id)) {
+                continue;
+            }
+            if (!id.matches("[a-z][a-z0-9_]*")) {
+                throw new IllegalStateException("Id de sede no válido (minúsculas, dígitos y _): " + id);
+            }
+            String url = propiedad(id, "url");
+            String esquema = propiedad(id, "esquema");
+            if (esquema == null && url == null) {
+                esquema = id;
+            }
+            if (esquema != null && !esquema.matches("[A-Za-z_][A-Za-z0-9_]*")) {
+                throw new IllegalStateException("Esquema no válido para la sede " + id + ": " + esquema);
+            }
+            sedes.put(id, new Sede(id,
+                System.getProperty(PREFIJO + id + ".nombre", id),
+                url, propiedad(id, "usuario"), propiedad(id, "clave"), esquema,
+                Integer.getInteger(PREFIJO + id + ".max_conexiones", MAX_CONEXIONES)));
+        }
+        if (sedes.isEmpty()) {
+            throw new IllegalStateException("gestionacademica.sedes no tiene ninguna sede");
+        }
+        return sedes;
+    }
+
+    private static String propiedad(String id, String nombre) {
+        String valor = System.getProperty(PREFIJO + id + "." + nombre);
+        return valor != null && !valor.isBlank() ? valor.trim() : null;
+    }
+
+    /**
+     * Conexión de una sede. url, usuario y clave en null son los de
+     * Persistence.xml; esquema en null deja el de la conexión.
+     */
+    public static class Sede {
+        private final String id;
+        private final String nombre;
+        private final String url;
+        private final String usuario;
+        private final String clave;
+        private final String esquema;
+        private final int maxConexiones;
+
+        public Sede(String id, String nombre, String url, String usuario, String clave,
+                String esquema, int maxConexiones) {
+            this.id = id;
+            this.nombre = nombre;
+            this.url = url;
+            this.usuario = usuario;
+            this.clave = clave;
+            this.esquema = esquema;
+            this.maxConexiones = maxConexiones;
+        }
+
+        public String getId() { return id; }
+        public String getNombre() { return nombre; }
+        public String getUrl() { return url; }
+        public String getUsuario() { return usuario; }
+        public String getClave() { return clave; }
+        public String getEsquema() { return esquema; }
+        public int getMaxConexiones() { return maxConexiones; }
+
+        @Override
+        public String toString() {
+            return nombre;
+        }
+    }
+}
@@ -5,13 +5,16 @@ import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import javax.swing.*;
 import com.dominio.Acudiente;
-import com.dominio.Estudiante;
 import com.servicios.GestionUsuariosService;
+import com.servicios.ResultadoOperacion;
+import com.servicios.TableroAcudienteService;
 
 public class AcudienteFrame extends JFrame {
     private Acudiente acudiente;
     private GestionUsuariosService gestionService;
     private JComboBox<String> comboEstudiantes;
+    private JLabel lblResumen;
+    private java.util.List<TableroAcudienteService.EstudianteTablero> estudiantes = java.util.Collections.emptyList();
     
     private final Color CB = new Color(255, 212, 160);
     private final Color CBH = new Color(255, 230, 180);
@@ -128,28 +131,14 @@ public class AcudienteFrame extends JFrame {
     private JPanel crearSelectorEstudiante() {
         JPanel panel = new JPanel();
         panel.setBackground(CF);
-        panel.setMaximumSize(new Dimension(350, 80));
+        panel.setMaximumSize(new Dimension(350, 120));
 
         JPanel panelInterno = new JPanel();
         panelInterno.setLayout(new BoxLayout(panelInterno, BoxLayout.Y_AXIS));
         panelInterno.setBackground(CF);
 
         DefaultComboBoxModel<String> modelo = new DefaultComboBoxModel<>();
-        
-        if (acudiente != null && acudiente.getEstudiantes() != null && !acudiente.getEstudiantes().isEmpty()) {
-            for (Estudiante estudiante : acudiente.getEstudiantes()) {
-                String nombreCompleto = estudiante.getPrimerNombre() + " " + estudiante.getPrimerApellido();
-                if (estudiante.getSegundoNombre() != null && !estudiante.getSegundoNombre().isEmpty()) {
-                    nombreCompleto = estudiante.getPrimerNombre() + " " + estudiante.getSegundoNombre() + " " + estudiante.getPrimerApellido();
-                }
-                if (estudiante.getSegundoApellido() != null && !estudiante.getSegundoApellido().isEmpty()) {
-                    nombreCompleto += " " + estudiante.getSegundoApellido();
-                }
-                modelo.addElement(nombreCompleto);
-            }
-        } else {
-            modelo.addElement("Sin estudiantes registrados");
-        }
+        modelo.addElement("Cargando...");
 
         comboEstudiantes = new JComboBox<>(modelo);
         comboEstudiantes.setFont(new Font("Arial", Font.PLAIN, 14));
@@ -163,12 +152,60 @@ public class AcudienteFrame extends JFrame {
             BorderFactory.createEmptyBorder(5, 10, 5, 10)
         ));
 
+        comboEstudiantes.addActionListener(e -> mostrarResumen());
+
+        lblResumen = new JLabel(" ", SwingConstants.CENTER);
+        lblResumen.setFont(new Font("Arial", Font.PLAIN, 12));
+        lblResumen.setForeground(CT);
+        lblResumen.setAlignmentX(Component.CENTER_ALIGNMENT);
+
         panelInterno.add(comboEstudiantes);
+        panelInterno.add(Box.createRigidArea(new Dimension(0, 8)));
+        panelInterno.add(lblResumen);
 
         panel.add(panelInterno);
+        cargarTablero();
         return panel;
     }
 
+    // El tablero suele estar precargado desde el inicio de sesión; si no, se
+    // carga en segundo plano y el combo se llena al terminar
+    private void cargarTablero() {
+        Integer idAcudiente = acudiente != null ? acudiente.getIdUsuario() : null;
+        TableroAcudienteService.getInstancia().consultar(idAcudiente).thenAccept(resultado ->
+            SwingUtilities.invokeLater(() -> mostrarTablero(resultado)));
+    }
+
+    private void mostrarTablero(ResultadoOperacion resultado) {
+        DefaultComboBoxModel<String> modelo = new DefaultComboBoxModel<>();
+        estudiantes = resultado.isExitoso()
+            ? ((TableroAcudienteService.Tablero) resultado.getDatos()).getEstudiantes()
+            : java.util.Collections.emptyList();
+        for (TableroAcudienteService.EstudianteTablero estudiante : estudiantes) {
+            modelo.addElement(estudiante.getNombreCompleto());
+        }
+        if (estudiantes.isEmpty()) {
+            modelo.addElement(resultado.isExitoso() ? "Sin estudiantes registrados" : "No se pudieron cargar los estudiantes");
+        }
+        comboEstudiantes.setModel(modelo);
+        mostrarResumen();
+    }
+
+    private void mostrarResumen() {
+        int indice = comboEstudiantes.getSelectedIndex();
+        if (indice < 0 || indice >= estudiantes.size()) {
+            lblResumen.setText(" ");
+            return;
+        }
+        TableroAcudienteService.EstudianteTablero estudiante = estudiantes.get(indice);
+        String grupo = estudiante.getGrupo() != null ? estudiante.getGrupo()
+            : estudiante.getGrado() != null ? "Aspira a " + estudiante.getGrado() : "Sin grupo";
+        String boletin = estudiante.getPeriodoBoletin() != null
+            ? "Último boletín: " + estudiante.getPeriodoBoletin() + " (" + estudiante.getLogrosBoletin() + " logros)"
+            : "Sin boletines";
+        lblResumen.setText("<html><center>" + estudiante.getEstado() + " · " + grupo + "<br>" + boletin + "</center></html>");
+    }
+
     private JButton crearBotonConIcono(String texto, String icono, java.awt.event.ActionListener accion) {
         JButton boton = new JButton();
         boton.setLayout(new BorderLayout(10, 5));
@@ -113,6 +113,11 @@ public class AdministradorFrame extends JFrame {
         JButton btnAdministrar = crearBoton("ADMINISTRAR USUARIOS", e -> administrarUsuarios());
         panel.add(btnAdministrar);
 
+        panel.add(Box.createVerticalStrut(15));
+
+        JButton btnOperacionesLentas = crearBoton("OPERACIONES LENTAS", e -> consultarOperacionesLentas());
+        panel.add(btnOperacionesLentas);
+
         return panel;
     }
 
@@ -148,6 +153,14 @@ public class AdministradorFrame extends JFrame {
         frameAdministrar.setVisible(true);
     }
 
+    /**
+     * Muestra las operaciones más lentas registradas por el trazador
+     */
+    private void consultarOperacionesLentas() {
+        OperacionesLentasDialog dialogo = new OperacionesLentasDialog(this);
+        dialogo.setVisible(true);
+    }
+
     /**
      * CU 2.4 - Consultar mi información
      * Muestra el diálogo con la información del usuario autenticado
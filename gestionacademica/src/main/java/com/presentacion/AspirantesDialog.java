@@ -0,0 +1,204 @@
+package com.presentacion;
+
+import com.dominio.Usuario;
+import com.servicios.AprobacionPreinscripcionService;
+import com.servicios.AprobacionPreinscripcionService.Aspirante;
+import com.servicios.ResultadoOperacion;
+
+import javax.swing.*;
+import javax.swing.table.DefaultTableModel;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lista de aspirantes: preinscripciones pendientes. El directivo marca las
+ * que quiera y las aprueba o rechaza en una sola operación.
+ */
+public class AspirantesDialog extends JDialog {
+
+    private final Color CB = new Color(255, 212, 160);
+    private final Color CBH = new Color(255, 230, 180);
+    private final Color CT = new Color(58, 46, 46);
+
+    private final Usuario directivo;
+    private final AprobacionPreinscripcionService aprobacionService;
+    private final List<Integer> idsPorFila = new ArrayList<>();
+    private DefaultTableModel modelo;
+    private JLabel lblCantidad;
+
+    public AspirantesDialog(JFrame padre, Usuario directivo, AprobacionPreinscripcionService aprobacionService) {
+        super(padre, "Lista de Aspirantes", true);
+        this.directivo = directivo;
+        this.aprobacionService = aprobacionService;
+        inicializarComponentes();
+    }
+
+    private void inicializarComponentes() {
+        setDefaultCloseOperation(JDialog.DISPOSE_ON_CLOSE);
+        setSize(900, 550);
+        setLocationRelativeTo(getParent());
+
+        JPanel panelPrincipal = new JPanel(new BorderLayout());
+        panelPrincipal.setBackground(Color.WHITE);
+
+        panelPrincipal.add(crearPanelSuperior(), BorderLayout.NORTH);
+
+        modelo = new DefaultTableModel(
+                new Object[] {"", "Fecha", "Acudiente", "Documento", "Estudiantes"}, 0) {
+            @Override
+            public Class<?> getColumnClass(int columna) {
+                return columna == 0 ? Boolean.class : Object.class;
+            }
+
+            @Override
+            public boolean isCellEditable(int fila, int columna) {
+                return columna == 0;
+            }
+        };
+        JTable tabla = new JTable(modelo);
+        tabla.setFont(new Font("Arial", Font.PLAIN, 13));
+        tabla.setRowHeight(24);
+        tabla.getColumnModel().getColumn(0).setMaxWidth(40);
+        JScrollPane scroll = new JScrollPane(tabla);
+        scroll.setBorder(BorderFactory.createEmptyBorder(10, 20, 10, 20));
+        scroll.getViewport().setBackground(Color.WHITE);
+        panelPrincipal.add(scroll, BorderLayout.CENTER);
+
+        panelPrincipal.add(crearPanelInferior(), BorderLayout.SOUTH);
+
+        add(panelPrincipal);
+
+        cargarAspirantes();
+    }
+
+    private JPanel crearPanelSuperior() {
+        JPanel panel = new JPanel(new FlowLayout(FlowLayout.CENTER, 15, 5));
+        panel.setBackground(CB);
+        panel.setBorder(BorderFactory.createEmptyBorder(15, 20, 15, 20));
+
+        JLabel lblTitulo = new JLabel("Lista de Aspirantes");
+        lblTitulo.setFont(new Font("Arial", Font.BOLD, 22));
+        lblTitulo.setForeground(CT);
+        panel.add(lblTitulo);
+
+        lblCantidad = new JLabel();
+        lblCantidad.setFont(new Font("Arial", Font.PLAIN, 14));
+        lblCantidad.setForeground(CT);
+        panel.add(lblCantidad);
+
+        return panel;
+    }
+
+    private JPanel crearPanelInferior() {
+        JPanel panel = new JPanel();
+        panel.setBackground(Color.WHITE);
+        panel.setBorder(BorderFactory.createEmptyBorder(10, 20, 20, 20));
+
+        panel.add(crearBoton("Seleccionar todo", e -> seleccionarTodo()));
+        panel.add(crearBoton("Aprobar", e -> aprobar()));
+        panel.add(crearBoton("Rechazar", e -> rechazar()));
+        panel.add(crearBoton("Volver", e -> dispose()));
+
+        return panel;
+    }
+
+    private JButton crearBoton(String texto, java.awt.event.ActionListener accion) {
+        JButton boton = new JButton(texto);
+        boton.setBackground(CB);
+        boton.setForeground(CT);
+        boton.setFont(new Font("Arial", Font.BOLD, 16));
+        boton.setFocusPainted(false);
+        boton.setBorderPainted(false);
+        boton.setPreferredSize(new Dimension(190, 45));
+        boton.setCursor(new Cursor(Cursor.HAND_CURSOR));
+        boton.addActionListener(accion);
+        boton.addMouseListener(new MouseAdapter() {
+            public void mouseEntered(MouseEvent e) { boton.setBackground(CBH); }
+            public void mouseExited(MouseEvent e) { boton.setBackground(CB); }
+        });
+        return boton;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void cargarAspirantes() {
+        modelo.setRowCount(0);
+        idsPorFila.clear();
+
+        ResultadoOperacion resultado = aprobacionService.consultarPendientes();
+        if (!resultado.isExitoso()) {
+            lblCantidad.setText("");
+            JOptionPane.showMessageDialog(this, resultado.getMensaje(), "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+
+        List<Aspirante> aspirantes = (List<Aspirante>) resultado.getDatos();
+        for (Aspirante aspirante : aspirantes) {
+            idsPorFila.add(aspirante.getIdPreinscripcion());
+            modelo.addRow(new Object[] {
+                Boolean.FALSE,
+                aspirante.getFechaRegistro(),
+                aspirante.getNombreAcudiente(),
+                aspirante.getNuipAcudiente(),
+                aspirante.getCantidadEstudiantes()
+            });
+        }
+        lblCantidad.setText("Pendientes: " + aspirantes.size());
+    }
+
+    private void seleccionarTodo() {
+        boolean todas = !seleccionadas().isEmpty() && seleccionadas().size() == modelo.getRowCount();
+        for (int fila = 0; fila < modelo.getRowCount(); fila++) {
+            modelo.setValueAt(!todas, fila, 0);
+        }
+    }
+
+    private List<Integer> seleccionadas() {
+        List<Integer> ids = new ArrayList<>();
+        for (int fila = 0; fila < modelo.getRowCount(); fila++) {
+            if (Boolean.TRUE.equals(modelo.getValueAt(fila, 0))) {
+                ids.add(idsPorFila.get(fila));
+            }
+        }
+        return ids;
+    }
+
+    private void aprobar() {
+        List<Integer> ids = seleccionadas();
+        if (confirmar(ids, "aprobar")) {
+            mostrarResultado(aprobacionService.aprobar(ids, directivo), "Preinscripciones aprobadas");
+        }
+    }
+
+    private void rechazar() {
+        List<Integer> ids = seleccionadas();
+        if (confirmar(ids, "rechazar")) {
+            mostrarResultado(aprobacionService.rechazar(ids, directivo), "Preinscripciones rechazadas");
+        }
+    }
+
+    private boolean confirmar(List<Integer> ids, String accion) {
+        if (ids.isEmpty()) {
+            JOptionPane.showMessageDialog(this,
+                "Seleccione al menos una preinscripción",
+                "Lista de Aspirantes",
+                JOptionPane.WARNING_MESSAGE);
+            return false;
+        }
+        int opcion = JOptionPane.showConfirmDialog(this,
+            "¿Desea " + accion + " " + ids.size() + " preinscripción(es) con sus estudiantes y acudientes?",
+            "Lista de Aspirantes",
+            JOptionPane.YES_NO_OPTION);
+        return opcion == JOptionPane.YES_OPTION;
+    }
+
+    private void mostrarResultado(ResultadoOperacion resultado, String titulo) {
+        JOptionPane.showMessageDialog(this,
+            resultado.getMensaje(),
+            resultado.isExitoso() ? titulo : "Error",
+            resultado.isExitoso() ? JOptionPane.INFORMATION_MESSAGE : JOptionPane.ERROR_MESSAGE);
+        cargarAspirantes();
+    }
+}
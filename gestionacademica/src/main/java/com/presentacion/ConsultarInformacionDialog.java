@@ -1,6 +1,7 @@
 package com.presentacion;
 
 import com.dominio.Usuario;
+import com.persistencia.repositorios.PerfilUsuario;
 import com.servicios.GestionUsuariosService;
 import com.servicios.ResultadoOperacion;
 
@@ -160,12 +161,12 @@ public class ConsultarInformacionDialog extends JDialog {
             dispose();
         } else {
             // Paso 5: Mostrar información del usuario
-            Usuario usuarioCompleto = (Usuario) resultado.getDatos();
-            mostrarInformacionUsuario(usuarioCompleto);
+            PerfilUsuario perfil = (PerfilUsuario) resultado.getDatos();
+            mostrarInformacionUsuario(perfil);
         }
     }
     
-    private void mostrarInformacionUsuario(Usuario usuario) {
+    private void mostrarInformacionUsuario(PerfilUsuario usuario) {
         // Limpiar el panel de información
         panelInformacion.removeAll();
         
@@ -194,14 +195,14 @@ public class ConsultarInformacionDialog extends JDialog {
         panelInformacion.add(Box.createVerticalStrut(15));
         
         // Agregar información específica según el tipo de usuario
-        if (usuario instanceof com.dominio.Profesor profesor) {
-            if (profesor.getGrupo() != null) {
-                panelInformacion.add(crearCampoInfo("Grupo asignado:", profesor.getGrupo().getNombreGrupo()));
+        if ("Profesor".equals(usuario.getTipoUsuario())) {
+            if (usuario.getNombreGrupo() != null) {
+                panelInformacion.add(crearCampoInfo("Grupo asignado:", usuario.getNombreGrupo()));
                 panelInformacion.add(Box.createVerticalStrut(15));
             }
-        } else if (usuario instanceof com.dominio.Acudiente acudiente) {
+        } else if ("Acudiente".equals(usuario.getTipoUsuario())) {
             panelInformacion.add(crearCampoInfo("Estado de aprobación:", 
-                acudiente.getEstadoAprobacion() != null ? acudiente.getEstadoAprobacion().toString() : null));
+                usuario.getEstadoAprobacion() != null ? usuario.getEstadoAprobacion().toString() : null));
             panelInformacion.add(Box.createVerticalStrut(15));
         }
         
@@ -3,13 +3,27 @@ package com.presentacion;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import javax.swing.*;
+import com.dominio.Estado;
 import com.dominio.Usuario;
+import com.servicios.AprobacionPreinscripcionService;
+import com.servicios.AsignacionGruposService;
+import com.servicios.ExportacionListadosService;
 import com.servicios.GestionUsuariosService;
+import com.servicios.ResultadoOperacion;
+import com.servicios.ResumenLogrosService;
+import com.servicios.exportacion.EscritorTabla;
 
 public class DirectivoFrame extends JFrame {
     private Usuario directivo;
     private GestionUsuariosService gestionService;
+    private ResumenLogrosService resumenLogrosService;
+    private AsignacionGruposService asignacionGruposService;
+    private AprobacionPreinscripcionService aprobacionService;
+    private ExportacionListadosService exportacionService;
+    private JButton btnExportar;
     
     private final Color CB = new Color(255, 212, 160);
     private final Color CBH = new Color(255, 230, 180);
@@ -29,7 +43,7 @@ public class DirectivoFrame extends JFrame {
     private void inicializarComponentes() {
         setTitle("Panel de Directivo - Sistema de Gestión Académica");
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-        setSize(900, 600);
+        setSize(900, 660);
         setLocationRelativeTo(null);
         setResizable(false);
 
@@ -103,15 +117,18 @@ public class DirectivoFrame extends JFrame {
 
         panel.add(Box.createVerticalStrut(20));
 
-        JPanel panelBotones = new JPanel(new GridLayout(3, 2, 15, 15));
+        JPanel panelBotones = new JPanel(new GridLayout(4, 2, 15, 15));
         panelBotones.setBackground(CF);
-        panelBotones.setMaximumSize(new Dimension(650, 200));
+        panelBotones.setMaximumSize(new Dimension(650, 265));
 
         panelBotones.add(crearBotonConIcono("CONSULTAR LISTA\nDE ASPIRANTES", "📋", e -> consultarAspirantes()));
         panelBotones.add(crearBotonConIcono("ADMINISTRAR\nGRUPOS", "👥", e -> administrarGrupos()));
         panelBotones.add(crearBotonConIcono("ADMINISTRAR HOJA\nDE VIDA", "📄", e -> administrarHojaVida()));
         panelBotones.add(crearBotonConIcono("CONSULTAR\nOBSERVADOR", "📝", e -> consultarObservador()));
         panelBotones.add(crearBotonConIcono("ADMINISTRAR\nLOGROS", "🏅", e -> administrarLogros()));
+        panelBotones.add(crearBotonConIcono("RESUMEN\nDE LOGROS", "📊", e -> consultarResumenLogros()));
+        btnExportar = crearBotonConIcono("EXPORTAR\nLISTADOS", "📤", e -> exportarListados());
+        panelBotones.add(btnExportar);
 
         panel.add(panelBotones);
 
@@ -155,11 +172,33 @@ public class DirectivoFrame extends JFrame {
     }
 
     private void consultarAspirantes() {
-        mostrarMensajeDesarrollo("Consultar Lista de Aspirantes");
+        if (aprobacionService == null) {
+            aprobacionService = new AprobacionPreinscripcionService();
+        }
+        AspirantesDialog dialogo = new AspirantesDialog(this, directivo, aprobacionService);
+        dialogo.setVisible(true);
     }
 
     private void administrarGrupos() {
-        mostrarMensajeDesarrollo("Administrar Grupos");
+        int opcion = JOptionPane.showConfirmDialog(this,
+            "¿Asignar automáticamente un grupo a los estudiantes aprobados que aún no lo tienen?",
+            "Administrar Grupos",
+            JOptionPane.YES_NO_OPTION);
+        if (opcion != JOptionPane.YES_OPTION) {
+            return;
+        }
+
+        setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+        if (asignacionGruposService == null) {
+            asignacionGruposService = new AsignacionGruposService();
+        }
+        ResultadoOperacion resultado = asignacionGruposService.asignarGrupos();
+        setCursor(Cursor.getDefaultCursor());
+
+        JOptionPane.showMessageDialog(this,
+            resultado.getMensaje(),
+            resultado.isExitoso() ? "Asignación de grupos" : "Error",
+            resultado.isExitoso() ? JOptionPane.INFORMATION_MESSAGE : JOptionPane.ERROR_MESSAGE);
     }
 
     private void administrarHojaVida() {
@@ -174,6 +213,103 @@ public class DirectivoFrame extends JFrame {
         mostrarMensajeDesarrollo("Administrar Logros");
     }
 
+    private void consultarResumenLogros() {
+        if (resumenLogrosService == null) {
+            resumenLogrosService = new ResumenLogrosService();
+        }
+        ResumenLogrosDialog dialogo = new ResumenLogrosDialog(this, resumenLogrosService);
+        dialogo.setVisible(true);
+    }
+
+    // El servicio usa un solo EntityManager: el botón queda deshabilitado
+    // mientras se consultan los grados o se exporta, fuera del hilo de la interfaz
+    private void exportarListados() {
+        if (exportacionService == null) {
+            exportacionService = new ExportacionListadosService();
+        }
+        btnExportar.setEnabled(false);
+        CompletableFuture.supplyAsync(() -> exportacionService.consultarGradosYGrupos())
+            .thenAccept(resultado -> SwingUtilities.invokeLater(() -> elegirListado(resultado)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void elegirListado(ResultadoOperacion grados) {
+        if (!grados.isExitoso()) {
+            btnExportar.setEnabled(true);
+            JOptionPane.showMessageDialog(this, grados.getMensaje(), "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        String[] listados = {"Estudiantes", "Acudientes"};
+        JComboBox<String> comboListado = new JComboBox<>(listados);
+        JComboBox<String> comboEstado = new JComboBox<>(new String[] {"Todos", "Pendiente", "Aprobada", "Rechazada"});
+        JComboBox<Object> comboGrado = new JComboBox<>();
+        JComboBox<Object> comboGrupo = new JComboBox<>();
+        comboGrado.addItem("Todos");
+        for (ExportacionListadosService.OpcionFiltro grado : (List<ExportacionListadosService.OpcionFiltro>) grados.getDatos()) {
+            comboGrado.addItem(grado);
+        }
+        comboGrupo.addItem("Todos");
+        comboGrado.addActionListener(e -> {
+            comboGrupo.removeAllItems();
+            comboGrupo.addItem("Todos");
+            if (comboGrado.getSelectedItem() instanceof ExportacionListadosService.OpcionFiltro grado) {
+                for (ExportacionListadosService.OpcionFiltro grupo : grado.getGrupos()) {
+                    comboGrupo.addItem(grupo);
+                }
+            }
+        });
+        JComboBox<EscritorTabla.Formato> comboFormato = new JComboBox<>(EscritorTabla.Formato.values());
+        JPanel opciones = new JPanel(new GridLayout(5, 2, 5, 5));
+        opciones.add(new JLabel("Listado:"));
+        opciones.add(comboListado);
+        opciones.add(new JLabel("Estado:"));
+        opciones.add(comboEstado);
+        opciones.add(new JLabel("Grado:"));
+        opciones.add(comboGrado);
+        opciones.add(new JLabel("Grupo:"));
+        opciones.add(comboGrupo);
+        opciones.add(new JLabel("Formato:"));
+        opciones.add(comboFormato);
+        if (JOptionPane.showConfirmDialog(this, opciones, "Exportar listados",
+                JOptionPane.OK_CANCEL_OPTION) != JOptionPane.OK_OPTION) {
+            btnExportar.setEnabled(true);
+            return;
+        }
+
+        boolean estudiantes = comboListado.getSelectedIndex() == 0;
+        EscritorTabla.Formato formato = (EscritorTabla.Formato) comboFormato.getSelectedItem();
+        Estado estado = comboEstado.getSelectedIndex() == 0 ? null : Estado.valueOf((String) comboEstado.getSelectedItem());
+        Integer idGrado = idSeleccionado(comboGrado);
+        Integer idGrupo = idSeleccionado(comboGrupo);
+        JFileChooser selector = new JFileChooser();
+        selector.setSelectedFile(new java.io.File(listados[comboListado.getSelectedIndex()].toLowerCase() + formato.getExtension()));
+        if (selector.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            btnExportar.setEnabled(true);
+            return;
+        }
+        java.nio.file.Path destino = selector.getSelectedFile().toPath();
+
+        setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+        CompletableFuture.supplyAsync(() -> estudiantes
+                ? exportacionService.exportarEstudiantes(estado, idGrado, idGrupo, formato, destino)
+                : exportacionService.exportarAcudientes(estado, idGrado, idGrupo, formato, destino))
+            .thenAccept(resultado -> SwingUtilities.invokeLater(() -> mostrarExportacion(resultado)));
+    }
+
+    private void mostrarExportacion(ResultadoOperacion resultado) {
+        setCursor(Cursor.getDefaultCursor());
+        btnExportar.setEnabled(true);
+        JOptionPane.showMessageDialog(this,
+            resultado.getMensaje(),
+            resultado.isExitoso() ? "Exportar listados" : "Error",
+            resultado.isExitoso() ? JOptionPane.INFORMATION_MESSAGE : JOptionPane.ERROR_MESSAGE);
+    }
+
+    // "Todos" no es una OpcionFiltro y equivale a no filtrar
+    private static Integer idSeleccionado(JComboBox<Object> combo) {
+        return combo.getSelectedItem() instanceof ExportacionListadosService.OpcionFiltro opcion ? opcion.getId() : null;
+    }
+
     private void mostrarMensajeDesarrollo(String funcionalidad) {
         JOptionPane.showMessageDialog(this,
             "Funcionalidad de " + funcionalidad + " en desarrollo",
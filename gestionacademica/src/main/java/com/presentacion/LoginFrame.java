@@ -9,6 +9,8 @@ import javax.swing.*;
 
 import com.aplicacion.JPAUtil;
 import com.dominio.*;
+import com.persistencia.sedes.ContextoSede;
+import com.persistencia.sedes.Sedes;
 import com.servicios.AutenticacionService;
 import com.servicios.PreinscripcionService;
 
@@ -19,6 +21,7 @@ public class LoginFrame extends JFrame {
     private JPasswordField txtContrasena;
     private JButton btnIniciarSesion;
     private JLabel lblError;
+    private JComboBox<Sedes.Sede> cmbSede; // Solo con varias sedes
     private AutenticacionService autenticacionService;
     
     private final Color CB=new Color(255,212,160), CBH=new Color(255,230,180), CT=new Color(58,46,46), CF=new Color(255,243,227);
@@ -49,7 +52,13 @@ public class LoginFrame extends JFrame {
         p.add(crearLabel("¿Ya tienes una cuenta?", Font.BOLD, 24));
         p.add(Box.createVerticalStrut(10));
         p.add(crearLabel("¡Bienvenido de vuelta!", Font.PLAIN, 18));
-        p.add(Box.createVerticalStrut(40));
+        if (Sedes.esMultiSede()) {
+            p.add(Box.createVerticalStrut(20));
+            p.add(crearSelectorSede());
+            p.add(Box.createVerticalStrut(20));
+        } else {
+            p.add(Box.createVerticalStrut(40));
+        }
         p.add(crearCampoConPlaceholder("Usuario", false));
         p.add(Box.createVerticalStrut(20));
         p.add(crearCampoConPlaceholder("Contraseña", true));
@@ -105,6 +114,18 @@ public class LoginFrame extends JFrame {
         return p;
     }
 
+    private JComboBox<Sedes.Sede> crearSelectorSede() {
+        cmbSede = new JComboBox<>(Sedes.todas().toArray(new Sedes.Sede[0]));
+        cmbSede.setSelectedItem(Sedes.buscar(ContextoSede.actual()));
+        cmbSede.setFont(new Font("Arial", Font.PLAIN, 14));
+        cmbSede.setForeground(CT);
+        cmbSede.setBackground(Color.WHITE);
+        cmbSede.setMaximumSize(new Dimension(300, 32));
+        cmbSede.setAlignmentX(Component.CENTER_ALIGNMENT);
+        cmbSede.setToolTipText("Sede");
+        return cmbSede;
+    }
+
     private JPanel crearCampoConPlaceholder(String placeholder, boolean esPassword) {
         JPanel pc = new JPanel(new BorderLayout());
         pc.setBackground(CF);
@@ -182,7 +203,9 @@ public class LoginFrame extends JFrame {
         }
 
         try {
-            Optional<Usuario> usuarioBDOpt = autenticacionService.iniciarSesion(usuario, contrasena);
+            Optional<Usuario> usuarioBDOpt = cmbSede != null
+                ? autenticacionService.iniciarSesion(((Sedes.Sede) cmbSede.getSelectedItem()).getId(), usuario, contrasena)
+                : autenticacionService.iniciarSesion(usuario, contrasena);
             
             if (usuarioBDOpt.isPresent()) {
                 // Login exitoso
@@ -329,6 +352,11 @@ public class LoginFrame extends JFrame {
     }
 
     private void registrarse() {
+        // La preinscripción queda en la sede elegida
+        if (cmbSede != null) {
+            ContextoSede.establecerSesion(((Sedes.Sede) cmbSede.getSelectedItem()).getId());
+        }
+
         // Cerrar la ventana de login
         this.dispose();
         
@@ -0,0 +1,230 @@
+package com.presentacion;
+
+import com.aplicacion.trazas.ExportadorOtlp;
+import com.aplicacion.trazas.RegistroTramo;
+import com.aplicacion.trazas.Trazador;
+
+import javax.swing.*;
+import javax.swing.table.DefaultTableModel;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.io.File;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Operaciones más lentas registradas por el trazador (servicios, repositorios,
+ * consultas, mapper y correo). Doble clic en una fila muestra su traza.
+ */
+public class OperacionesLentasDialog extends JDialog {
+
+    private static final int MAX_FILAS = 200;
+    private static final DateTimeFormatter FORMATO_HORA =
+        DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
+
+    private final Color CB = new Color(255, 212, 160);
+    private final Color CBH = new Color(255, 230, 180);
+    private final Color CT = new Color(58, 46, 46);
+
+    private DefaultTableModel modelo;
+    private JSpinner spnUmbral;
+    private List<RegistroTramo> lentos = new ArrayList<>();
+
+    public OperacionesLentasDialog(JFrame padre) {
+        super(padre, "Operaciones Lentas", true);
+        inicializarComponentes();
+    }
+
+    private void inicializarComponentes() {
+        setDefaultCloseOperation(JDialog.DISPOSE_ON_CLOSE);
+        setSize(900, 550);
+        setLocationRelativeTo(getParent());
+
+        JPanel panelPrincipal = new JPanel(new BorderLayout());
+        panelPrincipal.setBackground(Color.WHITE);
+
+        panelPrincipal.add(crearPanelSuperior(), BorderLayout.NORTH);
+
+        modelo = new DefaultTableModel(new Object[] {"Operación", "Capa", "Duración (ms)", "Inicio", "Hilo"}, 0) {
+            @Override
+            public boolean isCellEditable(int fila, int columna) {
+                return false;
+            }
+        };
+        JTable tabla = new JTable(modelo);
+        tabla.setFont(new Font("Arial", Font.PLAIN, 13));
+        tabla.setRowHeight(24);
+        tabla.getColumnModel().getColumn(0).setPreferredWidth(380);
+        tabla.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int fila = tabla.getSelectedRow();
+                if (e.getClickCount() == 2 && fila >= 0) {
+                    mostrarTraza(lentos.get(fila));
+                }
+            }
+        });
+        JScrollPane scroll = new JScrollPane(tabla);
+        scroll.setBorder(BorderFactory.createEmptyBorder(10, 20, 10, 20));
+        scroll.getViewport().setBackground(Color.WHITE);
+        panelPrincipal.add(scroll, BorderLayout.CENTER);
+
+        panelPrincipal.add(crearPanelInferior(), BorderLayout.SOUTH);
+
+        add(panelPrincipal);
+
+        cargarOperaciones();
+    }
+
+    private JPanel crearPanelSuperior() {
+        JPanel panel = new JPanel(new FlowLayout(FlowLayout.CENTER, 15, 5));
+        panel.setBackground(CB);
+        panel.setBorder(BorderFactory.createEmptyBorder(15, 20, 15, 20));
+
+        JLabel lblTitulo = new JLabel("Operaciones Lentas");
+        lblTitulo.setFont(new Font("Arial", Font.BOLD, 22));
+        lblTitulo.setForeground(CT);
+        panel.add(lblTitulo);
+
+        JLabel lblUmbral = new JLabel("Umbral (ms):");
+        lblUmbral.setFont(new Font("Arial", Font.BOLD, 14));
+        lblUmbral.setForeground(CT);
+        panel.add(lblUmbral);
+
+        spnUmbral = new JSpinner(new SpinnerNumberModel((int) Trazador.getUmbralLentoMs(), 1, 60_000, 50));
+        spnUmbral.setFont(new Font("Arial", Font.PLAIN, 14));
+        spnUmbral.addChangeListener(e -> Trazador.setUmbralLentoMs((Integer) spnUmbral.getValue()));
+        panel.add(spnUmbral);
+
+        JLabel lblMuestreo = new JLabel(String.format("Muestreo: %.0f%%", Trazador.getMuestreo() * 100));
+        lblMuestreo.setFont(new Font("Arial", Font.PLAIN, 14));
+        lblMuestreo.setForeground(CT);
+        panel.add(lblMuestreo);
+
+        return panel;
+    }
+
+    private JPanel crearPanelInferior() {
+        JPanel panel = new JPanel();
+        panel.setBackground(Color.WHITE);
+        panel.setBorder(BorderFactory.createEmptyBorder(10, 40, 20, 40));
+
+        panel.add(crearBoton("Actualizar", e -> cargarOperaciones()));
+        panel.add(crearBoton("Exportar JSON", e -> exportar()));
+        panel.add(crearBoton("Volver", e -> dispose()));
+
+        return panel;
+    }
+
+    private JButton crearBoton(String texto, java.awt.event.ActionListener accion) {
+        JButton boton = new JButton(texto);
+        boton.setBackground(CB);
+        boton.setForeground(CT);
+        boton.setFont(new Font("Arial", Font.BOLD, 16));
+        boton.setFocusPainted(false);
+        boton.setBorderPainted(false);
+        boton.setPreferredSize(new Dimension(200, 45));
+        boton.setCursor(new Cursor(Cursor.HAND_CURSOR));
+        boton.addActionListener(accion);
+        boton.addMouseListener(new MouseAdapter() {
+            public void mouseEntered(MouseEvent e) { boton.setBackground(CBH); }
+            public void mouseExited(MouseEvent e) { boton.setBackground(CB); }
+        });
+        return boton;
+    }
+
+    private void cargarOperaciones() {
+        lentos = Trazador.operacionesLentas(MAX_FILAS);
+        modelo.setRowCount(0);
+        for (RegistroTramo tramo : lentos) {
+            modelo.addRow(new Object[] {
+                resumir(tramo.getNombre()),
+                tramo.getTipo(),
+                String.format("%.1f", tramo.getDuracionMs()),
+                FORMATO_HORA.format(Instant.ofEpochMilli(tramo.getInicioEpocaNanos() / 1_000_000L)),
+                tramo.getHilo()
+            });
+        }
+    }
+
+    /**
+     * Muestra los tramos retenidos de la traza, sangrados según su padre
+     */
+    private void mostrarTraza(RegistroTramo lento) {
+        List<RegistroTramo> tramos = Trazador.traza(lento.getIdTraza());
+        if (tramos.isEmpty()) {
+            tramos = List.of(lento);
+        }
+        Map<Long, RegistroTramo> porId = new HashMap<>();
+        for (RegistroTramo tramo : tramos) {
+            porId.put(tramo.getIdTramo(), tramo);
+        }
+
+        StringBuilder texto = new StringBuilder();
+        for (RegistroTramo tramo : tramos) {
+            int nivel = 0;
+            RegistroTramo actual = porId.get(tramo.getIdPadre());
+            while (actual != null && nivel < 20) {
+                nivel++;
+                actual = porId.get(actual.getIdPadre());
+            }
+            texto.append("  ".repeat(nivel))
+                 .append(String.format("%8.1f ms  [%s] %s%n", tramo.getDuracionMs(), tramo.getTipo(),
+                     resumir(tramo.getNombre())));
+        }
+
+        JTextArea area = new JTextArea(texto.toString());
+        area.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+        area.setEditable(false);
+        JScrollPane scroll = new JScrollPane(area);
+        scroll.setPreferredSize(new Dimension(760, 380));
+        JOptionPane.showMessageDialog(this, scroll, "Traza de " + resumir(lento.getNombre()),
+            JOptionPane.PLAIN_MESSAGE);
+    }
+
+    /**
+     * Exporta en OTLP/JSON las operaciones lentas junto con los tramos
+     * retenidos de sus trazas
+     */
+    private void exportar() {
+        JFileChooser selector = new JFileChooser();
+        selector.setSelectedFile(new File("operaciones-lentas.json"));
+        if (selector.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+
+        Set<Long> vistos = new LinkedHashSet<>();
+        List<RegistroTramo> tramos = new ArrayList<>();
+        for (RegistroTramo lento : lentos) {
+            if (vistos.add(lento.getIdTraza())) {
+                List<RegistroTramo> traza = Trazador.traza(lento.getIdTraza());
+                tramos.addAll(traza.isEmpty() ? List.of(lento) : traza);
+            }
+        }
+        try {
+            ExportadorOtlp.exportarArchivo(tramos, selector.getSelectedFile().toPath());
+            JOptionPane.showMessageDialog(this,
+                "Se exportaron " + tramos.size() + " tramos",
+                "Exportación completa",
+                JOptionPane.INFORMATION_MESSAGE);
+        } catch (Exception e) {
+            JOptionPane.showMessageDialog(this,
+                "Error al exportar: " + e.getMessage(),
+                "Error",
+                JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    private static String resumir(String texto) {
+        String compacto = texto.replaceAll("\\s+", " ").trim();
+        return compacto.length() > 120 ? compacto.substring(0, 117) + "..." : compacto;
+    }
+}
@@ -269,7 +269,7 @@ public class PreinscripcionFrame {
         
         if (!validacion.isValido()) {
             // Mostrar error en campo específico
-            mostrarErrorEnCampo(validacion.getCampo(), validacion.getMensaje());
+            mostrarErrores("", validacion);
             return false;
         }
         
@@ -307,7 +307,7 @@ public class PreinscripcionFrame {
         );
         
         if (!validacion.isValido()) {
-            mostrarErrorEnCampo("est_" + validacion.getCampo(), validacion.getMensaje());
+            mostrarErrores("est_", validacion);
             return false;
         }
         
@@ -321,6 +321,17 @@ public class PreinscripcionFrame {
         return true;
     }
 
+    /**
+     * Marca todos los campos con error; se recorren en orden inverso
+     * para que el foco quede en el primer campo inválido
+     */
+    private void mostrarErrores(String prefijo, ResultadoValidacion validacion) {
+        java.util.List<ResultadoValidacion> errores = validacion.getErrores();
+        for (int i = errores.size() - 1; i >= 0; i--) {
+            mostrarErrorEnCampo(prefijo + errores.get(i).getCampo(), errores.get(i).getMensaje());
+        }
+    }
+
     /**
      * Muestra error en un campo específico del formulario
      */
@@ -672,7 +683,7 @@ public class PreinscripcionFrame {
         );
         
         if (!validacion.isValido()) {
-            mostrarErrorEnCampo(prefijo + validacion.getCampo(), validacion.getMensaje());
+            mostrarErrores(prefijo, validacion);
             return false;
         }
         
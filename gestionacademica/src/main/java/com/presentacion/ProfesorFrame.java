@@ -3,13 +3,18 @@ package com.presentacion;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.util.concurrent.CompletableFuture;
 import javax.swing.*;
 import com.dominio.Profesor;
+import com.servicios.CargaProfesorService;
 import com.servicios.GestionUsuariosService;
+import com.servicios.ResultadoOperacion;
 
 public class ProfesorFrame extends JFrame {
     private Profesor profesor;
     private GestionUsuariosService gestionService;
+    private final CargaProfesorService cargaService = new CargaProfesorService();
+    private JLabel lblCarga;
     
     private final Color CB = new Color(255, 212, 160);
     private final Color CBH = new Color(255, 230, 180);
@@ -102,7 +107,16 @@ public class ProfesorFrame extends JFrame {
         lblFrase.setAlignmentX(Component.CENTER_ALIGNMENT);
         panel.add(lblFrase);
 
-        panel.add(Box.createVerticalStrut(20));
+        panel.add(Box.createVerticalStrut(10));
+
+        lblCarga = new JLabel("Cargando grupo...", SwingConstants.CENTER);
+        lblCarga.setFont(new Font("Arial", Font.BOLD, 13));
+        lblCarga.setForeground(CT);
+        lblCarga.setAlignmentX(Component.CENTER_ALIGNMENT);
+        panel.add(lblCarga);
+        cargarCarga();
+
+        panel.add(Box.createVerticalStrut(10));
 
         JPanel panelBotones = new JPanel(new GridLayout(2, 2, 15, 15));
         panelBotones.setBackground(CF);
@@ -148,6 +162,31 @@ public class ProfesorFrame extends JFrame {
         return boton;
     }
 
+    // Una sola consulta al índice de carga, fuera del hilo de la interfaz
+    private void cargarCarga() {
+        CompletableFuture.supplyAsync(() -> cargaService.consultar(profesor.getIdUsuario()))
+            .thenAccept(resultado -> SwingUtilities.invokeLater(() -> mostrarCarga(resultado)));
+    }
+
+    private void mostrarCarga(ResultadoOperacion resultado) {
+        if (!resultado.isExitoso()) {
+            lblCarga.setText("No se pudo consultar su grupo");
+            return;
+        }
+        CargaProfesorService.CargaProfesor carga = (CargaProfesorService.CargaProfesor) resultado.getDatos();
+        if (carga == null) {
+            lblCarga.setText("Sin grupo asignado");
+            return;
+        }
+        StringBuilder texto = new StringBuilder("<html><center>Grupo " + carga.getNombreGrupo() + " · " +
+            carga.getIdsEstudiantes().size() + " estudiantes · " + carga.getLogrosGrado() + " logros");
+        for (CargaProfesorService.PendientesPeriodo periodo : carga.getPeriodos()) {
+            texto.append("<br>").append(periodo.getPeriodo()).append(": ")
+                .append(periodo.getSinCalificar()).append(" por calificar");
+        }
+        lblCarga.setText(texto.append("</center></html>").toString());
+    }
+
     private void consultarMiInformacion() {
         ConsultarInformacionDialog dialogo = new ConsultarInformacionDialog(
             this, profesor, gestionService);
@@ -0,0 +1,190 @@
+package com.presentacion;
+
+import com.servicios.ResultadoOperacion;
+import com.servicios.ResumenLogrosService;
+
+import javax.swing.*;
+import javax.swing.table.DefaultTableModel;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Tablero de logros calificados por grupo y categoría para un periodo.
+ * Lee el resumen materializado, sin recorrer logros_estudiante.
+ */
+public class ResumenLogrosDialog extends JDialog {
+
+    private final Color CB = new Color(255, 212, 160);
+    private final Color CBH = new Color(255, 230, 180);
+    private final Color CT = new Color(58, 46, 46);
+
+    private final ResumenLogrosService resumenService;
+    private JComboBox<String> cmbPeriodo;
+    private DefaultTableModel modelo;
+
+    public ResumenLogrosDialog(JFrame padre, ResumenLogrosService resumenService) {
+        super(padre, "Resumen de Logros", true);
+        this.resumenService = resumenService;
+        inicializarComponentes();
+    }
+
+    private void inicializarComponentes() {
+        setDefaultCloseOperation(JDialog.DISPOSE_ON_CLOSE);
+        setSize(800, 500);
+        setLocationRelativeTo(getParent());
+
+        JPanel panelPrincipal = new JPanel(new BorderLayout());
+        panelPrincipal.setBackground(Color.WHITE);
+
+        panelPrincipal.add(crearPanelSuperior(), BorderLayout.NORTH);
+
+        modelo = new DefaultTableModel() {
+            @Override
+            public boolean isCellEditable(int fila, int columna) {
+                return false;
+            }
+        };
+        JTable tabla = new JTable(modelo);
+        tabla.setFont(new Font("Arial", Font.PLAIN, 13));
+        tabla.setRowHeight(24);
+        JScrollPane scroll = new JScrollPane(tabla);
+        scroll.setBorder(BorderFactory.createEmptyBorder(10, 20, 10, 20));
+        scroll.getViewport().setBackground(Color.WHITE);
+        panelPrincipal.add(scroll, BorderLayout.CENTER);
+
+        panelPrincipal.add(crearPanelInferior(), BorderLayout.SOUTH);
+
+        add(panelPrincipal);
+
+        cargarPeriodos();
+    }
+
+    private JPanel crearPanelSuperior() {
+        JPanel panel = new JPanel(new FlowLayout(FlowLayout.CENTER, 15, 5));
+        panel.setBackground(CB);
+        panel.setBorder(BorderFactory.createEmptyBorder(15, 20, 15, 20));
+
+        JLabel lblTitulo = new JLabel("Resumen de Logros");
+        lblTitulo.setFont(new Font("Arial", Font.BOLD, 22));
+        lblTitulo.setForeground(CT);
+        panel.add(lblTitulo);
+
+        JLabel lblPeriodo = new JLabel("Periodo:");
+        lblPeriodo.setFont(new Font("Arial", Font.BOLD, 14));
+        lblPeriodo.setForeground(CT);
+        panel.add(lblPeriodo);
+
+        cmbPeriodo = new JComboBox<>();
+        cmbPeriodo.setFont(new Font("Arial", Font.PLAIN, 14));
+        cmbPeriodo.addActionListener(e -> cargarResumen());
+        panel.add(cmbPeriodo);
+
+        return panel;
+    }
+
+    private JPanel crearPanelInferior() {
+        JPanel panel = new JPanel();
+        panel.setBackground(Color.WHITE);
+        panel.setBorder(BorderFactory.createEmptyBorder(10, 40, 20, 40));
+
+        panel.add(crearBoton("Reconstruir", e -> reconstruir()));
+        panel.add(crearBoton("Volver", e -> dispose()));
+
+        return panel;
+    }
+
+    private JButton crearBoton(String texto, java.awt.event.ActionListener accion) {
+        JButton boton = new JButton(texto);
+        boton.setBackground(CB);
+        boton.setForeground(CT);
+        boton.setFont(new Font("Arial", Font.BOLD, 16));
+        boton.setFocusPainted(false);
+        boton.setBorderPainted(false);
+        boton.setPreferredSize(new Dimension(200, 45));
+        boton.setCursor(new Cursor(Cursor.HAND_CURSOR));
+        boton.addActionListener(accion);
+        boton.addMouseListener(new MouseAdapter() {
+            public void mouseEntered(MouseEvent e) { boton.setBackground(CBH); }
+            public void mouseExited(MouseEvent e) { boton.setBackground(CB); }
+        });
+        return boton;
+    }
+
+    private void cargarPeriodos() {
+        try {
+            List<String> periodos = resumenService.consultarPeriodos();
+            cmbPeriodo.removeAllItems();
+            for (String periodo : periodos) {
+                cmbPeriodo.addItem(periodo);
+            }
+        } catch (Exception e) {
+            JOptionPane.showMessageDialog(this,
+                "Error al consultar los periodos: " + e.getMessage(),
+                "Error",
+                JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void cargarResumen() {
+        String periodo = (String) cmbPeriodo.getSelectedItem();
+        modelo.setRowCount(0);
+        if (periodo == null) {
+            return;
+        }
+
+        ResultadoOperacion resultado = resumenService.consultarPorPeriodo(periodo);
+        if (!resultado.isExitoso()) {
+            JOptionPane.showMessageDialog(this, resultado.getMensaje(), "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+
+        Map<Integer, ResumenLogrosService.ResumenGrupo> porGrupo =
+            (Map<Integer, ResumenLogrosService.ResumenGrupo>) resultado.getDatos();
+        TreeSet<String> categorias = new TreeSet<>();
+        porGrupo.values().forEach(grupo -> categorias.addAll(grupo.getConteos().keySet()));
+
+        List<String> columnas = new ArrayList<>();
+        columnas.add("Grupo");
+        columnas.addAll(categorias);
+        columnas.add("Total");
+        modelo.setColumnIdentifiers(columnas.toArray());
+
+        for (ResumenLogrosService.ResumenGrupo grupo : porGrupo.values()) {
+            Object[] fila = new Object[columnas.size()];
+            fila[0] = grupo.getEtiqueta();
+            long total = 0;
+            int i = 1;
+            for (String categoria : categorias) {
+                long cantidad = grupo.getConteos().getOrDefault(categoria, 0L);
+                fila[i++] = cantidad;
+                total += cantidad;
+            }
+            fila[i] = total;
+            modelo.addRow(fila);
+        }
+    }
+
+    private void reconstruir() {
+        setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+        ResultadoOperacion resultado = resumenService.reconstruir();
+        setCursor(Cursor.getDefaultCursor());
+
+        JOptionPane.showMessageDialog(this,
+            resultado.getMensaje(),
+            resultado.isExitoso() ? "Resumen reconstruido" : "Error",
+            resultado.isExitoso() ? JOptionPane.INFORMATION_MESSAGE : JOptionPane.ERROR_MESSAGE);
+        if (resultado.isExitoso()) {
+            Object seleccionado = cmbPeriodo.getSelectedItem();
+            cargarPeriodos();
+            if (seleccionado != null) {
+                cmbPeriodo.setSelectedItem(seleccionado);
+            }
+        }
+    }
+}
@@ -0,0 +1,366 @@
+package com.servicios;
+
+import com.aplicacion.JPAUtil;
+import com.aplicacion.trazas.TipoTramo;
+import com.aplicacion.trazas.Trazador;
+import com.aplicacion.trazas.Tramo;
+import com.dominio.Estado;
+import com.persistencia.auditoria.CapturaCambios;
+import com.persistencia.auditoria.EventoCambio;
+import com.persistencia.auditoria.RegistroCambios;
+import com.persistencia.entidades.AcudienteEntity;
+import com.persistencia.entidades.RolEntity;
+import com.persistencia.entidades.TokenUsuarioEntity;
+import com.persistencia.entidades.UsuarioEntity;
+import com.persistencia.metricas.MetricasPersistencia;
+import com.persistencia.repositorios.CuentaAcudienteRepositorio;
+import com.persistencia.repositorios.CuentaAcudienteRepositorio.CuentaCreada;
+import com.persistencia.repositorios.RolRepositorio;
+import com.persistencia.sedes.ContextoSede;
+
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Activación de cuentas de acudientes aprobados: genera usuario y contraseña
+ * (misma regla que {@link GestionUsuariosService}) para todos los acudientes
+ * aprobados que aún no tienen token, por lotes, y envía las credenciales por
+ * correo en hilos de fondo.
+ *
+ * Cada lote crea tokens, los enlaza y deja los correos en
+ * credenciales_pendientes en una sola transacción. Un acudiente con token no
+ * se vuelve a procesar y un correo solo sale de la cola cuando se envía, así
+ * que una ejecución interrumpida se completa volviendo a ejecutar.
+ */
+@SuppressWarnings("try")
+public class ActivacionAcudientesService {
+
+    private static final int TAMANO_LOTE = Integer.getInteger("gestionacademica.activacion.lote", 500);
+    private static final int HILOS_CORREO = Integer.getInteger("gestionacademica.activacion.hilos_correo", 4);
+    private static final int MAX_INTENTOS_CORREO = Integer.getInteger("gestionacademica.activacion.intentos_correo", 5);
+
+    /** Largo máximo de nombre_usuario menos el espacio para el sufijo numérico */
+    private static final int LARGO_BASE_USUARIO = 45;
+
+    private static final ExecutorService CORREOS = Executors.newFixedThreadPool(HILOS_CORREO, hilos("envio-credenciales"));
+    private static final ExecutorService ACTIVACIONES = Executors.newSingleThreadExecutor(hilos("activacion-acudientes"));
+
+    /** Usuarios con correo en cola o en envío, para no encolarlos dos veces */
+    private static final Set<Integer> EN_ENVIO = ConcurrentHashMap.newKeySet();
+
+    /** Activa en segundo plano las cuentas de los acudientes recién aprobados */
+    private static final AprobacionPreinscripcionService.OyenteCambioEstado OYENTE_APROBACION = (nuevo, cambio) -> {
+        if (nuevo == Estado.Aprobada && cambio.getAcudientes().length > 0) {
+            activarEnSegundoPlano();
+        }
+    };
+
+    private final EntityManager entityManager;
+    private final CuentaAcudienteRepositorio repositorio;
+    private final RolRepositorio repositorioRol;
+    private final EmailService emailService;
+
+    public ActivacionAcudientesService() {
+        this(JPAUtil.getEntityManagerFactory().createEntityManager());
+    }
+
+    public ActivacionAcudientesService(EntityManager entityManager) {
+        this(entityManager, new EmailService());
+    }
+
+    public ActivacionAcudientesService(EntityManager entityManager, EmailService emailService) {
+        this.entityManager = entityManager;
+        this.repositorio = new CuentaAcudienteRepositorio(entityManager);
+        this.repositorioRol = new RolRepositorio(entityManager);
+        this.emailService = emailService;
+    }
+
+    /**
+     * Oyente para {@link AprobacionPreinscripcionService#agregarOyente}
+     */
+    public static AprobacionPreinscripcionService.OyenteCambioEstado oyenteAprobacion() {
+        return OYENTE_APROBACION;
+    }
+
+    /**
+     * Ejecuta {@link #activarAprobados()} en el hilo de activación con su
+     * propio EntityManager, en la sede actual. Las ejecuciones se encadenan,
+     * nunca se solapan.
+     */
+    public static void activarEnSegundoPlano() {
+        ACTIVACIONES.execute(ContextoSede.enSedeActual(() -> {
+            EntityManager em = JPAUtil.getEntityManagerFactory().createEntityManager();
+            try {
+                ResultadoOperacion resultado = new ActivacionAcudientesService(em).activarAprobados();
+                System.out.println(resultado.getMensaje());
+            } finally {
+                em.close();
+            }
+        }));
+    }
+
+    /**
+     * Crea las cuentas de todos los acudientes aprobados sin token y encola
+     * sus correos, junto con los que hayan quedado pendientes de ejecuciones
+     * anteriores. Los datos son un {@link ResumenActivacion}.
+     */
+    public ResultadoOperacion activarAprobados() {
+        try (Tramo tramo = Trazador.iniciar("ActivacionAcudientesService.activarAprobados", TipoTramo.SERVICIO)) {
+            try (MetricasPersistencia.Llamada llamada =
+                    MetricasPersistencia.iniciarLlamada("ActivacionAcudientesService.activarAprobados")) {
+                Optional<RolEntity> rol = repositorioRol.buscarPorNombreRol("acudiente");
+                if (rol.isEmpty()) {
+                    return ResultadoOperacion.error("El rol 'acudiente' no existe en el sistema");
+                }
+
+                int correos = 0;
+                int activadas = 0;
+                int lotes = 0;
+                Integer ultimo = 0;
+                try {
+                    // 1. Correos que quedaron en cola de ejecuciones anteriores
+                    correos += encolarPendientes();
+
+                    // 2. Cuentas nuevas, lote por lote
+                    while (true) {
+                        Lote lote = crearLote(ultimo, rol.get().getIdRol());
+                        if (lote == null) {
+                            break;
+                        }
+                        ultimo = lote.ultimo;
+                        activadas += lote.activadas;
+                        correos += lote.correos;
+                        lotes++;
+                    }
+                } catch (Exception e) {
+                    e.printStackTrace();
+                    return ResultadoOperacion.error("Error al activar cuentas (" + activadas +
+                        " activadas antes del error; puede reanudarse ejecutándola de nuevo): " + e.getMessage());
+                } finally {
+                    entityManager.clear();
+                    Cache cache = entityManager.getEntityManagerFactory().getCache();
+                    cache.evict(UsuarioEntity.class);
+                    cache.evict(AcudienteEntity.class);
+                    cache.evict(TokenUsuarioEntity.class);
+                }
+
+                ResumenActivacion resumen = new ResumenActivacion(activadas, lotes, correos);
+                return ResultadoOperacion.exito("Cuentas de acudientes activadas: " + activadas +
+                    " en " + lotes + " lote(s). Correos de credenciales en envío: " + correos, resumen);
+            }
+        }
+    }
+
+    // ==================== MÉTODOS PRIVADOS ====================
+
+    /**
+     * Crea las cuentas del siguiente lote en su propia transacción; null si
+     * ya no quedan acudientes aprobados sin cuenta después de ultimo
+     */
+    private Lote crearLote(Integer ultimo, Integer idRol) {
+        EntityTransaction transaction = entityManager.getTransaction();
+        try {
+            transaction.begin();
+            repositorio.bloquearActivacion();
+
+            List<Object[]> acudientes = repositorio.buscarAprobadosSinCuenta(ultimo, TAMANO_LOTE);
+            if (acudientes.isEmpty()) {
+                transaction.commit();
+                return null;
+            }
+
+            int[] ids = new int[acudientes.size()];
+            String[] bases = new String[acudientes.size()];
+            Set<String> basesUnicas = new LinkedHashSet<>();
+            for (int i = 0; i < ids.length; i++) {
+                Object[] fila = acudientes.get(i);
+                ids[i] = (Integer) fila[0];
+                String base = GestionUsuariosService.generarNombreUsuario(
+                    (String) fila[1], (String) fila[2], (String) fila[3], (String) fila[4]);
+                bases[i] = base.length() > LARGO_BASE_USUARIO ? base.substring(0, LARGO_BASE_USUARIO) : base;
+                basesUnicas.add(bases[i]);
+            }
+
+            // Nombres únicos: la base, o la base con el primer sufijo libre (2, 3, ...)
+            Set<String> ocupados = repositorio.buscarNombresOcupados(basesUnicas);
+            String[] nombres = new String[ids.length];
+            String[] contrasenas = new String[ids.length];
+            for (int i = 0; i < ids.length; i++) {
+                String nombre = bases[i];
+                for (int sufijo = 2; !ocupados.add(nombre); sufijo++) {
+                    nombre = bases[i] + sufijo;
+                }
+                nombres[i] = nombre;
+                contrasenas[i] = GestionUsuariosService.generarContrasenaAleatoria();
+            }
+
+            List<CuentaCreada> creadas = repositorio.crearCuentas(ids, nombres, contrasenas, idRol);
+            transaction.commit();
+            entityManager.clear();
+            registrarCambios(creadas);
+
+            // 3. Correos del lote, ya confirmados en la cola
+            Set<Integer> encolados = new HashSet<>();
+            for (CuentaCreada cuenta : creadas) {
+                if (cuenta.isEncolada()) {
+                    encolados.add(cuenta.getIdUsuario());
+                }
+            }
+            int correos = 0;
+            for (int i = 0; i < ids.length; i++) {
+                if (encolados.contains(ids[i])) {
+                    Object[] fila = acudientes.get(i);
+                    if (encolar(ids[i], (String) fila[5], nombres[i], contrasenas[i],
+                            nombreCompleto(fila[1], fila[2], fila[3], fila[4]))) {
+                        correos++;
+                    }
+                }
+            }
+            return new Lote(ids[ids.length - 1], encolados.size(), correos);
+        } catch (RuntimeException e) {
+            if (transaction.isActive()) {
+                transaction.rollback();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * La sentencia por lotes no pasa por CapturaCambios. Los acudientes se
+     * eligieron sin token, así que el anterior es null.
+     */
+    private static void registrarCambios(List<CuentaCreada> creadas) {
+        LocalDateTime ahora = LocalDateTime.now();
+        Integer usuario = RegistroCambios.getUsuarioActual();
+        for (CuentaCreada cuenta : creadas) {
+            Map<String, Object[]> campos = Map.of("tokenAccess", new Object[] {null, cuenta.getIdToken()});
+            RegistroCambios.getInstancia().agregar(new EventoCambio(null, ahora, "usuario",
+                String.valueOf(cuenta.getIdUsuario()), EventoCambio.ACTUALIZACION, usuario,
+                CapturaCambios.cambiosActualizacion(campos)));
+        }
+    }
+
+    /**
+     * Encola las credenciales que quedaron sin enviar en ejecuciones
+     * anteriores. Devuelve cuántas encoló.
+     */
+    private int encolarPendientes() {
+        int encolados = 0;
+        for (Object[] fila : repositorio.buscarCredencialesPendientes(MAX_INTENTOS_CORREO)) {
+            if (encolar(((Number) fila[0]).intValue(), (String) fila[1], (String) fila[6], (String) fila[7],
+                    nombreCompleto(fila[2], fila[3], fila[4], fila[5]))) {
+                encolados++;
+            }
+        }
+        return encolados;
+    }
+
+    /**
+     * Entrega el correo a los hilos de envío, si no está ya en envío
+     */
+    private boolean encolar(Integer idUsuario, String correo, String usuario, String contrasena, String nombreCompleto) {
+        if (!EN_ENVIO.add(idUsuario)) {
+            return false;
+        }
+        EntityManagerFactory emf = entityManager.getEntityManagerFactory();
+        CORREOS.execute(() -> enviar(emf, idUsuario, correo, usuario, contrasena, nombreCompleto));
+        return true;
+    }
+
+    private static String nombreCompleto(Object primerNombre, Object segundoNombre,
+            Object primerApellido, Object segundoApellido) {
+        return primerNombre + (segundoNombre != null ? " " + segundoNombre : "") + " " +
+            primerApellido + (segundoApellido != null ? " " + segundoApellido : "");
+    }
+
+    /**
+     * Envía un correo y lo saca de la cola, o anota el fallo. Corre en un
+     * hilo de correo con su propio EntityManager.
+     */
+    private void enviar(EntityManagerFactory emf, Integer idUsuario, String correo,
+            String usuario, String contrasena, String nombreCompleto) {
+        String error = null;
+        try (Tramo tramo = Trazador.iniciar("ActivacionAcudientesService.enviar", TipoTramo.CORREO)) {
+            emailService.enviarCredenciales(correo, usuario, contrasena, nombreCompleto);
+        } catch (Exception e) {
+            error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            System.err.println("Error al enviar credenciales a " + correo + ": " + error);
+        }
+
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction transaction = em.getTransaction();
+        try {
+            CuentaAcudienteRepositorio cola = new CuentaAcudienteRepositorio(em);
+            transaction.begin();
+            if (error == null) {
+                cola.confirmarEnvio(idUsuario);
+            } else {
+                cola.registrarFallo(idUsuario, error);
+            }
+            transaction.commit();
+        } catch (Exception e) {
+            if (transaction.isActive()) {
+                transaction.rollback();
+            }
+            e.printStackTrace();
+        } finally {
+            em.close();
+            EN_ENVIO.remove(idUsuario);
+        }
+    }
+
+    private static ThreadFactory hilos(String nombre) {
+        AtomicInteger contador = new AtomicInteger();
+        return r -> {
+            Thread hilo = new Thread(r, nombre + "-" + contador.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        };
+    }
+
+    private static final class Lote {
+        private final Integer ultimo;
+        private final int activadas;
+        private final int correos;
+
+        private Lote(Integer ultimo, int activadas, int correos) {
+            this.ultimo = ultimo;
+            this.activadas = activadas;
+            this.correos = correos;
+        }
+    }
+
+    /**
+     * Totales de una ejecución de la activación
+     */
+    public static class ResumenActivacion {
+        private final int activadas;
+        private final int lotes;
+        private final int correosEncolados;
+
+        public ResumenActivacion(int activadas, int lotes, int correosEncolados) {
+            this.activadas = activadas;
+            this.lotes = lotes;
+            this.correosEncolados = correosEncolados;
+        }
+
+        public int getActivadas() { return activadas; }
+        public int getLotes() { return lotes; }
+        public int getCorreosEncolados() { return correosEncolados; }
+    }
+}
@@ -0,0 +1,174 @@
+package com.servicios;
+
+import com.aplicacion.JPAUtil;
+import com.aplicacion.trazas.TipoTramo;
+import com.aplicacion.trazas.Trazador;
+import com.aplicacion.trazas.Tramo;
+import com.dominio.Estado;
+import com.dominio.Usuario;
+import com.persistencia.entidades.AcudienteEntity;
+import com.persistencia.entidades.EstudianteEntity;
+import com.persistencia.entidades.PreinscripcionEntity;
+import com.persistencia.entidades.UsuarioEntity;
+import com.persistencia.metricas.MetricasPersistencia;
+import com.persistencia.repositorios.PreinscripcionRepositorio;
+import com.persistencia.repositorios.PreinscripcionRepositorio.CambioEstado;
+
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityTransaction;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Aprobación y rechazo de preinscripciones por lotes. Cada decisión cambia
+ * el estado de las preinscripciones seleccionadas y lo propaga a sus
+ * estudiantes y acudientes con una sentencia por tabla; cada fila cambiada
+ * queda en historial_estado con el directivo que la hizo.
+ */
+@SuppressWarnings("try")
+public class AprobacionPreinscripcionService {
+
+    /**
+     * Se avisa después de confirmar cada cambio, para que quien guarde datos
+     * de preinscripciones, estudiantes o acudientes en memoria los actualice
+     */
+    public interface OyenteCambioEstado {
+        void estadosCambiados(Estado nuevo, CambioEstado cambio);
+    }
+
+    private static final CopyOnWriteArrayList<OyenteCambioEstado> OYENTES = new CopyOnWriteArrayList<>();
+
+    private final EntityManager entityManager;
+    private final PreinscripcionRepositorio repositorio;
+
+    public AprobacionPreinscripcionService() {
+        this(JPAUtil.getEntityManagerFactory().createEntityManager());
+    }
+
+    public AprobacionPreinscripcionService(EntityManager entityManager) {
+        this.entityManager = entityManager;
+        this.repositorio = new PreinscripcionRepositorio(entityManager);
+    }
+
+    public static void agregarOyente(OyenteCambioEstado oyente) {
+        OYENTES.addIfAbsent(oyente);
+    }
+
+    public static void quitarOyente(OyenteCambioEstado oyente) {
+        OYENTES.remove(oyente);
+    }
+
+    /**
+     * Lista de aspirantes: preinscripciones pendientes. Los datos son una
+     * lista de {@link Aspirante}
+     */
+    public ResultadoOperacion consultarPendientes() {
+        try (Tramo tramo = Trazador.iniciar("AprobacionPreinscripcionService.consultarPendientes", TipoTramo.SERVICIO)) {
+            List<Aspirante> aspirantes = new ArrayList<>();
+            for (Object[] fila : repositorio.buscarPendientes()) {
+                aspirantes.add(new Aspirante((Integer) fila[0], (LocalDate) fila[1],
+                    fila[2] + " " + fila[3], (String) fila[4], ((Number) fila[5]).intValue()));
+            }
+            return ResultadoOperacion.exito("Aspirantes pendientes: " + aspirantes.size(), aspirantes);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResultadoOperacion.error("Error al consultar aspirantes: " + e.getMessage());
+        }
+    }
+
+    public ResultadoOperacion aprobar(List<Integer> idsPreinscripciones, Usuario directivo) {
+        return cambiarEstado(idsPreinscripciones, Estado.Aprobada, directivo);
+    }
+
+    public ResultadoOperacion rechazar(List<Integer> idsPreinscripciones, Usuario directivo) {
+        return cambiarEstado(idsPreinscripciones, Estado.Rechazada, directivo);
+    }
+
+    // ==================== MÉTODOS PRIVADOS ====================
+
+    /**
+     * Solo cambian las preinscripciones que siguen pendientes; las demás de
+     * la selección se omiten y se informan en el resumen
+     */
+    private ResultadoOperacion cambiarEstado(List<Integer> idsPreinscripciones, Estado nuevo, Usuario directivo) {
+        try (Tramo tramo = Trazador.iniciar("AprobacionPreinscripcionService.cambiarEstado", TipoTramo.SERVICIO)) {
+            if (idsPreinscripciones == null || idsPreinscripciones.isEmpty()) {
+                return ResultadoOperacion.error("Seleccione al menos una preinscripción");
+            }
+            Set<Integer> ids = new LinkedHashSet<>(idsPreinscripciones);
+            ids.remove(null);
+
+            try (MetricasPersistencia.Llamada llamada =
+                    MetricasPersistencia.iniciarLlamada("AprobacionPreinscripcionService.cambiarEstado")) {
+                EntityTransaction transaction = entityManager.getTransaction();
+                CambioEstado cambio;
+                try {
+                    transaction.begin();
+                    cambio = repositorio.cambiarEstado(ids, nuevo,
+                        directivo != null ? directivo.getIdUsuario() : null);
+                    transaction.commit();
+                } catch (Exception e) {
+                    if (transaction.isActive()) {
+                        transaction.rollback();
+                    }
+                    e.printStackTrace();
+                    return ResultadoOperacion.error("Error al cambiar el estado: " + e.getMessage());
+                }
+
+                // Las sentencias masivas no pasan por el contexto de persistencia
+                entityManager.clear();
+                Cache cache = entityManager.getEntityManagerFactory().getCache();
+                cache.evict(PreinscripcionEntity.class);
+                cache.evict(EstudianteEntity.class);
+                cache.evict(AcudienteEntity.class);
+                cache.evict(UsuarioEntity.class);
+                for (OyenteCambioEstado oyente : OYENTES) {
+                    try {
+                        oyente.estadosCambiados(nuevo, cambio);
+                    } catch (RuntimeException e) {
+                        e.printStackTrace();
+                    }
+                }
+
+                int omitidas = ids.size() - cambio.getPreinscripciones().length;
+                String accion = nuevo == Estado.Aprobada ? "aprobadas" : "rechazadas";
+                return ResultadoOperacion.exito("Preinscripciones " + accion + ": " + cambio.getPreinscripciones().length +
+                    " (" + cambio.getEstudiantes().length + " estudiantes, " +
+                    cambio.getAcudientes().length + " acudientes)" +
+                    (omitidas > 0 ? ". Omitidas por no estar pendientes: " + omitidas : ""), cambio);
+            }
+        }
+    }
+
+    /**
+     * Fila de la lista de aspirantes
+     */
+    public static class Aspirante {
+        private final Integer idPreinscripcion;
+        private final LocalDate fechaRegistro;
+        private final String nombreAcudiente;
+        private final String nuipAcudiente;
+        private final int cantidadEstudiantes;
+
+        public Aspirante(Integer idPreinscripcion, LocalDate fechaRegistro, String nombreAcudiente,
+                String nuipAcudiente, int cantidadEstudiantes) {
+            this.idPreinscripcion = idPreinscripcion;
+            this.fechaRegistro = fechaRegistro;
+            this.nombreAcudiente = nombreAcudiente;
+            this.nuipAcudiente = nuipAcudiente;
+            this.cantidadEstudiantes = cantidadEstudiantes;
+        }
+
+        public Integer getIdPreinscripcion() { return idPreinscripcion; }
+        public LocalDate getFechaRegistro() { return fechaRegistro; }
+        public String getNombreAcudiente() { return nombreAcudiente; }
+        public String getNuipAcudiente() { return nuipAcudiente; }
+        public int getCantidadEstudiantes() { return cantidadEstudiantes; }
+    }
+}
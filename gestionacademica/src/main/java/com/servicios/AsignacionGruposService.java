@@ -0,0 +1,248 @@
+package com.servicios;
+
+import com.aplicacion.JPAUtil;
+import com.aplicacion.trazas.TipoTramo;
+import com.aplicacion.trazas.Trazador;
+import com.aplicacion.trazas.Tramo;
+import com.dominio.Grupo;
+import com.persistencia.auditoria.CapturaCambios;
+import com.persistencia.auditoria.EventoCambio;
+import com.persistencia.auditoria.RegistroCambios;
+import com.persistencia.entidades.GradoEntity;
+import com.persistencia.entidades.GrupoEntity;
+import com.persistencia.entidades.ProfesorEntity;
+import com.persistencia.repositorios.GrupoRepositorio;
+import com.persistencia.repositorios.ResumenLogrosRepositorio;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityTransaction;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Formación automática de grupos: reparte los estudiantes aprobados sin
+ * grupo de cada grado entre los grupos activos del grado y los grupos nuevos
+ * que hagan falta (uno por profesor sin grupo), respetando los límites de
+ * {@link Grupo} y manteniendo juntos a los hermanos.
+ */
+@SuppressWarnings("try")
+public class AsignacionGruposService {
+
+    /** Estudiantes por consulta IN al trasladar los conteos del resumen de logros */
+    private static final int TAMANO_BLOQUE_IN = 1000;
+
+    private final EntityManager entityManager;
+    private final GrupoRepositorio repositorio;
+    private final ResumenLogrosRepositorio repositorioResumen;
+    private final ResumenLogrosService resumenLogros;
+    private final CargaProfesorService cargaProfesores;
+    private final AsignadorGrupos asignador = new AsignadorGrupos(Grupo.MINESTUDIANTES, Grupo.MAXESTUDIANTES);
+
+    public AsignacionGruposService() {
+        this(JPAUtil.getEntityManagerFactory().createEntityManager());
+    }
+
+    public AsignacionGruposService(EntityManager entityManager) {
+        this.entityManager = entityManager;
+        this.repositorio = new GrupoRepositorio(entityManager);
+        this.repositorioResumen = new ResumenLogrosRepositorio(entityManager);
+        this.resumenLogros = new ResumenLogrosService(entityManager);
+        this.cargaProfesores = new CargaProfesorService(entityManager);
+    }
+
+    /**
+     * Asigna grupo a los aprobados sin grupo de todos los grados en una sola
+     * transacción. Los datos son un {@link ResumenAsignacion}.
+     */
+    public ResultadoOperacion asignarGrupos() {
+        try (Tramo tramo = Trazador.iniciar("AsignacionGruposService.asignarGrupos", TipoTramo.SERVICIO)) {
+            EntityTransaction transaction = entityManager.getTransaction();
+            try {
+                transaction.begin();
+                // Dos directivos a la vez leerían los mismos estudiantes y cargas
+                repositorio.bloquearAsignacion();
+
+                List<Integer> profesoresLibres = new ArrayList<>(repositorio.buscarProfesoresSinGrupo());
+                List<Integer> idsEstudiantes = new ArrayList<>();
+                List<Integer> idsGrupos = new ArrayList<>();
+                int gruposNuevos = 0;
+                int sinAsignar = 0;
+                int insuficientes = 0;
+
+                for (Object[] grado : repositorio.buscarGradosConAprobadosSinGrupo()) {
+                    Integer idGrado = (Integer) grado[0];
+                    String nombreGrado = (String) grado[1];
+
+                    // 1. Datos del grado en arreglos primitivos
+                    List<Object[]> aprobados = repositorio.buscarAprobadosSinGrupo(idGrado);
+                    int[] estudiantes = new int[aprobados.size()];
+                    int[] familias = new int[aprobados.size()];
+                    for (int i = 0; i < aprobados.size(); i++) {
+                        estudiantes[i] = (Integer) aprobados.get(i)[0];
+                        familias[i] = (Integer) aprobados.get(i)[1];
+                    }
+                    List<Object[]> existentes = repositorio.contarEstudiantesPorGrupo(idGrado);
+                    int[] grupos = new int[existentes.size()];
+                    int[] cargas = new int[existentes.size()];
+                    for (int g = 0; g < existentes.size(); g++) {
+                        grupos[g] = (Integer) existentes.get(g)[0];
+                        cargas[g] = ((Number) existentes.get(g)[1]).intValue();
+                    }
+
+                    // 2. Resolver en memoria
+                    AsignadorGrupos.Asignacion asignacion =
+                        asignador.resolver(familias, cargas, profesoresLibres.size());
+
+                    // 3. Crear los grupos nuevos que recibieron estudiantes
+                    int[] idGrupoPorIndice = new int[asignacion.getNumeroGrupos()];
+                    System.arraycopy(grupos, 0, idGrupoPorIndice, 0, grupos.length);
+                    Set<String> nombresUsados = new HashSet<>(repositorio.buscarNombresDeGrado(idGrado));
+                    for (int g = grupos.length; g < asignacion.getNumeroGrupos(); g++) {
+                        if (asignacion.getCarga(g) == 0) {
+                            continue;
+                        }
+                        GrupoEntity nuevo = new GrupoEntity();
+                        nuevo.setNombreGrupo(siguienteNombre(nombreGrado, nombresUsados));
+                        nuevo.setEstado(true);
+                        nuevo.setGrado(entityManager.getReference(GradoEntity.class, idGrado));
+                        nuevo.setProfesor(entityManager.getReference(ProfesorEntity.class, profesoresLibres.remove(0)));
+                        repositorio.guardar(nuevo);
+                        idGrupoPorIndice[g] = nuevo.getIdGrupo();
+                        gruposNuevos++;
+                    }
+
+                    for (int i = 0; i < estudiantes.length; i++) {
+                        int g = asignacion.getGrupo(i);
+                        if (g != AsignadorGrupos.SIN_GRUPO) {
+                            idsEstudiantes.add(estudiantes[i]);
+                            idsGrupos.add(idGrupoPorIndice[g]);
+                        }
+                    }
+                    sinAsignar += asignacion.getSinAsignar();
+                    insuficientes += asignacion.getGruposInsuficientes();
+                }
+
+                // 4. Guardar en lotes y trasladar al resumen las calificaciones de
+                // los estudiantes que de verdad quedaron asignados
+                boolean[] asignados = repositorio.asignarEnLotes(
+                    idsEstudiantes.stream().mapToInt(Integer::intValue).toArray(),
+                    idsGrupos.stream().mapToInt(Integer::intValue).toArray());
+                List<Integer> gruposTocados = new ArrayList<>();
+                List<Integer> estudiantesTocados = new ArrayList<>();
+                for (int i = 0; i < asignados.length; i++) {
+                    if (asignados[i]) {
+                        estudiantesTocados.add(idsEstudiantes.get(i));
+                        gruposTocados.add(idsGrupos.get(i));
+                    }
+                }
+                int[] estudiantesAsignados = estudiantesTocados.stream().mapToInt(Integer::intValue).toArray();
+                int[] gruposAsignados = gruposTocados.stream().mapToInt(Integer::intValue).toArray();
+                resumenLogros.aplicar(trasladarResumen(estudiantesAsignados, gruposAsignados));
+                cargaProfesores.refrescar(new HashSet<>(gruposTocados));
+
+                transaction.commit();
+                entityManager.clear();
+                TableroAcudienteService.getInstancia().invalidarTodos();
+                registrarCambios(estudiantesAsignados, gruposAsignados);
+
+                ResumenAsignacion resumen = new ResumenAsignacion(
+                    estudiantesAsignados.length, gruposNuevos, sinAsignar, insuficientes);
+                return ResultadoOperacion.exito("Estudiantes asignados: " + resumen.getAsignados() +
+                    ", grupos nuevos: " + resumen.getGruposNuevos() +
+                    ", sin cupo: " + resumen.getSinAsignar() +
+                    ", grupos por debajo del mínimo: " + resumen.getGruposInsuficientes(), resumen);
+
+            } catch (Exception e) {
+                if (transaction.isActive()) {
+                    transaction.rollback();
+                }
+                e.printStackTrace();
+                return ResultadoOperacion.error("Error al asignar grupos: " + e.getMessage());
+            }
+        }
+    }
+
+    // ==================== MÉTODOS PRIVADOS ====================
+
+    /**
+     * Los lotes JDBC no pasan por CapturaCambios. Los estudiantes se eligieron
+     * sin grupo, así que el grupo anterior es null.
+     */
+    private static void registrarCambios(int[] estudiantes, int[] grupos) {
+        LocalDateTime ahora = LocalDateTime.now();
+        Integer usuario = RegistroCambios.getUsuarioActual();
+        for (int i = 0; i < estudiantes.length; i++) {
+            Map<String, Object[]> campos = Map.of("grupo", new Object[] {null, grupos[i]});
+            RegistroCambios.getInstancia().agregar(new EventoCambio(null, ahora, "estudiante",
+                String.valueOf(estudiantes[i]), EventoCambio.ACTUALIZACION, usuario,
+                CapturaCambios.cambiosActualizacion(campos)));
+        }
+    }
+
+    /**
+     * Las calificaciones de un estudiante sin grupo no cuentan en el resumen;
+     * al asignarle grupo se suman a ese grupo
+     */
+    private ResumenLogrosService.Cambios trasladarResumen(int[] estudiantes, int[] grupos) {
+        ResumenLogrosService.Cambios cambios = resumenLogros.nuevosCambios();
+        Map<Integer, Integer> grupoPorEstudiante = new HashMap<>();
+        List<Integer> bloque = new ArrayList<>();
+        for (int i = 0; i < estudiantes.length; i++) {
+            grupoPorEstudiante.put(estudiantes[i], grupos[i]);
+            bloque.add(estudiantes[i]);
+            if (bloque.size() == TAMANO_BLOQUE_IN || i == estudiantes.length - 1) {
+                for (Object[] fila : repositorioResumen.contarCalificacionesDeEstudiantes(bloque)) {
+                    cambios.conteo(grupoPorEstudiante.get((Integer) fila[0]), (String) fila[1],
+                        (String) fila[2], ((Number) fila[3]).longValue());
+                }
+                bloque.clear();
+            }
+        }
+        return cambios;
+    }
+
+    /**
+     * Nombre libre del grado: "<grado> A", "<grado> B", ..., "<grado> AA"
+     */
+    private static String siguienteNombre(String nombreGrado, Set<String> usados) {
+        String base = nombreGrado.length() > 45 ? nombreGrado.substring(0, 45).trim() : nombreGrado;
+        for (int n = 0; ; n++) {
+            StringBuilder sufijo = new StringBuilder();
+            for (int k = n; k >= 0; k = k / 26 - 1) {
+                sufijo.insert(0, (char) ('A' + k % 26));
+            }
+            String nombre = base + " " + sufijo;
+            if (usados.add(nombre)) {
+                return nombre;
+            }
+        }
+    }
+
+    /**
+     * Totales de una asignación automática de grupos
+     */
+    public static class ResumenAsignacion {
+        private final int asignados;
+        private final int gruposNuevos;
+        private final int sinAsignar;
+        private final int gruposInsuficientes;
+
+        public ResumenAsignacion(int asignados, int gruposNuevos, int sinAsignar, int gruposInsuficientes) {
+            this.asignados = asignados;
+            this.gruposNuevos = gruposNuevos;
+            this.sinAsignar = sinAsignar;
+            this.gruposInsuficientes = gruposInsuficientes;
+        }
+
+        public int getAsignados() { return asignados; }
+        public int getGruposNuevos() { return gruposNuevos; }
+        public int getSinAsignar() { return sinAsignar; }
+        public int getGruposInsuficientes() { return gruposInsuficientes; }
+    }
+}
@@ -0,0 +1,236 @@
+package com.servicios;
+
+import java.util.Arrays;
+
+/**
+ * Reparte estudiantes en grupos de un grado, en memoria y sobre arreglos
+ * primitivos. Los hermanos (mismo acudiente) forman una familia que se asigna
+ * completa al mismo grupo. Cada familia, de la más grande a la más pequeña,
+ * va al grupo con menos estudiantes (montículo por carga), sin pasar de
+ * máximo. Después se mueven familias desde los grupos más llenos hacia los
+ * que quedaron por debajo de mínimo, si el donante no baja de mínimo.
+ *
+ * Los grupos existentes ocupan los índices 0..existentes-1 y los nuevos los
+ * siguientes; un grupo nuevo solo se abre si hay profesor disponible.
+ */
+public final class AsignadorGrupos {
+
+    /** Grupo de un estudiante que no cupo en ninguno */
+    public static final int SIN_GRUPO = -1;
+
+    private final int minimo;
+    private final int maximo;
+
+    public AsignadorGrupos(int minimo, int maximo) {
+        if (minimo < 0 || maximo <= 0 || minimo > maximo) {
+            throw new IllegalArgumentException("Límites de grupo no válidos: " + minimo + ".." + maximo);
+        }
+        this.minimo = minimo;
+        this.maximo = maximo;
+    }
+
+    /**
+     * @param familias      familia de cada estudiante; los estudiantes de una
+     *                      misma familia deben estar contiguos
+     * @param cargaExistente estudiantes que ya tiene cada grupo existente
+     * @param nuevosPosibles grupos nuevos que se pueden abrir (profesores libres)
+     */
+    public Asignacion resolver(int[] familias, int[] cargaExistente, int nuevosPosibles) {
+        int existentes = cargaExistente.length;
+
+        // 1. Familias como bloques [inicio, inicio + tamano); las que superan
+        //    el máximo se parten en bloques de tamaño máximo
+        int[] inicio = new int[familias.length];
+        int[] tamano = new int[familias.length];
+        int bloques = 0;
+        for (int i = 0; i < familias.length; ) {
+            int fin = i + 1;
+            while (fin < familias.length && familias[fin] == familias[i] && fin - i < maximo) {
+                fin++;
+            }
+            inicio[bloques] = i;
+            tamano[bloques] = fin - i;
+            bloques++;
+            i = fin;
+        }
+
+        // 2. Grupos necesarios: los existentes más los nuevos que hagan falta
+        //    para no pasar de máximo
+        long total = familias.length;
+        for (int carga : cargaExistente) {
+            total += carga;
+        }
+        int necesarios = (int) Math.max(existentes, (total + maximo - 1) / maximo);
+        int nuevos = Math.max(0, Math.min(necesarios - existentes, nuevosPosibles));
+        int grupos = existentes + nuevos;
+
+        int[] carga = Arrays.copyOf(cargaExistente, grupos);
+        int[] grupoDeBloque = new int[bloques];
+        Arrays.fill(grupoDeBloque, SIN_GRUPO);
+
+        // 3. Bloques de mayor a menor tamaño, cada uno al grupo menos cargado
+        long[] orden = new long[bloques];
+        for (int b = 0; b < bloques; b++) {
+            orden[b] = ((long) (maximo - tamano[b]) << 32) | b;
+        }
+        Arrays.sort(orden);
+
+        Monticulo monticulo = new Monticulo(carga);
+        for (long clave : orden) {
+            int b = (int) clave;
+            int g = monticulo.minimo();
+            if (g < 0 || carga[g] + tamano[b] > maximo) {
+                continue; // Si no cabe en el menos cargado no cabe en ninguno
+            }
+            grupoDeBloque[b] = g;
+            carga[g] += tamano[b];
+            monticulo.actualizar(g);
+        }
+
+        // 4. Completar los grupos por debajo de mínimo con bloques de los más llenos
+        for (int g = 0; g < grupos; g++) {
+            while (carga[g] > 0 && carga[g] < minimo) {
+                int elegido = SIN_GRUPO;
+                for (int b = 0; b < bloques; b++) {
+                    int donante = grupoDeBloque[b];
+                    if (donante != SIN_GRUPO && donante != g
+                            && carga[donante] - tamano[b] >= minimo
+                            && carga[g] + tamano[b] <= maximo
+                            && (elegido == SIN_GRUPO || carga[donante] > carga[grupoDeBloque[elegido]])) {
+                        elegido = b;
+                    }
+                }
+                if (elegido == SIN_GRUPO) {
+                    break;
+                }
+                carga[grupoDeBloque[elegido]] -= tamano[elegido];
+                carga[g] += tamano[elegido];
+                grupoDeBloque[elegido] = g;
+            }
+        }
+
+        // 5. Grupo de cada estudiante
+        int[] grupoDeEstudiante = new int[familias.length];
+        for (int b = 0; b < bloques; b++) {
+            Arrays.fill(grupoDeEstudiante, inicio[b], inicio[b] + tamano[b], grupoDeBloque[b]);
+        }
+        return new Asignacion(grupoDeEstudiante, carga, existentes, minimo);
+    }
+
+    /**
+     * Resultado de una asignación
+     */
+    public static final class Asignacion {
+        private final int[] grupoDeEstudiante;
+        private final int[] carga;
+        private final int existentes;
+        private final int minimo;
+
+        private Asignacion(int[] grupoDeEstudiante, int[] carga, int existentes, int minimo) {
+            this.grupoDeEstudiante = grupoDeEstudiante;
+            this.carga = carga;
+            this.existentes = existentes;
+            this.minimo = minimo;
+        }
+
+        /**
+         * Índice de grupo del estudiante i, o SIN_GRUPO
+         */
+        public int getGrupo(int estudiante) {
+            return grupoDeEstudiante[estudiante];
+        }
+
+        /**
+         * Estudiantes del grupo g después de asignar
+         */
+        public int getCarga(int grupo) {
+            return carga[grupo];
+        }
+
+        public int getNumeroGrupos() {
+            return carga.length;
+        }
+
+        public boolean esNuevo(int grupo) {
+            return grupo >= existentes;
+        }
+
+        public int getSinAsignar() {
+            int sinAsignar = 0;
+            for (int grupo : grupoDeEstudiante) {
+                if (grupo == SIN_GRUPO) sinAsignar++;
+            }
+            return sinAsignar;
+        }
+
+        /**
+         * Grupos con estudiantes pero por debajo del mínimo
+         */
+        public int getGruposInsuficientes() {
+            int insuficientes = 0;
+            for (int c : carga) {
+                if (c > 0 && c < minimo) insuficientes++;
+            }
+            return insuficientes;
+        }
+    }
+
+    // ==================== MÉTODOS PRIVADOS ====================
+
+    /**
+     * Montículo binario de índices de grupo ordenado por carga (y por índice
+     * en empates, para que los grupos existentes se llenen primero)
+     */
+    private static final class Monticulo {
+        private final int[] carga;
+        private final int[] nodos;
+        private final int[] posicion;
+
+        Monticulo(int[] carga) {
+            this.carga = carga;
+            this.nodos = new int[carga.length];
+            this.posicion = new int[carga.length];
+            for (int g = 0; g < carga.length; g++) {
+                nodos[g] = g;
+                posicion[g] = g;
+            }
+            for (int i = carga.length / 2 - 1; i >= 0; i--) {
+                bajar(i);
+            }
+        }
+
+        int minimo() {
+            return nodos.length == 0 ? -1 : nodos[0];
+        }
+
+        /**
+         * La carga del grupo solo aumenta: basta con hundirlo
+         */
+        void actualizar(int grupo) {
+            bajar(posicion[grupo]);
+        }
+
+        private void bajar(int i) {
+            while (true) {
+                int menor = i;
+                int izquierdo = 2 * i + 1;
+                int derecho = izquierdo + 1;
+                if (izquierdo < nodos.length && menor(nodos[izquierdo], nodos[menor])) menor = izquierdo;
+                if (derecho < nodos.length && menor(nodos[derecho], nodos[menor])) menor = derecho;
+                if (menor == i) {
+                    return;
+                }
+                int temporal = nodos[i];
+                nodos[i] = nodos[menor];
+                nodos[menor] = temporal;
+                posicion[nodos[i]] = i;
+                posicion[nodos[menor]] = menor;
+                i = menor;
+            }
+        }
+
+        private boolean menor(int a, int b) {
+            return carga[a] < carga[b] || (carga[a] == carga[b] && a < b);
+        }
+    }
+}
@@ -1,9 +1,14 @@
 package com.servicios;
 
+import com.aplicacion.JPAUtil;
+import com.aplicacion.trazas.TipoTramo;
+import com.aplicacion.trazas.Trazador;
+import com.aplicacion.trazas.Tramo;
 import java.util.Optional;
 import javax.swing.JOptionPane;
 
 import com.dominio.*;
+import com.persistencia.auditoria.RegistroCambios;
 import com.persistencia.entidades.AcudienteEntity;
 import com.persistencia.entidades.AdministradorEntity;
 import com.persistencia.entidades.DirectivoEntity;
@@ -11,9 +16,14 @@ import com.persistencia.entidades.ProfesorEntity;
 import com.persistencia.entidades.TokenUsuarioEntity;
 import com.persistencia.entidades.UsuarioEntity;
 import com.persistencia.mappers.DominioAPersistenciaMapper;
+import com.persistencia.metricas.MetricasPersistencia;
 import com.persistencia.repositorios.TokenUsuarioRepositorio;
 import com.persistencia.repositorios.UsuarioRepositorio;
+import com.persistencia.sedes.ContextoSede;
 
+import jakarta.persistence.EntityManager;
+
+@SuppressWarnings("try")
 public class AutenticacionService {
     private final TokenUsuarioRepositorio tokenRepositorio;
     private final UsuarioRepositorio usuarioRepositorio;
@@ -29,49 +39,92 @@ public class AutenticacionService {
     }
 
     public Optional<Usuario> iniciarSesion(String nombreUsuario, String contrasena) {
-        if (intentosFallidos >= MAX_INTENTOS) {
-            throw new IllegalStateException("Límite de intentos alcanzado. La opción de inicio de sesión está temporalmente inhabilitada");
-        }
+        return iniciarSesion(tokenRepositorio, usuarioRepositorio, nombreUsuario, contrasena);
+    }
 
-        try {
-            // 1. Buscar token en BD
-            Optional<TokenUsuarioEntity> tokenEntityOpt = 
-                tokenRepositorio.buscarPorNombreUsuario(nombreUsuario);
-            
-            if (tokenEntityOpt.isEmpty()) {
-                intentosFallidos++;
-                return Optional.empty();
+    /**
+     * Inicia sesión en una sede: las credenciales se buscan en su base y, si
+     * son válidas, queda como la sede de la sesión (ContextoSede)
+     */
+    public Optional<Usuario> iniciarSesion(String idSede, String nombreUsuario, String contrasena) {
+        Optional<Usuario> usuario = ContextoSede.calcularEn(idSede, () -> {
+            EntityManager entityManager = JPAUtil.getEntityManagerFactory().createEntityManager();
+            try {
+                return iniciarSesion(new TokenUsuarioRepositorio(entityManager),
+                    new UsuarioRepositorio(entityManager), nombreUsuario, contrasena);
+            } finally {
+                entityManager.close();
             }
+        });
+        if (usuario.isPresent()) {
+            ContextoSede.establecerSesion(idSede);
+        }
+        return usuario;
+    }
+
+    public int getIntentosFallidos() {
+        return intentosFallidos;
+    }
+
+    public int getIntentosRestantes() {
+        return MAX_INTENTOS - intentosFallidos;
+    }
 
-            // 2. Convertir a dominio y verificar credenciales
-            TokenUsuario token = DominioAPersistenciaMapper.toDomain(tokenEntityOpt.get());
+    // ==================== MÉTODOS PRIVADOS ====================
 
-            if (!token.verificarCredenciales(contrasena)) {
-                intentosFallidos++;
-                return Optional.empty();
+    private Optional<Usuario> iniciarSesion(TokenUsuarioRepositorio tokenRepositorio,
+            UsuarioRepositorio usuarioRepositorio, String nombreUsuario, String contrasena) {
+        try (Tramo tramo = Trazador.iniciar("AutenticacionService.iniciarSesion", TipoTramo.SERVICIO)) {
+            if (intentosFallidos >= MAX_INTENTOS) {
+                throw new IllegalStateException("Límite de intentos alcanzado. La opción de inicio de sesión está temporalmente inhabilitada");
             }
 
-            // 3. Buscar usuario por token - JPA automáticamente carga la entidad específica
-            Optional<UsuarioEntity> usuarioEntityOpt = usuarioRepositorio.buscarPorToken(token.getIdToken());
+            try (MetricasPersistencia.Llamada llamada =
+                    MetricasPersistencia.iniciarLlamada("AutenticacionService.iniciarSesion")) {
+                // 1. Buscar token en BD
+                Optional<TokenUsuarioEntity> tokenEntityOpt = 
+                    tokenRepositorio.buscarPorNombreUsuario(nombreUsuario);
             
-            if (usuarioEntityOpt.isEmpty()) {
-                intentosFallidos++;
-                return Optional.empty();
-            }
+                if (tokenEntityOpt.isEmpty()) {
+                    intentosFallidos++;
+                    return Optional.empty();
+                }
 
-            // 4. Convertir a dominio (JPA ya determina el tipo específico)
-            Usuario usuario = convertirAUsuarioEspecifico(usuarioEntityOpt.get());
+                // 2. Convertir a dominio y verificar credenciales
+                TokenUsuario token = DominioAPersistenciaMapper.toDomain(tokenEntityOpt.get());
 
-            if (usuario == null) {
-                intentosFallidos++;
-                return Optional.empty();
-            }
+                if (!token.verificarCredenciales(contrasena)) {
+                    intentosFallidos++;
+                    return Optional.empty();
+                }
+
+                // 3. Buscar usuario por token - el rol del token indica la subclase a consultar
+                Optional<UsuarioEntity> usuarioEntityOpt = usuarioRepositorio.buscarPorToken(tokenEntityOpt.get());
+            
+                if (usuarioEntityOpt.isEmpty()) {
+                    intentosFallidos++;
+                    return Optional.empty();
+                }
 
-            intentosFallidos = 0;
-            return Optional.of(usuario);
+                // 4. Convertir a dominio (JPA ya determina el tipo específico)
+                Usuario usuario = convertirAUsuarioEspecifico(usuarioEntityOpt.get());
 
-        } catch (Exception e) {
-            throw new RuntimeException("Error al acceder a la base de datos: " + e.getMessage(), e);
+                if (usuario == null) {
+                    intentosFallidos++;
+                    return Optional.empty();
+                }
+
+                intentosFallidos = 0;
+                RegistroCambios.establecerUsuario(usuario.getIdUsuario());
+                HojaVidaService.vaciarCache();
+                if (usuario instanceof Acudiente) {
+                    TableroAcudienteService.getInstancia().precargar(usuario.getIdUsuario());
+                }
+                return Optional.of(usuario);
+
+            } catch (Exception e) {
+                throw new RuntimeException("Error al acceder a la base de datos: " + e.getMessage(), e);
+            }
         }
     }
 
@@ -95,12 +148,4 @@ public class AutenticacionService {
                 return null;
         }
     }
-
-    public int getIntentosFallidos() {
-        return intentosFallidos;
-    }
-    
-    public int getIntentosRestantes() {
-        return MAX_INTENTOS - intentosFallidos;
-    }
 }
\ No newline at end of file
@@ -0,0 +1,282 @@
+package com.servicios;
+
+import com.dominio.Boletin;
+import com.dominio.Estudiante;
+import com.dominio.Grupo;
+import com.dominio.LogroEstudiante;
+import com.persistencia.entidades.BoletinEntity;
+import com.persistencia.entidades.EstudianteEntity;
+import com.persistencia.entidades.GradoEntity;
+import com.persistencia.entidades.GrupoEntity;
+import com.persistencia.entidades.LogroEstudianteEntity;
+import com.persistencia.mappers.DominioAPersistenciaMapper;
+import com.persistencia.metricas.MetricasPersistencia;
+import com.persistencia.repositorios.BoletinRepositorio;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityTransaction;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Servicio de generación de boletines por periodo para un grupo o un grado.
+ * 1. Carga estudiantes y calificaciones del ámbito con consultas por conjunto
+ * 2. Crea (o reutiliza) el BoletinEntity de cada estudiante y le enlaza sus
+ *    calificaciones pendientes (actualizando el resumen de logros), todo en una transacción
+ * 3. Renderiza los boletines en paralelo sobre un ForkJoinPool, escribiendo
+ *    cada archivo directamente a disco
+ */
+@SuppressWarnings("try")
+public class BoletinService {
+
+    private final EntityManager entityManager;
+    private final BoletinRepositorio boletinRepositorio;
+    private final RenderizadorBoletinHtml renderizador;
+    private final ResumenLogrosService resumenLogros;
+    private final int paralelismo;
+
+    public BoletinService(EntityManager entityManager) {
+        this(entityManager, Runtime.getRuntime().availableProcessors());
+    }
+
+    public BoletinService(EntityManager entityManager, int paralelismo) {
+        this.entityManager = entityManager;
+        this.boletinRepositorio = new BoletinRepositorio(entityManager);
+        this.renderizador = new RenderizadorBoletinHtml();
+        this.resumenLogros = new ResumenLogrosService(entityManager);
+        this.paralelismo = Math.max(1, paralelismo);
+    }
+
+    /**
+     * Genera y escribe en disco los boletines del periodo para un grupo
+     */
+    public ResultadoOperacion generarBoletinesGrupo(GrupoEntity grupo, String periodo, Path directorio) {
+        if (grupo == null || grupo.getIdGrupo() == null) {
+            return ResultadoOperacion.error("Grupo no válido");
+        }
+        return generarYRenderizar(periodo, directorio,
+            () -> boletinRepositorio.buscarEstudiantesPorGrupo(grupo.getIdGrupo()),
+            () -> boletinRepositorio.buscarLogrosPorGrupo(grupo.getIdGrupo(), periodo));
+    }
+
+    /**
+     * Genera y escribe en disco los boletines del periodo para todos los grupos de un grado
+     */
+    public ResultadoOperacion generarBoletinesGrado(GradoEntity grado, String periodo, Path directorio) {
+        if (grado == null || grado.getIdGrado() == null) {
+            return ResultadoOperacion.error("Grado no válido");
+        }
+        return generarYRenderizar(periodo, directorio,
+            () -> boletinRepositorio.buscarEstudiantesPorGrado(grado.getIdGrado()),
+            () -> boletinRepositorio.buscarLogrosPorGrado(grado.getIdGrado(), periodo));
+    }
+
+    /**
+     * Genera (persiste) los boletines del periodo para un grupo sin renderizarlos
+     */
+    public List<Boletin> crearBoletinesGrupo(GrupoEntity grupo, String periodo) {
+        return generarBoletines(periodo,
+            boletinRepositorio.buscarEstudiantesPorGrupo(grupo.getIdGrupo()),
+            boletinRepositorio.buscarLogrosPorGrupo(grupo.getIdGrupo(), periodo));
+    }
+
+    /**
+     * Genera (persiste) los boletines del periodo para un grado sin renderizarlos
+     */
+    public List<Boletin> crearBoletinesGrado(GradoEntity grado, String periodo) {
+        return generarBoletines(periodo,
+            boletinRepositorio.buscarEstudiantesPorGrado(grado.getIdGrado()),
+            boletinRepositorio.buscarLogrosPorGrado(grado.getIdGrado(), periodo));
+    }
+
+    /**
+     * Renderiza los boletines en paralelo, un archivo por estudiante en una
+     * carpeta por grupo. Retorna las rutas generadas.
+     */
+    public List<Path> renderizarEnParalelo(List<Boletin> boletines, Path directorio) throws IOException {
+        Files.createDirectories(directorio);
+        ForkJoinPool pool = new ForkJoinPool(paralelismo);
+        try {
+            return pool.submit(() -> boletines.parallelStream()
+                    .map(boletin -> escribir(boletin, directorio))
+                    .collect(Collectors.toList()))
+                .get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Generación de boletines interrumpida", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) e.getCause()).getCause();
+            }
+            throw new IOException("Error al renderizar boletines: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Escribe un boletín renderizado sobre el Writer dado
+     */
+    public void renderizar(Boletin boletin, Writer salida) throws IOException {
+        renderizador.renderizar(boletin, salida);
+    }
+
+    /**
+     * Carpeta del grupo del estudiante dentro de la salida
+     */
+    public static String carpetaGrupo(Boletin boletin) {
+        Grupo grupo = boletin.getEstudiante().getGrupo();
+        return normalizarNombreArchivo(grupo != null ? grupo.getNombreGrupo() : "sin_grupo");
+    }
+
+    /**
+     * Nombre del archivo del boletín, único por periodo y estudiante
+     */
+    public static String nombreArchivo(Boletin boletin) {
+        return "boletin_" + normalizarNombreArchivo(boletin.getPeriodo()) + "_" +
+            normalizarNombreArchivo(boletin.getEstudiante().getNuip()) + ".html";
+    }
+
+    // ==================== MÉTODOS PRIVADOS ====================
+
+    private ResultadoOperacion generarYRenderizar(String periodo, Path directorio,
+            Supplier<List<EstudianteEntity>> estudiantes,
+            Supplier<List<LogroEstudianteEntity>> logros) {
+        if (periodo == null || periodo.trim().isEmpty()) {
+            return ResultadoOperacion.error("Debe indicar el periodo");
+        }
+        try (MetricasPersistencia.Llamada llamada =
+                MetricasPersistencia.iniciarLlamada("BoletinService.generarYRenderizar")) {
+            List<Boletin> boletines = generarBoletines(periodo, estudiantes.get(), logros.get());
+            List<Path> rutas = renderizarEnParalelo(boletines, directorio);
+            return ResultadoOperacion.exito("Se generaron " + rutas.size() + " boletines", rutas);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResultadoOperacion.error("Error al generar boletines: " + e.getMessage());
+        }
+    }
+
+    private List<Boletin> generarBoletines(String periodo, List<EstudianteEntity> estudiantes,
+            List<LogroEstudianteEntity> logros) {
+
+        Map<Integer, List<LogroEstudianteEntity>> logrosPorEstudiante = new HashMap<>();
+        for (LogroEstudianteEntity logro : logros) {
+            logrosPorEstudiante
+                .computeIfAbsent(logro.getEstudiante().getIdEstudiante(), id -> new ArrayList<>())
+                .add(logro);
+        }
+
+        List<Integer> ids = estudiantes.stream().map(EstudianteEntity::getIdEstudiante).collect(Collectors.toList());
+
+        EntityTransaction transaction = entityManager.getTransaction();
+        try {
+            transaction.begin();
+
+            Map<Integer, BoletinEntity> existentes = new HashMap<>();
+            for (BoletinEntity boletin : boletinRepositorio.buscarPorPeriodoYEstudiantes(periodo, ids)) {
+                existentes.put(boletin.getEstudiante().getIdEstudiante(), boletin);
+            }
+
+            List<Boletin> boletines = new ArrayList<>(estudiantes.size());
+            List<BoletinEntity> entidades = new ArrayList<>(estudiantes.size());
+            ResumenLogrosService.Cambios cambios = resumenLogros.nuevosCambios();
+
+            for (EstudianteEntity estudianteEntity : estudiantes) {
+                BoletinEntity boletinEntity = existentes.get(estudianteEntity.getIdEstudiante());
+                if (boletinEntity == null) {
+                    boletinEntity = new BoletinEntity();
+                    boletinEntity.setPeriodo(periodo);
+                    boletinEntity.setEstudiante(estudianteEntity);
+                }
+
+                List<LogroEstudianteEntity> calificaciones =
+                    logrosPorEstudiante.getOrDefault(estudianteEntity.getIdEstudiante(), List.of());
+                Set<LogroEstudiante> logrosDominio = new HashSet<>();
+                for (LogroEstudianteEntity calificacion : calificaciones) {
+                    logrosDominio.add(DominioAPersistenciaMapper.toDomainShallow(calificacion));
+                }
+
+                Boletin boletin = new Boletin(null, periodo, null, aDominio(estudianteEntity), logrosDominio);
+                boletin.generarBoletin();
+
+                boletinEntity.setFechaGeneracion(boletin.getFechaGeneracion());
+                if (boletinEntity.getIdBoletin() == null) {
+                    entityManager.persist(boletinEntity);
+                }
+                for (LogroEstudianteEntity calificacion : calificaciones) {
+                    if (calificacion.getBoletin() == null) {
+                        calificacion.setBoletin(boletinEntity);
+                        cambios.cambioBoletin(calificacion, null);
+                    }
+                }
+
+                boletines.add(boletin);
+                entidades.add(boletinEntity);
+            }
+
+            entityManager.flush();
+            resumenLogros.aplicar(cambios);
+            transaction.commit();
+            TableroAcudienteService.getInstancia().invalidarTodos();
+
+            for (int i = 0; i < boletines.size(); i++) {
+                boletines.get(i).setIdBoletin(entidades.get(i).getIdBoletin());
+            }
+            return boletines;
+
+        } catch (RuntimeException e) {
+            if (transaction.isActive()) {
+                transaction.rollback();
+            }
+            throw e;
+        }
+    }
+
+    private Estudiante aDominio(EstudianteEntity entity) {
+        Estudiante estudiante = DominioAPersistenciaMapper.toDomainShallow(entity);
+        if (entity.getGrupo() != null) {
+            estudiante.setGrupo(new Grupo(
+                entity.getGrupo().getIdGrupo(),
+                entity.getGrupo().getNombreGrupo(),
+                entity.getGrupo().isEstado(),
+                null, null, null));
+        }
+        return estudiante;
+    }
+
+    private Path escribir(Boletin boletin, Path directorio) {
+        try {
+            Path carpeta = directorio.resolve(carpetaGrupo(boletin));
+            Files.createDirectories(carpeta);
+            Path archivo = carpeta.resolve(nombreArchivo(boletin));
+            try (Writer salida = Files.newBufferedWriter(archivo, StandardCharsets.UTF_8)) {
+                renderizador.renderizar(boletin, salida);
+            }
+            return archivo;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String normalizarNombreArchivo(String texto) {
+        if (texto == null || texto.isEmpty()) {
+            return "_";
+        }
+        return texto.trim().replaceAll("[^A-Za-z0-9_-]", "_");
+    }
+}
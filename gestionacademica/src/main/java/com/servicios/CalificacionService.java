@@ -0,0 +1,259 @@
+package com.servicios;
+
+import com.aplicacion.JPAUtil;
+import com.persistencia.auditoria.CapturaCambios;
+import com.persistencia.auditoria.EventoCambio;
+import com.persistencia.auditoria.RegistroCambios;
+import com.persistencia.repositorios.CalificacionRepositorio;
+import com.persistencia.repositorios.CalificacionRepositorio.Calificacion;
+import com.persistencia.repositorios.CalificacionRepositorio.LotesAplicados;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityTransaction;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Calificación masiva de logros por grupo.
+ * El profesor envía la matriz completa (estudiantes x logros); el servicio la
+ * compara con las calificaciones pendientes (sin boletín) y aplica solo las
+ * diferencias en lotes JDBC, todo dentro de una única transacción. Los lotes
+ * no pasan por CapturaCambios: sus eventos se registran después del commit.
+ */
+public class CalificacionService {
+
+    private final EntityManager entityManager;
+    private final CalificacionRepositorio repositorio;
+    private final ResumenLogrosService resumenLogros;
+
+    public CalificacionService() {
+        this(JPAUtil.getEntityManagerFactory().createEntityManager());
+    }
+
+    public CalificacionService(EntityManager entityManager) {
+        this.entityManager = entityManager;
+        this.repositorio = new CalificacionRepositorio(entityManager);
+        this.resumenLogros = new ResumenLogrosService(entityManager);
+    }
+
+    /**
+     * Arma la matriz actual de un grupo: sus estudiantes, los logros del grado
+     * y las calificaciones pendientes ya registradas
+     */
+    public ResultadoOperacion consultarMatriz(Integer idGrupo) {
+        try {
+            List<Integer> estudiantes = repositorio.buscarIdsEstudiantesDeGrupo(idGrupo);
+            List<Integer> logros = repositorio.buscarIdsLogrosDeGrupo(idGrupo);
+            MatrizCalificaciones matriz = new MatrizCalificaciones(estudiantes, logros);
+
+            Map<Integer, Integer> fila = indices(estudiantes);
+            Map<Integer, Integer> columna = indices(logros);
+            for (Calificacion c : repositorio.buscarPendientes(estudiantes, logros)) {
+                matriz.marcar(fila.get(c.getIdEstudiante()), columna.get(c.getIdLogro()), c.getFechaCalificacion());
+            }
+            return ResultadoOperacion.exito("Matriz de calificaciones consultada", matriz);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResultadoOperacion.error("Error al consultar calificaciones: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Guarda la matriz de calificaciones del profesor.
+     * Celda marcada sin fila -> inserción; fecha distinta -> actualización;
+     * celda desmarcada con fila -> eliminación. Las calificaciones ya
+     * incluidas en un boletín no se modifican.
+     */
+    public ResultadoOperacion calificar(Integer idProfesor, MatrizCalificaciones matriz) {
+        if (idProfesor == null) {
+            return ResultadoOperacion.error("Profesor no válido");
+        }
+        if (matriz == null || matriz.getNumeroEstudiantes() == 0 || matriz.getNumeroLogros() == 0) {
+            return ResultadoOperacion.error("No hay calificaciones para guardar");
+        }
+
+        EntityTransaction transaction = entityManager.getTransaction();
+        try {
+            transaction.begin();
+
+            // 1. Cada estudiante debe pertenecer a un grupo a cargo del profesor
+            Map<Integer, Integer> grupoPorEstudiante = new HashMap<>();
+            for (Object[] fila : repositorio.buscarGruposDeEstudiantes(matriz.getIdsEstudiantes())) {
+                if (fila[1] == null || !idProfesor.equals(fila[2])) {
+                    transaction.rollback();
+                    return ResultadoOperacion.error("El estudiante " + fila[0] + " no pertenece a un grupo a cargo del profesor");
+                }
+                grupoPorEstudiante.put((Integer) fila[0], (Integer) fila[1]);
+            }
+            if (grupoPorEstudiante.size() != new HashSet<>(matriz.getIdsEstudiantes()).size()) {
+                transaction.rollback();
+                return ResultadoOperacion.error("Uno o más estudiantes no existen");
+            }
+
+            Map<Integer, String> categoriaPorLogro = new HashMap<>();
+            for (Object[] fila : repositorio.buscarCategoriasDeLogros(matriz.getIdsLogros())) {
+                categoriaPorLogro.put((Integer) fila[0], (String) fila[1]);
+            }
+            if (categoriaPorLogro.size() != new HashSet<>(matriz.getIdsLogros()).size()) {
+                transaction.rollback();
+                return ResultadoOperacion.error("Uno o más logros no existen");
+            }
+
+            // 2. Calificaciones pendientes actuales, indexadas por celda
+            List<Calificacion> eliminaciones = new ArrayList<>();
+            Map<Long, Calificacion> existentes = new HashMap<>();
+            for (Calificacion c : repositorio.buscarPendientes(matriz.getIdsEstudiantes(), matriz.getIdsLogros())) {
+                if (existentes.putIfAbsent(celda(c.getIdEstudiante(), c.getIdLogro()), c) != null) {
+                    // Fila duplicada de la misma celda
+                    eliminaciones.add(c);
+                }
+            }
+
+            // 3. Diferencias entre la matriz y lo registrado
+            List<Calificacion> inserciones = new ArrayList<>();
+            List<Calificacion> actualizaciones = new ArrayList<>();
+            Map<Integer, Calificacion> anteriores = new HashMap<>();
+            LocalDate hoy = LocalDate.now();
+            Set<Long> vistas = new HashSet<>();
+
+            for (int i = 0; i < matriz.getNumeroEstudiantes(); i++) {
+                Integer idEstudiante = matriz.getIdEstudiante(i);
+                for (int j = 0; j < matriz.getNumeroLogros(); j++) {
+                    Integer idLogro = matriz.getIdLogro(j);
+                    long clave = celda(idEstudiante, idLogro);
+                    if (!vistas.add(clave)) {
+                        continue;
+                    }
+                    LocalDate fecha = matriz.getCelda(i, j);
+                    Calificacion existente = existentes.get(clave);
+
+                    if (fecha != null && fecha.isAfter(hoy)) {
+                        transaction.rollback();
+                        return ResultadoOperacion.error("La fecha de calificación no puede ser futura");
+                    }
+
+                    if (fecha != null && existente == null) {
+                        inserciones.add(new Calificacion(null, idEstudiante, idLogro, fecha, idProfesor));
+                    } else if (fecha != null && !fecha.equals(existente.getFechaCalificacion())) {
+                        actualizaciones.add(new Calificacion(existente.getIdLogroEstudiante(),
+                            idEstudiante, idLogro, fecha, idProfesor));
+                        anteriores.put(existente.getIdLogroEstudiante(), existente);
+                    } else if (fecha == null && existente != null) {
+                        eliminaciones.add(existente);
+                    }
+                }
+            }
+
+            // 4. Aplicar en lotes y llevar al resumen de logros solo lo que se
+            // escribió (las filas que entraron a un boletín no se eliminan)
+            LotesAplicados aplicados = repositorio.aplicarLotes(inserciones, actualizaciones, eliminaciones);
+            ResumenLogrosService.Cambios cambios = resumenLogros.nuevosCambios();
+            for (Calificacion c : eliminaciones) {
+                if (aplicados.fueEliminada(c.getIdLogroEstudiante())) {
+                    cambios.pendiente(grupoPorEstudiante.get(c.getIdEstudiante()), categoriaPorLogro.get(c.getIdLogro()), -1);
+                }
+            }
+            for (int i = 0; i < aplicados.getIdsInsertados().size(); i++) {
+                Calificacion c = inserciones.get(i);
+                cambios.pendiente(grupoPorEstudiante.get(c.getIdEstudiante()), categoriaPorLogro.get(c.getIdLogro()), 1);
+            }
+            resumenLogros.aplicar(cambios);
+
+            transaction.commit();
+            entityManager.clear();
+            registrarCambios(inserciones, actualizaciones, anteriores, eliminaciones, aplicados);
+
+            ResumenCalificacion resumen = new ResumenCalificacion(
+                inserciones.size(), actualizaciones.size(), eliminaciones.size());
+            return ResultadoOperacion.exito("Calificaciones guardadas: " + resumen.getInsertadas() + " nuevas, " +
+                resumen.getActualizadas() + " actualizadas, " + resumen.getEliminadas() + " eliminadas", resumen);
+
+        } catch (Exception e) {
+            if (transaction.isActive()) {
+                transaction.rollback();
+            }
+            e.printStackTrace();
+            return ResultadoOperacion.error("Error al guardar calificaciones: " + e.getMessage());
+        }
+    }
+
+    // ==================== MÉTODOS PRIVADOS ====================
+
+    private static void registrarCambios(List<Calificacion> inserciones, List<Calificacion> actualizaciones,
+            Map<Integer, Calificacion> anteriores, List<Calificacion> eliminaciones, LotesAplicados aplicados) {
+        LocalDateTime ahora = LocalDateTime.now();
+        Integer usuario = RegistroCambios.getUsuarioActual();
+        RegistroCambios registro = RegistroCambios.getInstancia();
+        for (Calificacion c : eliminaciones) {
+            if (aplicados.fueEliminada(c.getIdLogroEstudiante())) {
+                registro.agregar(new EventoCambio(null, ahora, "logros_estudiante",
+                    String.valueOf(c.getIdLogroEstudiante()), EventoCambio.ELIMINACION, usuario,
+                    CapturaCambios.cambiosEliminacion(campos(c))));
+            }
+        }
+        for (Calificacion c : actualizaciones) {
+            if (aplicados.fueActualizada(c.getIdLogroEstudiante())) {
+                Calificacion anterior = anteriores.get(c.getIdLogroEstudiante());
+                Map<String, Object[]> campos = new LinkedHashMap<>();
+                campos.put("fechaCalificacion", new Object[] {anterior.getFechaCalificacion(), c.getFechaCalificacion()});
+                campos.put("profesor", new Object[] {anterior.getIdProfesor(), c.getIdProfesor()});
+                registro.agregar(new EventoCambio(null, ahora, "logros_estudiante",
+                    String.valueOf(c.getIdLogroEstudiante()), EventoCambio.ACTUALIZACION, usuario,
+                    CapturaCambios.cambiosActualizacion(campos)));
+            }
+        }
+        List<Integer> ids = aplicados.getIdsInsertados();
+        for (int i = 0; i < ids.size(); i++) {
+            registro.agregar(new EventoCambio(null, ahora, "logros_estudiante", String.valueOf(ids.get(i)),
+                EventoCambio.INSERCION, usuario, CapturaCambios.cambiosInsercion(campos(inserciones.get(i)))));
+        }
+    }
+
+    private static Map<String, Object> campos(Calificacion c) {
+        Map<String, Object> campos = new LinkedHashMap<>();
+        campos.put("fechaCalificacion", c.getFechaCalificacion());
+        campos.put("estudiante", c.getIdEstudiante());
+        campos.put("logro", c.getIdLogro());
+        campos.put("profesor", c.getIdProfesor());
+        return campos;
+    }
+
+    private static long celda(Integer idEstudiante, Integer idLogro) {
+        return ((long) idEstudiante << 32) | (idLogro & 0xFFFFFFFFL);
+    }
+
+    private static Map<Integer, Integer> indices(List<Integer> ids) {
+        Map<Integer, Integer> indices = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            indices.put(ids.get(i), i);
+        }
+        return indices;
+    }
+
+    /**
+     * Cantidad de filas afectadas por una calificación masiva
+     */
+    public static class ResumenCalificacion {
+        private final int insertadas;
+        private final int actualizadas;
+        private final int eliminadas;
+
+        public ResumenCalificacion(int insertadas, int actualizadas, int eliminadas) {
+            this.insertadas = insertadas;
+            this.actualizadas = actualizadas;
+            this.eliminadas = eliminadas;
+        }
+
+        public int getInsertadas() { return insertadas; }
+        public int getActualizadas() { return actualizadas; }
+        public int getEliminadas() { return eliminadas; }
+    }
+}
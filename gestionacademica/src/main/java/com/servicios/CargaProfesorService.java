@@ -0,0 +1,188 @@
+package com.servicios;
+
+import com.aplicacion.JPAUtil;
+import com.aplicacion.trazas.TipoTramo;
+import com.aplicacion.trazas.Trazador;
+import com.aplicacion.trazas.Tramo;
+import com.persistencia.repositorios.CargaProfesorRepositorio;
+import com.persistencia.sedes.Sedes;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityTransaction;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Carga de trabajo de un profesor: su grupo, sus estudiantes y, por periodo,
+ * cuántas calificaciones faltan (estudiantes x logros del grado menos las
+ * calificadas). Se lee en una sola consulta del índice carga_profesor y de
+ * resumen_logros, sin recorrer las asociaciones perezosas del profesor.
+ *
+ * La asignación de grupos refresca el índice con {@link #refrescar(Collection)}
+ * dentro de su transacción; las calificaciones ya actualizan resumen_logros
+ * en la suya. {@link #reconstruir()} recalcula el índice completo (p. ej.
+ * después de cambiar logros o grupos por fuera de la aplicación).
+ */
+@SuppressWarnings("try")
+public class CargaProfesorService {
+
+    private final EntityManager entityManager;
+    private final CargaProfesorRepositorio repositorio;
+
+    public CargaProfesorService() {
+        this(JPAUtil.getEntityManagerFactory().createEntityManager());
+    }
+
+    public CargaProfesorService(EntityManager entityManager) {
+        this.entityManager = entityManager;
+        this.repositorio = new CargaProfesorRepositorio(entityManager);
+    }
+
+    /**
+     * Carga del profesor. Los datos son una {@link CargaProfesor}, o null si
+     * el profesor no tiene grupo.
+     */
+    public ResultadoOperacion consultar(Integer idProfesor) {
+        if (idProfesor == null) {
+            return ResultadoOperacion.error("Profesor no válido");
+        }
+        try (Tramo tramo = Trazador.iniciar("CargaProfesorService.consultar", TipoTramo.SERVICIO)) {
+            List<Object[]> filas = repositorio.buscarPorProfesor(idProfesor);
+            if (filas.isEmpty()) {
+                return ResultadoOperacion.exito("El profesor no tiene grupo asignado", null);
+            }
+            Object[] primera = filas.get(0);
+            List<Integer> estudiantes = Arrays.asList((Integer[]) primera[2]);
+            int logros = (Integer) primera[3];
+            long esperadas = (long) estudiantes.size() * logros;
+
+            List<PendientesPeriodo> periodos = new ArrayList<>();
+            boolean hayPendiente = false;
+            for (Object[] fila : filas) {
+                if (fila[4] == null) {
+                    continue; // El grupo aún no tiene calificaciones
+                }
+                String periodo = (String) fila[4];
+                long calificadas = (Long) fila[5];
+                PendientesPeriodo pendientes = new PendientesPeriodo(periodo, calificadas,
+                    Math.max(0, esperadas - calificadas));
+                if (ResumenLogrosService.PERIODO_PENDIENTE.equals(periodo)) {
+                    periodos.add(0, pendientes);
+                    hayPendiente = true;
+                } else {
+                    periodos.add(pendientes);
+                }
+            }
+            if (!hayPendiente) {
+                periodos.add(0, new PendientesPeriodo(ResumenLogrosService.PERIODO_PENDIENTE, 0, esperadas));
+            }
+
+            CargaProfesor carga = new CargaProfesor((Integer) primera[0], (String) primera[1],
+                estudiantes, logros, periodos);
+            return ResultadoOperacion.exito("Carga del profesor consultada", carga);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResultadoOperacion.error("Error al consultar la carga del profesor: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Recalcula la carga de los grupos cuyos estudiantes o profesor
+     * cambiaron. Debe llamarse dentro de la transacción que los cambió.
+     */
+    public void refrescar(Collection<Integer> idsGrupos) {
+        repositorio.refrescarGrupos(idsGrupos);
+    }
+
+    /**
+     * Recalcula todo el índice en una transacción
+     */
+    public ResultadoOperacion reconstruir() {
+        EntityTransaction transaction = entityManager.getTransaction();
+        try {
+            transaction.begin();
+            int profesores = repositorio.reconstruir();
+            transaction.commit();
+            return ResultadoOperacion.exito("Carga de profesores reconstruida (" + profesores + " registros)", profesores);
+        } catch (Exception e) {
+            if (transaction.isActive()) {
+                transaction.rollback();
+            }
+            e.printStackTrace();
+            return ResultadoOperacion.error("Error al reconstruir la carga de profesores: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Programa la reconstrucción periódica en un hilo de fondo. Cada
+     * ejecución recorre todas las sedes, cada una con su propio EntityManager.
+     */
+    public static ScheduledExecutorService programarReconstruccion(Duration intervalo) {
+        ScheduledExecutorService planificador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread hilo = new Thread(r, "reconstruccion-carga-profesor");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        planificador.scheduleWithFixedDelay(() -> Sedes.paraCada(sede -> {
+            EntityManager em = JPAUtil.getEntityManagerFactory().createEntityManager();
+            try {
+                ResultadoOperacion resultado = new CargaProfesorService(em).reconstruir();
+                System.out.println(sede + ": " + resultado.getMensaje());
+            } finally {
+                em.close();
+            }
+        }), intervalo.toMillis(), intervalo.toMillis(), TimeUnit.MILLISECONDS);
+        return planificador;
+    }
+
+    /**
+     * Grupo del profesor con sus estudiantes (ordenados por apellido) y las
+     * calificaciones por periodo, empezando por las que aún no tienen boletín
+     */
+    public static class CargaProfesor {
+        private final Integer idGrupo;
+        private final String nombreGrupo;
+        private final List<Integer> idsEstudiantes;
+        private final int logrosGrado;
+        private final List<PendientesPeriodo> periodos;
+
+        public CargaProfesor(Integer idGrupo, String nombreGrupo, List<Integer> idsEstudiantes,
+                int logrosGrado, List<PendientesPeriodo> periodos) {
+            this.idGrupo = idGrupo;
+            this.nombreGrupo = nombreGrupo;
+            this.idsEstudiantes = Collections.unmodifiableList(idsEstudiantes);
+            this.logrosGrado = logrosGrado;
+            this.periodos = Collections.unmodifiableList(periodos);
+        }
+
+        public Integer getIdGrupo() { return idGrupo; }
+        public String getNombreGrupo() { return nombreGrupo; }
+        public List<Integer> getIdsEstudiantes() { return idsEstudiantes; }
+        public int getLogrosGrado() { return logrosGrado; }
+        public List<PendientesPeriodo> getPeriodos() { return periodos; }
+    }
+
+    public static class PendientesPeriodo {
+        private final String periodo;
+        private final long calificadas;
+        private final long sinCalificar;
+
+        public PendientesPeriodo(String periodo, long calificadas, long sinCalificar) {
+            this.periodo = periodo;
+            this.calificadas = calificadas;
+            this.sinCalificar = sinCalificar;
+        }
+
+        public String getPeriodo() { return periodo; }
+        public long getCalificadas() { return calificadas; }
+        public long getSinCalificar() { return sinCalificar; }
+    }
+}
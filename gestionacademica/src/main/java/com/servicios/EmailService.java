@@ -1,5 +1,8 @@
 package com.servicios;
 
+import com.aplicacion.trazas.TipoTramo;
+import com.aplicacion.trazas.Trazador;
+import com.aplicacion.trazas.Tramo;
 import javax.mail.*;
 import javax.mail.internet.*;
 import java.util.Properties;
@@ -8,6 +11,7 @@ import java.util.Properties;
  * Servicio para envío de correos electrónicos
  * Utilizado en CU 2.3 para enviar credenciales a usuarios nuevos
  */
+@SuppressWarnings("try")
 public class EmailService {
     
     private final String host;
@@ -47,6 +51,16 @@ public class EmailService {
         }
     }
     
+    /**
+     * Envía las credenciales y propaga el error, para que quien lo llame
+     * pueda reintentar (activación de cuentas de acudientes)
+     */
+    public void enviarCredenciales(String destinatario, String usuario, String contrasena, String nombreUsuario)
+            throws MessagingException {
+        enviarEmail(destinatario, "Bienvenido al Sistema de Gestión Académica",
+            construirCuerpoEmail(nombreUsuario, usuario, contrasena));
+    }
+
     private String construirCuerpoEmail(String nombre, String usuario, String contrasena) {
         return """
             Estimado/a %s,
@@ -71,30 +85,32 @@ public class EmailService {
     }
     
     private void enviarEmail(String destinatario, String asunto, String cuerpo) throws MessagingException {
-        Properties props = new Properties();
-        props.put("mail.smtp.host", host);
-        props.put("mail.smtp.port", port);
-        props.put("mail.smtp.auth", "true");
-        props.put("mail.smtp.starttls.enable", "true");
+        try (Tramo tramo = Trazador.iniciar("EmailService.enviarEmail", TipoTramo.CORREO)) {
+            Properties props = new Properties();
+            props.put("mail.smtp.host", host);
+            props.put("mail.smtp.port", port);
+            props.put("mail.smtp.auth", "true");
+            props.put("mail.smtp.starttls.enable", "true");
         
-        if (usarSSL) {
-            props.put("mail.smtp.ssl.enable", "true");
-        }
-        
-        Session session = Session.getInstance(props, new Authenticator() {
-            @Override
-            protected PasswordAuthentication getPasswordAuthentication() {
-                return new PasswordAuthentication(username, password);
+            if (usarSSL) {
+                props.put("mail.smtp.ssl.enable", "true");
             }
-        });
         
-        Message message = new MimeMessage(session);
-        message.setFrom(new InternetAddress(username));
-        message.setRecipients(Message.RecipientType.TO, InternetAddress.parse(destinatario));
-        message.setSubject(asunto);
-        message.setText(cuerpo);
+            Session session = Session.getInstance(props, new Authenticator() {
+                @Override
+                protected PasswordAuthentication getPasswordAuthentication() {
+                    return new PasswordAuthentication(username, password);
+                }
+            });
         
-        Transport.send(message);
+            Message message = new MimeMessage(session);
+            message.setFrom(new InternetAddress(username));
+            message.setRecipients(Message.RecipientType.TO, InternetAddress.parse(destinatario));
+            message.setSubject(asunto);
+            message.setText(cuerpo);
+        
+            Transport.send(message);
+        }
     }
     
     /**
@@ -0,0 +1,286 @@
+package com.servicios;
+
+import com.dominio.Boletin;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Exporta boletines a un archivo ZIP (una entrada por estudiante, en una
+ * carpeta por grupo) escribiendo a través de un FileChannel.
+ * Cada boletín se renderiza directamente sobre el flujo comprimido, por lo
+ * que la memoria usada no depende del tamaño de la exportación.
+ *
+ * Reanudación: mientras se escribe, el ZIP vive en "destino.part" y cada
+ * LOTE_PUNTO_CONTROL entradas se fuerza a disco y se anotan sus nombres en
+ * "destino.progreso". Si la exportación se interrumpe, la siguiente llamada
+ * copia las entradas ya confirmadas del archivo parcial y continúa con las faltantes.
+ * Durante esa copia el parcial anterior ("destino.part.anterior") y su
+ * progreso siguen intactos: el progreso nuevo se escribe aparte y reemplaza
+ * al anterior (movimiento atómico) solo cuando la copia quedó en disco.
+ */
+public class ExportacionBoletinesService {
+
+    private static final int LOTE_PUNTO_CONTROL = 50;
+    private static final int TAM_BUFFER = 64 * 1024;
+
+    private final RenderizadorBoletinHtml renderizador;
+
+    public ExportacionBoletinesService() {
+        this(new RenderizadorBoletinHtml());
+    }
+
+    public ExportacionBoletinesService(RenderizadorBoletinHtml renderizador) {
+        this.renderizador = renderizador;
+    }
+
+    /**
+     * Exporta (o reanuda la exportación de) los boletines al ZIP de destino
+     */
+    public ResultadoOperacion exportarZip(List<Boletin> boletines, Path destino) {
+        if (boletines == null || boletines.isEmpty()) {
+            return ResultadoOperacion.error("No hay boletines para exportar");
+        }
+        try {
+            int exportados = exportar(boletines, destino);
+            return ResultadoOperacion.exito("Se exportaron " + exportados + " boletines a " + destino.getFileName(), destino);
+        } catch (InterruptedIOException | ClosedByInterruptException e) {
+            Thread.currentThread().interrupt();
+            return ResultadoOperacion.error("Exportación interrumpida; puede reanudarse ejecutándola de nuevo");
+        } catch (IOException e) {
+            e.printStackTrace();
+            return ResultadoOperacion.error("Error al exportar boletines: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Nombre de la entrada del boletín dentro del ZIP: grupo/archivo
+     */
+    public static String nombreEntrada(Boletin boletin) {
+        return BoletinService.carpetaGrupo(boletin) + "/" + BoletinService.nombreArchivo(boletin);
+    }
+
+    // ==================== MÉTODOS PRIVADOS ====================
+
+    private int exportar(List<Boletin> boletines, Path destino) throws IOException {
+        Path parcial = destino.resolveSibling(destino.getFileName() + ".part");
+        Path progreso = destino.resolveSibling(destino.getFileName() + ".progreso");
+        Path progresoNuevo = destino.resolveSibling(destino.getFileName() + ".progreso.nuevo");
+        Path anterior = destino.resolveSibling(destino.getFileName() + ".part.anterior");
+
+        // Entradas confirmadas de una ejecución previa. Si quedó un parcial
+        // anterior, la ejecución previa se cortó copiándolo y su ".part" no
+        // sirve; el progreso sigue siendo el de ese parcial anterior
+        Set<String> confirmadas = new HashSet<>();
+        if (Files.exists(progreso) && Files.exists(anterior)) {
+            confirmadas.addAll(Files.readAllLines(progreso, StandardCharsets.UTF_8));
+        } else if (Files.exists(progreso) && Files.exists(parcial)) {
+            confirmadas.addAll(Files.readAllLines(progreso, StandardCharsets.UTF_8));
+            Files.move(parcial, anterior, StandardCopyOption.REPLACE_EXISTING);
+        } else {
+            Files.deleteIfExists(anterior);
+        }
+
+        List<Boletin> ordenados = new ArrayList<>(boletines);
+        ordenados.sort(Comparator.comparing(ExportacionBoletinesService::nombreEntrada));
+
+        int escritos = 0;
+        try (FileChannel canal = FileChannel.open(parcial,
+                 StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+             RegistroProgreso registro = new RegistroProgreso(progresoNuevo, StandardOpenOption.TRUNCATE_EXISTING);
+             ZipOutputStream zip = new ZipOutputStream(
+                 new BufferedOutputStream(Channels.newOutputStream(canal), TAM_BUFFER))) {
+
+            List<String> pendientes = new ArrayList<>(LOTE_PUNTO_CONTROL);
+
+            Set<String> copiadas = Files.exists(anterior)
+                ? copiarConfirmadas(anterior, confirmadas, zip, pendientes)
+                : Set.of();
+            confirmar(zip, canal, registro, pendientes);
+            // Lo copiado ya está en disco: el progreso nuevo pasa a ser el vigente
+            registro.moverA(progreso);
+            Files.deleteIfExists(anterior);
+
+            for (Boletin boletin : ordenados) {
+                String nombre = nombreEntrada(boletin);
+                if (copiadas.contains(nombre)) {
+                    continue;
+                }
+                // Se limpia la marca para poder confirmar el lote antes de salir
+                if (Thread.interrupted()) {
+                    confirmar(zip, canal, registro, pendientes);
+                    throw new InterruptedIOException("Exportación interrumpida en " + nombre);
+                }
+
+                zip.putNextEntry(new ZipEntry(nombre));
+                Writer salida = new BufferedWriter(new OutputStreamWriter(sinCerrar(zip), StandardCharsets.UTF_8));
+                renderizador.renderizar(boletin, salida);
+                salida.flush();
+                zip.closeEntry();
+                escritos++;
+
+                pendientes.add(nombre);
+                if (pendientes.size() >= LOTE_PUNTO_CONTROL) {
+                    confirmar(zip, canal, registro, pendientes);
+                }
+            }
+            zip.finish();
+            zip.flush();
+            canal.force(true);
+            escritos += copiadas.size();
+        }
+
+        Files.move(parcial, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Files.deleteIfExists(progreso);
+        Files.deleteIfExists(anterior);
+        return escritos;
+    }
+
+    /**
+     * Copia al nuevo ZIP las entradas del archivo parcial que estaban confirmadas.
+     * Cada entrada se lee completa (con su CRC) antes de escribirla; la copia
+     * termina en la primera que no esté confirmada o no se pueda leer (la
+     * que quedó a medio escribir), y esa y las siguientes se vuelven a generar.
+     */
+    private Set<String> copiarConfirmadas(Path anterior, Set<String> confirmadas,
+            ZipOutputStream zip, List<String> pendientes) throws IOException {
+        Set<String> copiadas = new HashSet<>();
+        byte[] buffer = new byte[TAM_BUFFER];
+        ByteArrayOutputStream contenido = new ByteArrayOutputStream();
+        try (FileChannel canal = FileChannel.open(anterior, StandardOpenOption.READ);
+             ZipInputStream entrada = new ZipInputStream(Channels.newInputStream(canal))) {
+            while (true) {
+                String nombre;
+                contenido.reset();
+                try {
+                    ZipEntry entry = entrada.getNextEntry();
+                    if (entry == null || !confirmadas.contains(entry.getName())) {
+                        break;
+                    }
+                    nombre = entry.getName();
+                    copiar(entrada, contenido, buffer);
+                } catch (InterruptedIOException e) {
+                    throw e;
+                } catch (IOException e) {
+                    // Entrada truncada o dañada
+                    break;
+                }
+                zip.putNextEntry(new ZipEntry(nombre));
+                contenido.writeTo(zip);
+                zip.closeEntry();
+                copiadas.add(nombre);
+                pendientes.add(nombre);
+            }
+        }
+        return copiadas;
+    }
+
+    /**
+     * Fuerza a disco el ZIP y luego registra las entradas del lote como confirmadas
+     */
+    private void confirmar(ZipOutputStream zip, FileChannel canal, RegistroProgreso registro,
+            List<String> pendientes) throws IOException {
+        if (pendientes.isEmpty()) {
+            return;
+        }
+        zip.flush();
+        canal.force(false);
+        registro.anotar(pendientes);
+        pendientes.clear();
+    }
+
+    private static void copiar(InputStream entrada, OutputStream salida, byte[] buffer) throws IOException {
+        int leidos;
+        while ((leidos = entrada.read(buffer)) != -1) {
+            salida.write(buffer, 0, leidos);
+        }
+    }
+
+    /**
+     * Evita que el Writer de una entrada cierre el ZipOutputStream
+     */
+    private static OutputStream sinCerrar(OutputStream salida) {
+        return new java.io.FilterOutputStream(salida) {
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                out.write(b, off, len);
+            }
+
+            @Override
+            public void close() throws IOException {
+                flush();
+            }
+        };
+    }
+
+    /**
+     * Archivo de progreso: una línea por entrada confirmada, forzada a disco
+     */
+    private static final class RegistroProgreso implements Closeable {
+        private Path archivo;
+        private FileChannel canal;
+        private Writer escritor;
+
+        private RegistroProgreso(Path archivo, StandardOpenOption modo) throws IOException {
+            abrir(archivo, modo);
+        }
+
+        private void abrir(Path archivo, StandardOpenOption modo) throws IOException {
+            this.archivo = archivo;
+            this.canal = FileChannel.open(archivo, StandardOpenOption.CREATE, StandardOpenOption.WRITE, modo);
+            this.escritor = new OutputStreamWriter(Channels.newOutputStream(canal), StandardCharsets.UTF_8);
+        }
+
+        private void anotar(List<String> nombres) throws IOException {
+            for (String nombre : nombres) {
+                escritor.write(nombre);
+                escritor.write('\n');
+            }
+            escritor.flush();
+            canal.force(false);
+        }
+
+        /**
+         * Reemplaza destino por este archivo y sigue anotando en él. Se cierra
+         * antes de moverlo porque algunos sistemas no mueven archivos abiertos.
+         */
+        private void moverA(Path destino) throws IOException {
+            close();
+            Files.move(archivo, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            abrir(destino, StandardOpenOption.APPEND);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (canal != null) {
+                escritor.flush();
+                canal.close();
+                canal = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.servicios;
+
+import com.aplicacion.JPAUtil;
+import com.aplicacion.trazas.TipoTramo;
+import com.aplicacion.trazas.Trazador;
+import com.aplicacion.trazas.Tramo;
+import com.dominio.Estado;
+import com.persistencia.repositorios.EstudianteRepositorio;
+import com.persistencia.repositorios.GrupoRepositorio;
+import com.persistencia.repositorios.UsuarioRepositorio;
+import com.servicios.exportacion.EscritorTabla;
+import com.servicios.exportacion.EscritorTabla.Formato;
+
+import jakarta.persistence.EntityManager;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Exporta listados de estudiantes (por grupo) y de acudientes (para revisar
+ * preinscripciones) a CSV o XLSX. Las filas llegan de un cursor de la BD y
+ * se escriben una a una, así que la memoria usada no depende del tamaño del
+ * listado. El archivo se escribe como "destino.part" y solo reemplaza al
+ * destino cuando queda completo.
+ */
+@SuppressWarnings("try")
+public class ExportacionListadosService {
+
+    private static final int TAM_BUFFER = 64 * 1024;
+
+    private static final String[] COLUMNAS_ESTUDIANTES = {
+        "Id", "NUIP", "Primer apellido", "Segundo apellido", "Primer nombre", "Segundo nombre",
+        "Edad", "Estado", "Grado", "Grupo", "Acudiente", "Teléfono acudiente", "Correo acudiente"
+    };
+
+    private static final String[] COLUMNAS_ACUDIENTES = {
+        "Id", "NUIP", "Primer apellido", "Segundo apellido", "Primer nombre", "Segundo nombre",
+        "Teléfono", "Correo", "Estado", "Estudiantes"
+    };
+
+    private final EstudianteRepositorio estudianteRepositorio;
+    private final UsuarioRepositorio usuarioRepositorio;
+    private final GrupoRepositorio grupoRepositorio;
+
+    public ExportacionListadosService() {
+        this(JPAUtil.getEntityManagerFactory().createEntityManager());
+    }
+
+    public ExportacionListadosService(EntityManager entityManager) {
+        this.estudianteRepositorio = new EstudianteRepositorio(entityManager);
+        this.usuarioRepositorio = new UsuarioRepositorio(entityManager);
+        this.grupoRepositorio = new GrupoRepositorio(entityManager);
+    }
+
+    /**
+     * Grados con sus grupos para elegir el filtro de un listado. Los datos
+     * son una List<{@link OpcionFiltro}> de grados.
+     */
+    public ResultadoOperacion consultarGradosYGrupos() {
+        try {
+            List<OpcionFiltro> grados = new ArrayList<>();
+            OpcionFiltro grado = null;
+            for (Object[] fila : grupoRepositorio.buscarGradosYGrupos()) {
+                if (grado == null || !grado.getId().equals(fila[0])) {
+                    grado = new OpcionFiltro((Integer) fila[0], (String) fila[1]);
+                    grados.add(grado);
+                }
+                if (fila[2] != null) {
+                    grado.grupos.add(new OpcionFiltro((Integer) fila[2], (String) fila[3]));
+                }
+            }
+            return ResultadoOperacion.exito("Grados: " + grados.size(), grados);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResultadoOperacion.error("Error al consultar grados: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Estudiantes con el estado, grado y grupo indicados (null = todos).
+     * Los datos son la ruta del archivo generado.
+     */
+    public ResultadoOperacion exportarEstudiantes(Estado estado, Integer idGrado, Integer idGrupo,
+            Formato formato, Path destino) {
+        try (Tramo tramo = Trazador.iniciar("ExportacionListadosService.exportarEstudiantes", TipoTramo.SERVICIO);
+             Stream<Object[]> filas = estudianteRepositorio.transmitirListado(estado, idGrado, idGrupo)) {
+            long exportados = exportar(filas, COLUMNAS_ESTUDIANTES, "Estudiantes", formato, destino);
+            return ResultadoOperacion.exito("Se exportaron " + exportados + " estudiantes a " + destino.getFileName(), destino);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return ResultadoOperacion.error("Error al exportar estudiantes: " + e.getMessage());
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResultadoOperacion.error("Error al consultar estudiantes: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Acudientes con el estado de aprobación indicado y, si se da grado o
+     * grupo, con algún estudiante en ellos (null = todos). Los datos son la
+     * ruta del archivo generado.
+     */
+    public ResultadoOperacion exportarAcudientes(Estado estado, Integer idGrado, Integer idGrupo,
+            Formato formato, Path destino) {
+        try (Tramo tramo = Trazador.iniciar("ExportacionListadosService.exportarAcudientes", TipoTramo.SERVICIO);
+             Stream<Object[]> filas = usuarioRepositorio.transmitirListadoAcudientes(estado, idGrado, idGrupo)) {
+            long exportados = exportar(filas, COLUMNAS_ACUDIENTES, "Acudientes", formato, destino);
+            return ResultadoOperacion.exito("Se exportaron " + exportados + " acudientes a " + destino.getFileName(), destino);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return ResultadoOperacion.error("Error al exportar acudientes: " + e.getMessage());
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResultadoOperacion.error("Error al consultar acudientes: " + e.getMessage());
+        }
+    }
+
+    // ==================== MÉTODOS PRIVADOS ====================
+
+    private static long exportar(Stream<Object[]> filas, String[] columnas, String nombreHoja,
+            Formato formato, Path destino) throws IOException {
+        Path parcial = destino.resolveSibling(destino.getFileName() + ".part");
+        long escritas = 0;
+        try {
+            try (OutputStream salida = new BufferedOutputStream(Files.newOutputStream(parcial), TAM_BUFFER);
+                 EscritorTabla escritor = EscritorTabla.crear(formato, salida, nombreHoja)) {
+                escritor.encabezado(columnas);
+                for (Iterator<Object[]> it = filas.iterator(); it.hasNext(); ) {
+                    escritor.fila(it.next());
+                    escritas++;
+                }
+            }
+            Files.move(parcial, destino, StandardCopyOption.REPLACE_EXISTING);
+            return escritas;
+        } finally {
+            Files.deleteIfExists(parcial);
+        }
+    }
+
+    /**
+     * Grado o grupo por el que se puede filtrar; solo los grados tienen grupos
+     */
+    public static class OpcionFiltro {
+        private final Integer id;
+        private final String nombre;
+        private final List<OpcionFiltro> grupos = new ArrayList<>();
+
+        public OpcionFiltro(Integer id, String nombre) {
+            this.id = id;
+            this.nombre = nombre;
+        }
+
+        public Integer getId() { return id; }
+        public String getNombre() { return nombre; }
+        public List<OpcionFiltro> getGrupos() { return Collections.unmodifiableList(grupos); }
+
+        @Override
+        public String toString() {
+            return nombre;
+        }
+    }
+}
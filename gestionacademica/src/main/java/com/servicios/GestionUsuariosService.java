@@ -1,22 +1,30 @@
 package com.servicios;
 
+import com.aplicacion.trazas.TipoTramo;
+import com.aplicacion.trazas.Trazador;
 import com.dominio.*;
 import com.persistencia.repositorios.*;
 import com.persistencia.mappers.DominioAPersistenciaMapper;
 import com.persistencia.entidades.*;
+import com.persistencia.metricas.MetricasPersistencia;
 import com.aplicacion.JPAUtil;
+import com.servicios.busqueda.IndicePersonas;
+import com.servicios.busqueda.TextoBusqueda;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
 
+import java.security.SecureRandom;
 import java.util.Optional;
-import java.util.Random;
 
 /**
  * Servicio de gestión de usuarios - Capa de Servicios
  * Responsabilidad: Casos de uso, orquestación transaccional, coordinación de entidades
  */
+@SuppressWarnings("try")
 public class GestionUsuariosService {
+    private static final SecureRandom ALEATORIO = new SecureRandom();
+
     private final EntityManager em;
     private final UsuarioRepositorio repositorioUsuario;
     private final RolRepositorio repositorioRol;
@@ -36,7 +44,13 @@ public class GestionUsuariosService {
      * CU 2.3 - Crear usuario con transacción única
      */
     public ResultadoOperacion crearUsuario(Usuario usuario, String nombreRol) {
-        try {
+        return Trazador.medir("GestionUsuariosService.crearUsuario", TipoTramo.SERVICIO,
+            () -> crearUsuarioSinTraza(usuario, nombreRol));
+    }
+
+    private ResultadoOperacion crearUsuarioSinTraza(Usuario usuario, String nombreRol) {
+        try (MetricasPersistencia.Llamada llamada =
+                MetricasPersistencia.iniciarLlamada("GestionUsuariosService.crearUsuario")) {
             // 1. INICIAR TRANSACCIÓN (única para todo el caso de uso)
             em.getTransaction().begin();
             
@@ -133,7 +147,13 @@ public class GestionUsuariosService {
      * CU 2.4 - Consultar información de usuario (solo lectura)
      */
     public ResultadoOperacion consultarUsuario(Integer usuarioId) {
-        try {
+        return Trazador.medir("GestionUsuariosService.consultarUsuario", TipoTramo.SERVICIO,
+            () -> consultarUsuarioSinTraza(usuarioId));
+    }
+
+    private ResultadoOperacion consultarUsuarioSinTraza(Integer usuarioId) {
+        try (MetricasPersistencia.Llamada llamada =
+                MetricasPersistencia.iniciarLlamada("GestionUsuariosService.consultarUsuario")) {
             if (usuarioId == null) {
                 return ResultadoOperacion.error("ID de usuario no válido");
             }
@@ -154,9 +174,69 @@ public class GestionUsuariosService {
     }
 
     /**
-     * CU 2.4 - Consultar información del usuario autenticado
+     * CU 2.4 - Perfil del usuario para pantallas de consulta. Los datos son un
+     * PerfilUsuario obtenido con una consulta de proyección de solo lectura,
+     * sin cargar la entidad ni sus relaciones
+     */
+    public ResultadoOperacion consultarPerfil(Integer usuarioId) {
+        return Trazador.medir("GestionUsuariosService.consultarPerfil", TipoTramo.SERVICIO,
+            () -> consultarPerfilSinTraza(usuarioId));
+    }
+
+    private ResultadoOperacion consultarPerfilSinTraza(Integer usuarioId) {
+        try (MetricasPersistencia.Llamada llamada =
+                MetricasPersistencia.iniciarLlamada("GestionUsuariosService.consultarPerfil")) {
+            if (usuarioId == null) {
+                return ResultadoOperacion.error("ID de usuario no válido");
+            }
+
+            Optional<PerfilUsuario> perfil = repositorioUsuario.buscarPerfil(usuarioId);
+
+            if (perfil.isEmpty()) {
+                return ResultadoOperacion.error("Usuario no encontrado");
+            }
+
+            return ResultadoOperacion.exito("Consulta exitosa", perfil.get());
+
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResultadoOperacion.error("Error al consultar usuario: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Búsqueda aproximada de estudiantes y acudientes por nombres, NUIP, correo
+     * o teléfono. Los datos son una IndicePersonas.Pagina; para la página
+     * siguiente se envía su cursor.
+     */
+    public ResultadoOperacion buscarPersonas(String consulta, IndicePersonas.TipoPersona tipo,
+            IndicePersonas.Cursor cursor) {
+        return Trazador.medir("GestionUsuariosService.buscarPersonas", TipoTramo.SERVICIO,
+            () -> buscarPersonasSinTraza(consulta, tipo, cursor));
+    }
+
+    private ResultadoOperacion buscarPersonasSinTraza(String consulta, IndicePersonas.TipoPersona tipo,
+            IndicePersonas.Cursor cursor) {
+        if (consulta == null || consulta.trim().isEmpty()) {
+            return ResultadoOperacion.error("Ingrese un texto para buscar");
+        }
+        IndicePersonas.Pagina pagina = IndicePersonas.getInstancia()
+            .buscar(consulta, tipo, cursor, IndicePersonas.TAMANO_PAGINA);
+        if (pagina.getResultados().isEmpty()) {
+            return ResultadoOperacion.exito("No se encontraron coincidencias", pagina);
+        }
+        return ResultadoOperacion.exito("Búsqueda exitosa", pagina);
+    }
+
+    /**
+     * CU 2.4 - Consultar información del usuario autenticado (datos: PerfilUsuario)
      */
     public ResultadoOperacion consultarMiInformacion(Usuario usuarioAutenticado) {
+        return Trazador.medir("GestionUsuariosService.consultarMiInformacion", TipoTramo.SERVICIO,
+            () -> consultarMiInformacionSinTraza(usuarioAutenticado));
+    }
+
+    private ResultadoOperacion consultarMiInformacionSinTraza(Usuario usuarioAutenticado) {
         if (usuarioAutenticado == null) {
             return ResultadoOperacion.error("Usuario no autenticado");
         }
@@ -165,7 +245,7 @@ public class GestionUsuariosService {
             return ResultadoOperacion.error("ID de usuario no válido");
         }
         
-        return consultarUsuario(usuarioAutenticado.getIdUsuario());
+        return consultarPerfil(usuarioAutenticado.getIdUsuario());
     }
     
     /**
@@ -205,58 +285,57 @@ public class GestionUsuariosService {
     
     // ==================== Métodos privados ====================
     private TokenUsuario generarTokenUsuario(Usuario usuario) {
+        TokenUsuario token = new TokenUsuario();
+        token.setNombreUsuario(generarNombreUsuario(usuario.getPrimerNombre(), usuario.getSegundoNombre(),
+            usuario.getPrimerApellido(), usuario.getSegundoApellido()));
+        token.setContrasena(generarContrasenaAleatoria());
+        
+        return token;
+    }
+
+    /**
+     * Nombre de usuario base: iniciales de los nombres, primer apellido e
+     * inicial del segundo apellido, sin tildes ni caracteres especiales.
+     * También lo usa la activación de cuentas de acudientes.
+     */
+    static String generarNombreUsuario(String primerNombre, String segundoNombre,
+            String primerApellido, String segundoApellido) {
         // Validar campos obligatorios
-        if (usuario.getPrimerNombre() == null || usuario.getPrimerApellido() == null) {
+        if (primerNombre == null || primerApellido == null) {
             throw new IllegalArgumentException("Nombre y apellido son obligatorios");
         }
         
         StringBuilder nombreUsuarioBuilder = new StringBuilder();
         
         // Primera letra del primer nombre
-        if (!usuario.getPrimerNombre().isEmpty()) {
-            nombreUsuarioBuilder.append(usuario.getPrimerNombre().charAt(0));
+        if (!primerNombre.isEmpty()) {
+            nombreUsuarioBuilder.append(primerNombre.charAt(0));
         }
         
         // Primera letra del segundo nombre (si existe)
-        if (usuario.getSegundoNombre() != null && !usuario.getSegundoNombre().isEmpty()) {
-            nombreUsuarioBuilder.append(usuario.getSegundoNombre().charAt(0));
+        if (segundoNombre != null && !segundoNombre.isEmpty()) {
+            nombreUsuarioBuilder.append(segundoNombre.charAt(0));
         }
         
         // Apellido completo
-        nombreUsuarioBuilder.append(usuario.getPrimerApellido().toLowerCase().replaceAll("\\s+", ""));
+        nombreUsuarioBuilder.append(primerApellido.toLowerCase().replaceAll("\\s+", ""));
         
         // Primera letra del segundo apellido (si existe)
-        if (usuario.getSegundoApellido() != null && !usuario.getSegundoApellido().isEmpty()) {
-            nombreUsuarioBuilder.append(usuario.getSegundoApellido().toLowerCase().charAt(0));
+        if (segundoApellido != null && !segundoApellido.isEmpty()) {
+            nombreUsuarioBuilder.append(segundoApellido.toLowerCase().charAt(0));
         }
         
         // Eliminar tildes y caracteres especiales
-        String nombreUsuario = normalizarTexto(nombreUsuarioBuilder.toString());
-        
-        TokenUsuario token = new TokenUsuario();
-        token.setNombreUsuario(nombreUsuario);
-        token.setContrasena(generarContrasenaAleatoria());
-        
-        return token;
+        return normalizarTexto(nombreUsuarioBuilder.toString());
     }
 
-    private String normalizarTexto(String texto) {
+    private static String normalizarTexto(String texto) {
     if (texto == null || texto.isEmpty()) {
         return texto;
     }
     
-    // Convertir a minúsculas
-    String normalizado = texto.toLowerCase();
-    
-    // Reemplazar vocales con tildes
-    normalizado = normalizado
-        .replace('á', 'a')
-        .replace('é', 'e')
-        .replace('í', 'i')
-        .replace('ó', 'o')
-        .replace('ú', 'u')
-        .replace('ü', 'u')
-        .replace('ñ', 'n');
+    // Minúsculas y vocales sin tildes (misma regla que las búsquedas)
+    String normalizado = TextoBusqueda.plegar(texto);
     
     // Eliminar caracteres especiales, mantener solo letras y números
     normalizado = normalizado.replaceAll("[^a-z0-9]", "");
@@ -264,13 +343,12 @@ public class GestionUsuariosService {
     return normalizado;
 }
     
-    private String generarContrasenaAleatoria() {
+    static String generarContrasenaAleatoria() {
         String caracteres = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789!@#$";
-        Random random = new Random();
         StringBuilder sb = new StringBuilder(8);
         
         for (int i = 0; i < 8; i++) {
-            sb.append(caracteres.charAt(random.nextInt(caracteres.length())));
+            sb.append(caracteres.charAt(ALEATORIO.nextInt(caracteres.length())));
         }
         
         return sb.toString();
@@ -0,0 +1,235 @@
+package com.servicios;
+
+import com.aplicacion.JPAUtil;
+import com.aplicacion.trazas.TipoTramo;
+import com.aplicacion.trazas.Trazador;
+import com.aplicacion.trazas.Tramo;
+import com.dominio.Acudiente;
+import com.dominio.Directivo;
+import com.dominio.HojaVida;
+import com.dominio.Usuario;
+import com.persistencia.cifrado.CifradorCampos;
+import com.persistencia.entidades.EstudianteEntity;
+import com.persistencia.entidades.HojaVidaEntity;
+import com.persistencia.metricas.MetricasPersistencia;
+import com.persistencia.repositorios.HojaVidaRepositorio;
+import com.persistencia.sedes.ContextoSede;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityTransaction;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Único acceso a los datos médicos de la hoja de vida. Solo los consultan y
+ * modifican los directivos y el acudiente del estudiante. Los campos se
+ * guardan cifrados (CifradorCampos) y se descifran en un grupo de hilos
+ * propio, fuera del hilo que hace la consulta.
+ *
+ * Lo descifrado queda TTL_MS en una caché por usuario que se vacía al
+ * iniciar sesión, así que no pasa de una sesión a otra. La caché está
+ * separada por sede: los ids de una sede no coinciden con los de otra.
+ */
+@SuppressWarnings("try")
+public class HojaVidaService {
+
+    private static final long TTL_MS = Long.getLong("gestionacademica.hojavida.ttl_ms", 120_000L);
+    private static final int HILOS = Integer.getInteger("gestionacademica.hojavida.hilos", 2);
+
+    private static final String ALERGIAS = "alergias";
+    private static final String ASPECTOS_RELEVANTES = "aspectosRelevantes";
+    private static final String ENFERMEDADES = "enfermedades";
+
+    private static final AtomicInteger HILOS_CREADOS = new AtomicInteger();
+    private static final ExecutorService DESCIFRADO = Executors.newFixedThreadPool(HILOS, r -> {
+        Thread hilo = new Thread(r, "descifrado-hoja-vida-" + HILOS_CREADOS.incrementAndGet());
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    /** sede -> (idUsuario, idEstudiante) -> hoja de vida descifrada */
+    private static final Map<String, Map<Long, EnCache>> CACHE = new ConcurrentHashMap<>();
+
+    private final EntityManager entityManager;
+    private final HojaVidaRepositorio repositorio;
+    private final CifradorCampos cifrador;
+
+    public HojaVidaService() {
+        this(JPAUtil.getEntityManagerFactory().createEntityManager());
+    }
+
+    public HojaVidaService(EntityManager entityManager) {
+        this.entityManager = entityManager;
+        this.repositorio = new HojaVidaRepositorio(entityManager);
+        this.cifrador = CifradorCampos.getInstancia();
+    }
+
+    /**
+     * Hoja de vida del estudiante. El permiso y la lectura se hacen en el
+     * hilo que llama; el descifrado, en el grupo de hilos. Los datos son una
+     * HojaVida (sin estudiante), o null si el estudiante aún no tiene.
+     */
+    public CompletableFuture<ResultadoOperacion> consultar(Usuario solicitante, Integer idEstudiante) {
+        try (Tramo tramo = Trazador.iniciar("HojaVidaService.consultar", TipoTramo.SERVICIO)) {
+            ResultadoOperacion denegado = verificarPermiso(solicitante, idEstudiante);
+            if (denegado != null) {
+                return CompletableFuture.completedFuture(denegado);
+            }
+            long clave = clave(solicitante.getIdUsuario(), idEstudiante);
+            Map<Long, EnCache> cache = cacheDeSede();
+            EnCache enCache = cache.get(clave);
+            if (enCache != null && enCache.vigente()) {
+                return CompletableFuture.completedFuture(
+                    ResultadoOperacion.exito("Hoja de vida consultada", enCache.copia()));
+            }
+            if (!cifrador.estaConfigurado()) {
+                return CompletableFuture.completedFuture(
+                    ResultadoOperacion.error("La clave de cifrado de hojas de vida no está configurada"));
+            }
+
+            Optional<Object[]> cifrada = repositorio.buscarCifradaPorEstudiante(idEstudiante);
+            if (cifrada.isEmpty()) {
+                return CompletableFuture.completedFuture(
+                    ResultadoOperacion.exito("El estudiante no tiene hoja de vida registrada", null));
+            }
+            Object[] fila = cifrada.get();
+            return CompletableFuture.supplyAsync(() -> {
+                EnCache descifrada = new EnCache((Integer) fila[0],
+                    cifrador.descifrar(ALERGIAS, (String) fila[1]),
+                    cifrador.descifrar(ASPECTOS_RELEVANTES, (String) fila[2]),
+                    cifrador.descifrar(ENFERMEDADES, (String) fila[3]));
+                cache.values().removeIf(vieja -> !vieja.vigente());
+                cache.put(clave, descifrada);
+                return ResultadoOperacion.exito("Hoja de vida consultada", descifrada.copia());
+            }, DESCIFRADO).exceptionally(e -> {
+                e.printStackTrace();
+                return ResultadoOperacion.error("Error al descifrar la hoja de vida");
+            });
+        } catch (Exception e) {
+            e.printStackTrace();
+            return CompletableFuture.completedFuture(
+                ResultadoOperacion.error("Error al consultar la hoja de vida: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Crea o reemplaza los datos médicos del estudiante, cifrados
+     */
+    public ResultadoOperacion guardar(Usuario solicitante, Integer idEstudiante, String alergias,
+            String aspectosRelevantes, String enfermedades) {
+        try (Tramo tramo = Trazador.iniciar("HojaVidaService.guardar", TipoTramo.SERVICIO)) {
+            ResultadoOperacion denegado = verificarPermiso(solicitante, idEstudiante);
+            if (denegado != null) {
+                return denegado;
+            }
+            if (!cifrador.estaConfigurado()) {
+                return ResultadoOperacion.error("La clave de cifrado de hojas de vida no está configurada");
+            }
+
+            try (MetricasPersistencia.Llamada llamada = MetricasPersistencia.iniciarLlamada("HojaVidaService.guardar")) {
+                EntityTransaction transaction = entityManager.getTransaction();
+                try {
+                    transaction.begin();
+                    HojaVidaEntity hoja = repositorio.buscarPorEstudiante(idEstudiante).orElse(null);
+                    boolean nueva = hoja == null;
+                    if (nueva) {
+                        hoja = new HojaVidaEntity();
+                    }
+                    hoja.setAlergias(cifrador.cifrar(ALERGIAS, normalizar(alergias)));
+                    hoja.setAspectosRelevantes(cifrador.cifrar(ASPECTOS_RELEVANTES, normalizar(aspectosRelevantes)));
+                    hoja.setEnfermedades(cifrador.cifrar(ENFERMEDADES, normalizar(enfermedades)));
+                    if (nueva) {
+                        EstudianteEntity estudiante = entityManager.find(EstudianteEntity.class, idEstudiante);
+                        hoja.setEstudiante(estudiante);
+                        entityManager.persist(hoja);
+                        estudiante.setHojaDeVida(hoja);
+                    }
+                    transaction.commit();
+                } catch (Exception e) {
+                    if (transaction.isActive()) {
+                        transaction.rollback();
+                    }
+                    e.printStackTrace();
+                    return ResultadoOperacion.error("Error al guardar la hoja de vida: " + e.getMessage());
+                }
+            }
+            cacheDeSede().keySet().removeIf(clave -> clave.intValue() == idEstudiante);
+            return ResultadoOperacion.exito("Hoja de vida guardada", null);
+        }
+    }
+
+    /**
+     * Descarta todo lo descifrado; se llama al iniciar sesión
+     */
+    public static void vaciarCache() {
+        CACHE.clear();
+    }
+
+    // ==================== MÉTODOS PRIVADOS ====================
+
+    /**
+     * null si el solicitante puede ver la hoja de vida del estudiante; si
+     * no, el error que se devuelve
+     */
+    private ResultadoOperacion verificarPermiso(Usuario solicitante, Integer idEstudiante) {
+        if (solicitante == null || solicitante.getIdUsuario() == null) {
+            return ResultadoOperacion.error("Debe iniciar sesión");
+        }
+        if (idEstudiante == null) {
+            return ResultadoOperacion.error("Estudiante no especificado");
+        }
+        if (!(solicitante instanceof Directivo) && !(solicitante instanceof Acudiente)) {
+            return ResultadoOperacion.error("No tiene permiso para consultar hojas de vida");
+        }
+        Optional<Integer> idAcudiente = repositorio.buscarIdAcudiente(idEstudiante);
+        if (idAcudiente.isEmpty()) {
+            return ResultadoOperacion.error("El estudiante no existe");
+        }
+        if (solicitante instanceof Acudiente && !solicitante.getIdUsuario().equals(idAcudiente.get())) {
+            return ResultadoOperacion.error("No tiene permiso para consultar la hoja de vida de este estudiante");
+        }
+        return null;
+    }
+
+    private static Map<Long, EnCache> cacheDeSede() {
+        return ContextoSede.particion(CACHE, sede -> new ConcurrentHashMap<>());
+    }
+
+    private static long clave(Integer idUsuario, Integer idEstudiante) {
+        return ((long) idUsuario << 32) | (idEstudiante & 0xFFFFFFFFL);
+    }
+
+    private static String normalizar(String texto) {
+        return texto == null || texto.isBlank() ? null : texto.trim();
+    }
+
+    private static final class EnCache {
+        private final Integer idHojaVida;
+        private final String alergias;
+        private final String aspectosRelevantes;
+        private final String enfermedades;
+        private final long vence = System.currentTimeMillis() + TTL_MS;
+
+        private EnCache(Integer idHojaVida, String alergias, String aspectosRelevantes, String enfermedades) {
+            this.idHojaVida = idHojaVida;
+            this.alergias = alergias;
+            this.aspectosRelevantes = aspectosRelevantes;
+            this.enfermedades = enfermedades;
+        }
+
+        private boolean vigente() {
+            return System.currentTimeMillis() < vence;
+        }
+
+        /** Copia nueva: quien la reciba puede modificarla sin tocar la caché */
+        private HojaVida copia() {
+            return new HojaVida(idHojaVida, null, alergias, aspectosRelevantes, enfermedades);
+        }
+    }
+}
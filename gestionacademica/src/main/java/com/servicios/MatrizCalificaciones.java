@@ -0,0 +1,63 @@
+package com.servicios;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Matriz de calificación de un grupo: filas = estudiantes, columnas = logros.
+ * Cada celda guarda la fecha en que el estudiante alcanzó el logro,
+ * o null si no lo ha alcanzado. Solo representa calificaciones aún
+ * no cerradas en un boletín.
+ */
+public class MatrizCalificaciones {
+    private final List<Integer> idsEstudiantes;
+    private final List<Integer> idsLogros;
+    private final LocalDate[][] celdas;
+
+    public MatrizCalificaciones(List<Integer> idsEstudiantes, List<Integer> idsLogros) {
+        this.idsEstudiantes = new ArrayList<>(idsEstudiantes);
+        this.idsLogros = new ArrayList<>(idsLogros);
+        this.celdas = new LocalDate[idsEstudiantes.size()][idsLogros.size()];
+    }
+
+    public void marcar(int fila, int columna, LocalDate fecha) {
+        celdas[fila][columna] = fecha;
+    }
+
+    public void desmarcar(int fila, int columna) {
+        celdas[fila][columna] = null;
+    }
+
+    public LocalDate getCelda(int fila, int columna) {
+        return celdas[fila][columna];
+    }
+
+    public boolean estaMarcada(int fila, int columna) {
+        return celdas[fila][columna] != null;
+    }
+
+    public int getNumeroEstudiantes() {
+        return idsEstudiantes.size();
+    }
+
+    public int getNumeroLogros() {
+        return idsLogros.size();
+    }
+
+    public Integer getIdEstudiante(int fila) {
+        return idsEstudiantes.get(fila);
+    }
+
+    public Integer getIdLogro(int columna) {
+        return idsLogros.get(columna);
+    }
+
+    public List<Integer> getIdsEstudiantes() {
+        return idsEstudiantes;
+    }
+
+    public List<Integer> getIdsLogros() {
+        return idsLogros;
+    }
+}
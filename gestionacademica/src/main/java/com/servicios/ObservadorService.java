@@ -0,0 +1,342 @@
+package com.servicios;
+
+import com.aplicacion.JPAUtil;
+import com.aplicacion.trazas.TipoTramo;
+import com.aplicacion.trazas.Trazador;
+import com.aplicacion.trazas.Tramo;
+import com.dominio.Observacion;
+import com.persistencia.auditoria.CapturaCambios;
+import com.persistencia.auditoria.EventoCambio;
+import com.persistencia.auditoria.RegistroCambios;
+import com.persistencia.entidades.EstudianteEntity;
+import com.persistencia.entidades.ObservacionEntity;
+import com.persistencia.entidades.ObservadorEntity;
+import com.persistencia.eventos.ObservacionListener;
+import com.persistencia.metricas.MetricasPersistencia;
+import com.persistencia.repositorios.ObservacionRepositorio;
+import com.persistencia.repositorios.Pagina;
+import com.persistencia.sedes.ContextoSede;
+
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityTransaction;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Observador de los estudiantes como línea de tiempo. Nunca se carga el
+ * historial completo: la vista de un estudiante muestra sus RECIENTES
+ * observaciones más recientes, que quedan en una caché LRU compartida, y el
+ * resto se pide por páginas hacia atrás. Una misma observación se puede
+ * registrar a muchos estudiantes a la vez con lotes JDBC.
+ *
+ * La caché se invalida con ObservacionListener después del commit que crea,
+ * cambia o elimina una observación por JPA; quien escriba observaciones con
+ * sentencias masivas debe llamar a {@link #invalidarEstudiante(Integer)} tras
+ * confirmar su transacción.
+ * Cada sede tiene su propia caché.
+ */
+@SuppressWarnings("try")
+public class ObservadorService {
+
+    public static final int TAMANO_PAGINA = 20;
+
+    private static final int RECIENTES = Integer.getInteger("gestionacademica.observador.recientes", 5);
+    private static final int MAX_CACHE = Integer.getInteger("gestionacademica.observador.cache", 256);
+
+    /** sede -> (idEstudiante -> observaciones recientes, en orden de uso) */
+    private static final Map<String, Map<Integer, Recientes>> CACHE = new ConcurrentHashMap<>();
+
+    /**
+     * Aumenta con cada invalidación; una consulta iniciada antes de un cambio
+     * no deja su resultado en la caché
+     */
+    private static final AtomicLong VERSION = new AtomicLong();
+
+    static {
+        ObservacionListener.suscribir(ObservadorService::observacionCambiada);
+    }
+
+    private final EntityManager entityManager;
+    private final ObservacionRepositorio repositorio;
+
+    public ObservadorService() {
+        this(JPAUtil.getEntityManagerFactory().createEntityManager());
+    }
+
+    public ObservadorService(EntityManager entityManager) {
+        this.entityManager = entityManager;
+        this.repositorio = new ObservacionRepositorio(entityManager);
+    }
+
+    /**
+     * Observaciones más recientes del estudiante, de la última hacia atrás.
+     * Los datos son una lista de {@link EntradaObservacion}, vacía si el
+     * estudiante no tiene observador.
+     */
+    public ResultadoOperacion consultarRecientes(Integer idEstudiante) {
+        try (Tramo tramo = Trazador.iniciar("ObservadorService.consultarRecientes", TipoTramo.SERVICIO)) {
+            if (idEstudiante == null) {
+                return ResultadoOperacion.error("Estudiante no especificado");
+            }
+            Map<Integer, Recientes> cache = cacheDeSede();
+            Recientes recientes;
+            synchronized (cache) {
+                recientes = cache.get(idEstudiante);
+            }
+            if (recientes == null) {
+                long version = VERSION.get();
+                Optional<Integer> idObservador = repositorio.buscarIdObservador(idEstudiante);
+                if (idObservador.isEmpty()) {
+                    return ResultadoOperacion.exito("El estudiante no tiene observaciones",
+                        Collections.<EntradaObservacion>emptyList());
+                }
+                Pagina<EntradaObservacion> pagina = repositorio.buscarLineaTiempo(
+                    idObservador.get(), null, RECIENTES, ObservadorService::aEntrada);
+                recientes = new Recientes(idObservador.get(), pagina.getElementos(), pagina.hayMas());
+                synchronized (cache) {
+                    if (VERSION.get() == version) {
+                        cache.put(idEstudiante, recientes);
+                    }
+                }
+            }
+            return ResultadoOperacion.exito(recientes.hayMas
+                ? "Últimas " + recientes.entradas.size() + " observaciones"
+                : "Observaciones: " + recientes.entradas.size(), recientes.entradas);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResultadoOperacion.error("Error al consultar el observador: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Página de la línea de tiempo del estudiante que sigue al cursor (null
+     * para la primera), de la observación más reciente a la más antigua.
+     * Los datos son una Pagina de {@link EntradaObservacion}; para la página
+     * siguiente se pasa su cursor.
+     */
+    public ResultadoOperacion consultarLineaTiempo(Integer idEstudiante, Pagina.Cursor antesDe) {
+        try (Tramo tramo = Trazador.iniciar("ObservadorService.consultarLineaTiempo", TipoTramo.SERVICIO)) {
+            if (idEstudiante == null) {
+                return ResultadoOperacion.error("Estudiante no especificado");
+            }
+            Integer idObservador = null;
+            Map<Integer, Recientes> cache = cacheDeSede();
+            synchronized (cache) {
+                Recientes recientes = cache.get(idEstudiante);
+                if (recientes != null) {
+                    idObservador = recientes.idObservador;
+                }
+            }
+            if (idObservador == null) {
+                idObservador = repositorio.buscarIdObservador(idEstudiante).orElse(null);
+            }
+            if (idObservador == null) {
+                return ResultadoOperacion.exito("El estudiante no tiene observaciones",
+                    new Pagina<EntradaObservacion>(Collections.emptyList(), null));
+            }
+            Pagina<EntradaObservacion> pagina = repositorio.buscarLineaTiempo(
+                idObservador, antesDe, TAMANO_PAGINA, ObservadorService::aEntrada);
+            return ResultadoOperacion.exito("Observaciones: " + pagina.getElementos().size(), pagina);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResultadoOperacion.error("Error al consultar el observador: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Registra la misma observación a todos los estudiantes de un grupo
+     */
+    public ResultadoOperacion registrarEnGrupo(Integer idProfesor, Integer idGrupo, String descripcion,
+            LocalDate fecha) {
+        try (Tramo tramo = Trazador.iniciar("ObservadorService.registrarEnGrupo", TipoTramo.SERVICIO)) {
+            if (idGrupo == null) {
+                return ResultadoOperacion.error("Grupo no especificado");
+            }
+            List<Integer> estudiantes;
+            try {
+                estudiantes = repositorio.buscarIdsEstudiantesDeGrupo(idGrupo);
+            } catch (Exception e) {
+                e.printStackTrace();
+                return ResultadoOperacion.error("Error al consultar el grupo: " + e.getMessage());
+            }
+            if (estudiantes.isEmpty()) {
+                return ResultadoOperacion.error("El grupo no tiene estudiantes");
+            }
+            return registrarEnLote(idProfesor, estudiantes, descripcion, fecha);
+        }
+    }
+
+    /**
+     * Registra la misma observación (p. ej. un incidente en una salida) a
+     * varios estudiantes en una sola transacción: la plantilla se valida una
+     * vez, los observadores que falten se crean con una sola sentencia y las
+     * observaciones se insertan en lotes JDBC. fecha null es hoy. Los datos
+     * son los ids de las observaciones creadas.
+     */
+    public ResultadoOperacion registrarEnLote(Integer idProfesor, Collection<Integer> idsEstudiantes,
+            String descripcion, LocalDate fecha) {
+        try (Tramo tramo = Trazador.iniciar("ObservadorService.registrarEnLote", TipoTramo.SERVICIO)) {
+            LocalDate dia = fecha != null ? fecha : LocalDate.now();
+            Observacion plantilla = new Observacion(null, descripcion != null ? descripcion.trim() : null,
+                dia, null, null);
+            if (plantilla.getDescripcion() == null || !plantilla.esValida()) {
+                return ResultadoOperacion.error("La observación debe tener entre 10 y 200 caracteres");
+            }
+            if (dia.isAfter(LocalDate.now())) {
+                return ResultadoOperacion.error("La fecha de la observación no puede ser futura");
+            }
+            if (idsEstudiantes == null || idsEstudiantes.isEmpty()) {
+                return ResultadoOperacion.error("Seleccione al menos un estudiante");
+            }
+            Set<Integer> ids = new LinkedHashSet<>(idsEstudiantes);
+            ids.remove(null);
+
+            try (MetricasPersistencia.Llamada llamada =
+                    MetricasPersistencia.iniciarLlamada("ObservadorService.registrarEnLote")) {
+                EntityTransaction transaction = entityManager.getTransaction();
+                Map<Integer, Integer> observadores;
+                List<Integer> creadas;
+                try {
+                    transaction.begin();
+                    observadores = repositorio.resolverObservadores(ids);
+                    if (observadores.size() != ids.size()) {
+                        transaction.rollback();
+                        return ResultadoOperacion.error("Uno o más estudiantes no existen");
+                    }
+                    List<Integer> idsObservadores = new ArrayList<>(ids.size());
+                    for (Integer id : ids) {
+                        idsObservadores.add(observadores.get(id));
+                    }
+                    creadas = repositorio.insertarEnLote(idsObservadores, plantilla.getDescripcion(), dia, idProfesor);
+                    transaction.commit();
+                } catch (Exception e) {
+                    if (transaction.isActive()) {
+                        transaction.rollback();
+                    }
+                    e.printStackTrace();
+                    return ResultadoOperacion.error("Error al registrar las observaciones: " + e.getMessage());
+                }
+
+                // Los lotes JDBC no pasan por el contexto de persistencia ni por CapturaCambios
+                entityManager.clear();
+                Cache cache = entityManager.getEntityManagerFactory().getCache();
+                cache.evict(EstudianteEntity.class);
+                cache.evict(ObservadorEntity.class);
+                for (Integer id : ids) {
+                    invalidarEstudiante(id);
+                }
+                registrarCambios(creadas, plantilla, observadores, ids, idProfesor);
+
+                return ResultadoOperacion.exito("Observación registrada a " + creadas.size() + " estudiantes", creadas);
+            }
+        }
+    }
+
+    /**
+     * Saca de la caché las observaciones recientes del estudiante
+     */
+    public static void invalidarEstudiante(Integer idEstudiante) {
+        Map<Integer, Recientes> cache = cacheDeSede();
+        synchronized (cache) {
+            VERSION.incrementAndGet();
+            cache.remove(idEstudiante);
+        }
+    }
+
+    // ==================== MÉTODOS PRIVADOS ====================
+
+    private static void observacionCambiada(ObservacionEntity observacion) {
+        // El id de un proxy perezoso se lee sin cargar el observador
+        Integer idObservador = observacion.getObservador() != null
+            ? observacion.getObservador().getIdObservador() : null;
+        Map<Integer, Recientes> cache = cacheDeSede();
+        synchronized (cache) {
+            VERSION.incrementAndGet();
+            if (idObservador == null) {
+                cache.clear();
+            } else {
+                cache.values().removeIf(recientes -> idObservador.equals(recientes.idObservador));
+            }
+        }
+    }
+
+    private static Map<Integer, Recientes> cacheDeSede() {
+        return ContextoSede.particion(CACHE, sede -> new LinkedHashMap<Integer, Recientes>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Recientes> mayor) {
+                return size() > MAX_CACHE;
+            }
+        });
+    }
+
+    private static void registrarCambios(List<Integer> creadas, Observacion plantilla,
+            Map<Integer, Integer> observadores, Set<Integer> ids, Integer idProfesor) {
+        LocalDateTime ahora = LocalDateTime.now();
+        Integer usuario = RegistroCambios.getUsuarioActual();
+        int i = 0;
+        for (Integer idEstudiante : ids) {
+            Map<String, Object> campos = new LinkedHashMap<>();
+            campos.put("descripcion", plantilla.getDescripcion());
+            campos.put("fechaObservacion", plantilla.getFechaObservacion());
+            campos.put("observador", observadores.get(idEstudiante));
+            campos.put("profesor", idProfesor);
+            RegistroCambios.getInstancia().agregar(new EventoCambio(null, ahora, "observacion",
+                String.valueOf(creadas.get(i++)), EventoCambio.INSERCION, usuario,
+                CapturaCambios.cambiosInsercion(campos)));
+        }
+    }
+
+    private static EntradaObservacion aEntrada(Object[] fila) {
+        String profesor = fila[3] != null ? fila[3] + " " + fila[4] : null;
+        return new EntradaObservacion((Integer) fila[0], (LocalDate) fila[1], (String) fila[2], profesor);
+    }
+
+    private static final class Recientes {
+        private final Integer idObservador;
+        private final List<EntradaObservacion> entradas;
+        private final boolean hayMas;
+
+        private Recientes(Integer idObservador, List<EntradaObservacion> entradas, boolean hayMas) {
+            this.idObservador = idObservador;
+            this.entradas = Collections.unmodifiableList(entradas);
+            this.hayMas = hayMas;
+        }
+    }
+
+    /**
+     * Una observación de la línea de tiempo, sin entidades asociadas
+     */
+    public static class EntradaObservacion {
+        private final Integer idObservacion;
+        private final LocalDate fechaObservacion;
+        private final String descripcion;
+        private final String nombreProfesor;
+
+        public EntradaObservacion(Integer idObservacion, LocalDate fechaObservacion, String descripcion,
+                String nombreProfesor) {
+            this.idObservacion = idObservacion;
+            this.fechaObservacion = fechaObservacion;
+            this.descripcion = descripcion;
+            this.nombreProfesor = nombreProfesor;
+        }
+
+        public Integer getIdObservacion() { return idObservacion; }
+        public LocalDate getFechaObservacion() { return fechaObservacion; }
+        public String getDescripcion() { return descripcion; }
+        /** null si la observación no tiene profesor */
+        public String getNombreProfesor() { return nombreProfesor; }
+    }
+}
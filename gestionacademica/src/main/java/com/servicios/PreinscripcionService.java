@@ -1,8 +1,13 @@
 package com.servicios;
 
+import com.aplicacion.trazas.TipoTramo;
+import com.aplicacion.trazas.Trazador;
 import com.dominio.*;
+import com.dominio.validacion.ErroresValidacion;
+import com.dominio.validacion.ReglasPreinscripcion;
 import com.persistencia.entidades.*;
 import com.persistencia.mappers.DominioAPersistenciaMapper;
+import com.persistencia.metricas.MetricasPersistencia;
 import com.persistencia.repositorios.EstudianteRepositorio;
 import com.persistencia.repositorios.GradoRepositorio;
 import com.persistencia.repositorios.RepositorioGenerico;
@@ -12,15 +17,18 @@ import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityTransaction;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.HashSet; // Cambiado de TreeSet a HashSet
-import java.util.regex.Pattern;
 
 /**
  * Servicio para gestionar el proceso completo de preinscripción
  * Implementa RF 3.1, RF 3.2, RF 3.3, RF 3.4
  */
+@SuppressWarnings("try")
 public class PreinscripcionService {
     
     private final RepositorioGenerico<PreinscripcionEntity> repoPreinscripcion;
@@ -31,16 +39,6 @@ public class PreinscripcionService {
     private final EstudianteRepositorio estudianteRepositorio;
     private final EntityManager entityManager;
     
-    // Constantes de validación
-    private static final int MIN_EDAD_ACUDIENTE = 18;
-    private static final int MAX_EDAD_ACUDIENTE = 80;
-    private static final int MIN_EDAD_ESTUDIANTE = 3;
-    private static final int MAX_EDAD_ESTUDIANTE = 18;
-    private static final Pattern PATTERN_NOMBRE = Pattern.compile("^[A-Za-zÁÉÍÓÚáéíóúñÑ]+$");
-    private static final Pattern PATTERN_EMAIL = Pattern.compile("^[A-Za-z0-9+_.-]+@(.+)$");
-    private static final Pattern PATTERN_TELEFONO = Pattern.compile("^[0-9]{10}$");
-    private static final Pattern PATTERN_NUIP = Pattern.compile("^[0-9]{10}$");
-    
     public PreinscripcionService(EntityManager entityManager) {
         this.entityManager = entityManager;
         this.repoPreinscripcion = new RepositorioGenerico<>(entityManager, PreinscripcionEntity.class);
@@ -52,23 +50,35 @@ public class PreinscripcionService {
     }
     
     /**
-     * Clase interna para encapsular resultados de validación
+     * Clase interna para encapsular resultados de validación.
+     * Campo y mensaje corresponden al primer error; getErrores() los trae todos.
      */
     public static class ResultadoValidacion {
         private final boolean valido;
         private final String mensaje;
         private final String campo;
+        private final List<ResultadoValidacion> errores;
         
         public ResultadoValidacion(boolean valido, String mensaje, String campo) {
+            this(valido, mensaje, campo, null);
+        }
+        
+        private ResultadoValidacion(boolean valido, String mensaje, String campo, List<ResultadoValidacion> errores) {
             this.valido = valido;
             this.mensaje = mensaje;
             this.campo = campo;
+            this.errores = errores;
         }
         
         public boolean isValido() { return valido; }
         public String getMensaje() { return mensaje; }
         public String getCampo() { return campo; }
         
+        public List<ResultadoValidacion> getErrores() {
+            if (errores != null) return errores;
+            return valido ? List.of() : List.of(this);
+        }
+        
         public static ResultadoValidacion exitoso() {
             return new ResultadoValidacion(true, "", "");
         }
@@ -76,168 +86,87 @@ public class PreinscripcionService {
         public static ResultadoValidacion error(String campo, String mensaje) {
             return new ResultadoValidacion(false, mensaje, campo);
         }
+        
+        public static ResultadoValidacion errores(List<ResultadoValidacion> errores) {
+            if (errores.isEmpty()) {
+                return exitoso();
+            }
+            ResultadoValidacion primero = errores.get(0);
+            return new ResultadoValidacion(false, primero.getMensaje(), primero.getCampo(),
+                Collections.unmodifiableList(errores));
+        }
     }
     
     /**
      * Valida los datos del acudiente según las reglas de negocio
-     * RF 3.1 - Validación de formato
+     * RF 3.1 - Validación de formato (todas las reglas en una sola pasada)
      */
     public ResultadoValidacion validarDatosAcudiente(
             String primerNombre, String segundoNombre,
             String primerApellido, String segundoApellido,
             Integer edad,
             String correoElectronico, String telefono) {
+        return Trazador.medir("PreinscripcionService.validarDatosAcudiente", TipoTramo.SERVICIO,
+            () -> validarDatosAcudienteSinTraza(primerNombre, segundoNombre, primerApellido, segundoApellido, edad,
+                correoElectronico, telefono));
+    }
+
+    private ResultadoValidacion validarDatosAcudienteSinTraza(
+            String primerNombre, String segundoNombre,
+            String primerApellido, String segundoApellido,
+            Integer edad,
+            String correoElectronico, String telefono) {
         
-        // Validar primer nombre (obligatorio)
-        if (primerNombre == null || primerNombre.trim().isEmpty()) {
-            return ResultadoValidacion.error("primerNombre", "Campo obligatorio");
-        }
-        if (primerNombre.length() < 2 || primerNombre.length() > 30) {
-            return ResultadoValidacion.error("primerNombre", "Debe tener entre 2 y 30 caracteres");
-        }
-        if (!PATTERN_NOMBRE.matcher(primerNombre).matches()) {
-            return ResultadoValidacion.error("primerNombre", "El nombre no debe contener números");
-        }
-        
-        // Validar segundo nombre (opcional)
-        if (segundoNombre != null && !segundoNombre.trim().isEmpty()) {
-            if (segundoNombre.length() < 2 || segundoNombre.length() > 30) {
-                return ResultadoValidacion.error("segundoNombre", "Debe tener entre 2 y 30 caracteres");
-            }
-            if (!PATTERN_NOMBRE.matcher(segundoNombre).matches()) {
-                return ResultadoValidacion.error("segundoNombre", "El nombre no debe contener números");
-            }
-        }
-        
-        // Validar primer apellido (obligatorio)
-        if (primerApellido == null || primerApellido.trim().isEmpty()) {
-            return ResultadoValidacion.error("primerApellido", "Campo obligatorio");
-        }
-        if (primerApellido.length() < 2 || primerApellido.length() > 30) {
-            return ResultadoValidacion.error("primerApellido", "Debe tener entre 2 y 30 caracteres");
-        }
-        if (!PATTERN_NOMBRE.matcher(primerApellido).matches()) {
-            return ResultadoValidacion.error("primerApellido", "El apellido no debe contener números");
-        }
-        
-        // Validar segundo apellido (opcional)
-        if (segundoApellido != null && !segundoApellido.trim().isEmpty()) {
-            if (segundoApellido.length() < 2 || segundoApellido.length() > 30) {
-                return ResultadoValidacion.error("segundoApellido", "Debe tener entre 2 y 30 caracteres");
-            }
-            if (!PATTERN_NOMBRE.matcher(segundoApellido).matches()) {
-                return ResultadoValidacion.error("segundoApellido", "El apellido no debe contener números");
-            }
-        }
-        
-        // Validar edad
-        if (edad == null) {
-            return ResultadoValidacion.error("edad", "Campo obligatorio");
-        }
-        if (edad < MIN_EDAD_ACUDIENTE || edad > MAX_EDAD_ACUDIENTE) {
-            return ResultadoValidacion.error("edad", 
-                "La edad debe estar entre " + MIN_EDAD_ACUDIENTE + " y " + MAX_EDAD_ACUDIENTE + " años");
-        }
-        
-        // Validar correo electrónico
-        if (correoElectronico == null || correoElectronico.trim().isEmpty()) {
-            return ResultadoValidacion.error("correoElectronico", "Campo obligatorio");
-        }
-        if (!PATTERN_EMAIL.matcher(correoElectronico).matches()) {
-            return ResultadoValidacion.error("correoElectronico", "Formato inválido");
-        }
-        
-        // Validar teléfono
-        if (telefono == null || telefono.trim().isEmpty()) {
-            return ResultadoValidacion.error("telefono", "Campo obligatorio");
-        }
-        if (!PATTERN_TELEFONO.matcher(telefono).matches()) {
-            return ResultadoValidacion.error("telefono", "Debe tener 10 dígitos numéricos");
-        }
-        
-        return ResultadoValidacion.exitoso();
+        String[] valores = {
+            primerNombre, segundoNombre, primerApellido, segundoApellido,
+            edad != null ? edad.toString() : null, correoElectronico, telefono
+        };
+        ErroresValidacion errores = new ErroresValidacion();
+        ReglasPreinscripcion.ACUDIENTE.ejecutar(valores, errores);
+        return ResultadoValidacion.errores(aLista(errores));
     }
     
     /**
      * Valida los datos del estudiante según las reglas de negocio
-     * RF 3.1 - Validación de formato
+     * RF 3.1 - Validación de formato (todas las reglas en una sola pasada)
      */
     public ResultadoValidacion validarDatosEstudiante(
             String primerNombre, String segundoNombre,
             String primerApellido, String segundoApellido,
             Integer edad, String nuip, String nombreGrado) {
+        return Trazador.medir("PreinscripcionService.validarDatosEstudiante", TipoTramo.SERVICIO,
+            () -> validarDatosEstudianteSinTraza(primerNombre, segundoNombre, primerApellido, segundoApellido, edad,
+                nuip, nombreGrado));
+    }
+
+    private ResultadoValidacion validarDatosEstudianteSinTraza(
+            String primerNombre, String segundoNombre,
+            String primerApellido, String segundoApellido,
+            Integer edad, String nuip, String nombreGrado) {
         
-        // Validar primer nombre (obligatorio)
-        if (primerNombre == null || primerNombre.trim().isEmpty()) {
-            return ResultadoValidacion.error("primerNombre", "Campo obligatorio");
-        }
-        if (primerNombre.length() < 2 || primerNombre.length() > 30) {
-            return ResultadoValidacion.error("primerNombre", "Debe tener entre 2 y 30 caracteres");
-        }
-        if (!PATTERN_NOMBRE.matcher(primerNombre).matches()) {
-            return ResultadoValidacion.error("primerNombre", "El nombre no debe contener números");
-        }
-        
-        // Validar segundo nombre (opcional)
-        if (segundoNombre != null && !segundoNombre.trim().isEmpty()) {
-            if (segundoNombre.length() < 2 || segundoNombre.length() > 30) {
-                return ResultadoValidacion.error("segundoNombre", "Debe tener entre 2 y 30 caracteres");
-            }
-            if (!PATTERN_NOMBRE.matcher(segundoNombre).matches()) {
-                return ResultadoValidacion.error("segundoNombre", "El nombre no debe contener números");
-            }
-        }
-        
-        // Validar primer apellido (obligatorio)
-        if (primerApellido == null || primerApellido.trim().isEmpty()) {
-            return ResultadoValidacion.error("primerApellido", "Campo obligatorio");
-        }
-        if (primerApellido.length() < 2 || primerApellido.length() > 30) {
-            return ResultadoValidacion.error("primerApellido", "Debe tener entre 2 y 30 caracteres");
-        }
-        if (!PATTERN_NOMBRE.matcher(primerApellido).matches()) {
-            return ResultadoValidacion.error("primerApellido", "El apellido no debe contener números");
-        }
-        
-        // Validar segundo apellido (opcional)
-        if (segundoApellido != null && !segundoApellido.trim().isEmpty()) {
-            if (segundoApellido.length() < 2 || segundoApellido.length() > 30) {
-                return ResultadoValidacion.error("segundoApellido", "Debe tener entre 2 y 30 caracteres");
-            }
-            if (!PATTERN_NOMBRE.matcher(segundoApellido).matches()) {
-                return ResultadoValidacion.error("segundoApellido", "El apellido no debe contener números");
-            }
-        }
-        
-        // Validar edad
-        if (edad == null) {
-            return ResultadoValidacion.error("edad", "Campo obligatorio");
-        }
-        if (edad < MIN_EDAD_ESTUDIANTE || edad > MAX_EDAD_ESTUDIANTE) {
-            return ResultadoValidacion.error("edad", 
-                "La edad debe estar entre " + MIN_EDAD_ESTUDIANTE + " y " + MAX_EDAD_ESTUDIANTE + " años");
-        }
-        
-        // Validar NUIP
-        if (nuip == null || nuip.trim().isEmpty()) {
-            return ResultadoValidacion.error("nuip", "Campo obligatorio");
-        }
-        if (!PATTERN_NUIP.matcher(nuip).matches()) {
-            return ResultadoValidacion.error("nuip", "Debe tener 10 dígitos numéricos");
-        }
-        
-        // Validar grado al que aspira
-        if (nombreGrado == null || nombreGrado.trim().isEmpty()) {
-            return ResultadoValidacion.error("gradoAspira", "Campo obligatorio");
-        }
+        String[] valores = {
+            primerNombre, segundoNombre, primerApellido, segundoApellido,
+            edad != null ? edad.toString() : null, nuip, nombreGrado
+        };
+        ErroresValidacion errores = new ErroresValidacion();
+        ReglasPreinscripcion.ESTUDIANTE.ejecutar(valores, errores);
+        List<ResultadoValidacion> lista = aLista(errores);
 
         // Verificar que el grado existe en la base de datos
-        Optional<GradoEntity> gradoOpt = gradoRepositorio.buscarPornombreGrado(nombreGrado.trim());
-        if (gradoOpt.isEmpty()) {
-            return ResultadoValidacion.error("gradoAspira", "Grado no válido");
+        if (!errores.tieneError("gradoAspira")
+                && gradoRepositorio.buscarPornombreGrado(nombreGrado.trim()).isEmpty()) {
+            lista.add(ResultadoValidacion.error("gradoAspira", "Grado no válido"));
         }
     
-        return ResultadoValidacion.exitoso();
+        return ResultadoValidacion.errores(lista);
+    }
+    
+    private static List<ResultadoValidacion> aLista(ErroresValidacion errores) {
+        List<ResultadoValidacion> lista = new ArrayList<>(errores.cantidad() + 1);
+        for (int i = 0; i < errores.cantidad(); i++) {
+            lista.add(ResultadoValidacion.error(errores.getCampo(i), errores.getMensaje(i)));
+        }
+        return lista;
     }
     
     /**
@@ -248,6 +177,13 @@ public class PreinscripcionService {
     public Preinscripcion registrarPreinscripcion(
             Acudiente acudiente, 
             Set<Estudiante> estudiantes) throws Exception {
+        return Trazador.medir("PreinscripcionService.registrarPreinscripcion", TipoTramo.SERVICIO,
+            () -> registrarPreinscripcionSinTraza(acudiente, estudiantes));
+    }
+
+    private Preinscripcion registrarPreinscripcionSinTraza(
+            Acudiente acudiente, 
+            Set<Estudiante> estudiantes) throws Exception {
         
         // Validar límite de estudiantes usando el modelo de dominio
         if (estudiantes == null || estudiantes.isEmpty()) {
@@ -262,7 +198,8 @@ public class PreinscripcionService {
         
         EntityTransaction transaction = entityManager.getTransaction();
         
-        try {
+        try (MetricasPersistencia.Llamada llamada =
+                MetricasPersistencia.iniciarLlamada("PreinscripcionService.registrarPreinscripcion")) {
             transaction.begin();
             
             // 1. Guardar acudiente con estado Pendiente
@@ -362,6 +299,17 @@ public class PreinscripcionService {
             String primerApellido, String segundoApellido,
             Integer edad,
             String correoElectronico, String telefono) {
+        return Trazador.medir("PreinscripcionService.validarDatosAcudienteConDuplicados", TipoTramo.SERVICIO,
+            () -> validarDatosAcudienteConDuplicadosSinTraza(nuip, primerNombre, segundoNombre, primerApellido,
+                segundoApellido, edad, correoElectronico, telefono));
+    }
+
+    private ResultadoValidacion validarDatosAcudienteConDuplicadosSinTraza(
+            String nuip,
+            String primerNombre, String segundoNombre,
+            String primerApellido, String segundoApellido,
+            Integer edad,
+            String correoElectronico, String telefono) {
         
         // Primero validar formato
         ResultadoValidacion validacion = validarDatosAcudiente(
@@ -373,24 +321,25 @@ public class PreinscripcionService {
             return validacion;
         }
 
+        // Verificar duplicados
+        List<ResultadoValidacion> duplicados = new ArrayList<>();
         if (usuarioRepositorio.existePorNuip(nuip)){
-            return ResultadoValidacion.error("nuip", 
+            duplicados.add(ResultadoValidacion.error("nuip", 
                 "Ya existe un usuario registrado con este NUIP"
-            );
+            ));
         }
         
-        // Verificar duplicados
         if (usuarioRepositorio.existePorCorreo(correoElectronico)) {
-            return ResultadoValidacion.error("correoElectronico", 
-                "Ya existe un acudiente registrado con este correo electrónico");
+            duplicados.add(ResultadoValidacion.error("correoElectronico", 
+                "Ya existe un acudiente registrado con este correo electrónico"));
         }
         
         if (usuarioRepositorio.existePorTelefono(telefono)) {
-            return ResultadoValidacion.error("telefono", 
-                "Ya existe un acudiente registrado con este número de teléfono");
+            duplicados.add(ResultadoValidacion.error("telefono", 
+                "Ya existe un acudiente registrado con este número de teléfono"));
         }
         
-        return ResultadoValidacion.exitoso();
+        return ResultadoValidacion.errores(duplicados);
     }
     
     /**
@@ -400,6 +349,15 @@ public class PreinscripcionService {
             String primerNombre, String segundoNombre,
             String primerApellido, String segundoApellido,
             Integer edad, String nuip, String nombreGrado) {
+        return Trazador.medir("PreinscripcionService.validarDatosEstudianteConDuplicados", TipoTramo.SERVICIO,
+            () -> validarDatosEstudianteConDuplicadosSinTraza(primerNombre, segundoNombre, primerApellido,
+                segundoApellido, edad, nuip, nombreGrado));
+    }
+
+    private ResultadoValidacion validarDatosEstudianteConDuplicadosSinTraza(
+            String primerNombre, String segundoNombre,
+            String primerApellido, String segundoApellido,
+            Integer edad, String nuip, String nombreGrado) {
         
         // Primero validar formato
         ResultadoValidacion validacion = validarDatosEstudiante(
@@ -424,10 +382,12 @@ public class PreinscripcionService {
      * Métodos auxiliares que usan el modelo de dominio
      */
     public boolean puedeAgregarMasEstudiantes(Acudiente acudiente) {
-        return acudiente.puedeAgregarMasEstudiantes();
+        return Trazador.medir("PreinscripcionService.puedeAgregarMasEstudiantes", TipoTramo.SERVICIO,
+            acudiente::puedeAgregarMasEstudiantes);
     }
     
     public int obtenerCuposRestantes(Acudiente acudiente) {
-        return acudiente.obtenerCuposRestantes();
+        return Trazador.medir("PreinscripcionService.obtenerCuposRestantes", TipoTramo.SERVICIO,
+            acudiente::obtenerCuposRestantes);
     }
 }
\ No newline at end of file
@@ -0,0 +1,127 @@
+package com.servicios;
+
+import com.dominio.Boletin;
+import com.dominio.Estudiante;
+import com.dominio.LogroEstudiante;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Renderiza un boletín como HTML listo para imprimir (o guardar como PDF
+ * desde el navegador). Escribe directamente sobre el Writer recibido,
+ * sin armar el documento completo en memoria. Es seguro usarlo desde varios hilos.
+ */
+public class RenderizadorBoletinHtml {
+
+    private static final DateTimeFormatter FORMATO_FECHA = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private static final String SIN_CATEGORIA = "Sin categoría";
+
+    public void renderizar(Boletin boletin, Writer salida) throws IOException {
+        Estudiante estudiante = boletin.getEstudiante();
+
+        salida.write("<!DOCTYPE html>\n<html lang=\"es\">\n<head>\n<meta charset=\"UTF-8\">\n");
+        salida.write("<title>Boletín ");
+        escribirEscapado(salida, boletin.getPeriodo());
+        salida.write("</title>\n<style>");
+        salida.write("body{font-family:Arial,sans-serif;color:#3a2e2e;margin:2em;}");
+        salida.write("h1{background:#ffd4a0;padding:.5em;}");
+        salida.write("table{border-collapse:collapse;width:100%;margin-bottom:1em;}");
+        salida.write("th,td{border:1px solid #ccc;padding:.4em;text-align:left;}");
+        salida.write("@media print{body{margin:0;}}");
+        salida.write("</style>\n</head>\n<body>\n");
+
+        salida.write("<h1>Boletín de calificaciones</h1>\n<p><b>Estudiante:</b> ");
+        escribirEscapado(salida, nombreCompleto(estudiante));
+        salida.write("<br><b>NUIP:</b> ");
+        escribirEscapado(salida, estudiante.getNuip());
+        if (estudiante.getGrupo() != null) {
+            salida.write("<br><b>Grupo:</b> ");
+            escribirEscapado(salida, estudiante.getGrupo().getNombreGrupo());
+        }
+        salida.write("<br><b>Periodo:</b> ");
+        escribirEscapado(salida, boletin.getPeriodo());
+        if (boletin.getFechaGeneracion() != null) {
+            salida.write("<br><b>Fecha de generación:</b> ");
+            salida.write(FORMATO_FECHA.format(boletin.getFechaGeneracion()));
+        }
+        salida.write("</p>\n");
+
+        Map<String, List<LogroEstudiante>> porCategoria = agruparPorCategoria(boletin);
+        if (porCategoria.isEmpty()) {
+            salida.write("<p>No hay logros calificados en este periodo.</p>\n");
+        }
+        for (Map.Entry<String, List<LogroEstudiante>> categoria : porCategoria.entrySet()) {
+            salida.write("<h2>");
+            escribirEscapado(salida, categoria.getKey());
+            salida.write("</h2>\n<table>\n<tr><th>Logro</th><th>Fecha</th><th>Profesor</th></tr>\n");
+            for (LogroEstudiante calificacion : categoria.getValue()) {
+                salida.write("<tr><td>");
+                escribirEscapado(salida, calificacion.getLogro() != null ? calificacion.getLogro().getDescripcion() : "");
+                salida.write("</td><td>");
+                if (calificacion.getFechaCalificacion() != null) {
+                    salida.write(FORMATO_FECHA.format(calificacion.getFechaCalificacion()));
+                }
+                salida.write("</td><td>");
+                if (calificacion.getProfesor() != null) {
+                    escribirEscapado(salida, calificacion.getProfesor().obtenerNombreCompleto());
+                }
+                salida.write("</td></tr>\n");
+            }
+            salida.write("</table>\n");
+        }
+
+        salida.write("</body>\n</html>\n");
+    }
+
+    private Map<String, List<LogroEstudiante>> agruparPorCategoria(Boletin boletin) {
+        Map<String, List<LogroEstudiante>> porCategoria = new TreeMap<>();
+        if (boletin.getLogrosEstudiante() == null) {
+            return porCategoria;
+        }
+        for (LogroEstudiante calificacion : boletin.getLogrosEstudiante()) {
+            String categoria = SIN_CATEGORIA;
+            if (calificacion.getLogro() != null && calificacion.getLogro().getBibliotecaLogros() != null) {
+                categoria = calificacion.getLogro().getBibliotecaLogros().getCategoria();
+            }
+            porCategoria.computeIfAbsent(categoria, c -> new ArrayList<>()).add(calificacion);
+        }
+        Comparator<LogroEstudiante> porFecha = Comparator.comparing(
+            LogroEstudiante::getFechaCalificacion, Comparator.nullsLast(Comparator.naturalOrder()));
+        porCategoria.values().forEach(lista -> lista.sort(porFecha));
+        return porCategoria;
+    }
+
+    private String nombreCompleto(Estudiante estudiante) {
+        StringBuilder nombre = new StringBuilder(estudiante.getPrimerNombre());
+        if (estudiante.getSegundoNombre() != null && !estudiante.getSegundoNombre().isEmpty()) {
+            nombre.append(" ").append(estudiante.getSegundoNombre());
+        }
+        nombre.append(" ").append(estudiante.getPrimerApellido());
+        if (estudiante.getSegundoApellido() != null && !estudiante.getSegundoApellido().isEmpty()) {
+            nombre.append(" ").append(estudiante.getSegundoApellido());
+        }
+        return nombre.toString();
+    }
+
+    private void escribirEscapado(Writer salida, String texto) throws IOException {
+        if (texto == null) return;
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            switch (c) {
+                case '<': salida.write("&lt;"); break;
+                case '>': salida.write("&gt;"); break;
+                case '&': salida.write("&amp;"); break;
+                case '"': salida.write("&quot;"); break;
+                case '\'': salida.write("&#39;"); break;
+                default: salida.write(c);
+            }
+        }
+    }
+}
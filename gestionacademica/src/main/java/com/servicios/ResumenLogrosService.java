@@ -0,0 +1,245 @@
+package com.servicios;
+
+import com.aplicacion.JPAUtil;
+import com.persistencia.entidades.BoletinEntity;
+import com.persistencia.entidades.GrupoEntity;
+import com.persistencia.entidades.LogroEstudianteEntity;
+import com.persistencia.entidades.ResumenLogrosEntity;
+import com.persistencia.repositorios.ResumenLogrosRepositorio;
+import com.persistencia.repositorios.ResumenLogrosRepositorio.Clave;
+import com.persistencia.sedes.Sedes;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityTransaction;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resumen materializado de logros calificados por grupo, periodo y categoría.
+ * Quienes insertan, eliminan o enlazan calificaciones a un boletín acumulan
+ * sus cambios en un {@link Cambios} y los aplican con {@link #aplicar(Cambios)}
+ * dentro de su propia transacción (también la asignación de grupos, que
+ * traslada los conteos de cada estudiante a su grupo nuevo).
+ * {@link #reconstruir()} recalcula el resumen completo para corregir
+ * cualquier desviación.
+ */
+public class ResumenLogrosService {
+
+    /** Periodo de las calificaciones que aún no pertenecen a un boletín */
+    public static final String PERIODO_PENDIENTE = "Sin boletín";
+    public static final String SIN_CATEGORIA = "Sin categoría";
+
+    private final EntityManager entityManager;
+    private final ResumenLogrosRepositorio repositorio;
+
+    public ResumenLogrosService() {
+        this(JPAUtil.getEntityManagerFactory().createEntityManager());
+    }
+
+    public ResumenLogrosService(EntityManager entityManager) {
+        this.entityManager = entityManager;
+        this.repositorio = new ResumenLogrosRepositorio(entityManager);
+    }
+
+    public Cambios nuevosCambios() {
+        return new Cambios();
+    }
+
+    /**
+     * Aplica los cambios acumulados. Debe llamarse dentro de la transacción
+     * que modificó las calificaciones, para que ambos se confirmen juntos.
+     */
+    public void aplicar(Cambios cambios) {
+        if (!cambios.estaVacio()) {
+            repositorio.aplicarCambios(cambios.deltas);
+        }
+    }
+
+    /**
+     * Recalcula todo el resumen desde logros_estudiante en una transacción
+     * que bloquea las escrituras del resumen mientras dura
+     */
+    public ResultadoOperacion reconstruir() {
+        EntityTransaction transaction = entityManager.getTransaction();
+        try {
+            transaction.begin();
+            // Antes de contar: un delta confirmado entre el conteo y el
+            // reemplazo se perdería
+            repositorio.bloquearEscrituras();
+
+            Map<Clave, Long> conteos = new HashMap<>();
+            for (Object[] fila : repositorio.contarCalificaciones()) {
+                Clave clave = new Clave((Integer) fila[0],
+                    fila[1] != null ? (String) fila[1] : PERIODO_PENDIENTE,
+                    fila[2] != null ? (String) fila[2] : SIN_CATEGORIA);
+                conteos.merge(clave, ((Number) fila[3]).longValue(), Long::sum);
+            }
+            repositorio.reemplazarTodo(conteos);
+
+            transaction.commit();
+            entityManager.clear();
+            return ResultadoOperacion.exito("Resumen de logros reconstruido (" + conteos.size() + " registros)", conteos.size());
+        } catch (Exception e) {
+            if (transaction.isActive()) {
+                transaction.rollback();
+            }
+            e.printStackTrace();
+            return ResultadoOperacion.error("Error al reconstruir el resumen de logros: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Conteos del periodo: idGrupo -> {@link ResumenGrupo}, ordenados por
+     * grado y grupo (dos grados pueden tener grupos con el mismo nombre)
+     */
+    public ResultadoOperacion consultarPorPeriodo(String periodo) {
+        try {
+            Map<Integer, ResumenGrupo> porGrupo = new LinkedHashMap<>();
+            for (ResumenLogrosEntity resumen : repositorio.buscarPorPeriodo(periodo)) {
+                GrupoEntity grupo = resumen.getGrupo();
+                porGrupo.computeIfAbsent(grupo.getIdGrupo(), id -> new ResumenGrupo(id, etiqueta(grupo)))
+                    .conteos.put(resumen.getCategoria(), resumen.getCantidad());
+            }
+            return ResultadoOperacion.exito("Resumen consultado", porGrupo);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResultadoOperacion.error("Error al consultar el resumen de logros: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Conteos de un grupo en un periodo: categoría -> cantidad
+     */
+    public Map<String, Long> consultarPorGrupo(Integer idGrupo, String periodo) {
+        Map<String, Long> porCategoria = new LinkedHashMap<>();
+        for (ResumenLogrosEntity resumen : repositorio.buscarPorGrupoYPeriodo(idGrupo, periodo)) {
+            porCategoria.put(resumen.getCategoria(), resumen.getCantidad());
+        }
+        return porCategoria;
+    }
+
+    public List<String> consultarPeriodos() {
+        return repositorio.buscarPeriodos();
+    }
+
+    /**
+     * Programa la reconstrucción periódica en un hilo de fondo. Cada
+     * ejecución recorre todas las sedes, cada una con su propio EntityManager.
+     */
+    public static ScheduledExecutorService programarReconstruccion(Duration intervalo) {
+        ScheduledExecutorService planificador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread hilo = new Thread(r, "reconstruccion-resumen-logros");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        planificador.scheduleWithFixedDelay(() -> Sedes.paraCada(sede -> {
+            EntityManager em = JPAUtil.getEntityManagerFactory().createEntityManager();
+            try {
+                ResultadoOperacion resultado = new ResumenLogrosService(em).reconstruir();
+                System.out.println(sede + ": " + resultado.getMensaje());
+            } finally {
+                em.close();
+            }
+        }), intervalo.toMillis(), intervalo.toMillis(), TimeUnit.MILLISECONDS);
+        return planificador;
+    }
+
+    // ==================== MÉTODOS PRIVADOS ====================
+
+    private static String etiqueta(GrupoEntity grupo) {
+        return grupo.getGrado() != null
+            ? grupo.getGrado().getNombreGrado() + " - " + grupo.getNombreGrupo()
+            : grupo.getNombreGrupo();
+    }
+
+    /**
+     * Conteos de un grupo en un periodo: categoría -> cantidad
+     */
+    public static final class ResumenGrupo {
+        private final Integer idGrupo;
+        private final String etiqueta;
+        private final Map<String, Long> conteos = new LinkedHashMap<>();
+
+        private ResumenGrupo(Integer idGrupo, String etiqueta) {
+            this.idGrupo = idGrupo;
+            this.etiqueta = etiqueta;
+        }
+
+        public Integer getIdGrupo() { return idGrupo; }
+        /** Grado y grupo, p. ej. "Primero - A" */
+        public String getEtiqueta() { return etiqueta; }
+        public Map<String, Long> getConteos() { return conteos; }
+    }
+
+    /**
+     * Deltas pendientes sobre el resumen. Las calificaciones deben tener
+     * cargados estudiante.grupo y logro.bibliotecaLogros.
+     */
+    public static final class Cambios {
+        private final Map<Clave, Long> deltas = new HashMap<>();
+
+        public void alta(LogroEstudianteEntity calificacion) {
+            sumar(calificacion, calificacion.getBoletin(), 1);
+        }
+
+        public void baja(LogroEstudianteEntity calificacion) {
+            sumar(calificacion, calificacion.getBoletin(), -1);
+        }
+
+        /**
+         * La calificación pasó del boletín anterior (o de ninguno) al que tiene ahora
+         */
+        public void cambioBoletin(LogroEstudianteEntity calificacion, BoletinEntity anterior) {
+            sumar(calificacion, anterior, -1);
+            sumar(calificacion, calificacion.getBoletin(), 1);
+        }
+
+        /**
+         * Delta sobre una calificación sin boletín, cuando solo se conocen los identificadores
+         */
+        public void pendiente(Integer idGrupo, String categoria, long delta) {
+            if (idGrupo == null) {
+                return;
+            }
+            Clave clave = new Clave(idGrupo, PERIODO_PENDIENTE, categoria != null ? categoria : SIN_CATEGORIA);
+            deltas.merge(clave, delta, Long::sum);
+        }
+
+        /**
+         * Delta sobre un conteo ya agregado; periodo y categoría nulos
+         * significan sin boletín y sin categoría
+         */
+        public void conteo(Integer idGrupo, String periodo, String categoria, long delta) {
+            if (idGrupo == null) {
+                return;
+            }
+            Clave clave = new Clave(idGrupo, periodo != null ? periodo : PERIODO_PENDIENTE,
+                categoria != null ? categoria : SIN_CATEGORIA);
+            deltas.merge(clave, delta, Long::sum);
+        }
+
+        public boolean estaVacio() {
+            return deltas.values().stream().allMatch(delta -> delta == 0);
+        }
+
+        private void sumar(LogroEstudianteEntity calificacion, BoletinEntity boletin, long delta) {
+            if (calificacion.getEstudiante() == null || calificacion.getEstudiante().getGrupo() == null) {
+                return; // Sin grupo no cuenta en el resumen
+            }
+            String periodo = boletin != null ? boletin.getPeriodo() : PERIODO_PENDIENTE;
+            String categoria = SIN_CATEGORIA;
+            if (calificacion.getLogro() != null && calificacion.getLogro().getBibliotecaLogros() != null) {
+                categoria = calificacion.getLogro().getBibliotecaLogros().getCategoria();
+            }
+            Clave clave = new Clave(calificacion.getEstudiante().getGrupo().getIdGrupo(), periodo, categoria);
+            deltas.merge(clave, delta, Long::sum);
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.servicios;
+
+import com.aplicacion.JPAUtil;
+import com.aplicacion.trazas.TipoTramo;
+import com.aplicacion.trazas.Trazador;
+import com.aplicacion.trazas.Tramo;
+import com.dominio.Estado;
+import com.persistencia.entidades.AcudienteEntity;
+import com.persistencia.entidades.EstudianteEntity;
+import com.persistencia.eventos.PersonaListener;
+import com.persistencia.repositorios.EstudianteRepositorio;
+import com.persistencia.repositorios.PreinscripcionRepositorio.CambioEstado;
+import com.persistencia.sedes.ContextoSede;
+
+import jakarta.persistence.EntityManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Tablero del acudiente: sus hijos con estado, grado, grupo y último
+ * boletín, leídos con una sola consulta de proyección (sin recorrer las
+ * entidades perezosas de cada estudiante).
+ *
+ * Se precarga en segundo plano al iniciar sesión y queda en caché por
+ * acudiente hasta TTL_MS. Se invalida después del commit que, en esta
+ * aplicación, cambia un estudiante o acudiente (PersonaListener), el estado
+ * de una preinscripción, la asignación de grupos o los boletines; así una
+ * carga no puede guardar datos que luego se revierten. Los cambios hechos
+ * desde otro equipo se ven al vencer el TTL. Cada sede tiene su propia
+ * caché y los tableros se cargan en la sede que los pidió.
+ */
+@SuppressWarnings("try")
+public class TableroAcudienteService implements PersonaListener.OyentePersonas,
+        AprobacionPreinscripcionService.OyenteCambioEstado {
+
+    private static final long TTL_MS = Long.getLong("gestionacademica.tablero.ttl_ms", 300_000L);
+
+    private static final TableroAcudienteService INSTANCIA = new TableroAcudienteService();
+
+    private final ExecutorService cargas = Executors.newSingleThreadExecutor(r -> {
+        Thread hilo = new Thread(r, "carga-tablero-acudiente");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    /** sede -> (idAcudiente -> tablero cargado o en carga) */
+    private final Map<String, Map<Integer, EnCache>> caches = new ConcurrentHashMap<>();
+
+    public static TableroAcudienteService getInstancia() {
+        return INSTANCIA;
+    }
+
+    TableroAcudienteService() {
+        PersonaListener.suscribir(this);
+        AprobacionPreinscripcionService.agregarOyente(this);
+    }
+
+    /**
+     * Empieza a cargar el tablero en segundo plano si no está en caché
+     */
+    public void precargar(Integer idAcudiente) {
+        if (idAcudiente != null) {
+            obtener(idAcudiente);
+        }
+    }
+
+    /**
+     * Tablero del acudiente; se completa al instante si ya estaba precargado.
+     * Los datos son un {@link Tablero}.
+     */
+    public CompletableFuture<ResultadoOperacion> consultar(Integer idAcudiente) {
+        if (idAcudiente == null) {
+            return CompletableFuture.completedFuture(ResultadoOperacion.error("Acudiente no especificado"));
+        }
+        Map<Integer, EnCache> cache = cacheDeSede();
+        EnCache enCache = obtener(idAcudiente);
+        return enCache.tablero.handle((tablero, error) -> {
+            if (error != null) {
+                // Solo la carga fallida; no una más reciente que la reemplazó
+                cache.remove(idAcudiente, enCache);
+                return ResultadoOperacion.error("Error al consultar el tablero: " + error.getMessage());
+            }
+            return ResultadoOperacion.exito("Estudiantes: " + tablero.getEstudiantes().size(), tablero);
+        });
+    }
+
+    public void invalidar(Integer idAcudiente) {
+        if (idAcudiente != null) {
+            cacheDeSede().remove(idAcudiente);
+        }
+    }
+
+    /**
+     * Para cambios masivos en los que no se sabe a qué acudientes afectan
+     */
+    public void invalidarTodos() {
+        cacheDeSede().clear();
+    }
+
+    // ==================== Oyentes ====================
+
+    @Override
+    public void personaGuardada(Object persona) {
+        invalidarPersona(persona);
+    }
+
+    @Override
+    public void personaEliminada(Object persona) {
+        invalidarPersona(persona);
+    }
+
+    @Override
+    public void estadosCambiados(Estado nuevo, CambioEstado cambio) {
+        // El estado de los estudiantes cambia aunque el de su acudiente no
+        invalidarTodos();
+    }
+
+    // ==================== MÉTODOS PRIVADOS ====================
+
+    private Map<Integer, EnCache> cacheDeSede() {
+        return ContextoSede.particion(caches, sede -> new ConcurrentHashMap<>());
+    }
+
+    private EnCache obtener(Integer idAcudiente) {
+        Map<Integer, EnCache> cache = cacheDeSede();
+        EnCache enCache = cache.get(idAcudiente);
+        if (enCache != null && enCache.vigente()) {
+            return enCache;
+        }
+        EnCache nueva = new EnCache(CompletableFuture.supplyAsync(
+            ContextoSede.enSedeActual(() -> cargar(idAcudiente)), cargas));
+        cache.put(idAcudiente, nueva);
+        return nueva;
+    }
+
+    private Tablero cargar(Integer idAcudiente) {
+        try (Tramo tramo = Trazador.iniciar("TableroAcudienteService.cargar", TipoTramo.SERVICIO)) {
+            EntityManager em = JPAUtil.getEntityManagerFactory().createEntityManager();
+            try {
+                List<EstudianteTablero> estudiantes = new ArrayList<>();
+                for (Object[] fila : new EstudianteRepositorio(em).buscarTableroAcudiente(idAcudiente)) {
+                    estudiantes.add(new EstudianteTablero((Integer) fila[0],
+                        nombreCompleto((String) fila[1], (String) fila[2], (String) fila[3], (String) fila[4]),
+                        (Estado) fila[5], (String) fila[6], (String) fila[7], (String) fila[8],
+                        (LocalDate) fila[9], ((Number) fila[10]).intValue()));
+                }
+                return new Tablero(idAcudiente, estudiantes);
+            } finally {
+                em.close();
+            }
+        }
+    }
+
+    private void invalidarPersona(Object persona) {
+        // El id de un proxy perezoso se lee sin cargar el acudiente
+        if (persona instanceof EstudianteEntity estudiante && estudiante.getAcudiente() != null) {
+            invalidar(estudiante.getAcudiente().getIdUsuario());
+        } else if (persona instanceof AcudienteEntity acudiente) {
+            invalidar(acudiente.getIdUsuario());
+        }
+    }
+
+    private static String nombreCompleto(String primerNombre, String segundoNombre,
+            String primerApellido, String segundoApellido) {
+        StringBuilder nombre = new StringBuilder(primerNombre);
+        if (segundoNombre != null && !segundoNombre.isEmpty()) {
+            nombre.append(' ').append(segundoNombre);
+        }
+        nombre.append(' ').append(primerApellido);
+        if (segundoApellido != null && !segundoApellido.isEmpty()) {
+            nombre.append(' ').append(segundoApellido);
+        }
+        return nombre.toString();
+    }
+
+    private static final class EnCache {
+        private final CompletableFuture<Tablero> tablero;
+        private final long vence = System.currentTimeMillis() + TTL_MS;
+
+        private EnCache(CompletableFuture<Tablero> tablero) {
+            this.tablero = tablero;
+        }
+
+        private boolean vigente() {
+            return System.currentTimeMillis() < vence && !tablero.isCompletedExceptionally();
+        }
+    }
+
+    /**
+     * Hijos de un acudiente, ordenados por nombre
+     */
+    public static class Tablero {
+        private final Integer idAcudiente;
+        private final List<EstudianteTablero> estudiantes;
+
+        public Tablero(Integer idAcudiente, List<EstudianteTablero> estudiantes) {
+            this.idAcudiente = idAcudiente;
+            this.estudiantes = Collections.unmodifiableList(estudiantes);
+        }
+
+        public Integer getIdAcudiente() { return idAcudiente; }
+        public List<EstudianteTablero> getEstudiantes() { return estudiantes; }
+    }
+
+    /**
+     * Un hijo en el tablero; los datos del boletín son null si aún no tiene
+     */
+    public static class EstudianteTablero {
+        private final Integer idEstudiante;
+        private final String nombreCompleto;
+        private final Estado estado;
+        private final String grado;
+        private final String grupo;
+        private final String periodoBoletin;
+        private final LocalDate fechaBoletin;
+        private final int logrosBoletin;
+
+        public EstudianteTablero(Integer idEstudiante, String nombreCompleto, Estado estado, String grado,
+                String grupo, String periodoBoletin, LocalDate fechaBoletin, int logrosBoletin) {
+            this.idEstudiante = idEstudiante;
+            this.nombreCompleto = nombreCompleto;
+            this.estado = estado;
+            this.grado = grado;
+            this.grupo = grupo;
+            this.periodoBoletin = periodoBoletin;
+            this.fechaBoletin = fechaBoletin;
+            this.logrosBoletin = logrosBoletin;
+        }
+
+        public Integer getIdEstudiante() { return idEstudiante; }
+        public String getNombreCompleto() { return nombreCompleto; }
+        public Estado getEstado() { return estado; }
+        public String getGrado() { return grado; }
+        public String getGrupo() { return grupo; }
+        public String getPeriodoBoletin() { return periodoBoletin; }
+        public LocalDate getFechaBoletin() { return fechaBoletin; }
+        public int getLogrosBoletin() { return logrosBoletin; }
+    }
+}
@@ -0,0 +1,393 @@
+package com.servicios.busqueda;
+
+import com.aplicacion.JPAUtil;
+import com.persistencia.entidades.BibliotecaLogrosEntity;
+import com.persistencia.entidades.LogroEntity;
+import com.persistencia.eventos.LogroListener;
+import com.persistencia.repositorios.LogroRepositorio;
+import com.persistencia.sedes.ContextoSede;
+
+import jakarta.persistence.EntityManager;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Índice invertido en memoria sobre la descripción y la categoría de los logros.
+ * - Términos plegados (sin tildes ni mayúsculas) en un diccionario ordenado,
+ *   así cada palabra de la consulta se resuelve como prefijo con un subMap
+ * - Puntaje por documento: suma, por palabra de la consulta, del mejor término
+ *   que coincide (peso del campo x idf, con bonificación si la coincidencia es exacta)
+ * - Todas las palabras de la consulta deben coincidir
+ * Se carga al iniciar la aplicación y se actualiza con LogroListener.
+ * Hay un índice por sede; cada uno ignora los cambios de las demás.
+ */
+public class IndiceLogros implements LogroListener.OyenteLogros {
+
+    private static final float PESO_CATEGORIA = 2.0f;
+    private static final float PESO_DESCRIPCION = 1.0f;
+    private static final float FACTOR_PREFIJO = 0.6f;
+
+    private static final Map<String, IndiceLogros> INSTANCIAS = new ConcurrentHashMap<>();
+
+    private final String sede;
+
+    private final ReadWriteLock candado = new ReentrantReadWriteLock();
+    private Estructura estructura = new Estructura();
+
+    // Cambios recibidos mientras se carga el índice; se reaplican al terminar
+    private List<Documento> cambiosDuranteCarga;
+
+    /**
+     * Índice de la sede actual
+     */
+    public static IndiceLogros getInstancia() {
+        return ContextoSede.particion(INSTANCIAS, IndiceLogros::new);
+    }
+
+    IndiceLogros(String sede) {
+        this.sede = sede;
+        LogroListener.suscribir(this);
+    }
+
+    /**
+     * Carga el índice completo en un hilo de fondo con su propio EntityManager
+     */
+    public void cargarEnSegundoPlano() {
+        Thread hilo = new Thread(() -> ContextoSede.ejecutarEn(sede, () -> {
+            EntityManager em = JPAUtil.getEntityManagerFactory().createEntityManager();
+            try {
+                cargar(new LogroRepositorio(em));
+            } catch (Exception e) {
+                e.printStackTrace();
+            } finally {
+                em.close();
+            }
+        }), "carga-indice-logros-" + sede);
+        hilo.setDaemon(true);
+        hilo.start();
+    }
+
+    /**
+     * Reemplaza el contenido del índice por todos los logros de la base de datos
+     */
+    public void cargar(LogroRepositorio repositorio) {
+        candado.writeLock().lock();
+        try {
+            cambiosDuranteCarga = new ArrayList<>();
+        } finally {
+            candado.writeLock().unlock();
+        }
+
+        Estructura nueva = new Estructura();
+        try {
+            try (Stream<Object[]> filas = repositorio.transmitirTodosParaIndice()) {
+                filas.forEach(fila -> nueva.aplicar(
+                    new Documento((Integer) fila[0], (String) fila[1], (String) fila[2], (Integer) fila[3])));
+            }
+        } finally {
+            candado.writeLock().lock();
+            try {
+                List<Documento> pendientes = cambiosDuranteCarga;
+                cambiosDuranteCarga = null;
+                estructura = nueva;
+                for (Documento cambio : pendientes) {
+                    estructura.aplicar(cambio);
+                }
+            } finally {
+                candado.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Agrega o reemplaza un logro en el índice
+     */
+    public void indexar(Integer idLogro, String descripcion, String categoria, Integer idGrado) {
+        registrar(new Documento(idLogro, descripcion, categoria, idGrado));
+    }
+
+    public void eliminar(Integer idLogro) {
+        registrar(Documento.eliminado(idLogro));
+    }
+
+    public int tamano() {
+        candado.readLock().lock();
+        try {
+            return estructura.porId.size();
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    /**
+     * Busca logros cuyo texto contenga todas las palabras de la consulta
+     * (cada una como prefijo), ordenados por relevancia
+     *
+     * @param idGrado si no es null, limita la búsqueda a las bibliotecas de ese grado
+     */
+    public List<Resultado> buscar(String consulta, Integer idGrado, int limite) {
+        List<String> palabras = TextoBusqueda.terminos(consulta);
+        if (palabras.isEmpty() || limite <= 0) {
+            return List.of();
+        }
+
+        candado.readLock().lock();
+        try {
+            return estructura.buscar(palabras, idGrado, limite);
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    // ==================== LogroListener ====================
+
+    @Override
+    public void logroGuardado(LogroEntity logro) {
+        if (!sede.equals(ContextoSede.actual())) {
+            return;
+        }
+        BibliotecaLogrosEntity biblioteca = logro.getBibliotecaLogros();
+        indexar(logro.getIdLogro(), logro.getDescripcion(),
+            biblioteca != null ? biblioteca.getCategoria() : null,
+            biblioteca != null && biblioteca.getGrado() != null ? biblioteca.getGrado().getIdGrado() : null);
+    }
+
+    @Override
+    public void logroEliminado(LogroEntity logro) {
+        if (!sede.equals(ContextoSede.actual())) {
+            return;
+        }
+        eliminar(logro.getIdLogro());
+    }
+
+    // ==================== MÉTODOS PRIVADOS ====================
+
+    private void registrar(Documento cambio) {
+        candado.writeLock().lock();
+        try {
+            if (cambiosDuranteCarga != null) {
+                cambiosDuranteCarga.add(cambio);
+            }
+            estructura.aplicar(cambio);
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Diccionario de términos y documentos. Cada documento tiene un ordinal
+     * denso, de modo que las listas de postings y los acumuladores de la
+     * búsqueda son arreglos primitivos y no mapas de objetos.
+     */
+    private static final class Estructura {
+        private final NavigableMap<String, Postings> terminos = new TreeMap<>();
+        private final Map<Integer, Integer> porId = new HashMap<>();
+        private Documento[] documentos = new Documento[64];
+        private int siguienteOrdinal;
+        private final ArrayDeque<Integer> ordinalesLibres = new ArrayDeque<>();
+
+        void aplicar(Documento cambio) {
+            Integer ordinal = porId.remove(cambio.idLogro);
+            if (ordinal != null) {
+                for (String termino : documentos[ordinal].terminos.keySet()) {
+                    Postings postings = terminos.get(termino);
+                    postings.quitar(ordinal);
+                    if (postings.tamano == 0) {
+                        terminos.remove(termino);
+                    }
+                }
+                documentos[ordinal] = null;
+                ordinalesLibres.push(ordinal);
+            }
+            if (cambio.esEliminado()) {
+                return;
+            }
+
+            int nuevo = ordinalesLibres.isEmpty() ? siguienteOrdinal++ : ordinalesLibres.pop();
+            if (nuevo >= documentos.length) {
+                documentos = Arrays.copyOf(documentos, documentos.length * 2);
+            }
+            documentos[nuevo] = cambio;
+            porId.put(cambio.idLogro, nuevo);
+            for (Map.Entry<String, Float> termino : cambio.terminos.entrySet()) {
+                terminos.computeIfAbsent(termino.getKey(), t -> new Postings()).agregar(nuevo, termino.getValue());
+            }
+        }
+
+        List<Resultado> buscar(List<String> palabras, Integer idGrado, int limite) {
+            int capacidad = siguienteOrdinal;
+            float[] total = new float[capacidad];
+            float[] mejor = new float[capacidad];
+            int[] coincidencias = new int[capacidad];
+            int[] marca = new int[capacidad];
+            int[] tocados = new int[capacidad];
+            int numeroTocados = 0;
+            float totalDocumentos = Math.max(1, porId.size());
+
+            for (int k = 0; k < palabras.size(); k++) {
+                String palabra = palabras.get(k);
+                numeroTocados = 0;
+                for (Map.Entry<String, Postings> termino
+                        : terminos.subMap(palabra, true, palabra + Character.MAX_VALUE, false).entrySet()) {
+                    Postings postings = termino.getValue();
+                    float idf = (float) Math.log(1.0 + totalDocumentos / postings.tamano);
+                    float ajuste = termino.getKey().length() == palabra.length()
+                        ? 1.0f
+                        : FACTOR_PREFIJO * palabra.length() / termino.getKey().length();
+                    float factor = idf * ajuste;
+                    for (int p = 0; p < postings.tamano; p++) {
+                        int d = postings.ordinales[p];
+                        if (coincidencias[d] != k) {
+                            continue; // No coincidió con alguna palabra anterior
+                        }
+                        float puntaje = postings.pesos[p] * factor;
+                        if (marca[d] != k + 1) {
+                            marca[d] = k + 1;
+                            mejor[d] = puntaje;
+                            tocados[numeroTocados++] = d;
+                        } else if (puntaje > mejor[d]) {
+                            mejor[d] = puntaje;
+                        }
+                    }
+                }
+                if (numeroTocados == 0) {
+                    return List.of();
+                }
+                for (int i = 0; i < numeroTocados; i++) {
+                    int d = tocados[i];
+                    total[d] += mejor[d];
+                    coincidencias[d] = k + 1;
+                }
+            }
+
+            // Top-k con un montículo de tamaño limite
+            Comparator<Resultado> orden = Comparator.comparingDouble(Resultado::getPuntaje)
+                .thenComparing(r -> -r.getDescripcion().length())
+                .thenComparing(r -> -r.getIdLogro());
+            PriorityQueue<Resultado> mejores = new PriorityQueue<>(limite + 1, orden);
+            for (int i = 0; i < numeroTocados; i++) {
+                int d = tocados[i];
+                Documento documento = documentos[d];
+                if (idGrado != null && !idGrado.equals(documento.idGrado)) {
+                    continue;
+                }
+                if (mejores.size() == limite && total[d] < mejores.peek().getPuntaje()) {
+                    continue;
+                }
+                mejores.add(new Resultado(documento.idLogro, documento.descripcion, documento.categoria, total[d]));
+                if (mejores.size() > limite) {
+                    mejores.poll();
+                }
+            }
+            List<Resultado> resultados = new ArrayList<>(mejores);
+            resultados.sort(orden.reversed());
+            return resultados;
+        }
+    }
+
+    /**
+     * Documentos (ordinales) que contienen un término y el peso del término en cada uno
+     */
+    private static final class Postings {
+        private int[] ordinales = new int[4];
+        private float[] pesos = new float[4];
+        private int tamano;
+
+        void agregar(int ordinal, float peso) {
+            if (tamano == ordinales.length) {
+                ordinales = Arrays.copyOf(ordinales, tamano * 2);
+                pesos = Arrays.copyOf(pesos, tamano * 2);
+            }
+            ordinales[tamano] = ordinal;
+            pesos[tamano] = peso;
+            tamano++;
+        }
+
+        void quitar(int ordinal) {
+            for (int i = 0; i < tamano; i++) {
+                if (ordinales[i] == ordinal) {
+                    tamano--;
+                    ordinales[i] = ordinales[tamano];
+                    pesos[i] = pesos[tamano];
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Logro indexado con el peso de cada uno de sus términos
+     */
+    private static final class Documento {
+        private final Integer idLogro;
+        private final String descripcion;
+        private final String categoria;
+        private final Integer idGrado;
+        private final Map<String, Float> terminos;
+
+        Documento(Integer idLogro, String descripcion, String categoria, Integer idGrado) {
+            this.idLogro = idLogro;
+            this.descripcion = descripcion != null ? descripcion : "";
+            this.categoria = categoria;
+            this.idGrado = idGrado;
+            this.terminos = new HashMap<>();
+            for (String termino : TextoBusqueda.terminos(descripcion)) {
+                terminos.merge(termino, PESO_DESCRIPCION, Float::sum);
+            }
+            for (String termino : TextoBusqueda.terminos(categoria)) {
+                terminos.merge(termino, PESO_CATEGORIA, Float::sum);
+            }
+        }
+
+        private Documento(Integer idLogro) {
+            this.idLogro = idLogro;
+            this.descripcion = null;
+            this.categoria = null;
+            this.idGrado = null;
+            this.terminos = null;
+        }
+
+        static Documento eliminado(Integer idLogro) {
+            return new Documento(idLogro);
+        }
+
+        boolean esEliminado() {
+            return terminos == null;
+        }
+    }
+
+    /**
+     * Logro encontrado y su puntaje de relevancia
+     */
+    public static class Resultado {
+        private final Integer idLogro;
+        private final String descripcion;
+        private final String categoria;
+        private final float puntaje;
+
+        public Resultado(Integer idLogro, String descripcion, String categoria, float puntaje) {
+            this.idLogro = idLogro;
+            this.descripcion = descripcion;
+            this.categoria = categoria;
+            this.puntaje = puntaje;
+        }
+
+        public Integer getIdLogro() { return idLogro; }
+        public String getDescripcion() { return descripcion; }
+        public String getCategoria() { return categoria; }
+        public float getPuntaje() { return puntaje; }
+    }
+}
@@ -0,0 +1,597 @@
+package com.servicios.busqueda;
+
+import com.aplicacion.JPAUtil;
+import com.persistencia.entidades.AcudienteEntity;
+import com.persistencia.entidades.EstudianteEntity;
+import com.persistencia.eventos.PersonaListener;
+import com.persistencia.repositorios.EstudianteRepositorio;
+import com.persistencia.repositorios.UsuarioRepositorio;
+import com.persistencia.sedes.ContextoSede;
+
+import jakarta.persistence.EntityManager;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Índice de trigramas en memoria para buscar estudiantes y acudientes por
+ * nombres, apellidos, NUIP, correo y teléfono, tolerando errores de escritura.
+ * - Cada palabra (plegada sin tildes) se rellena como "  palabra " y se parte
+ *   en trigramas; cada trigrama se codifica en un entero y sus postings viven
+ *   en un arreglo indexado directamente por ese código
+ * - Puntaje: proporción de trigramas de la consulta presentes en la persona,
+ *   combinada con la similitud de Jaccard; NUIP o teléfono exactos suben al inicio
+ * - Paginación por cursor (puntaje, tipo, id) y caché LRU de páginas, que se
+ *   vacía con cada cambio del índice
+ * Se carga al iniciar la aplicación y se actualiza con PersonaListener.
+ * Hay un índice por sede; cada uno ignora los cambios de las demás.
+ */
+public class IndicePersonas implements PersonaListener.OyentePersonas {
+
+    public enum TipoPersona { ESTUDIANTE, ACUDIENTE }
+
+    public static final int TAMANO_PAGINA = 20;
+
+    private static final int SIMBOLOS = 37; // separador, a-z, 0-9
+    private static final int NUMERO_TRIGRAMAS = SIMBOLOS * SIMBOLOS * SIMBOLOS;
+    private static final float UMBRAL = 0.45f;
+    private static final float BONO_EXACTO = 1.0f;
+    private static final int MAX_CACHE = 512;
+
+    private static final Map<String, IndicePersonas> INSTANCIAS = new ConcurrentHashMap<>();
+
+    private final String sede;
+
+    private final ReadWriteLock candado = new ReentrantReadWriteLock();
+    private Estructura estructura = new Estructura();
+    private List<Persona> cambiosDuranteCarga;
+
+    private final Map<String, Pagina> cache = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Pagina> mayor) {
+            return size() > MAX_CACHE;
+        }
+    };
+
+    // Acumuladores reutilizados por hilo para no asignar arreglos en cada búsqueda
+    private final ThreadLocal<Acumulador> acumuladores = ThreadLocal.withInitial(Acumulador::new);
+
+    /**
+     * Índice de la sede actual
+     */
+    public static IndicePersonas getInstancia() {
+        return ContextoSede.particion(INSTANCIAS, IndicePersonas::new);
+    }
+
+    IndicePersonas(String sede) {
+        this.sede = sede;
+        PersonaListener.suscribir(this);
+    }
+
+    /**
+     * Carga el índice completo en un hilo de fondo con su propio EntityManager
+     */
+    public void cargarEnSegundoPlano() {
+        Thread hilo = new Thread(() -> ContextoSede.ejecutarEn(sede, () -> {
+            EntityManager em = JPAUtil.getEntityManagerFactory().createEntityManager();
+            try {
+                cargar(new EstudianteRepositorio(em), new UsuarioRepositorio(em));
+            } catch (Exception e) {
+                e.printStackTrace();
+            } finally {
+                em.close();
+            }
+        }), "carga-indice-personas-" + sede);
+        hilo.setDaemon(true);
+        hilo.start();
+    }
+
+    /**
+     * Reemplaza el contenido del índice por todos los estudiantes y acudientes
+     */
+    public void cargar(EstudianteRepositorio estudiantes, UsuarioRepositorio usuarios) {
+        candado.writeLock().lock();
+        try {
+            cambiosDuranteCarga = new ArrayList<>();
+        } finally {
+            candado.writeLock().unlock();
+        }
+
+        Estructura nueva = new Estructura();
+        try {
+            try (Stream<Object[]> filas = estudiantes.transmitirTodosParaIndice()) {
+                filas.forEach(fila -> nueva.aplicar(new Persona(TipoPersona.ESTUDIANTE, (Integer) fila[0],
+                    (String) fila[1], (String) fila[2], (String) fila[3], (String) fila[4], (String) fila[5],
+                    null, null)));
+            }
+            try (Stream<Object[]> filas = usuarios.transmitirAcudientesParaIndice()) {
+                filas.forEach(fila -> nueva.aplicar(new Persona(TipoPersona.ACUDIENTE, (Integer) fila[0],
+                    (String) fila[1], (String) fila[2], (String) fila[3], (String) fila[4], (String) fila[5],
+                    (String) fila[6], (String) fila[7])));
+            }
+        } finally {
+            candado.writeLock().lock();
+            try {
+                List<Persona> pendientes = cambiosDuranteCarga;
+                cambiosDuranteCarga = null;
+                estructura = nueva;
+                for (Persona cambio : pendientes) {
+                    estructura.aplicar(cambio);
+                }
+                vaciarCache();
+            } finally {
+                candado.writeLock().unlock();
+            }
+        }
+    }
+
+    public void indexarEstudiante(Integer id, String primerNombre, String segundoNombre,
+            String primerApellido, String segundoApellido, String nuip) {
+        registrar(new Persona(TipoPersona.ESTUDIANTE, id, primerNombre, segundoNombre,
+            primerApellido, segundoApellido, nuip, null, null));
+    }
+
+    public void indexarAcudiente(Integer id, String primerNombre, String segundoNombre,
+            String primerApellido, String segundoApellido, String nuip, String correo, String telefono) {
+        registrar(new Persona(TipoPersona.ACUDIENTE, id, primerNombre, segundoNombre,
+            primerApellido, segundoApellido, nuip, correo, telefono));
+    }
+
+    public void eliminar(TipoPersona tipo, Integer id) {
+        registrar(Persona.eliminada(tipo, id));
+    }
+
+    public int tamano() {
+        candado.readLock().lock();
+        try {
+            return estructura.porClave.size();
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    /**
+     * Primera página de resultados
+     *
+     * @param tipo si no es null, limita la búsqueda a estudiantes o a acudientes
+     */
+    public Pagina buscar(String consulta, TipoPersona tipo) {
+        return buscar(consulta, tipo, null, TAMANO_PAGINA);
+    }
+
+    /**
+     * Página de resultados que sigue al cursor (null para la primera)
+     */
+    public Pagina buscar(String consulta, TipoPersona tipo, Cursor cursor, int limite) {
+        List<String> palabras = TextoBusqueda.palabras(consulta);
+        if (palabras.isEmpty() || limite <= 0) {
+            return Pagina.VACIA;
+        }
+        String clave = tipo + "|" + limite + "|" + cursor + "|" + String.join(" ", palabras);
+
+        candado.readLock().lock();
+        try {
+            synchronized (cache) {
+                Pagina enCache = cache.get(clave);
+                if (enCache != null) {
+                    return enCache;
+                }
+            }
+            Pagina pagina = estructura.buscar(palabras, tipo, cursor, limite, acumuladores.get());
+            synchronized (cache) {
+                cache.put(clave, pagina);
+            }
+            return pagina;
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    // ==================== PersonaListener ====================
+
+    @Override
+    public void personaGuardada(Object persona) {
+        if (!sede.equals(ContextoSede.actual())) {
+            return;
+        }
+        if (persona instanceof EstudianteEntity e) {
+            indexarEstudiante(e.getIdEstudiante(), e.getPrimerNombre(), e.getSegundoNombre(),
+                e.getPrimerApellido(), e.getSegundoApellido(), e.getNuip());
+        } else if (persona instanceof AcudienteEntity a) {
+            indexarAcudiente(a.getIdUsuario(), a.getPrimerNombre(), a.getSegundoNombre(),
+                a.getPrimerApellido(), a.getSegundoApellido(), a.getNuipUsuario(),
+                a.getCorreoElectronico(), a.getTelefono());
+        }
+    }
+
+    @Override
+    public void personaEliminada(Object persona) {
+        if (!sede.equals(ContextoSede.actual())) {
+            return;
+        }
+        if (persona instanceof EstudianteEntity e) {
+            eliminar(TipoPersona.ESTUDIANTE, e.getIdEstudiante());
+        } else if (persona instanceof AcudienteEntity a) {
+            eliminar(TipoPersona.ACUDIENTE, a.getIdUsuario());
+        }
+    }
+
+    // ==================== MÉTODOS PRIVADOS ====================
+
+    private void registrar(Persona cambio) {
+        candado.writeLock().lock();
+        try {
+            if (cambiosDuranteCarga != null) {
+                cambiosDuranteCarga.add(cambio);
+            }
+            estructura.aplicar(cambio);
+            vaciarCache();
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    private void vaciarCache() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    private static long clave(TipoPersona tipo, Integer id) {
+        return ((long) tipo.ordinal() << 32) | (id & 0xFFFFFFFFL);
+    }
+
+    private static int simbolo(char c) {
+        if (c >= 'a' && c <= 'z') return c - 'a' + 1;
+        if (c >= '0' && c <= '9') return c - '0' + 27;
+        return 0;
+    }
+
+    /**
+     * Códigos de trigrama (sin repetir y ordenados) de las palabras dadas
+     */
+    static int[] trigramas(List<String> palabras) {
+        int total = 0;
+        for (String palabra : palabras) {
+            total += palabra.length() + 1;
+        }
+        int[] codigos = new int[total];
+        int n = 0;
+        for (String palabra : palabras) {
+            int a = 0;
+            int b = 0;
+            for (int i = 0; i <= palabra.length(); i++) {
+                int c = i < palabra.length() ? simbolo(palabra.charAt(i)) : 0;
+                codigos[n++] = (a * SIMBOLOS + b) * SIMBOLOS + c;
+                a = b;
+                b = c;
+            }
+        }
+        Arrays.sort(codigos, 0, n);
+        int unicos = 0;
+        for (int i = 0; i < n; i++) {
+            if (unicos == 0 || codigos[unicos - 1] != codigos[i]) {
+                codigos[unicos++] = codigos[i];
+            }
+        }
+        return Arrays.copyOf(codigos, unicos);
+    }
+
+    /**
+     * Postings indexados por código de trigrama y personas por ordinal denso
+     */
+    private static final class Estructura {
+        private final int[][] postings = new int[NUMERO_TRIGRAMAS][];
+        private final int[] tamanos = new int[NUMERO_TRIGRAMAS];
+        private final Map<Long, Integer> porClave = new HashMap<>();
+        private Persona[] personas = new Persona[1024];
+        private int siguienteOrdinal;
+        private final ArrayDeque<Integer> ordinalesLibres = new ArrayDeque<>();
+
+        void aplicar(Persona cambio) {
+            Integer ordinal = porClave.remove(clave(cambio.tipo, cambio.id));
+            if (ordinal != null) {
+                for (int codigo : personas[ordinal].trigramas) {
+                    quitar(codigo, ordinal);
+                }
+                personas[ordinal] = null;
+                ordinalesLibres.push(ordinal);
+            }
+            if (cambio.esEliminada()) {
+                return;
+            }
+
+            int nuevo = ordinalesLibres.isEmpty() ? siguienteOrdinal++ : ordinalesLibres.pop();
+            if (nuevo >= personas.length) {
+                personas = Arrays.copyOf(personas, personas.length * 2);
+            }
+            personas[nuevo] = cambio;
+            porClave.put(clave(cambio.tipo, cambio.id), nuevo);
+            for (int codigo : cambio.trigramas) {
+                agregar(codigo, nuevo);
+            }
+        }
+
+        private void agregar(int codigo, int ordinal) {
+            int[] lista = postings[codigo];
+            if (lista == null) {
+                lista = postings[codigo] = new int[4];
+            } else if (tamanos[codigo] == lista.length) {
+                lista = postings[codigo] = Arrays.copyOf(lista, lista.length * 2);
+            }
+            lista[tamanos[codigo]++] = ordinal;
+        }
+
+        private void quitar(int codigo, int ordinal) {
+            int[] lista = postings[codigo];
+            for (int i = 0; i < tamanos[codigo]; i++) {
+                if (lista[i] == ordinal) {
+                    lista[i] = lista[--tamanos[codigo]];
+                    return;
+                }
+            }
+        }
+
+        private int[] ordenarPorFrecuencia(int[] codigos) {
+            long[] llaves = new long[codigos.length];
+            for (int i = 0; i < codigos.length; i++) {
+                llaves[i] = ((long) tamanos[codigos[i]] << 32) | codigos[i];
+            }
+            Arrays.sort(llaves);
+            int[] ordenados = new int[codigos.length];
+            for (int i = 0; i < llaves.length; i++) {
+                ordenados[i] = (int) llaves[i];
+            }
+            return ordenados;
+        }
+
+        Pagina buscar(List<String> palabras, TipoPersona tipo, Cursor cursor, int limite, Acumulador acumulador) {
+            int[] consulta = trigramas(palabras);
+            int minimoComunes = Math.max(1, (int) Math.ceil(UMBRAL * consulta.length));
+            acumulador.asegurar(siguienteOrdinal);
+            int[] comunes = acumulador.comunes;
+            int[] tocados = acumulador.tocados;
+            int numeroTocados = 0;
+
+            // Filtro por prefijo: quien comparta al menos minimoComunes trigramas
+            // contiene alguno de los (n - minimoComunes + 1) menos frecuentes.
+            // Solo esos generan candidatos; los frecuentes solo suman a candidatos existentes.
+            int[] porFrecuencia = ordenarPorFrecuencia(consulta);
+            int generadores = consulta.length - minimoComunes + 1;
+            for (int k = 0; k < generadores; k++) {
+                int codigo = porFrecuencia[k];
+                int[] lista = postings[codigo];
+                for (int i = 0; i < tamanos[codigo]; i++) {
+                    int d = lista[i];
+                    if (comunes[d]++ == 0) {
+                        tocados[numeroTocados++] = d;
+                    }
+                }
+            }
+            for (int k = generadores; k < porFrecuencia.length; k++) {
+                int codigo = porFrecuencia[k];
+                int[] lista = postings[codigo];
+                for (int i = 0; i < tamanos[codigo]; i++) {
+                    int d = lista[i];
+                    if (comunes[d] > 0) {
+                        comunes[d]++;
+                    }
+                }
+            }
+
+            String compacta = String.join("", palabras);
+            Comparator<Resultado> orden = Resultado.ORDEN;
+            PriorityQueue<Resultado> mejores = new PriorityQueue<>(limite + 2, orden.reversed());
+            int candidatos = 0;
+
+            for (int i = 0; i < numeroTocados; i++) {
+                int d = tocados[i];
+                int comun = comunes[d];
+                comunes[d] = 0;
+                if (comun < minimoComunes) {
+                    continue;
+                }
+                Persona persona = personas[d];
+                if (tipo != null && persona.tipo != tipo) {
+                    continue;
+                }
+                float contencion = (float) comun / consulta.length;
+                float jaccard = (float) comun / (consulta.length + persona.trigramas.length - comun);
+                float puntaje = 0.7f * contencion + 0.3f * jaccard;
+                if (compacta.equals(persona.nuip) || compacta.equals(persona.telefono)) {
+                    puntaje += BONO_EXACTO;
+                }
+                if (cursor != null && !cursor.esAnteriorA(puntaje, persona.tipo, persona.id)) {
+                    continue;
+                }
+                candidatos++;
+                if (mejores.size() > limite && puntaje < mejores.peek().getPuntaje()) {
+                    continue;
+                }
+                mejores.add(persona.resultado(puntaje));
+                if (mejores.size() > limite + 1) {
+                    mejores.poll();
+                }
+            }
+
+            List<Resultado> resultados = new ArrayList<>(mejores);
+            resultados.sort(orden);
+            Cursor siguiente = null;
+            if (candidatos > limite) {
+                resultados = new ArrayList<>(resultados.subList(0, limite));
+                Resultado ultimo = resultados.get(limite - 1);
+                siguiente = new Cursor(ultimo.getPuntaje(), ultimo.getTipo(), ultimo.getId());
+            }
+            return new Pagina(List.copyOf(resultados), siguiente);
+        }
+    }
+
+    /**
+     * Arreglos de trabajo de una búsqueda; comunes queda en cero al terminar
+     */
+    private static final class Acumulador {
+        private int[] comunes = new int[0];
+        private int[] tocados = new int[0];
+
+        void asegurar(int capacidad) {
+            if (comunes.length < capacidad) {
+                comunes = new int[capacidad];
+                tocados = new int[capacidad];
+            }
+        }
+    }
+
+    /**
+     * Persona indexada con sus trigramas
+     */
+    private static final class Persona {
+        private final TipoPersona tipo;
+        private final Integer id;
+        private final String nombreCompleto;
+        private final String nuip;
+        private final String correo;
+        private final String telefono;
+        private final int[] trigramas;
+
+        Persona(TipoPersona tipo, Integer id, String primerNombre, String segundoNombre,
+                String primerApellido, String segundoApellido, String nuip, String correo, String telefono) {
+            this.tipo = tipo;
+            this.id = id;
+            this.nombreCompleto = unir(primerNombre, segundoNombre, primerApellido, segundoApellido);
+            this.nuip = nuip;
+            this.correo = correo;
+            this.telefono = telefono;
+            this.trigramas = trigramas(TextoBusqueda.palabras(
+                unir(nombreCompleto, nuip, correo, telefono)));
+        }
+
+        private Persona(TipoPersona tipo, Integer id) {
+            this.tipo = tipo;
+            this.id = id;
+            this.nombreCompleto = null;
+            this.nuip = null;
+            this.correo = null;
+            this.telefono = null;
+            this.trigramas = null;
+        }
+
+        static Persona eliminada(TipoPersona tipo, Integer id) {
+            return new Persona(tipo, id);
+        }
+
+        boolean esEliminada() {
+            return trigramas == null;
+        }
+
+        Resultado resultado(float puntaje) {
+            return new Resultado(tipo, id, nombreCompleto, nuip, correo, telefono, puntaje);
+        }
+
+        private static String unir(String... partes) {
+            StringBuilder texto = new StringBuilder();
+            for (String parte : partes) {
+                if (parte != null && !parte.isEmpty()) {
+                    if (texto.length() > 0) texto.append(' ');
+                    texto.append(parte);
+                }
+            }
+            return texto.toString();
+        }
+    }
+
+    /**
+     * Posición de la última fila entregada; la siguiente página empieza después de ella
+     */
+    public static final class Cursor {
+        private final float puntaje;
+        private final TipoPersona tipo;
+        private final Integer id;
+
+        public Cursor(float puntaje, TipoPersona tipo, Integer id) {
+            this.puntaje = puntaje;
+            this.tipo = tipo;
+            this.id = id;
+        }
+
+        /**
+         * true si la fila (puntaje, tipo, id) va después de este cursor
+         */
+        boolean esAnteriorA(float otroPuntaje, TipoPersona otroTipo, Integer otroId) {
+            if (otroPuntaje != puntaje) return otroPuntaje < puntaje;
+            if (otroTipo != tipo) return otroTipo.compareTo(tipo) > 0;
+            return otroId > id;
+        }
+
+        @Override
+        public String toString() {
+            return puntaje + ":" + tipo + ":" + id;
+        }
+    }
+
+    /**
+     * Página de resultados; getSiguiente() es null cuando no hay más
+     */
+    public static final class Pagina {
+        static final Pagina VACIA = new Pagina(List.of(), null);
+
+        private final List<Resultado> resultados;
+        private final Cursor siguiente;
+
+        Pagina(List<Resultado> resultados, Cursor siguiente) {
+            this.resultados = resultados;
+            this.siguiente = siguiente;
+        }
+
+        public List<Resultado> getResultados() { return resultados; }
+        public Cursor getSiguiente() { return siguiente; }
+        public boolean tieneSiguiente() { return siguiente != null; }
+    }
+
+    /**
+     * Persona encontrada y su puntaje
+     */
+    public static class Resultado {
+        static final Comparator<Resultado> ORDEN = Comparator
+            .comparingDouble((Resultado r) -> -r.puntaje)
+            .thenComparing(Resultado::getTipo)
+            .thenComparing(Resultado::getId);
+
+        private final TipoPersona tipo;
+        private final Integer id;
+        private final String nombreCompleto;
+        private final String nuip;
+        private final String correo;
+        private final String telefono;
+        private final float puntaje;
+
+        public Resultado(TipoPersona tipo, Integer id, String nombreCompleto, String nuip,
+                String correo, String telefono, float puntaje) {
+            this.tipo = tipo;
+            this.id = id;
+            this.nombreCompleto = nombreCompleto;
+            this.nuip = nuip;
+            this.correo = correo;
+            this.telefono = telefono;
+            this.puntaje = puntaje;
+        }
+
+        public TipoPersona getTipo() { return tipo; }
+        public Integer getId() { return id; }
+        public String getNombreCompleto() { return nombreCompleto; }
+        public String getNuip() { return nuip; }
+        public String getCorreo() { return correo; }
+        public String getTelefono() { return telefono; }
+        public float getPuntaje() { return puntaje; }
+    }
+}
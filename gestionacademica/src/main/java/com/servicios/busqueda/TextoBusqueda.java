@@ -0,0 +1,75 @@
+package com.servicios.busqueda;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Normalización de texto en español para búsquedas: minúsculas y sin tildes
+ * (á, é, í, ó, ú, ü -> vocal simple; ñ -> n), igual que los nombres de usuario
+ * generados por GestionUsuariosService.
+ */
+public final class TextoBusqueda {
+
+    private static final Set<String> PALABRAS_VACIAS = Set.of(
+        "a", "al", "con", "de", "del", "el", "en", "la", "las", "lo", "los",
+        "o", "para", "por", "que", "se", "su", "sus", "un", "una", "y");
+
+    private TextoBusqueda() {
+    }
+
+    public static char plegar(char c) {
+        char minuscula = Character.toLowerCase(c);
+        switch (minuscula) {
+            case 'á': return 'a';
+            case 'é': return 'e';
+            case 'í': return 'i';
+            case 'ó': return 'o';
+            case 'ú':
+            case 'ü': return 'u';
+            case 'ñ': return 'n';
+            default: return minuscula;
+        }
+    }
+
+    public static String plegar(String texto) {
+        if (texto == null || texto.isEmpty()) {
+            return texto;
+        }
+        char[] caracteres = new char[texto.length()];
+        for (int i = 0; i < caracteres.length; i++) {
+            caracteres[i] = plegar(texto.charAt(i));
+        }
+        return new String(caracteres);
+    }
+
+    /**
+     * Palabras plegadas del texto (secuencias de letras y dígitos)
+     */
+    public static List<String> palabras(String texto) {
+        List<String> palabras = new ArrayList<>();
+        if (texto == null) {
+            return palabras;
+        }
+        StringBuilder actual = new StringBuilder();
+        for (int i = 0; i <= texto.length(); i++) {
+            char c = i < texto.length() ? plegar(texto.charAt(i)) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                actual.append(c);
+            } else if (actual.length() > 0) {
+                palabras.add(actual.toString());
+                actual.setLength(0);
+            }
+        }
+        return palabras;
+    }
+
+    /**
+     * Palabras plegadas sin artículos, preposiciones ni conjunciones
+     */
+    public static List<String> terminos(String texto) {
+        List<String> terminos = palabras(texto);
+        terminos.removeIf(PALABRAS_VACIAS::contains);
+        return terminos;
+    }
+}
@@ -0,0 +1,73 @@
+package com.servicios.exportacion;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * CSV en UTF-8 con BOM y separador ';', como lo abre Excel en español.
+ * Los textos que empiezan por =, +, - o @ se anteponen con ' para que la
+ * hoja de cálculo no los evalúe como fórmulas.
+ */
+class EscritorCsv implements EscritorTabla {
+
+    private static final char SEPARADOR = ';';
+
+    private final Writer salida;
+    private int filasEnVentana;
+
+    EscritorCsv(OutputStream salida) throws IOException {
+        this.salida = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8));
+        this.salida.write('\uFEFF');
+    }
+
+    @Override
+    public void encabezado(String... columnas) throws IOException {
+        fila((Object[]) columnas);
+    }
+
+    @Override
+    public void fila(Object... valores) throws IOException {
+        for (int i = 0; i < valores.length; i++) {
+            if (i > 0) {
+                salida.write(SEPARADOR);
+            }
+            Object valor = valores[i];
+            if (valor instanceof Number) {
+                salida.write(valor.toString());
+            } else if (valor != null) {
+                escribirTexto(EscritorTabla.texto(valor));
+            }
+        }
+        salida.write("\r\n");
+        if (++filasEnVentana == VENTANA_FILAS) {
+            salida.flush();
+            filasEnVentana = 0;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        salida.close();
+    }
+
+    // ==================== MÉTODOS PRIVADOS ====================
+
+    private void escribirTexto(String texto) throws IOException {
+        if (!texto.isEmpty() && "=+-@".indexOf(texto.charAt(0)) >= 0) {
+            texto = "'" + texto;
+        }
+        boolean entreComillas = texto.indexOf(SEPARADOR) >= 0 || texto.indexOf('"') >= 0
+            || texto.indexOf('\n') >= 0 || texto.indexOf('\r') >= 0;
+        if (!entreComillas) {
+            salida.write(texto);
+            return;
+        }
+        salida.write('"');
+        salida.write(texto.replace("\"", "\"\""));
+        salida.write('"');
+    }
+}
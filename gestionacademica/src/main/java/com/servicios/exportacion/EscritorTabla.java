@@ -0,0 +1,51 @@
+package com.servicios.exportacion;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAccessor;
+
+/**
+ * Escribe una tabla fila por fila sobre un flujo, sin guardar las filas ya
+ * escritas. Los valores null quedan como celdas vacías, los números como
+ * números y lo demás como texto. close() completa el archivo y cierra el flujo.
+ */
+public interface EscritorTabla extends Closeable {
+
+    /** Filas escritas entre cada vaciado del búfer al flujo de salida */
+    int VENTANA_FILAS = Integer.getInteger("gestionacademica.exportacion.ventana_filas", 1000);
+
+    enum Formato {
+        CSV(".csv"),
+        XLSX(".xlsx");
+
+        private final String extension;
+
+        Formato(String extension) {
+            this.extension = extension;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    void encabezado(String... columnas) throws IOException;
+
+    void fila(Object... valores) throws IOException;
+
+    static EscritorTabla crear(Formato formato, OutputStream salida, String nombreHoja) throws IOException {
+        return formato == Formato.XLSX ? new EscritorXlsx(salida, nombreHoja) : new EscritorCsv(salida);
+    }
+
+    /**
+     * Texto de un valor que no es número
+     */
+    static String texto(Object valor) {
+        if (valor instanceof TemporalAccessor fecha) {
+            return DateTimeFormatter.ISO_LOCAL_DATE.format(fecha);
+        }
+        return valor.toString();
+    }
+}
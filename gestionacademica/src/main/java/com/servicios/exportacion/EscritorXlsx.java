@@ -0,0 +1,197 @@
+package com.servicios.exportacion;
+
+import java.io.BufferedWriter;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Libro XLSX de una sola hoja escrito en flujo: las partes fijas del
+ * paquete se escriben al inicio y al cierre, y cada fila va directo a la
+ * entrada comprimida de la hoja con cadenas en línea (sin tabla de cadenas
+ * compartidas), así que la memoria no depende del número de filas.
+ */
+class EscritorXlsx implements EscritorTabla {
+
+    /** Límite de filas de una hoja de Excel */
+    private static final int MAX_FILAS = 1_048_576;
+
+    private static final String TIPOS_CONTENIDO =
+        "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>" +
+        "<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">" +
+        "<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>" +
+        "<Default Extension=\"xml\" ContentType=\"application/xml\"/>" +
+        "<Override PartName=\"/xl/workbook.xml\" " +
+        "ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml\"/>" +
+        "<Override PartName=\"/xl/worksheets/sheet1.xml\" " +
+        "ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml\"/>" +
+        "<Override PartName=\"/xl/styles.xml\" " +
+        "ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.styles+xml\"/>" +
+        "</Types>";
+
+    private static final String RELACIONES_PAQUETE =
+        "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>" +
+        "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">" +
+        "<Relationship Id=\"rId1\" " +
+        "Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/officeDocument\" " +
+        "Target=\"xl/workbook.xml\"/>" +
+        "</Relationships>";
+
+    private static final String RELACIONES_LIBRO =
+        "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>" +
+        "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">" +
+        "<Relationship Id=\"rId1\" " +
+        "Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/worksheet\" " +
+        "Target=\"worksheets/sheet1.xml\"/>" +
+        "<Relationship Id=\"rId2\" " +
+        "Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/styles\" " +
+        "Target=\"styles.xml\"/>" +
+        "</Relationships>";
+
+    // Estilo 1: negrita, para el encabezado
+    private static final String ESTILOS =
+        "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>" +
+        "<styleSheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\">" +
+        "<fonts count=\"2\"><font><sz val=\"11\"/><name val=\"Calibri\"/></font>" +
+        "<font><b/><sz val=\"11\"/><name val=\"Calibri\"/></font></fonts>" +
+        "<fills count=\"2\"><fill><patternFill patternType=\"none\"/></fill>" +
+        "<fill><patternFill patternType=\"gray125\"/></fill></fills>" +
+        "<borders count=\"1\"><border><left/><right/><top/><bottom/><diagonal/></border></borders>" +
+        "<cellStyleXfs count=\"1\"><xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\"/></cellStyleXfs>" +
+        "<cellXfs count=\"2\"><xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\" xfId=\"0\"/>" +
+        "<xf numFmtId=\"0\" fontId=\"1\" fillId=\"0\" borderId=\"0\" xfId=\"0\" applyFont=\"1\"/></cellXfs>" +
+        "</styleSheet>";
+
+    private final ZipOutputStream zip;
+    private final Writer hoja;
+    private final String nombreHoja;
+    private int filas;
+    private int filasEnVentana;
+
+    EscritorXlsx(OutputStream salida, String nombreHoja) throws IOException {
+        this.nombreHoja = nombreHoja;
+        this.zip = new ZipOutputStream(salida, StandardCharsets.UTF_8);
+        escribirParte("[Content_Types].xml", TIPOS_CONTENIDO);
+        escribirParte("_rels/.rels", RELACIONES_PAQUETE);
+        escribirParte("xl/_rels/workbook.xml.rels", RELACIONES_LIBRO);
+        escribirParte("xl/styles.xml", ESTILOS);
+
+        zip.putNextEntry(new ZipEntry("xl/worksheets/sheet1.xml"));
+        this.hoja = new BufferedWriter(new OutputStreamWriter(sinCerrar(zip), StandardCharsets.UTF_8));
+        hoja.write("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>" +
+            "<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\"><sheetData>");
+    }
+
+    @Override
+    public void encabezado(String... columnas) throws IOException {
+        escribirFila(columnas, true);
+    }
+
+    @Override
+    public void fila(Object... valores) throws IOException {
+        escribirFila(valores, false);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            hoja.write("</sheetData></worksheet>");
+            hoja.flush();
+            zip.closeEntry();
+            escribirParte("xl/workbook.xml",
+                "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>" +
+                "<workbook xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\" " +
+                "xmlns:r=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships\">" +
+                "<sheets><sheet name=\"" + escapar(nombreHoja) + "\" sheetId=\"1\" r:id=\"rId1\"/></sheets>" +
+                "</workbook>");
+            zip.finish();
+        } finally {
+            zip.close();
+        }
+    }
+
+    // ==================== MÉTODOS PRIVADOS ====================
+
+    private void escribirFila(Object[] valores, boolean encabezado) throws IOException {
+        if (filas == MAX_FILAS) {
+            throw new IOException("La exportación supera el máximo de " + MAX_FILAS + " filas de una hoja XLSX");
+        }
+        filas++;
+        hoja.write("<row r=\"" + filas + "\">");
+        for (int i = 0; i < valores.length; i++) {
+            Object valor = valores[i];
+            if (valor == null) {
+                continue;
+            }
+            String referencia = columna(i) + filas;
+            if (valor instanceof Number) {
+                hoja.write("<c r=\"" + referencia + "\"><v>" + valor + "</v></c>");
+            } else {
+                hoja.write("<c r=\"" + referencia + "\" t=\"inlineStr\"" + (encabezado ? " s=\"1\"" : "") +
+                    "><is><t xml:space=\"preserve\">");
+                hoja.write(escapar(EscritorTabla.texto(valor)));
+                hoja.write("</t></is></c>");
+            }
+        }
+        hoja.write("</row>");
+        if (++filasEnVentana == VENTANA_FILAS) {
+            hoja.flush();
+            filasEnVentana = 0;
+        }
+    }
+
+    private void escribirParte(String nombre, String contenido) throws IOException {
+        zip.putNextEntry(new ZipEntry(nombre));
+        zip.write(contenido.getBytes(StandardCharsets.UTF_8));
+        zip.closeEntry();
+    }
+
+    /** Letras de la columna: 0 -> A, 25 -> Z, 26 -> AA */
+    private static String columna(int indice) {
+        StringBuilder letras = new StringBuilder();
+        for (int n = indice + 1; n > 0; n = (n - 1) / 26) {
+            letras.insert(0, (char) ('A' + (n - 1) % 26));
+        }
+        return letras.toString();
+    }
+
+    /** Escapa XML y omite los caracteres de control que XML no admite */
+    private static String escapar(String texto) {
+        StringBuilder escapado = new StringBuilder(texto.length() + 16);
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c == '&') {
+                escapado.append("&amp;");
+            } else if (c == '<') {
+                escapado.append("&lt;");
+            } else if (c == '>') {
+                escapado.append("&gt;");
+            } else if (c == '"') {
+                escapado.append("&quot;");
+            } else if (c >= 0x20 || c == '\t' || c == '\n' || c == '\r') {
+                escapado.append(c);
+            }
+        }
+        return escapado.toString();
+    }
+
+    // El escritor de la hoja no debe cerrar el ZIP al vaciarse
+    private static OutputStream sinCerrar(OutputStream salida) {
+        return new FilterOutputStream(salida) {
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                out.write(b, off, len);
+            }
+
+            @Override
+            public void close() throws IOException {
+                flush();
+            }
+        };
+    }
+}
@@ -0,0 +1,199 @@
+-- V1: esquema inicial, equivalente al que generaba hibernate.hbm2ddl.auto=update
+-- a partir de las entidades. Las bases existentes creadas por Hibernate se
+-- registran como V1 sin ejecutar este script (ver MigradorEsquema).
+
+CREATE TABLE acudiente (
+    estadoAprobacion varchar(20) not null check ((estadoAprobacion in ('Pendiente','Aprobada','Rechazada'))),
+    id_usuario integer not null,
+    primary key (id_usuario)
+);
+
+CREATE TABLE administrador (
+    id_usuario integer not null,
+    primary key (id_usuario)
+);
+
+CREATE TABLE biblioteca_logros (
+    id_biblioteca_logros integer generated by default as identity,
+    categoria varchar(200) not null,
+    grado integer,
+    primary key (id_biblioteca_logros)
+);
+
+CREATE TABLE boletin (
+    id_boletin integer generated by default as identity,
+    fechaGeneracion date not null,
+    periodo varchar(20) not null,
+    estudiante integer,
+    primary key (id_boletin)
+);
+
+CREATE TABLE directivo (
+    id_usuario integer not null,
+    primary key (id_usuario)
+);
+
+CREATE TABLE estudiante (
+    id_estudiante integer generated by default as identity,
+    edad integer not null,
+    estado varchar(20) not null check ((estado in ('Pendiente','Aprobada','Rechazada'))),
+    nuip varchar(15) not null unique,
+    primerApellido varchar(30) not null,
+    primerNombre varchar(30) not null,
+    segundoApellido varchar(30),
+    segundoNombre varchar(30),
+    acudiente integer not null,
+    gradoAspira integer,
+    grupo integer,
+    hojaDeVida integer unique,
+    observador integer unique,
+    preinscripcion_id integer,
+    primary key (id_estudiante)
+);
+
+CREATE TABLE grado (
+    id_grado integer generated by default as identity,
+    nombreGrado varchar(50) not null,
+    primary key (id_grado)
+);
+
+CREATE TABLE grado_biblioteca_logros (
+    grado_id_grado integer not null,
+    bibliotecaLogros_id_biblioteca_logros integer not null unique,
+    primary key (grado_id_grado, bibliotecaLogros_id_biblioteca_logros)
+);
+
+CREATE TABLE grupo (
+    id_grupo integer generated by default as identity,
+    estado boolean not null,
+    nombreGrupo varchar(50) not null,
+    grado integer,
+    profesor integer unique,
+    primary key (id_grupo)
+);
+
+CREATE TABLE hoja_vida (
+    id_hoja_vida integer generated by default as identity,
+    alergias varchar(255),
+    aspectosRelevantes varchar(255),
+    enfermedades varchar(255),
+    estudiante integer unique,
+    primary key (id_hoja_vida)
+);
+
+CREATE TABLE logro (
+    id_logro integer generated by default as identity,
+    descripcion TEXT not null,
+    biblioteca_logros integer,
+    primary key (id_logro)
+);
+
+CREATE TABLE logros_estudiante (
+    id_logro_estudiante integer generated by default as identity,
+    fecha_calificacion date not null,
+    boletin integer,
+    estudiante integer,
+    logro integer,
+    profesor integer,
+    primary key (id_logro_estudiante)
+);
+
+CREATE TABLE observacion (
+    id_observacion integer generated by default as identity,
+    descripcion TEXT not null,
+    fechaObservacion date not null,
+    observador integer,
+    profesor integer,
+    primary key (id_observacion)
+);
+
+CREATE TABLE ObservadorEntity (
+    id_observador integer generated by default as identity,
+    estudiante integer unique,
+    primary key (id_observador)
+);
+
+CREATE TABLE permisos (
+    id_permiso integer generated by default as identity,
+    descripcion varchar(200) not null,
+    nombre varchar(50) not null,
+    primary key (id_permiso)
+);
+
+CREATE TABLE preinscripcion (
+    id_preinscripcion integer generated by default as identity,
+    estado varchar(20) not null check ((estado in ('Pendiente','Aprobada','Rechazada'))),
+    fechaRegistro date not null,
+    acudiente integer,
+    primary key (id_preinscripcion)
+);
+
+CREATE TABLE profesor (
+    id_usuario integer not null,
+    primary key (id_usuario)
+);
+
+CREATE TABLE rol_permiso (
+    id_rol integer not null,
+    id_permiso integer not null,
+    primary key (id_rol, id_permiso)
+);
+
+CREATE TABLE roles (
+    id_rol integer generated by default as identity,
+    nombre varchar(50) not null,
+    primary key (id_rol)
+);
+
+CREATE TABLE tokens_usuario (
+    id_token integer generated by default as identity,
+    contrasena varchar(255) not null,
+    nombre_usuario varchar(50) not null unique,
+    id_rol integer not null,
+    primary key (id_token)
+);
+
+CREATE TABLE usuario (
+    id_usuario integer generated by default as identity,
+    correoElectronico varchar(255) not null unique,
+    edad integer not null,
+    nuip_usuario varchar(255) not null unique,
+    primerApellido varchar(30) not null,
+    primerNombre varchar(30) not null,
+    segundoApellido varchar(30),
+    segundoNombre varchar(30),
+    telefono varchar(10) not null unique,
+    tokenAccess integer unique,
+    primary key (id_usuario)
+);
+
+ALTER TABLE IF EXISTS acudiente ADD CONSTRAINT FK2elx6d5nv7ik8mevxvhrqrhvl FOREIGN KEY (id_usuario) REFERENCES usuario;
+ALTER TABLE IF EXISTS administrador ADD CONSTRAINT FKpt2bj0l5q4npigarogy7p1834 FOREIGN KEY (id_usuario) REFERENCES usuario;
+ALTER TABLE IF EXISTS biblioteca_logros ADD CONSTRAINT FK6v7k58fs03vhflrm6wtgcv26d FOREIGN KEY (grado) REFERENCES grado;
+ALTER TABLE IF EXISTS boletin ADD CONSTRAINT FKclfl955njlwasixehr22tp4b9 FOREIGN KEY (estudiante) REFERENCES estudiante;
+ALTER TABLE IF EXISTS directivo ADD CONSTRAINT FKbj3jkijj0ghuja507gitomtob FOREIGN KEY (id_usuario) REFERENCES usuario;
+ALTER TABLE IF EXISTS estudiante ADD CONSTRAINT FKnhcfnyv64au6i3xd3s1rdmlgh FOREIGN KEY (acudiente) REFERENCES acudiente;
+ALTER TABLE IF EXISTS estudiante ADD CONSTRAINT FKpne99fr7yf52gdgoyr73618qv FOREIGN KEY (gradoAspira) REFERENCES grado;
+ALTER TABLE IF EXISTS estudiante ADD CONSTRAINT FK4uwh23n1jx7ruy9yy4c9ocoph FOREIGN KEY (grupo) REFERENCES grupo;
+ALTER TABLE IF EXISTS estudiante ADD CONSTRAINT FKixemva8yyjhl2nky9okvkhr1s FOREIGN KEY (hojaDeVida) REFERENCES hoja_vida;
+ALTER TABLE IF EXISTS estudiante ADD CONSTRAINT FK7dye0fjec0wwdtm04hicutykp FOREIGN KEY (observador) REFERENCES ObservadorEntity;
+ALTER TABLE IF EXISTS estudiante ADD CONSTRAINT FK5bc0km7vq8fmb58hytqkovc79 FOREIGN KEY (preinscripcion_id) REFERENCES preinscripcion;
+ALTER TABLE IF EXISTS grado_biblioteca_logros ADD CONSTRAINT FKf8p293d0e9ra3kb5rhcc88jld FOREIGN KEY (bibliotecaLogros_id_biblioteca_logros) REFERENCES biblioteca_logros;
+ALTER TABLE IF EXISTS grado_biblioteca_logros ADD CONSTRAINT FKc0y0acbaihm3syu5qc1rg8arv FOREIGN KEY (grado_id_grado) REFERENCES grado;
+ALTER TABLE IF EXISTS grupo ADD CONSTRAINT FK81ygkdkdcrsv4u548wwl1tjt FOREIGN KEY (grado) REFERENCES grado;
+ALTER TABLE IF EXISTS grupo ADD CONSTRAINT FKau7ejyijwodl3m1wd14c93m0x FOREIGN KEY (profesor) REFERENCES profesor;
+ALTER TABLE IF EXISTS hoja_vida ADD CONSTRAINT FKg9aww87l5yu0y64itt3qjygh6 FOREIGN KEY (estudiante) REFERENCES estudiante;
+ALTER TABLE IF EXISTS logro ADD CONSTRAINT FK6tv9sfxrvxjjvxkcykc3uk0u FOREIGN KEY (biblioteca_logros) REFERENCES biblioteca_logros;
+ALTER TABLE IF EXISTS logros_estudiante ADD CONSTRAINT FK1tljensa933664oc6rk0bmhxd FOREIGN KEY (boletin) REFERENCES boletin;
+ALTER TABLE IF EXISTS logros_estudiante ADD CONSTRAINT FKqmdfiiafgck2kr2gsg9l6e68x FOREIGN KEY (estudiante) REFERENCES estudiante;
+ALTER TABLE IF EXISTS logros_estudiante ADD CONSTRAINT FKiheb136q45f7t4avtj5prsr75 FOREIGN KEY (logro) REFERENCES logro;
+ALTER TABLE IF EXISTS logros_estudiante ADD CONSTRAINT FK283p08e3j0kckmbw663qplh2l FOREIGN KEY (profesor) REFERENCES profesor;
+ALTER TABLE IF EXISTS observacion ADD CONSTRAINT FK7mx9mbwqg0nwtqidh5pifcwmy FOREIGN KEY (observador) REFERENCES ObservadorEntity;
+ALTER TABLE IF EXISTS observacion ADD CONSTRAINT FKnf6scd4lfxft7uht52qg49ok9 FOREIGN KEY (profesor) REFERENCES profesor;
+ALTER TABLE IF EXISTS ObservadorEntity ADD CONSTRAINT FK46o0sbeyp0a9yt64dgaus4xb5 FOREIGN KEY (estudiante) REFERENCES estudiante;
+ALTER TABLE IF EXISTS preinscripcion ADD CONSTRAINT FKsaney7sb0gsm8574sn8cnm0ja FOREIGN KEY (acudiente) REFERENCES acudiente;
+ALTER TABLE IF EXISTS profesor ADD CONSTRAINT FKbyhq45hsgy32alfydfpypqctp FOREIGN KEY (id_usuario) REFERENCES usuario;
+ALTER TABLE IF EXISTS rol_permiso ADD CONSTRAINT FKb1ybebncburjvuednr35mtip8 FOREIGN KEY (id_permiso) REFERENCES permisos;
+ALTER TABLE IF EXISTS rol_permiso ADD CONSTRAINT FKe9j8u1s3ivvp18oed07a2gnhc FOREIGN KEY (id_rol) REFERENCES roles;
+ALTER TABLE IF EXISTS tokens_usuario ADD CONSTRAINT FKbbpwjvjdfy3c35a8wel1q2ej9 FOREIGN KEY (id_rol) REFERENCES roles;
+ALTER TABLE IF EXISTS usuario ADD CONSTRAINT FKanjscbr6p6esumw66kvt7u8hh FOREIGN KEY (tokenAccess) REFERENCES tokens_usuario;
@@ -0,0 +1,59 @@
+-- V2: índices secundarios según las consultas de los repositorios.
+-- PostgreSQL no indexa las llaves foráneas por sí solo. Ya tienen índice por
+-- sus restricciones UNIQUE: tokens_usuario.nombre_usuario (inicio de sesión),
+-- usuario.tokenAccess (usuario del token), usuario.correoElectronico,
+-- usuario.telefono, usuario.nuip_usuario y estudiante.nuip.
+
+-- Estudiantes de un grupo ordenados por apellido y nombre
+-- (BoletinRepositorio.buscarEstudiantesPorGrupo, CalificacionRepositorio.buscarIdsEstudiantesDeGrupo)
+CREATE INDEX IF NOT EXISTS ix_estudiante_grupo_nombre
+    ON estudiante (grupo, primerApellido, primerNombre);
+
+-- Estudiantes de una preinscripción y de un acudiente (colecciones mappedBy)
+CREATE INDEX IF NOT EXISTS ix_estudiante_preinscripcion ON estudiante (preinscripcion_id);
+CREATE INDEX IF NOT EXISTS ix_estudiante_acudiente ON estudiante (acudiente);
+
+-- Grupos de un grado (boletines y listados por grado)
+CREATE INDEX IF NOT EXISTS ix_grupo_grado ON grupo (grado);
+
+-- Calificaciones de un estudiante con o sin boletín
+-- (BoletinRepositorio.buscarLogrosPor*, CalificacionRepositorio.buscarPendientes)
+CREATE INDEX IF NOT EXISTS ix_logros_estudiante_estudiante_boletin
+    ON logros_estudiante (estudiante, boletin);
+
+-- Calificaciones ligadas a un boletín y a un logro (joins y borrados por llave foránea)
+CREATE INDEX IF NOT EXISTS ix_logros_estudiante_boletin ON logros_estudiante (boletin);
+CREATE INDEX IF NOT EXISTS ix_logros_estudiante_logro ON logros_estudiante (logro);
+
+-- Boletines de un periodo para un conjunto de estudiantes
+CREATE INDEX IF NOT EXISTS ix_boletin_estudiante_periodo ON boletin (estudiante, periodo);
+
+-- Logros del grado de un grupo (CalificacionRepositorio.buscarIdsLogrosDeGrupo)
+CREATE INDEX IF NOT EXISTS ix_biblioteca_logros_grado ON biblioteca_logros (grado);
+CREATE INDEX IF NOT EXISTS ix_logro_biblioteca ON logro (biblioteca_logros);
+
+-- Observaciones de un observador en orden cronológico
+CREATE INDEX IF NOT EXISTS ix_observacion_observador_fecha
+    ON observacion (observador, fechaObservacion);
+CREATE INDEX IF NOT EXISTS ix_observacion_profesor ON observacion (profesor);
+
+-- Preinscripciones de un acudiente
+CREATE INDEX IF NOT EXISTS ix_preinscripcion_acudiente ON preinscripcion (acudiente);
+
+-- Resumen de logros calificados por grupo, periodo y categoría
+-- (ResumenLogrosService). No está en V1: las bases creadas por hbm2ddl se
+-- registran como V1 sin ejecutarlo y no tienen esta tabla
+CREATE TABLE IF NOT EXISTS resumen_logros (
+    id_resumen integer generated by default as identity,
+    cantidad bigint not null,
+    categoria varchar(200) not null,
+    periodo varchar(20) not null,
+    grupo integer not null,
+    primary key (id_resumen),
+    constraint uk_resumen_logros unique (grupo, periodo, categoria),
+    constraint FK2ph2mjikarovo22c0477cco4m foreign key (grupo) references grupo
+);
+
+-- Tablero de logros por periodo (ResumenLogrosRepositorio.buscarPorPeriodo);
+-- las búsquedas por grupo usan uk_resumen_logros (grupo, periodo, categoria)
+CREATE INDEX IF NOT EXISTS ix_resumen_logros_periodo ON resumen_logros (periodo);
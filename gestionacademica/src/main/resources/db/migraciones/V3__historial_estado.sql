@@ -0,0 +1,20 @@
+-- V3: auditoría de cambios de estado (aprobación de preinscripciones).
+-- Una fila por preinscripción, estudiante o acudiente que cambió de estado.
+
+CREATE TABLE IF NOT EXISTS historial_estado (
+    id_historial bigint generated by default as identity,
+    entidad varchar(20) not null,
+    estadoAnterior varchar(20) check ((estadoAnterior in ('Pendiente','Aprobada','Rechazada'))),
+    estadoNuevo varchar(20) not null check ((estadoNuevo in ('Pendiente','Aprobada','Rechazada'))),
+    fecha timestamp(6) not null,
+    id_registro integer not null,
+    id_usuario integer,
+    primary key (id_historial)
+);
+
+-- Historial de un registro en orden cronológico
+CREATE INDEX IF NOT EXISTS ix_historial_estado_registro
+    ON historial_estado (entidad, id_registro, fecha);
+
+-- Preinscripciones pendientes para la lista de aspirantes
+CREATE INDEX IF NOT EXISTS ix_preinscripcion_estado ON preinscripcion (estado, fechaRegistro);
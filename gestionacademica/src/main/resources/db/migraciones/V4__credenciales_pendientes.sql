@@ -0,0 +1,17 @@
+-- V4: activación de cuentas de acudientes aprobados.
+-- Cola de correos de credenciales: la fila se crea en la misma transacción
+-- que la cuenta y se borra cuando el correo sale, así un envío interrumpido
+-- se retoma en la siguiente ejecución.
+
+CREATE TABLE IF NOT EXISTS credenciales_pendientes (
+    id_usuario integer not null,
+    intentos integer not null default 0,
+    ultimo_error varchar(255),
+    fecha timestamp(6) not null default now(),
+    primary key (id_usuario),
+    foreign key (id_usuario) references usuario on delete cascade
+);
+
+-- Acudientes aprobados por recorrer en orden de id al activar cuentas
+CREATE INDEX IF NOT EXISTS ix_acudiente_aprobado ON acudiente (id_usuario)
+    WHERE estadoAprobacion = 'Aprobada';
@@ -0,0 +1,27 @@
+-- V5: registro de cambios (solo agregar) de estudiantes, logros de
+-- estudiante, observaciones, usuarios y preinscripciones. Lo escribe
+-- com.persistencia.auditoria.RegistroCambios; las particiones mensuales se
+-- crean al escribir el primer evento del mes.
+
+CREATE TABLE IF NOT EXISTS evento_cambio (
+    id_evento bigint generated by default as identity,
+    fecha timestamp(6) not null,
+    entidad varchar(40) not null,
+    id_registro varchar(40) not null,
+    operacion char(1) not null check ((operacion in ('I','U','D'))),
+    id_usuario integer,
+    cambios jsonb not null,
+    primary key (id_evento, fecha)
+) PARTITION BY RANGE (fecha);
+
+-- Historial de un registro y cambios hechos por un usuario
+CREATE INDEX IF NOT EXISTS ix_evento_cambio_registro ON evento_cambio (entidad, id_registro, id_evento);
+CREATE INDEX IF NOT EXISTS ix_evento_cambio_usuario ON evento_cambio (id_usuario, fecha);
+
+-- Solo agregar: UPDATE, DELETE y TRUNCATE sobre la tabla se rechazan. Los
+-- meses viejos se descartan quitando su partición.
+CREATE OR REPLACE FUNCTION evento_cambio_solo_agregar() RETURNS trigger AS $$ BEGIN RAISE EXCEPTION 'evento_cambio es de solo agregar'; END $$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS tr_evento_cambio_solo_agregar ON evento_cambio;
+CREATE TRIGGER tr_evento_cambio_solo_agregar BEFORE UPDATE OR DELETE OR TRUNCATE ON evento_cambio
+    FOR EACH STATEMENT EXECUTE FUNCTION evento_cambio_solo_agregar();
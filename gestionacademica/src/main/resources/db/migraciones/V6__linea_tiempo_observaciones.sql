@@ -0,0 +1,12 @@
+-- V6: línea de tiempo del observador.
+-- Cada estudiante tiene un solo observador (ObservadorEntity.estudiante es
+-- único), así que (observador, fecha, id) ordena las observaciones de un
+-- estudiante. El id desempata las observaciones del mismo día y permite
+-- paginar por llave recorriendo el índice hacia atrás, de la más reciente
+-- a la más antigua, sin ordenar en memoria.
+
+CREATE INDEX IF NOT EXISTS ix_observacion_linea_tiempo
+    ON observacion (observador, fechaObservacion, id_observacion);
+
+-- El índice nuevo cubre las búsquedas del anterior
+DROP INDEX IF EXISTS ix_observacion_observador_fecha;
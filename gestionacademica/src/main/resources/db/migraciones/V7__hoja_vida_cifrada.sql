@@ -0,0 +1,8 @@
+-- V7: datos médicos de la hoja de vida cifrados por campo (CifradorCampos).
+-- El texto cifrado en Base64 ocupa más que el original, así que las columnas
+-- pasan a text. Las filas existentes quedan en claro y se cifran la próxima
+-- vez que se guarden desde HojaVidaService.
+
+ALTER TABLE hoja_vida ALTER COLUMN alergias TYPE text;
+ALTER TABLE hoja_vida ALTER COLUMN aspectosRelevantes TYPE text;
+ALTER TABLE hoja_vida ALTER COLUMN enfermedades TYPE text;
@@ -0,0 +1,26 @@
+-- V8: índice de carga de cada profesor (CargaProfesorService).
+-- Una fila por profesor con grupo: ids de sus estudiantes y cuántos logros
+-- tiene el grado. Las calificaciones por periodo se leen de resumen_logros.
+
+CREATE TABLE IF NOT EXISTS carga_profesor (
+    profesor integer not null references profesor (id_usuario),
+    grupo integer not null references grupo (id_grupo),
+    estudiantes integer[] not null,
+    logros integer not null,
+    primary key (profesor)
+);
+
+-- Refresco por grupo tras la asignación de grupos
+CREATE UNIQUE INDEX IF NOT EXISTS uk_carga_profesor_grupo ON carga_profesor (grupo);
+
+-- Carga inicial (CargaProfesorRepositorio.SQL_CALCULAR sobre todos los grupos)
+INSERT INTO carga_profesor (profesor, grupo, estudiantes, logros)
+SELECT g.profesor, g.id_grupo,
+    coalesce((SELECT array_agg(e.id_estudiante ORDER BY e.primerApellido, e.primerNombre, e.id_estudiante)
+              FROM estudiante e WHERE e.grupo = g.id_grupo), '{}'),
+    (SELECT count(*) FROM logro l
+     JOIN biblioteca_logros b ON b.id_biblioteca_logros = l.biblioteca_logros
+     WHERE b.grado = g.grado)
+FROM grupo g
+WHERE g.profesor IS NOT NULL
+ON CONFLICT (profesor) DO NOTHING;
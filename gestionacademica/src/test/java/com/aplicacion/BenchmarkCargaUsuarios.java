@@ -0,0 +1,147 @@
+package com.aplicacion;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.persistencia.entidades.RolEntity;
+import com.persistencia.entidades.TokenUsuarioEntity;
+import com.persistencia.repositorios.RolRepositorio;
+import com.persistencia.repositorios.UsuarioRepositorio;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Compara la carga de un usuario por token con la consulta polimórfica
+ * (LEFT JOIN a las cuatro subclases) y con la consulta dirigida por rol.
+ *
+ * Crea los usuarios de prueba dentro de una transacción que se deshace al
+ * final, así que no deja datos en la base. Está en las fuentes de prueba
+ * para que no viaje con la aplicación. Uso:
+ *   mvn test-compile exec:java -Dexec.classpathScope=test \
+ *       -Dexec.mainClass=com.aplicacion.BenchmarkCargaUsuarios \
+ *       -Dgestionacademica.benchmark.usuarios=50000
+ */
+public class BenchmarkCargaUsuarios {
+
+    private static final String[] ROLES = {"administrador", "directivo", "profesor", "acudiente"};
+    private static final String PREFIJO = "bench.";
+
+    public static void main(String[] args) {
+        int usuarios = Integer.getInteger("gestionacademica.benchmark.usuarios", 50_000);
+        int muestras = Integer.getInteger("gestionacademica.benchmark.muestras", 2_000);
+
+        EntityManager em = JPAUtil.getEntityManagerFactory().createEntityManager();
+        try {
+            em.getTransaction().begin();
+            sembrar(em, usuarios);
+            em.flush();
+            em.clear();
+
+            @SuppressWarnings("unchecked")
+            List<Integer> tokens = em.createNativeQuery(
+                    "SELECT id_token FROM tokens_usuario WHERE nombre_usuario LIKE '" + PREFIJO + "%' " +
+                    "ORDER BY random() LIMIT " + muestras)
+                .getResultList();
+
+            UsuarioRepositorio repositorio = new UsuarioRepositorio(em);
+
+            // Calentamiento: planes de consulta y JIT
+            medir(em, repositorio, tokens.subList(0, Math.min(200, tokens.size())));
+
+            long[][] tiempos = medir(em, repositorio, tokens);
+            System.out.printf("Usuarios: %d, muestras: %d%n", usuarios, tokens.size());
+            imprimir("Polimórfica (usuario + 4 subclases)", tiempos[0]);
+            imprimir("Dirigida por rol (usuario + 1 subclase)", tiempos[1]);
+        } finally {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            em.close();
+            JPAUtil.shutdown();
+        }
+    }
+
+    // ==================== MÉTODOS PRIVADOS ====================
+
+    /**
+     * Inserta usuarios repartidos entre los cuatro roles, con su token y su
+     * fila en la tabla de la subclase
+     */
+    private static void sembrar(EntityManager em, int usuarios) {
+        RolRepositorio repositorioRol = new RolRepositorio(em);
+        StringBuilder rolPorIndice = new StringBuilder("CASE g % 4");
+        for (int i = 0; i < ROLES.length; i++) {
+            final String nombre = ROLES[i];
+            RolEntity rol = repositorioRol.buscarPorNombreRol(nombre).orElseGet(() -> {
+                RolEntity nuevo = new RolEntity();
+                nuevo.setNombre(nombre);
+                em.persist(nuevo);
+                return nuevo;
+            });
+            em.flush();
+            rolPorIndice.append(" WHEN ").append(i).append(" THEN ").append(rol.getIdRol());
+        }
+        rolPorIndice.append(" END");
+
+        em.createNativeQuery(
+                "INSERT INTO tokens_usuario (contrasena, nombre_usuario, id_rol) " +
+                "SELECT 'x', '" + PREFIJO + "' || g, " + rolPorIndice + " FROM generate_series(1, " + usuarios + ") g")
+            .executeUpdate();
+        em.createNativeQuery(
+                "INSERT INTO usuario (correoElectronico, edad, nuip_usuario, primerApellido, primerNombre, " +
+                "telefono, tokenAccess) " +
+                "SELECT t.nombre_usuario || '@prueba.local', 30, 'B' || t.id_token, 'Prueba', 'Usuario', " +
+                "'b' || lpad(t.id_token::text, 9, '0'), t.id_token " +
+                "FROM tokens_usuario t WHERE t.nombre_usuario LIKE '" + PREFIJO + "%'")
+            .executeUpdate();
+
+        for (String nombre : ROLES) {
+            String columnas = "acudiente".equals(nombre) ? "(id_usuario, estadoAprobacion)" : "(id_usuario)";
+            String valores = "acudiente".equals(nombre) ? "u.id_usuario, 'Aprobada'" : "u.id_usuario";
+            em.createNativeQuery(
+                    "INSERT INTO " + nombre + " " + columnas + " SELECT " + valores + " FROM usuario u " +
+                    "JOIN tokens_usuario t ON t.id_token = u.tokenAccess JOIN roles r ON r.id_rol = t.id_rol " +
+                    "WHERE r.nombre = '" + nombre + "' AND t.nombre_usuario LIKE '" + PREFIJO + "%'")
+                .executeUpdate();
+        }
+    }
+
+    /**
+     * Tiempo en nanosegundos de cada carga: [0] polimórfica, [1] dirigida.
+     * El token se carga antes de medir y el contexto se limpia entre cargas
+     */
+    private static long[][] medir(EntityManager em, UsuarioRepositorio repositorio, List<Integer> tokens) {
+        long[][] tiempos = new long[2][tokens.size()];
+        for (int i = 0; i < tokens.size(); i++) {
+            Integer idToken = tokens.get(i);
+
+            em.clear();
+            em.find(TokenUsuarioEntity.class, idToken);
+            long inicio = System.nanoTime();
+            repositorio.buscarPorToken(idToken);
+            tiempos[0][i] = System.nanoTime() - inicio;
+
+            em.clear();
+            TokenUsuarioEntity token = em.find(TokenUsuarioEntity.class, idToken);
+            inicio = System.nanoTime();
+            repositorio.buscarPorToken(token);
+            tiempos[1][i] = System.nanoTime() - inicio;
+        }
+        return tiempos;
+    }
+
+    private static void imprimir(String nombre, long[] tiempos) {
+        long[] ordenados = tiempos.clone();
+        Arrays.sort(ordenados);
+        double promedio = Arrays.stream(ordenados).average().orElse(0) / 1000.0;
+        System.out.printf("%-42s promedio %8.1f µs   p50 %8.1f µs   p95 %8.1f µs%n", nombre, promedio,
+            percentil(ordenados, 0.50) / 1000.0, percentil(ordenados, 0.95) / 1000.0);
+    }
+
+    private static long percentil(long[] ordenados, double p) {
+        if (ordenados.length == 0) {
+            return 0;
+        }
+        return ordenados[Math.min(ordenados.length - 1, (int) Math.ceil(p * ordenados.length) - 1)];
+    }
+}
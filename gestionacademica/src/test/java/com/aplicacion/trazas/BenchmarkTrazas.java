@@ -0,0 +1,32 @@
+package com.aplicacion.trazas;
+
+/**
+ * Costo de un tramo (iniciar y cerrar, anidado en otro) con el muestreo por
+ * defecto. No usa base de datos. Uso:
+ *   mvn test-compile exec:java -Dexec.classpathScope=test \
+ *       -Dexec.mainClass=com.aplicacion.trazas.BenchmarkTrazas \
+ *       -Dgestionacademica.trazas.muestreo=0.05
+ */
+@SuppressWarnings("try")
+public class BenchmarkTrazas {
+
+    public static void main(String[] args) {
+        int iteraciones = Integer.getInteger("gestionacademica.benchmark.iteraciones", 2_000_000);
+        int rondas = Integer.getInteger("gestionacademica.benchmark.rondas", 3);
+
+        System.out.printf("Muestreo %.2f, umbral lento %d ms%n", Trazador.getMuestreo(), Trazador.getUmbralLentoMs());
+        // La primera ronda sirve de calentamiento
+        for (int ronda = 1; ronda <= rondas; ronda++) {
+            long inicio = System.nanoTime();
+            for (int i = 0; i < iteraciones; i++) {
+                try (Tramo servicio = Trazador.iniciar("Benchmark.servicio", TipoTramo.SERVICIO)) {
+                    try (Tramo mapper = Trazador.iniciar("Benchmark.mapper", TipoTramo.MAPPER)) {
+                    }
+                }
+            }
+            long duracion = System.nanoTime() - inicio;
+            System.out.printf("Ronda %d: %.1f ns por tramo%n", ronda, duracion / (2.0 * iteraciones));
+        }
+        Trazador.vaciar();
+    }
+}
@@ -0,0 +1,81 @@
+package com.persistencia.repositorios;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+
+/**
+ * Compara el costo de preparar una consulta por criterio armando el JPQL en
+ * cada llamada con el de reutilizar la consulta nombrada que registra
+ * RepositorioGenerico (consultaNombrada). Solo mide la creación de la
+ * consulta, no su ejecución, así que no necesita base de datos: Hibernate
+ * arranca sin leer los metadatos de JDBC. Uso:
+ *   mvn test-compile exec:java -Dexec.classpathScope=test \
+ *       -Dexec.mainClass=com.persistencia.repositorios.BenchmarkConsultasCriterio \
+ *       -Dgestionacademica.benchmark.consultas=200000
+ */
+public class BenchmarkConsultasCriterio {
+
+    private static final String[] CAMPOS = {"nuip", "primerNombre", "primerApellido", "segundoNombre", "segundoApellido"};
+
+    public static void main(String[] args) {
+        int consultas = Integer.getInteger("gestionacademica.benchmark.consultas", 200_000);
+        int rondas = Integer.getInteger("gestionacademica.benchmark.rondas", 3);
+
+        Map<String, Object> propiedades = new HashMap<>();
+        propiedades.put("hibernate.boot.allow_jdbc_metadata_access", "false");
+        propiedades.put("hibernate.dialect", "org.hibernate.dialect.PostgreSQLDialect");
+        propiedades.put("hibernate.generate_statistics", "true");
+        EntityManagerFactory fabrica = Persistence.createEntityManagerFactory("GestionAcademica", propiedades);
+        Statistics estadisticas = fabrica.unwrap(SessionFactory.class).getStatistics();
+        EntityManager em = fabrica.createEntityManager();
+        try {
+            for (String campo : CAMPOS) {
+                fabrica.addNamedQuery(nombre(campo), em.createQuery(jpql(campo), Integer.class));
+            }
+
+            // La primera ronda sirve de calentamiento (JIT y caché de planes)
+            for (int ronda = 1; ronda <= rondas; ronda++) {
+                estadisticas.clear();
+                long inicio = System.nanoTime();
+                for (int i = 0; i < consultas; i++) {
+                    String campo = CAMPOS[i % CAMPOS.length];
+                    em.createQuery(jpql(campo), Integer.class).setParameter("valor", "x");
+                }
+                long concatenado = System.nanoTime() - inicio;
+                long fallosConcatenado = estadisticas.getQueryPlanCacheMissCount();
+
+                estadisticas.clear();
+                inicio = System.nanoTime();
+                for (int i = 0; i < consultas; i++) {
+                    em.createNamedQuery(nombre(CAMPOS[i % CAMPOS.length]), Integer.class).setParameter("valor", "x");
+                }
+                long nombrada = System.nanoTime() - inicio;
+
+                System.out.printf("Ronda %d: JPQL concatenado %6.2f µs/consulta (%d fallos de caché)   " +
+                    "consulta nombrada %6.2f µs/consulta (%d fallos de caché)%n", ronda,
+                    concatenado / 1000.0 / consultas, fallosConcatenado,
+                    nombrada / 1000.0 / consultas, estadisticas.getQueryPlanCacheMissCount());
+            }
+        } finally {
+            em.close();
+            fabrica.close();
+        }
+    }
+
+    // ==================== MÉTODOS PRIVADOS ====================
+
+    private static String jpql(String campo) {
+        return "SELECT 1 FROM estudiante e WHERE e." + campo + " = :valor";
+    }
+
+    private static String nombre(String campo) {
+        return "estudiante.existePor." + campo;
+    }
+}
@@ -0,0 +1,85 @@
+package com.servicios.busqueda;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Tiempo de búsqueda de IndiceLogros ya cargado con logros sintéticos
+ * (descripciones de ocho palabras de un vocabulario escolar). No usa base
+ * de datos: el índice se llena con indexar. Uso:
+ *   mvn test-compile exec:java -Dexec.classpathScope=test \
+ *       -Dexec.mainClass=com.servicios.busqueda.BenchmarkIndiceLogros \
+ *       -Dgestionacademica.benchmark.logros=5000
+ */
+public class BenchmarkIndiceLogros {
+
+    private static final String[] PALABRAS = {
+        "reconoce", "identifica", "números", "lectura", "escritura", "matemáticas", "comprensión", "ciencias",
+        "naturales", "sociales", "participa", "activamente", "clase", "trabajo", "equipo", "resuelve",
+        "problemas", "sumas", "restas", "vocales", "colores", "figuras", "geométricas", "expresión", "oral",
+        "respeta", "normas", "convivencia", "canción", "música"
+    };
+
+    private static final String[] CATEGORIAS = {
+        "Matemáticas", "Español y Comunicación", "Ciencias Naturales", "Convivencia Ciudadana", "Educación Artística"
+    };
+
+    private static final String[] CONSULTAS = {
+        "matem", "compre lect", "ESCRITURA", "ciencias nat", "convi", "canci mus", "figur geom", "zzz"
+    };
+
+    public static void main(String[] args) {
+        int logros = Integer.getInteger("gestionacademica.benchmark.logros", 5_000);
+        int muestras = Integer.getInteger("gestionacademica.benchmark.muestras", 2_000);
+
+        IndiceLogros indice = new IndiceLogros("benchmark");
+        Random aleatorio = new Random(1);
+        for (int i = 0; i < logros; i++) {
+            StringBuilder descripcion = new StringBuilder();
+            for (int k = 0; k < 8; k++) {
+                descripcion.append(PALABRAS[aleatorio.nextInt(PALABRAS.length)]).append(' ');
+            }
+            indice.indexar(i, descripcion.toString().trim(), CATEGORIAS[i % CATEGORIAS.length], i % 6);
+        }
+
+        // Calentamiento: JIT
+        medir(indice, 200);
+
+        System.out.printf("Logros: %d, muestras por consulta: %d%n", indice.tamano(), muestras);
+        long[][] tiempos = medir(indice, muestras);
+        for (int c = 0; c < CONSULTAS.length; c++) {
+            imprimir("\"" + CONSULTAS[c] + "\"", tiempos[c]);
+        }
+    }
+
+    // ==================== MÉTODOS PRIVADOS ====================
+
+    /**
+     * Tiempo en nanosegundos de cada búsqueda de los 10 mejores, por consulta
+     */
+    private static long[][] medir(IndiceLogros indice, int muestras) {
+        long[][] tiempos = new long[CONSULTAS.length][muestras];
+        for (int i = 0; i < muestras; i++) {
+            for (int c = 0; c < CONSULTAS.length; c++) {
+                long inicio = System.nanoTime();
+                indice.buscar(CONSULTAS[c], null, 10);
+                tiempos[c][i] = System.nanoTime() - inicio;
+            }
+        }
+        return tiempos;
+    }
+
+    private static void imprimir(String nombre, long[] tiempos) {
+        long[] ordenados = tiempos.clone();
+        Arrays.sort(ordenados);
+        System.out.printf("%-16s p50 %7.3f ms   p95 %7.3f ms%n", nombre,
+            percentil(ordenados, 0.50) / 1e6, percentil(ordenados, 0.95) / 1e6);
+    }
+
+    private static long percentil(long[] ordenados, double p) {
+        if (ordenados.length == 0) {
+            return 0;
+        }
+        return ordenados[Math.min(ordenados.length - 1, (int) Math.ceil(p * ordenados.length) - 1)];
+    }
+}
@@ -0,0 +1,98 @@
+package com.servicios.busqueda;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Tiempo de la primera página (20 resultados) de IndicePersonas con
+ * estudiantes y acudientes sintéticos, mitad y mitad. Antes de cada búsqueda
+ * se vacía la caché de consultas (eliminando un id inexistente), así se mide
+ * la búsqueda completa. No usa base de datos. Uso:
+ *   mvn test-compile exec:java -Dexec.classpathScope=test \
+ *       -Dexec.mainClass=com.servicios.busqueda.BenchmarkIndicePersonas \
+ *       -Dgestionacademica.benchmark.personas=100000
+ */
+public class BenchmarkIndicePersonas {
+
+    private static final String[] NOMBRES = {
+        "María", "José", "Juan", "Ana", "Luis", "Carlos", "Sofía", "Valentina", "Andrés", "Camila", "Santiago",
+        "Isabella", "Mateo", "Lucía", "Daniel", "Gabriela", "Sebastián", "Mariana", "Nicolás", "Paula", "Ángel",
+        "Julián", "Natalia", "Felipe", "Laura"
+    };
+
+    private static final String[] APELLIDOS = {
+        "González", "Rodríguez", "Gómez", "Fernández", "López", "Díaz", "Martínez", "Pérez", "García", "Sánchez",
+        "Romero", "Sosa", "Torres", "Álvarez", "Ruiz", "Ramírez", "Flores", "Benítez", "Acosta", "Medina",
+        "Herrera", "Suárez", "Aguirre", "Giménez", "Gutiérrez", "Muñoz", "Castro", "Ortiz", "Rojas", "Vargas"
+    };
+
+    /** Nombres con errores de digitación, un NUIP y un teléfono */
+    private static final String[] CONSULTAS = {
+        "maria gonzales", "jose rodrigez", "muñoz castro", "sebastian ortis", "gutierez",
+        "1000000700", "3000000011"
+    };
+
+    public static void main(String[] args) {
+        int personas = Integer.getInteger("gestionacademica.benchmark.personas", 100_000);
+        int muestras = Integer.getInteger("gestionacademica.benchmark.muestras", 300);
+
+        IndicePersonas indice = new IndicePersonas("benchmark");
+        Random aleatorio = new Random(7);
+        long inicio = System.nanoTime();
+        for (int i = 0; i < personas; i++) {
+            String nuip = String.format("%010d", 1_000_000_000L + i * 7L);
+            String nombre = NOMBRES[aleatorio.nextInt(NOMBRES.length)];
+            String primerApellido = APELLIDOS[aleatorio.nextInt(APELLIDOS.length)];
+            String segundoApellido = APELLIDOS[aleatorio.nextInt(APELLIDOS.length)];
+            if (i % 2 == 0) {
+                String segundoNombre = aleatorio.nextBoolean() ? NOMBRES[aleatorio.nextInt(NOMBRES.length)] : null;
+                indice.indexarEstudiante(i, nombre, segundoNombre, primerApellido, segundoApellido, nuip);
+            } else {
+                indice.indexarAcudiente(i, nombre, null, primerApellido, segundoApellido, nuip,
+                    "usuario" + i + "@correo.com", String.format("3%09d", i));
+            }
+        }
+        System.out.printf("Personas: %d, indexadas en %d ms, muestras por consulta: %d%n",
+            indice.tamano(), (System.nanoTime() - inicio) / 1_000_000, muestras);
+
+        // Calentamiento: JIT
+        medir(indice, 20);
+
+        long[][] tiempos = medir(indice, muestras);
+        for (int c = 0; c < CONSULTAS.length; c++) {
+            imprimir("\"" + CONSULTAS[c] + "\"", tiempos[c]);
+        }
+    }
+
+    // ==================== MÉTODOS PRIVADOS ====================
+
+    /**
+     * Tiempo en nanosegundos de cada búsqueda sin caché, por consulta
+     */
+    private static long[][] medir(IndicePersonas indice, int muestras) {
+        long[][] tiempos = new long[CONSULTAS.length][muestras];
+        for (int i = 0; i < muestras; i++) {
+            for (int c = 0; c < CONSULTAS.length; c++) {
+                indice.eliminar(IndicePersonas.TipoPersona.ESTUDIANTE, -1);
+                long inicio = System.nanoTime();
+                indice.buscar(CONSULTAS[c], null);
+                tiempos[c][i] = System.nanoTime() - inicio;
+            }
+        }
+        return tiempos;
+    }
+
+    private static void imprimir(String nombre, long[] tiempos) {
+        long[] ordenados = tiempos.clone();
+        Arrays.sort(ordenados);
+        System.out.printf("%-18s p50 %7.3f ms   p95 %7.3f ms%n", nombre,
+            percentil(ordenados, 0.50) / 1e6, percentil(ordenados, 0.95) / 1e6);
+    }
+
+    private static long percentil(long[] ordenados, double p) {
+        if (ordenados.length == 0) {
+            return 0;
+        }
+        return ordenados[Math.min(ordenados.length - 1, (int) Math.ceil(p * ordenados.length) - 1)];
+    }
+}